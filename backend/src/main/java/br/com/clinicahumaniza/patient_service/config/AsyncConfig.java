@@ -2,22 +2,64 @@ package br.com.clinicahumaniza.patient_service.config;
 
 import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
-@EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "googleCalendarExecutor")
-    public Executor googleCalendarExecutor() {
+    // Workers da renovação automática: cada um segura uma conexão durante a transação de uma
+    // assinatura, então o tamanho acompanha o pool do Hikari deixando folga para as requisições.
+    // A fila não precisa de limite: a renovação só submete um lote por vez e espera ele terminar.
+    @Bean(name = "renovacaoExecutor")
+    public Executor renovacaoExecutor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolConexoes,
+            @Value("${app.renovacao.conexoes-reservadas:2}") int conexoesReservadas) {
+        int workers = Math.max(1, poolConexoes - conexoesReservadas);
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("gcal-sync-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("renovacao-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Envio ao Storage dos prontuários recebidos em modo assíncrono. Poucas threads de
+    // propósito: cada envio é uma chamada HTTP longa, e o worker só pega da fila quantos
+    // cabem aqui — o restante espera no banco, não na memória.
+    @Bean(name = "prontuarioEnvioExecutor")
+    public Executor prontuarioEnvioExecutor(@Value("${app.prontuarios.ingestao.envios-simultaneos:2}") int envios) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, envios));
+        executor.setMaxPoolSize(Math.max(1, envios));
+        executor.setThreadNamePrefix("prontuario-envio-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Miniaturas dos prontuários: renderizar PDF/imagem é CPU e memória (o arquivo inteiro em
+    // buffer durante a renderização), então poucas de cada vez. Mesma regra do envio: o worker
+    // só pega quantas cabem aqui.
+    @Bean(name = "previewExecutor")
+    public Executor previewExecutor(@Value("${app.prontuarios.preview.simultaneos:2}") int simultaneos) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, simultaneos));
+        executor.setMaxPoolSize(Math.max(1, simultaneos));
+        executor.setThreadNamePrefix("prontuario-preview-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Extração de texto para a busca: mesmo perfil das miniaturas (PDF inteiro em memória
+    // enquanto o texto sai), mesma regra de só pegar quantos cabem aqui.
+    @Bean(name = "indexacaoExecutor")
+    public Executor indexacaoExecutor(@Value("${app.prontuarios.busca.simultaneos:2}") int simultaneos) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, simultaneos));
+        executor.setMaxPoolSize(Math.max(1, simultaneos));
+        executor.setThreadNamePrefix("prontuario-indexacao-");
         executor.initialize();
         return executor;
     }
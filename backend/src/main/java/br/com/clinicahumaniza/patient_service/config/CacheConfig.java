@@ -0,0 +1,29 @@
+package br.com.clinicahumaniza.patient_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.clinicahumaniza.patient_service.service.ReferenciaCache;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Caches de dados de referência (serviços, profissionais, horários). A invalidação
+    // é explícita nos serviços que os alteram; o expireAfterWrite é só rede de segurança para
+    // alterações feitas por fora da aplicação (SQL editor, outra instância).
+    // TransactionAware: put/evict só valem após o commit — uma invalidação dentro de uma
+    // transação que faz rollback não apaga nada, e um valor lido dentro dela não vaza antes.
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.referencia.spec:maximumSize=5000,expireAfterWrite=10m,recordStats}") String spec) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(ReferenciaCache.CACHES.toArray(String[]::new));
+        caffeine.setCacheSpecification(spec);
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.clinicahumaniza.patient_service.config;
+
+import java.util.Locale;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Em dev ({@code app.sql.cabecalho=true}), devolve o consumo de banco da requisição nos
+ * cabeçalhos {@code X-SQL-Comandos} e {@code X-SQL-Tempo-Ms} — visível na aba de rede do
+ * navegador. Escrito logo antes do corpo: com open-in-view desligado, a serialização não vai
+ * mais ao banco.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "app.sql.cabecalho", havingValue = "true")
+public class ConsumoSqlCabecalho implements ResponseBodyAdvice<Object> {
+
+    static final String COMANDOS = "X-SQL-Comandos";
+    static final String TEMPO = "X-SQL-Tempo-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response) {
+        MedidorSql.Medicao medicao = MedidorSql.atual();
+        if (medicao != null) {
+            response.getHeaders().set(COMANDOS, String.valueOf(medicao.comandos()));
+            response.getHeaders().set(TEMPO, String.format(Locale.ROOT, "%.1f", medicao.nanos() / 1_000_000.0));
+        }
+        return body;
+    }
+}
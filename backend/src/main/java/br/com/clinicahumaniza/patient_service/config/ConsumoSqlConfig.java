@@ -0,0 +1,29 @@
+package br.com.clinicahumaniza.patient_service.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import br.com.clinicahumaniza.patient_service.service.ConsumoSqlMetricas;
+
+/**
+ * Medição de SQL por requisição e por job ({@link MedidorSql}). O filtro vem antes do Spring
+ * Security, para que a consulta do usuário na autenticação também conte.
+ */
+@Configuration
+public class ConsumoSqlConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConsumoSqlFilter> consumoSqlFilter(ConsumoSqlMetricas metricas) {
+        FilterRegistrationBean<ConsumoSqlFilter> registro =
+                new FilterRegistrationBean<>(new ConsumoSqlFilter(metricas));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registro;
+    }
+
+    @Bean
+    public ConsumoSqlJobs consumoSqlJobs(ConsumoSqlMetricas metricas) {
+        return new ConsumoSqlJobs(metricas);
+    }
+}
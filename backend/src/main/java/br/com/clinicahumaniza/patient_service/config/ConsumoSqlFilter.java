@@ -0,0 +1,45 @@
+package br.com.clinicahumaniza.patient_service.config;
+
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import br.com.clinicahumaniza.patient_service.service.ConsumoSqlMetricas;
+
+/**
+ * Mede o SQL de cada requisição, da autenticação à resposta, e registra por rota (o padrão
+ * do mapeamento, não a URL: {@code /api/v1/pagamentos/{id}} é uma linha só). Requisições sem
+ * rota (404, estáticos) só entram se foram ao banco.
+ *
+ * No streaming (export CSV) conta a parte síncrona; o que roda depois, na thread do async,
+ * fica de fora.
+ */
+public class ConsumoSqlFilter extends OncePerRequestFilter {
+
+    private final ConsumoSqlMetricas metricas;
+
+    public ConsumoSqlFilter(ConsumoSqlMetricas metricas) {
+        this.metricas = metricas;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        MedidorSql.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MedidorSql.Medicao medicao = MedidorSql.encerrar();
+            Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (rota != null || medicao.comandos() > 0) {
+                metricas.registrar(request.getMethod() + " " + (rota != null ? rota : "(sem rota)"), medicao);
+            }
+        }
+    }
+}
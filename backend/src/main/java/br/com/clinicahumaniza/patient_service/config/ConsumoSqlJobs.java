@@ -0,0 +1,34 @@
+package br.com.clinicahumaniza.patient_service.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import br.com.clinicahumaniza.patient_service.service.ConsumoSqlMetricas;
+
+/**
+ * Mede o SQL de cada execução de método {@code @Scheduled}. Só a thread do agendador: o que o
+ * job despacha para um executor (a renovação em lote, por exemplo) não entra na conta.
+ */
+@Aspect
+public class ConsumoSqlJobs {
+
+    private final ConsumoSqlMetricas metricas;
+
+    public ConsumoSqlJobs(ConsumoSqlMetricas metricas) {
+        this.metricas = metricas;
+    }
+
+    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public Object medir(ProceedingJoinPoint job) throws Throwable {
+        MedidorSql.iniciar();
+        try {
+            return job.proceed();
+        } finally {
+            metricas.registrar(
+                    "job " + job.getSignature().getDeclaringType().getSimpleName() + "."
+                            + job.getSignature().getName(),
+                    MedidorSql.encerrar());
+        }
+    }
+}
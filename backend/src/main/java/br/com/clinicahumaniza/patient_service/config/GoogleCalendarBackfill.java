@@ -3,7 +3,6 @@ package br.com.clinicahumaniza.patient_service.config;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,17 +14,20 @@ import org.springframework.stereotype.Component;
 import br.com.clinicahumaniza.patient_service.model.Agendamento;
 import br.com.clinicahumaniza.patient_service.model.StatusAgendamento;
 import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
-import br.com.clinicahumaniza.patient_service.service.GoogleCalendarService;
+import br.com.clinicahumaniza.patient_service.service.CalendarioOutboxService;
 import lombok.RequiredArgsConstructor;
 
 /**
  * Ressincronização do Google Calendar na subida. Acionada por
  * google.calendar.backfill-on-startup=true (env GOOGLE_CALENDAR_BACKFILL). Cobre do
- * início do mês corrente em diante (semana atual + futuro) e faz, em série e pausado
- * (limite do Google):
+ * início do mês corrente em diante (semana atual + futuro) e enfileira na outbox:
  *  - AGENDADO/CONFIRMADO/REALIZADO: cria os que faltam e repinta os que já têm;
  *  - CANCELADO que ainda tem evento (órfão de delete que falhou): apaga do Google.
  *
+ * As chamadas ao Google ficam com o {@link br.com.clinicahumaniza.patient_service.service.CalendarioOutboxDispatcher},
+ * que já respeita o limite de uso e refaz as falhas — o dia a dia não depende mais deste
+ * backfill; ele serve para dados anteriores à outbox ou para repintar tudo.
+ *
  * Idempotente — pode rodar mais de uma vez. Recomenda-se desligar a flag após o uso.
  */
 @Component
@@ -35,15 +37,12 @@ public class GoogleCalendarBackfill implements ApplicationRunner {
 
     private static final Logger log = LoggerFactory.getLogger(GoogleCalendarBackfill.class);
 
-    // Pausa entre criações no backfill (~2/s) para respeitar o limite de uso do Google.
-    private static final long INTERVALO_MS = 500;
-
     private final AgendamentoRepository agendamentoRepository;
-    private final Optional<GoogleCalendarService> googleCalendarService;
+    private final CalendarioOutboxService calendarioOutbox;
 
     @Override
     public void run(ApplicationArguments args) {
-        if (googleCalendarService.isEmpty()) {
+        if (!calendarioOutbox.isHabilitado()) {
             log.warn("Backfill do Google Calendar solicitado, mas a integração está desligada. Ignorando.");
             return;
         }
@@ -56,49 +55,13 @@ public class GoogleCalendarBackfill implements ApplicationRunner {
                 agendamentoRepository.findByStatusAndDataHoraGreaterThanEqualAndGoogleCalendarEventIdIsNotNull(
                         StatusAgendamento.CANCELADO, desde);
 
+        // O dispatcher reconcilia pelo estado atual: cria, atualiza ou apaga conforme o caso.
+        calendarioOutbox.registrarTodos(aSincronizar);
+        calendarioOutbox.registrarTodos(orfaos);
         log.info(
-                "Sincronização do Google Calendar: {} a sincronizar, {} órfão(s) a remover (desde {}).",
+                "Sincronização do Google Calendar: {} a sincronizar, {} órfão(s) a remover enfileirados (desde {}).",
                 aSincronizar.size(),
                 orfaos.size(),
                 desde.toLocalDate());
-        if (aSincronizar.isEmpty() && orfaos.isEmpty()) return;
-
-        GoogleCalendarService service = googleCalendarService.get();
-        // Roda em série, pausado (limite do Google), em thread de fundo para não travar a subida.
-        Thread worker = new Thread(
-                () -> {
-                    // Cria os que faltam e repinta/atualiza os que já têm.
-                    for (Agendamento agendamento : aSincronizar) {
-                        if (agendamento.getGoogleCalendarEventId() == null) {
-                            service.createEventSync(agendamento);
-                        } else {
-                            service.updateEventSync(agendamento);
-                        }
-                        if (!pausar()) return;
-                    }
-                    // Órfãos (cancelados com evento): apaga do Google.
-                    for (Agendamento agendamento : orfaos) {
-                        service.deleteEventSync(agendamento);
-                        if (!pausar()) return;
-                    }
-                    log.info(
-                            "Sincronização do Google Calendar concluída ({} sincronizado[s], {} órfão[s]).",
-                            aSincronizar.size(),
-                            orfaos.size());
-                },
-                "gcal-backfill");
-        worker.setDaemon(true);
-        worker.start();
-    }
-
-    /** Pausa entre chamadas; retorna false se a thread foi interrompida. */
-    private boolean pausar() {
-        try {
-            Thread.sleep(INTERVALO_MS);
-            return true;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return false;
-        }
     }
 }
@@ -0,0 +1,107 @@
+package br.com.clinicahumaniza.patient_service.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Conta os comandos SQL e o tempo de execução deles na thread atual, entre
+ * {@link #iniciar()} e {@link #encerrar()} — quem delimita é o {@link ConsumoSqlFilter} (por
+ * requisição) e o {@link ConsumoSqlJobs} (por job agendado).
+ *
+ * O Hibernate cria uma instância por sessão ({@code hibernate.session.events.auto}); fora de
+ * uma medição os eventos não custam nada além da leitura do ThreadLocal. Medições aninhadas
+ * (uma requisição do MockMvc dentro de um teste medido) somam na de fora ao encerrar.
+ */
+public class MedidorSql implements SessionEventListener {
+
+    private static final ThreadLocal<Medicao> ATUAL = new ThreadLocal<>();
+
+    private long inicioExecucao;
+
+    /** Abre uma medição na thread atual. Sempre em par com {@link #encerrar()}, num finally. */
+    public static Medicao iniciar() {
+        Medicao medicao = new Medicao(ATUAL.get());
+        ATUAL.set(medicao);
+        return medicao;
+    }
+
+    /** Fecha a medição aberta por último e a devolve; a de fora, se houver, passa a valer de novo. */
+    public static Medicao encerrar() {
+        Medicao medicao = ATUAL.get();
+        if (medicao == null) throw new IllegalStateException("Nenhuma medição de SQL aberta nesta thread");
+        if (medicao.externa != null) {
+            medicao.externa.comandos += medicao.comandos;
+            medicao.externa.nanos += medicao.nanos;
+            ATUAL.set(medicao.externa);
+        } else {
+            ATUAL.remove();
+        }
+        return medicao;
+    }
+
+    /** Medição em andamento na thread, ou null. */
+    public static Medicao atual() {
+        return ATUAL.get();
+    }
+
+    /**
+     * Conta um comando executado fora do Hibernate (JdbcTemplate), que não passa pelos eventos
+     * de sessão — ex.: o batch do {@code AgendamentoLoteRepository}.
+     */
+    public static void registrarJdbc(long nanos) {
+        Medicao medicao = ATUAL.get();
+        if (medicao == null) return;
+        medicao.comandos++;
+        medicao.nanos += nanos;
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        Medicao medicao = ATUAL.get();
+        if (medicao != null) medicao.comandos++;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicioExecucao = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        somarTempo();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicioExecucao = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        somarTempo();
+    }
+
+    private void somarTempo() {
+        Medicao medicao = ATUAL.get();
+        if (medicao != null) medicao.nanos += System.nanoTime() - inicioExecucao;
+    }
+
+    /** Comandos preparados e tempo de execução no banco desde o {@link #iniciar()}. */
+    public static final class Medicao {
+
+        private final Medicao externa;
+        private int comandos;
+        private long nanos;
+
+        private Medicao(Medicao externa) {
+            this.externa = externa;
+        }
+
+        public int comandos() {
+            return comandos;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+    }
+}
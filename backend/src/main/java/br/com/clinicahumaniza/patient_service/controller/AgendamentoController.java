@@ -20,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.clinicahumaniza.patient_service.dto.*;
 import br.com.clinicahumaniza.patient_service.mapper.AgendamentoMapper;
@@ -27,6 +28,8 @@ import br.com.clinicahumaniza.patient_service.model.Agendamento;
 import br.com.clinicahumaniza.patient_service.model.StatusAgendamento;
 import br.com.clinicahumaniza.patient_service.service.AgendamentoRecorrenteService;
 import br.com.clinicahumaniza.patient_service.service.AgendamentoService;
+import br.com.clinicahumaniza.patient_service.service.CalendarioOutboxService;
+import br.com.clinicahumaniza.patient_service.spec.PaginacaoCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -40,15 +43,18 @@ public class AgendamentoController {
     private final AgendamentoService agendamentoService;
     private final AgendamentoRecorrenteService recorrenteService;
     private final AgendamentoMapper agendamentoMapper;
+    private final CalendarioOutboxService calendarioOutboxService;
 
     @Autowired
     public AgendamentoController(
             AgendamentoService agendamentoService,
             AgendamentoRecorrenteService recorrenteService,
-            AgendamentoMapper agendamentoMapper) {
+            AgendamentoMapper agendamentoMapper,
+            CalendarioOutboxService calendarioOutboxService) {
         this.agendamentoService = agendamentoService;
         this.recorrenteService = recorrenteService;
         this.agendamentoMapper = agendamentoMapper;
+        this.calendarioOutboxService = calendarioOutboxService;
     }
 
     @PostMapping
@@ -86,14 +92,50 @@ public class AgendamentoController {
                 .map(agendamentoMapper::toResponseDTO));
     }
 
+    @GetMapping("/cursor")
+    @Operation(
+            summary = "Listar agendamentos por cursor",
+            description = "Mesmos filtros da listagem paginada, ordenada por data e id. Cada resposta traz o"
+                    + " proximoCursor da página seguinte (null na última); o total só é contado com comTotal=true")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de agendamentos retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<PaginaCursorDTO<AgendamentoResponseDTO>> getAgendamentosPorCursor(
+            @RequestParam(required = false) StatusAgendamento status,
+            @RequestParam(required = false) UUID pacienteId,
+            @RequestParam(required = false) String pacienteNome,
+            @RequestParam(required = false) UUID profissionalId,
+            @RequestParam(required = false) UUID assinaturaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direcao,
+            @RequestParam(defaultValue = "false") boolean comTotal) {
+        LocalDateTime dtInicio = dataInicio != null ? dataInicio.atStartOfDay() : null;
+        LocalDateTime dtFim = dataFim != null ? dataFim.atTime(LocalTime.MAX) : null;
+        return ResponseEntity.ok(agendamentoService
+                .getAgendamentosPorCursor(
+                        status,
+                        pacienteId,
+                        pacienteNome,
+                        profissionalId,
+                        assinaturaId,
+                        dtInicio,
+                        dtFim,
+                        PaginacaoCursor.de(cursor, size, direcao, comTotal))
+                .map(agendamentoMapper::toResponseDTO));
+    }
+
     @GetMapping("/export/csv")
     @Operation(summary = "Exportar agendamentos em CSV")
     @ApiResponse(responseCode = "200", description = "CSV de agendamentos gerado com sucesso")
-    public ResponseEntity<byte[]> exportCsv(
+    public ResponseEntity<StreamingResponseBody> exportCsv(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
             @RequestParam(required = false) StatusAgendamento status) {
-        byte[] csv = agendamentoService.exportCsv(inicio, fim, status);
+        StreamingResponseBody csv = agendamentoService.exportCsv(inicio, fim, status);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=agendamentos.csv")
                 .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
@@ -255,4 +297,13 @@ public class AgendamentoController {
         List<AgendamentoResponseDTO> cancelados = recorrenteService.cancelarRecorrencia(id, cancelarFuturos);
         return ResponseEntity.ok(cancelados);
     }
+
+    @GetMapping("/google-calendar/status")
+    @Operation(
+            summary = "Status da sincronização com o Google Calendar",
+            description = "Pendências na fila de sincronização, falhas esgotadas e atraso da mais antiga")
+    @ApiResponse(responseCode = "200", description = "Status retornado")
+    public ResponseEntity<CalendarioSyncStatusDTO> getGoogleCalendarStatus() {
+        return ResponseEntity.ok(calendarioOutboxService.getStatus());
+    }
 }
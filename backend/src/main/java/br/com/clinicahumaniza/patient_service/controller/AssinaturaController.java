@@ -20,9 +20,11 @@ import br.com.clinicahumaniza.patient_service.dto.AssinaturaRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.AssinaturaResponseDTO;
 import br.com.clinicahumaniza.patient_service.dto.AssinaturaStatusDTO;
 import br.com.clinicahumaniza.patient_service.dto.AssinaturaUpdateDTO;
+import br.com.clinicahumaniza.patient_service.dto.PaginaCursorDTO;
 import br.com.clinicahumaniza.patient_service.dto.ReativarAssinaturaRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.RegenerarHorariosRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.RegenerarHorariosResponseDTO;
+import br.com.clinicahumaniza.patient_service.dto.RenovacaoProgressoDTO;
 import br.com.clinicahumaniza.patient_service.dto.SuspenderAssinaturaRequestDTO;
 import br.com.clinicahumaniza.patient_service.mapper.AssinaturaMapper;
 import br.com.clinicahumaniza.patient_service.model.Assinatura;
@@ -30,6 +32,7 @@ import br.com.clinicahumaniza.patient_service.model.StatusAssinatura;
 import br.com.clinicahumaniza.patient_service.service.AgendamentoRecorrenteService;
 import br.com.clinicahumaniza.patient_service.service.AssinaturaRenovacaoService;
 import br.com.clinicahumaniza.patient_service.service.AssinaturaService;
+import br.com.clinicahumaniza.patient_service.spec.PaginacaoCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -84,6 +87,30 @@ public class AssinaturaController {
                 .map(assinaturaMapper::toResponseDTO));
     }
 
+    @GetMapping("/cursor")
+    @Operation(
+            summary = "Listar assinaturas por cursor",
+            description = "Mesmos filtros da listagem paginada, ordenada por data de criação e id. Cada resposta"
+                    + " traz o proximoCursor da página seguinte (null na última); o total só é contado com"
+                    + " comTotal=true")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de assinaturas retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<PaginaCursorDTO<AssinaturaResponseDTO>> getAssinaturasPorCursor(
+            @RequestParam(required = false) StatusAssinatura status,
+            @RequestParam(required = false) UUID pacienteId,
+            @RequestParam(required = false) String pacienteNome,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direcao,
+            @RequestParam(defaultValue = "false") boolean comTotal) {
+        return ResponseEntity.ok(assinaturaService
+                .getAssinaturasPorCursor(
+                        status, pacienteId, pacienteNome, PaginacaoCursor.de(cursor, size, direcao, comTotal))
+                .map(assinaturaMapper::toResponseDTO));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar assinatura por ID", description = "Retorna uma assinatura pelo seu ID")
     @ApiResponses({
@@ -163,6 +190,21 @@ public class AssinaturaController {
         return ResponseEntity.ok(Map.of("renovadas", renovadas));
     }
 
+    @GetMapping("/renovacao/progresso")
+    @Operation(
+            summary = "Progresso da renovação automática",
+            description = "Contadores e vazão da execução atual (ou da última) da renovação automática")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Progresso retornado"),
+        @ApiResponse(responseCode = "204", description = "Nenhuma renovação executada desde o início da aplicação")
+    })
+    public ResponseEntity<RenovacaoProgressoDTO> getProgressoRenovacao() {
+        RenovacaoProgressoDTO progresso = renovacaoService.getProgresso();
+        return progresso != null
+                ? ResponseEntity.ok(progresso)
+                : ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/{id}/renovar")
     @Operation(
             summary = "Renovar assinatura individual",
@@ -0,0 +1,54 @@
+package br.com.clinicahumaniza.patient_service.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import br.com.clinicahumaniza.patient_service.dto.CacheEstatisticaDTO;
+import br.com.clinicahumaniza.patient_service.service.DashboardContadores;
+import br.com.clinicahumaniza.patient_service.service.ReferenciaCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+@Tag(name = "Cache", description = "Cache de dados de referência (serviços, profissionais, horários, feriados)")
+public class CacheController {
+
+    private final ReferenciaCache referenciaCache;
+    private final DashboardContadores dashboardContadores;
+
+    @Autowired
+    public CacheController(ReferenciaCache referenciaCache, DashboardContadores dashboardContadores) {
+        this.referenciaCache = referenciaCache;
+        this.dashboardContadores = dashboardContadores;
+    }
+
+    @GetMapping("/estatisticas")
+    @Operation(
+            summary = "Estatísticas do cache",
+            description = "Acertos, falhas, taxa de acerto e tamanho de cada cache desde a subida")
+    @ApiResponse(responseCode = "200", description = "Estatísticas retornadas")
+    public ResponseEntity<List<CacheEstatisticaDTO>> getEstatisticas() {
+        return ResponseEntity.ok(referenciaCache.estatisticas());
+    }
+
+    @DeleteMapping
+    @Operation(
+            summary = "Invalidar cache",
+            description = "Esvazia os caches de referência e os contadores do dashboard — use após alterar"
+                    + " esses dados direto no banco")
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Caches esvaziados"),
+        @ApiResponse(responseCode = "403", description = "Apenas administradores")
+    })
+    public ResponseEntity<Void> invalidar() {
+        referenciaCache.invalidarTudo();
+        dashboardContadores.invalidar();
+        return ResponseEntity.noContent().build();
+    }
+}
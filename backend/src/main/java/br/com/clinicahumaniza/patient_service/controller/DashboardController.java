@@ -0,0 +1,36 @@
+package br.com.clinicahumaniza.patient_service.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.clinicahumaniza.patient_service.dto.DashboardResumoDTO;
+import br.com.clinicahumaniza.patient_service.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/dashboard")
+@Tag(name = "Dashboard", description = "Indicadores da tela inicial")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @Autowired
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping("/resumo")
+    @Operation(
+            summary = "Resumo do dashboard",
+            description = "Pacientes ativos, agendamentos de hoje, pagamentos em aberto, assinaturas ativas e"
+                    + " receita do mês corrente numa única leitura")
+    @ApiResponse(responseCode = "200", description = "Resumo retornado com sucesso")
+    public ResponseEntity<DashboardResumoDTO> getResumo() {
+        return ResponseEntity.ok(dashboardService.getResumo());
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.clinicahumaniza.patient_service.controller;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.clinicahumaniza.patient_service.service.DocumentStorageLocal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Destino das URLs assinadas do armazenamento local — o papel que o Supabase faz para as
+ * dele. Público: quem autoriza é a assinatura HMAC com prazo, não o cookie, para o link
+ * abrir numa nova aba como os do Supabase.
+ */
+@RestController
+@RequestMapping("/api/v1/documentos")
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local")
+@Tag(name = "Documentos (armazenamento local)", description = "Download por URL assinada")
+@RequiredArgsConstructor
+public class DocumentoLocalController {
+
+    private final DocumentStorageLocal storage;
+
+    @GetMapping
+    @Operation(summary = "Baixar documento por URL assinada")
+    public ResponseEntity<InputStreamResource> baixar(
+            @RequestParam String path, @RequestParam long expira, @RequestParam String assinatura) throws IOException {
+        if (!storage.validar(path, expira, assinatura)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Link inválido ou expirado");
+        }
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .contentType(MediaType.parseMediaType(storage.contentType(path)))
+                    .body(new InputStreamResource(storage.abrir(path)));
+        } catch (NoSuchFileException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Documento não encontrado");
+        }
+    }
+}
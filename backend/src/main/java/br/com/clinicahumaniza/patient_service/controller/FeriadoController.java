@@ -1,5 +1,7 @@
 package br.com.clinicahumaniza.patient_service.controller;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import jakarta.validation.Valid;
@@ -9,6 +11,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -56,6 +59,20 @@ public class FeriadoController {
         return ResponseEntity.ok(feriadoService.getAllFeriados(pageable).map(feriadoMapper::toResponseDTO));
     }
 
+    @GetMapping("/periodo")
+    @Operation(
+            summary = "Feriados do período",
+            description = "Retorna as datas de feriado (fixos e recorrentes) entre inicio e fim, inclusive")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Datas de feriado retornadas com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Período maior que 5 anos")
+    })
+    public ResponseEntity<List<LocalDate>> getFeriadosEntre(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        return ResponseEntity.ok(feriadoService.getFeriadosEntre(inicio, fim));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar feriado por ID", description = "Retorna um feriado pelo seu ID")
     @ApiResponses({
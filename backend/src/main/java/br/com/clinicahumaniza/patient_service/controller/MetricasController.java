@@ -0,0 +1,51 @@
+package br.com.clinicahumaniza.patient_service.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import br.com.clinicahumaniza.patient_service.dto.ConsumoSqlEstatisticaDTO;
+import br.com.clinicahumaniza.patient_service.service.ConsumoSqlMetricas;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/metricas")
+@Tag(name = "Métricas", description = "Consumo de banco por rota e por job agendado (somente administradores)")
+public class MetricasController {
+
+    private final ConsumoSqlMetricas consumoSqlMetricas;
+
+    @Autowired
+    public MetricasController(ConsumoSqlMetricas consumoSqlMetricas) {
+        this.consumoSqlMetricas = consumoSqlMetricas;
+    }
+
+    @GetMapping("/sql")
+    @Operation(
+            summary = "Consumo de SQL",
+            description = "Execuções, comandos SQL (total, média e máximo) e tempo de banco de cada rota e job"
+                    + " desde a subida, do maior consumo total para o menor")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Estatísticas retornadas"),
+        @ApiResponse(responseCode = "403", description = "Apenas administradores")
+    })
+    public ResponseEntity<List<ConsumoSqlEstatisticaDTO>> getConsumoSql() {
+        return ResponseEntity.ok(consumoSqlMetricas.estatisticas());
+    }
+
+    @DeleteMapping("/sql")
+    @Operation(summary = "Zerar consumo de SQL", description = "Recomeça a contagem — útil antes de medir uma mudança")
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Contagem zerada"),
+        @ApiResponse(responseCode = "403", description = "Apenas administradores")
+    })
+    public ResponseEntity<Void> limparConsumoSql() {
+        consumoSqlMetricas.limpar();
+        return ResponseEntity.noContent().build();
+    }
+}
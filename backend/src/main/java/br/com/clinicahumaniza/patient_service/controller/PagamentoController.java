@@ -18,6 +18,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.clinicahumaniza.patient_service.dto.*;
 import br.com.clinicahumaniza.patient_service.mapper.PagamentoMapper;
@@ -25,6 +26,7 @@ import br.com.clinicahumaniza.patient_service.model.FormaPagamento;
 import br.com.clinicahumaniza.patient_service.model.Pagamento;
 import br.com.clinicahumaniza.patient_service.model.StatusPagamento;
 import br.com.clinicahumaniza.patient_service.service.PagamentoService;
+import br.com.clinicahumaniza.patient_service.spec.PaginacaoCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -90,6 +92,45 @@ public class PagamentoController {
                 .map(pagamentoMapper::toResponseDTO));
     }
 
+    @GetMapping("/cursor")
+    @Operation(
+            summary = "Listar pagamentos por cursor",
+            description = "Mesmos filtros da listagem paginada, ordenada por data de criação e id. Cada resposta"
+                    + " traz o proximoCursor da página seguinte (null na última); o total só é contado com"
+                    + " comTotal=true")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de pagamentos retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<PaginaCursorDTO<PagamentoResponseDTO>> getPagamentosPorCursor(
+            @RequestParam(required = false) StatusPagamento status,
+            @RequestParam(required = false) List<StatusPagamento> statusIn,
+            @RequestParam(required = false) FormaPagamento formaPagamento,
+            @RequestParam(required = false) UUID pacienteId,
+            @RequestParam(required = false) String pacienteNome,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate pagamentoInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate pagamentoFim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direcao,
+            @RequestParam(defaultValue = "false") boolean comTotal) {
+        return ResponseEntity.ok(pagamentoService
+                .getPagamentosPorCursor(
+                        status,
+                        statusIn,
+                        formaPagamento,
+                        pacienteId,
+                        pacienteNome,
+                        inicio,
+                        fim,
+                        pagamentoInicio,
+                        pagamentoFim,
+                        PaginacaoCursor.de(cursor, size, direcao, comTotal))
+                .map(pagamentoMapper::toResponseDTO));
+    }
+
     @GetMapping("/receita")
     @Operation(
             summary = "Receita do período",
@@ -106,11 +147,11 @@ public class PagamentoController {
     @GetMapping("/export/csv")
     @Operation(summary = "Exportar pagamentos em CSV")
     @ApiResponse(responseCode = "200", description = "CSV de pagamentos gerado com sucesso")
-    public ResponseEntity<byte[]> exportCsv(
+    public ResponseEntity<StreamingResponseBody> exportCsv(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
             @RequestParam(required = false) StatusPagamento status) {
-        byte[] csv = pagamentoService.exportCsv(inicio, fim, status);
+        StreamingResponseBody csv = pagamentoService.exportCsv(inicio, fim, status);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=pagamentos.csv")
                 .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
@@ -16,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import br.com.clinicahumaniza.patient_service.dto.AniversarianteDTO;
+import br.com.clinicahumaniza.patient_service.dto.PatientAutocompleteDTO;
 import br.com.clinicahumaniza.patient_service.dto.PatientExportDTO;
 import br.com.clinicahumaniza.patient_service.dto.PatientRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.PatientResponseDTO;
@@ -67,6 +68,17 @@ public class PatientController {
                 patientService.getAllPatients(nome, email, cpf, pageable).map(patientMapper::toResponseDTO));
     }
 
+    @GetMapping("/autocomplete")
+    @Operation(
+            summary = "Autocomplete de pacientes",
+            description = "Sugestões enquanto se digita: nome curto, final do telefone e CPF dos pacientes ativos"
+                    + " cujo nome, CPF ou telefone começa com cada palavra do termo")
+    @ApiResponse(responseCode = "200", description = "Sugestões retornadas com sucesso")
+    public ResponseEntity<List<PatientAutocompleteDTO>> autocomplete(
+            @RequestParam String q, @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(patientService.autocomplete(q, limite));
+    }
+
     @GetMapping("/aniversariantes")
     @Operation(
             summary = "Aniversariantes do mês",
@@ -1,17 +1,25 @@
 package br.com.clinicahumaniza.patient_service.controller;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import br.com.clinicahumaniza.patient_service.dto.BuscaIndiceEstatisticaDTO;
+import br.com.clinicahumaniza.patient_service.dto.ProntuarioBuscaResultadoDTO;
 import br.com.clinicahumaniza.patient_service.dto.ProntuarioResponseDTO;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
 import br.com.clinicahumaniza.patient_service.model.TipoDocumento;
 import br.com.clinicahumaniza.patient_service.service.ProntuarioService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,14 +30,17 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api/v1/prontuarios")
 @Tag(
         name = "Prontuários",
-        description = "Upload e gestão de documentos (prontuários, termos, notas fiscais) via Supabase Storage")
+        description = "Upload e gestão de documentos (prontuários, termos, notas fiscais) no Storage configurado")
 @RequiredArgsConstructor
 public class ProntuarioController {
 
     private final ProntuarioService prontuarioService;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    @Operation(summary = "Upload de documento (prontuário, termo ou nota fiscal)")
+    @Operation(
+            summary = "Upload de documento (prontuário, termo ou nota fiscal)",
+            description = "Com upload assíncrono ligado responde 202 e o documento fica PENDENTE até o envio"
+                    + " ao Storage terminar; caso contrário, 200 com o documento já disponível")
     public ResponseEntity<ProntuarioResponseDTO> upload(
             @RequestParam UUID pacienteId,
             @RequestParam(required = false) TipoDocumento tipo,
@@ -37,7 +48,10 @@ public class ProntuarioController {
             @RequestParam(required = false) String descricao,
             @RequestParam("file") MultipartFile file)
             throws IOException {
-        return ResponseEntity.ok(prontuarioService.upload(pacienteId, tipo, titulo, descricao, file));
+        ProntuarioResponseDTO dto = prontuarioService.upload(pacienteId, tipo, titulo, descricao, file);
+        return dto.getStatus() == StatusProntuario.PENDENTE
+                ? ResponseEntity.accepted().body(dto)
+                : ResponseEntity.ok(dto);
     }
 
     @GetMapping("/paciente/{pacienteId}")
@@ -49,12 +63,60 @@ public class ProntuarioController {
         return ResponseEntity.ok(prontuarioService.getByPaciente(pacienteId, tipo, pageable));
     }
 
+    @GetMapping("/busca")
+    @Operation(
+            summary = "Busca textual nos documentos",
+            description = "Procura no título, na descrição e no texto dos PDFs/DOCX, do mais relevante ao menos."
+                    + " Sem pacienteId, busca na clínica toda. Aceita \"frase exata\", prefixo* e -excluir")
+    public ResponseEntity<List<ProntuarioBuscaResultadoDTO>> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) UUID pacienteId,
+            @RequestParam(required = false) TipoDocumento tipo,
+            @RequestParam(defaultValue = "20") int limite)
+            throws IOException {
+        return ResponseEntity.ok(prontuarioService.buscar(q, pacienteId, tipo, limite));
+    }
+
+    @GetMapping("/busca/estatisticas")
+    @Operation(summary = "Situação do índice de busca: documentos, tamanho em disco e fila de indexação")
+    public ResponseEntity<BuscaIndiceEstatisticaDTO> getEstatisticasBusca() throws IOException {
+        return ResponseEntity.ok(prontuarioService.estatisticasBusca());
+    }
+
+    @PostMapping("/busca/reconstruir")
+    @Operation(
+            summary = "Reconstruir o índice de busca",
+            description = "Esvazia o índice e reindexa todos os documentos em segundo plano (202); acompanhe"
+                    + " pelo campo pendentes das estatísticas. Apenas administradores")
+    public ResponseEntity<Void> reconstruirBusca() throws IOException {
+        prontuarioService.reconstruirBusca();
+        return ResponseEntity.accepted().build();
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obter documento por ID (com URL assinada)")
     public ResponseEntity<ProntuarioResponseDTO> getById(@PathVariable UUID id) {
         return ResponseEntity.ok(prontuarioService.getById(id));
     }
 
+    @GetMapping("/{id}/arquivo")
+    @Operation(
+            summary = "Baixar o arquivo do documento pelo backend",
+            description = "Servido do cache em disco quando já foi aberto antes; 409 enquanto o envio está pendente")
+    public ResponseEntity<InputStreamResource> getArquivo(@PathVariable UUID id) throws IOException {
+        ProntuarioService.ArquivoProntuario arquivo = prontuarioService.abrirArquivo(id);
+        return ResponseEntity.ok()
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.inline()
+                                .filename(arquivo.nomeArquivo(), StandardCharsets.UTF_8)
+                                .build()
+                                .toString())
+                .contentType(MediaType.parseMediaType(
+                        arquivo.contentType() != null ? arquivo.contentType() : "application/octet-stream"))
+                .body(new InputStreamResource(arquivo.conteudo()));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Excluir documento")
     public ResponseEntity<Void> delete(@PathVariable UUID id) {
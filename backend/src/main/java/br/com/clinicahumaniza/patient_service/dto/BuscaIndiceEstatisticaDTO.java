@@ -0,0 +1,20 @@
+package br.com.clinicahumaniza.patient_service.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Situação do índice de busca dos prontuários. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuscaIndiceEstatisticaDTO {
+
+    private long documentos;
+    private long tamanhoBytes;
+    // Prontuários já no Storage aguardando indexação (uploads novos ou reconstrução em andamento)
+    private long pendentes;
+    private LocalDateTime ultimaReconstrucao;
+}
@@ -0,0 +1,19 @@
+package br.com.clinicahumaniza.patient_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Contadores de um cache de dados de referência desde a subida da aplicação. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEstatisticaDTO {
+
+    private String nome;
+    private long entradas;
+    private long acertos;
+    private long falhas;
+    private double taxaAcerto;
+    private long despejos;
+}
@@ -0,0 +1,20 @@
+package br.com.clinicahumaniza.patient_service.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Situação da fila de sincronização com o Google Calendar. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarioSyncStatusDTO {
+
+    private long pendentes;
+    // Pendências que esgotaram as tentativas e não são mais reprocessadas automaticamente.
+    private long comFalha;
+    private LocalDateTime pendenteMaisAntigaEm;
+    private long atrasoSegundos;
+}
@@ -0,0 +1,20 @@
+package br.com.clinicahumaniza.patient_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Consumo de banco de uma rota HTTP ou job agendado desde a subida da aplicação. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumoSqlEstatisticaDTO {
+
+    private String operacao;
+    private long execucoes;
+    private long comandos;
+    private double comandosMedia;
+    private int comandosMax;
+    private double tempoMedioMs;
+    private double tempoMaxMs;
+}
@@ -0,0 +1,23 @@
+package br.com.clinicahumaniza.patient_service.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cards do dashboard numa resposta só. Os financeiros (pagamentos em aberto, assinaturas
+ * ativas, receita do mês) vêm nulos para o perfil profissional, que não vê esses cards.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardResumoDTO {
+
+    private int pacientesAtivos;
+    private int agendamentosHoje;
+    private Integer pagamentosEmAberto;
+    private Integer assinaturasAtivas;
+    private BigDecimal receitaMes;
+}
@@ -0,0 +1,41 @@
+package br.com.clinicahumaniza.patient_service.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+import br.com.clinicahumaniza.patient_service.spec.Keyset;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página de uma listagem por cursor. {@code proximoCursor} é null na última página;
+ * {@code totalElements} só vem quando pedido ({@code comTotal=true}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+
+    private List<T> content;
+    private int size;
+    private String proximoCursor;
+    private Long totalElements;
+
+    /**
+     * Monta a página a partir de uma leitura de {@code tamanho + 1} itens: o excedente só indica
+     * que há mais, e o cursor aponta para o último item entregue.
+     */
+    public static <T> PaginaCursorDTO<T> de(
+            List<T> lidos, int tamanho, Function<T, Keyset> posicao, Long totalElements) {
+        boolean haMais = lidos.size() > tamanho;
+        List<T> content = haMais ? lidos.subList(0, tamanho) : lidos;
+        String proximoCursor =
+                haMais ? posicao.apply(content.get(content.size() - 1)).codificar() : null;
+        return new PaginaCursorDTO<>(content, tamanho, proximoCursor, totalElements);
+    }
+
+    public <R> PaginaCursorDTO<R> map(Function<T, R> conversor) {
+        return new PaginaCursorDTO<>(content.stream().map(conversor).toList(), size, proximoCursor, totalElements);
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.clinicahumaniza.patient_service.dto;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sugestão do autocomplete da recepção: o suficiente para distinguir homônimos
+ * (nome curto, final do telefone, CPF) sem carregar o cadastro inteiro.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientAutocompleteDTO {
+
+    private UUID id;
+    private String nomeCurto;
+    private String telefoneFinal;
+    private String cpf;
+}
@@ -0,0 +1,21 @@
+package br.com.clinicahumaniza.patient_service.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import br.com.clinicahumaniza.patient_service.model.TipoDocumento;
+import lombok.Data;
+
+/** Um prontuário encontrado pela busca textual, do mais relevante ao menos. */
+@Data
+public class ProntuarioBuscaResultadoDTO {
+    private UUID id;
+    private UUID pacienteId;
+    private String pacienteNome;
+    private TipoDocumento tipo;
+    private String titulo;
+    private String nomeArquivo;
+    private LocalDateTime createdAt;
+    // Relevância (BM25): só serve para comparar resultados da mesma busca
+    private float score;
+}
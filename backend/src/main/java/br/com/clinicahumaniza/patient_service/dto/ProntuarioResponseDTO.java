@@ -3,6 +3,8 @@ package br.com.clinicahumaniza.patient_service.dto;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import br.com.clinicahumaniza.patient_service.model.StatusPreview;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
 import br.com.clinicahumaniza.patient_service.model.TipoDocumento;
 import lombok.Data;
 
@@ -17,8 +19,16 @@ public class ProntuarioResponseDTO {
     private String nomeArquivo;
     private String tipoArquivo;
     private Long tamanhoBytes;
+    private String checksumSha256;
     private String storagePath;
     private String storageUrl;
+    // true quando o Storage não assinou a URL agora — storageUrl vem nulo, tente de novo depois
+    private boolean urlIndisponivel;
     private String uploadedBy;
+    // PENDENTE enquanto o envio ao Storage (upload assíncrono) não termina; FALHA se desistiu
+    private StatusProntuario status;
+    // Miniatura JPEG (poucos KB) para a listagem; nula enquanto não gerada ou sem preview
+    private String previewUrl;
+    private StatusPreview previewStatus;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,27 @@
+package br.com.clinicahumaniza.patient_service.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Progresso da última (ou atual) execução da renovação automática de assinaturas. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RenovacaoProgressoDTO {
+
+    private boolean emAndamento;
+    private LocalDateTime iniciadaEm;
+    private LocalDateTime concluidaEm;
+    private int processadas;
+    private int renovadas;
+    private int puladas;
+    private int falhas;
+    private double msPorAssinatura;
+    private double assinaturasPorMinuto;
+    // Última assinatura (em ordem de id) do último lote concluído — ponto de retomada.
+    private UUID ultimoIdProcessado;
+}
@@ -0,0 +1,14 @@
+package br.com.clinicahumaniza.patient_service.exception;
+
+/**
+ * A agenda do profissional está travada por outra marcação em andamento. Não é regra de
+ * negócio: a mesma requisição pode passar se repetida, por isso vira 409. Também não entra nos
+ * {@code noRollbackFor = BusinessException.class}: o que já foi gravado na transação (ex.: a
+ * recorrência) é desfeito.
+ */
+public class AgendaOcupadaException extends RuntimeException {
+
+    public AgendaOcupadaException(String message) {
+        super(message);
+    }
+}
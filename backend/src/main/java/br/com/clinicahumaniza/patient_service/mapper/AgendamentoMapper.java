@@ -8,6 +8,7 @@ import br.com.clinicahumaniza.patient_service.dto.AgendamentoRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoResponseDTO;
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoUpdateDTO;
 import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.AgendamentoListagemRepository.ItemAgendamento;
 import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
 
 @Component
@@ -80,6 +81,33 @@ public class AgendamentoMapper {
         return dto;
     }
 
+    /** Linha das listagens: mesmos textos padrão da versão por entidade, sem consulta nenhuma. */
+    public AgendamentoResponseDTO toResponseDTO(ItemAgendamento item) {
+        AgendamentoResponseDTO dto = new AgendamentoResponseDTO();
+        dto.setId(item.id());
+        dto.setPacienteId(item.pacienteId());
+        dto.setPacienteNome(item.pacienteNome());
+        dto.setProfissionalId(item.profissionalId());
+        dto.setProfissionalNome(item.profissionalId() != null ? item.profissionalNome() : "Sem profissional");
+        dto.setServicoId(item.servicoId());
+        dto.setServicoDescricao(
+                item.servicoId() != null ? item.atividadeNome() + " - " + item.planoNome() : "(serviço removido)");
+        dto.setAssinaturaId(item.assinaturaId());
+        dto.setDataHora(item.dataHora());
+        dto.setDuracaoMinutos(item.duracaoMinutos());
+        dto.setStatus(item.status());
+        dto.setObservacoes(item.observacoes());
+        dto.setTipoAgendamento(item.tipoAgendamento());
+        dto.setDireitoReposicao(item.direitoReposicao());
+        dto.setReposicaoAgendada(Boolean.TRUE.equals(item.reposicaoAgendada()));
+        dto.setReposicaoOrigemId(item.reposicaoOrigemId());
+        dto.setDataLimiteReposicao(item.dataLimiteReposicao());
+        dto.setMotivoCancelamento(item.motivoCancelamento());
+        dto.setAtivo(item.ativo());
+        dto.setCreatedAt(item.createdAt());
+        return dto;
+    }
+
     public void updateEntityFromDto(AgendamentoUpdateDTO dto, Agendamento entity) {
         if (dto.getDataHora() != null) entity.setDataHora(dto.getDataHora());
         if (dto.getDuracaoMinutos() != null) entity.setDuracaoMinutos(dto.getDuracaoMinutos());
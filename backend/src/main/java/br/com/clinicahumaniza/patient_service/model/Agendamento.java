@@ -11,8 +11,43 @@ import org.hibernate.annotations.SQLRestriction;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-
+import lombok.ToString;
+
+@NamedEntityGraph(
+        name = Agendamento.CONFLITO,
+        attributeNodes = {
+            @NamedAttributeNode("profissional"),
+            @NamedAttributeNode("servico"),
+            @NamedAttributeNode("assinatura")
+        })
+@NamedEntityGraph(
+        name = Agendamento.DETALHE,
+        attributeNodes = {
+            @NamedAttributeNode("paciente"),
+            @NamedAttributeNode(value = "profissional", subgraph = "profissional"),
+            @NamedAttributeNode(value = "servico", subgraph = "servico"),
+            @NamedAttributeNode("assinatura")
+        },
+        subgraphs = {
+            @NamedSubgraph(name = "profissional", attributeNodes = @NamedAttributeNode("user")),
+            @NamedSubgraph(
+                    name = "servico",
+                    attributeNodes = {@NamedAttributeNode("atividade"), @NamedAttributeNode("plano")})
+        })
+@NamedEntityGraph(
+        name = Agendamento.CALENDARIO,
+        attributeNodes = {
+            @NamedAttributeNode("paciente"),
+            @NamedAttributeNode("profissional"),
+            @NamedAttributeNode(value = "servico", subgraph = "servico"),
+            @NamedAttributeNode("assinatura")
+        },
+        subgraphs =
+                @NamedSubgraph(
+                        name = "servico",
+                        attributeNodes = {@NamedAttributeNode("atividade"), @NamedAttributeNode("plano")}))
 @Entity
 @Table(name = "agendamentos")
 @SQLRestriction("ativo = true")
@@ -21,12 +56,26 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Agendamento {
 
+    /**
+     * Planos de carga por caso de uso. Profissional, serviço e assinatura têm
+     * {@code @NotFound} (o alvo pode ter sido desativado), e o Hibernate os busca sempre —
+     * por isso os três entram em todos os grafos: vêm no mesmo select, não um a um depois.
+     */
+    // Checagem de conflito de horário: só as colunas do próprio agendamento.
+    public static final String CONFLITO = "Agendamento.conflito";
+    // Saída do AgendamentoMapper e regra de confidencialidade (e-mail do profissional).
+    public static final String DETALHE = "Agendamento.detalhe";
+    // Montagem do evento do Google Calendar: paciente, atividade/plano (cor) e agenda do profissional.
+    public static final String CALENDARIO = "Agendamento.calendario";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "paciente_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Patient paciente;
 
     @ManyToOne
@@ -73,8 +122,10 @@ public class Agendamento {
     @Column(name = "motivo_cancelamento", columnDefinition = "TEXT")
     private String motivoCancelamento;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "agendamento_recorrente_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private AgendamentoRecorrente agendamentoRecorrente;
 
     @Column(name = "google_calendar_event_id")
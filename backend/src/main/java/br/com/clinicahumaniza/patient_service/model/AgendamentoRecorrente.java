@@ -12,8 +12,22 @@ import org.hibernate.annotations.NotFoundAction;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-
+import lombok.ToString;
+
+@NamedEntityGraph(
+        name = AgendamentoRecorrente.RENOVACAO,
+        attributeNodes = {
+            @NamedAttributeNode("paciente"),
+            @NamedAttributeNode("profissional"),
+            @NamedAttributeNode(value = "servico", subgraph = "servico"),
+            @NamedAttributeNode("assinatura")
+        },
+        subgraphs =
+                @NamedSubgraph(
+                        name = "servico",
+                        attributeNodes = {@NamedAttributeNode("atividade"), @NamedAttributeNode("plano")}))
 @Entity
 @Table(name = "agendamentos_recorrentes")
 @Data
@@ -21,12 +35,18 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class AgendamentoRecorrente {
 
+    // Templates da renovação e da resposta de recorrência (profissional, serviço e assinatura
+    // têm @NotFound e viriam de qualquer forma: juntos no mesmo select).
+    public static final String RENOVACAO = "AgendamentoRecorrente.renovacao";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "paciente_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Patient paciente;
 
     @ManyToOne
@@ -11,8 +11,18 @@ import org.hibernate.annotations.SQLRestriction;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-
+import lombok.ToString;
+
+@NamedEntityGraph(
+        name = Assinatura.DETALHE,
+        attributeNodes = {@NamedAttributeNode("paciente"), @NamedAttributeNode(value = "servico", subgraph = "servico")
+        },
+        subgraphs =
+                @NamedSubgraph(
+                        name = "servico",
+                        attributeNodes = {@NamedAttributeNode("atividade"), @NamedAttributeNode("plano")}))
 @Entity
 @Table(name = "assinaturas")
 @SQLRestriction("ativo = true")
@@ -21,16 +31,23 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Assinatura {
 
+    // Saída do AssinaturaMapper, renovação e cobrança: paciente e a descrição do serviço.
+    public static final String DETALHE = "Assinatura.detalhe";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "paciente_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Patient paciente;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "servico_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Servico servico;
 
     @Column(nullable = false)
@@ -42,7 +59,9 @@ public class Assinatura {
     @Column(nullable = false)
     private Integer sessoesContratadas;
 
-    @Column(nullable = false)
+    // Só o AssinaturaSessoesRepository altera o contador, com UPDATE atômico; uma cópia antiga
+    // salva pelo JPA não pode desfazer check-ins feitos no meio tempo.
+    @Column(nullable = false, updatable = false)
     private Integer sessoesRealizadas = 0;
 
     @Enumerated(EnumType.STRING)
@@ -71,6 +90,10 @@ public class Assinatura {
     @Column(columnDefinition = "boolean default true")
     private Boolean ativo = true;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long versao;
+
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
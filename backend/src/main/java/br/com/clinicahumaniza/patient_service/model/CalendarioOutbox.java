@@ -0,0 +1,55 @@
+package br.com.clinicahumaniza.patient_service.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pendência de sincronização de um agendamento com o Google Calendar.
+ *
+ * Gravada na mesma transação da alteração do agendamento: só existe se a alteração foi
+ * commitada, e sobrevive a restart. Não guarda a operação — o dispatcher lê o estado atual
+ * do agendamento e decide (criar, atualizar ou remover o evento), por isso várias pendências
+ * do mesmo agendamento se resolvem com uma única chamada.
+ */
+@Entity
+@Table(
+        name = "calendario_outbox",
+        indexes = @Index(name = "idx_calendario_outbox_proxima_tentativa", columnList = "proxima_tentativa_em"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarioOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "agendamento_id", nullable = false)
+    private UUID agendamentoId;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(name = "proxima_tentativa_em", nullable = false)
+    private LocalDateTime proximaTentativaEm;
+
+    @Column(name = "ultimo_erro", columnDefinition = "TEXT")
+    private String ultimoErro;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.proximaTentativaEm == null) {
+            this.proximaTentativaEm = this.createdAt;
+        }
+    }
+}
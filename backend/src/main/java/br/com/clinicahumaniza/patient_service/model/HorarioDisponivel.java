@@ -11,8 +11,11 @@ import org.hibernate.annotations.SQLRestriction;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
+@NamedEntityGraph(name = HorarioDisponivel.PROFISSIONAL, attributeNodes = @NamedAttributeNode("profissional"))
 @Entity
 @Table(name = "horarios_disponiveis")
 @SQLRestriction("ativo = true")
@@ -21,12 +24,16 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class HorarioDisponivel {
 
+    public static final String PROFISSIONAL = "HorarioDisponivel.profissional";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "profissional_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Profissional profissional;
 
     @Enumerated(EnumType.STRING)
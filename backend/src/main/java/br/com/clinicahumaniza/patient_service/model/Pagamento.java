@@ -13,8 +13,38 @@ import org.hibernate.annotations.SQLRestriction;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-
+import lombok.ToString;
+
+@NamedEntityGraph(
+        name = Pagamento.DETALHE,
+        attributeNodes = {
+            @NamedAttributeNode("paciente"),
+            @NamedAttributeNode(value = "agendamento", subgraph = "agendamento")
+        },
+        subgraphs = {
+            @NamedSubgraph(
+                    name = "agendamento",
+                    attributeNodes = {
+                        @NamedAttributeNode(value = "servico", subgraph = "servico"),
+                        @NamedAttributeNode("profissional"),
+                        @NamedAttributeNode("assinatura")
+                    }),
+            @NamedSubgraph(name = "servico", attributeNodes = @NamedAttributeNode("atividade"))
+        })
+@NamedEntityGraph(
+        name = Pagamento.ASSINATURAS,
+        attributeNodes = @NamedAttributeNode(value = "assinaturas", subgraph = "assinatura"),
+        subgraphs = {
+            @NamedSubgraph(
+                    name = "assinatura",
+                    attributeNodes = @NamedAttributeNode(value = "servico", subgraph = "servico")),
+            @NamedSubgraph(
+                    name = "servico",
+                    attributeNodes = {@NamedAttributeNode("atividade"), @NamedAttributeNode("plano")})
+        })
+@NamedEntityGraph(name = Pagamento.PARCELAS, attributeNodes = @NamedAttributeNode("parcelas"))
 @Entity
 @Table(name = "pagamentos")
 @SQLRestriction("ativo = true")
@@ -23,12 +53,24 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Pagamento {
 
+    /**
+     * Saída do PagamentoMapper em três selects fixos, qualquer que seja a página: as
+     * associações simples num grafo e cada coleção no seu (duas coleções no mesmo join
+     * multiplicariam as linhas — e o Hibernate recusa duas listas juntas).
+     */
+    public static final String DETALHE = "Pagamento.detalhe";
+
+    public static final String ASSINATURAS = "Pagamento.assinaturas";
+    public static final String PARCELAS = "Pagamento.parcelas";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "paciente_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Patient paciente;
 
     @ManyToMany
@@ -38,8 +80,12 @@ public class Pagamento {
             inverseJoinColumns = @JoinColumn(name = "assinatura_id"))
     private List<Assinatura> assinaturas = new ArrayList<>();
 
-    @ManyToOne
-    @JoinColumn(name = "agendamento_id")
+    // Sem FK no banco: agendamentos é particionada (migration-particionamento.sql) e a PK dela
+    // é (id, data_hora), que não serve de alvo para uma FK só de id.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "agendamento_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Agendamento agendamento;
 
     @Column(nullable = false, precision = 10, scale = 2)
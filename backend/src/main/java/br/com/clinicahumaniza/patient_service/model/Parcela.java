@@ -11,7 +11,9 @@ import org.hibernate.annotations.SQLRestriction;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "parcelas")
@@ -25,8 +27,10 @@ public class Parcela {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pagamento_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Pagamento pagamento;
 
     @Column(nullable = false)
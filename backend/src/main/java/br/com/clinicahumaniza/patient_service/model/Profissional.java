@@ -7,12 +7,16 @@ import java.util.UUID;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SQLRestriction;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+@NamedEntityGraph(
+        name = Profissional.DETALHE,
+        attributeNodes = {@NamedAttributeNode("user"), @NamedAttributeNode("atividades")})
 @Entity
 @Table(name = "profissionais")
 @SQLRestriction("ativo = true")
@@ -21,6 +25,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Profissional {
 
+    // Saída do ProfissionalMapper e validação de atividade no agendamento.
+    public static final String DETALHE = "Profissional.detalhe";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -40,6 +47,7 @@ public class Profissional {
             name = "profissional_atividades",
             joinColumns = @JoinColumn(name = "profissional_id"),
             inverseJoinColumns = @JoinColumn(name = "atividade_id"))
+    @BatchSize(size = 50) // listagem paginada: as atividades da página num select só
     private Set<Atividade> atividades = new HashSet<>();
 
     @Column(name = "google_calendar_id")
@@ -7,6 +7,7 @@ import jakarta.persistence.*;
 
 import lombok.*;
 
+@NamedEntityGraph(name = Prontuario.PACIENTE, attributeNodes = @NamedAttributeNode("paciente"))
 @Entity
 @Table(name = "prontuarios")
 @Getter
@@ -16,6 +17,9 @@ import lombok.*;
 @Builder
 public class Prontuario {
 
+    // A resposta mostra o nome do paciente.
+    public static final String PACIENTE = "Prontuario.paciente";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -45,6 +49,10 @@ public class Prontuario {
     @Column(name = "tamanho_bytes")
     private Long tamanhoBytes;
 
+    // SHA-256 (hex) do conteúdo enviado ao Storage, calculado durante o upload
+    @Column(name = "checksum_sha256", length = 64)
+    private String checksumSha256;
+
     // Path interno (UUID/UUID_arquivo) — TEXT por segurança
     @Column(name = "storage_path", nullable = false, columnDefinition = "TEXT")
     private String storagePath;
@@ -56,6 +64,43 @@ public class Prontuario {
     @Column(name = "uploaded_by")
     private String uploadedBy;
 
+    // Upload assíncrono: PENDENTE até o envio ao Storage terminar. Nulo nos registros
+    // anteriores ao envio assíncrono, que já estão no Storage (equivale a PRONTO).
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    @Builder.Default
+    private StatusProntuario status = StatusProntuario.PRONTO;
+
+    // Arquivo no disco local aguardando envio; limpo quando o envio termina ou desiste
+    @Column(name = "spool_path", columnDefinition = "TEXT")
+    private String spoolPath;
+
+    @Column(name = "tentativas_envio")
+    private Integer tentativasEnvio;
+
+    @Column(name = "proxima_tentativa_em")
+    private LocalDateTime proximaTentativaEm;
+
+    @Column(name = "ultimo_erro", columnDefinition = "TEXT")
+    private String ultimoErro;
+
+    // Miniatura JPEG guardada ao lado do original no Storage. Nulo nos registros anteriores
+    // às miniaturas: o backfill do ProntuarioPreviewWorker gera para eles.
+    @Column(name = "preview_path", columnDefinition = "TEXT")
+    private String previewPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "preview_status", length = 20)
+    private StatusPreview previewStatus;
+
+    @Column(name = "preview_tentativas")
+    private Integer previewTentativas;
+
+    // Quando entrou no índice de busca (ProntuarioBuscaIndex). Nulo = falta indexar: uploads
+    // novos, registros anteriores à busca e todos depois de uma reconstrução do índice.
+    @Column(name = "indexado_em")
+    private LocalDateTime indexadoEm;
+
     // Soft delete — consistente com Patient, Agendamento, Assinatura, etc.
     @Column(nullable = false)
     @Builder.Default
@@ -10,8 +10,13 @@ import org.hibernate.annotations.SQLRestriction;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
+@NamedEntityGraph(
+        name = Servico.DESCRICAO,
+        attributeNodes = {@NamedAttributeNode("atividade"), @NamedAttributeNode("plano")})
 @Entity
 @Table(
         name = "servicos",
@@ -25,16 +30,23 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Servico {
 
+    // "Atividade - Plano": toda saída de serviço mostra os dois.
+    public static final String DESCRICAO = "Servico.descricao";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "atividade_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Atividade atividade;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "plano_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Plano plano;
 
     @Column(name = "tipo_atendimento", length = 50)
@@ -0,0 +1,9 @@
+package br.com.clinicahumaniza.patient_service.model;
+
+/** Miniatura de um prontuário: gerada em segundo plano depois que o arquivo está no Storage. */
+public enum StatusPreview {
+    PENDENTE,
+    PRONTO,
+    // Tipo sem preview (DOC/DOCX) ou arquivo que não pôde ser renderizado
+    INDISPONIVEL
+}
@@ -0,0 +1,7 @@
+package br.com.clinicahumaniza.patient_service.model;
+
+public enum StatusProntuario {
+    PENDENTE,
+    PRONTO,
+    FALHA
+}
@@ -0,0 +1,186 @@
+package br.com.clinicahumaniza.patient_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.Assinatura;
+import br.com.clinicahumaniza.patient_service.model.Patient;
+import br.com.clinicahumaniza.patient_service.model.Profissional;
+import br.com.clinicahumaniza.patient_service.model.Servico;
+import br.com.clinicahumaniza.patient_service.model.StatusAgendamento;
+import br.com.clinicahumaniza.patient_service.model.TipoAgendamento;
+
+/**
+ * Leitura das listagens de agendamentos (paginada, por paciente, por profissional e por
+ * período): uma única query por lista, com os nomes de paciente, profissional, atividade e
+ * plano vindos por join e o {@code reposicaoAgendada} calculado por subquery correlacionada.
+ *
+ * Carregar entidades para listar puxava os {@code @ManyToOne} EAGER do agendamento (e os
+ * deles) e mais um {@code exists} por cancelado — dezenas de selects por página. Aqui são
+ * projeções: número fixo de comandos (lista + count na paginada), nada no contexto de
+ * persistência. Os filtros são os mesmos {@link Specification} da listagem por entidade.
+ */
+@Repository
+public class AgendamentoListagemRepository {
+
+    // Reposição que "conta": a mesma regra de existsByReposicaoOrigemIdAndStatusIn no mapper.
+    static final List<StatusAgendamento> REPOSICAO_ATIVA =
+            List.of(StatusAgendamento.AGENDADO, StatusAgendamento.CONFIRMADO, StatusAgendamento.REALIZADO);
+
+    private static final Sort ORDEM_PADRAO = Sort.by("dataHora", "id");
+
+    private final EntityManager entityManager;
+
+    public AgendamentoListagemRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /** Página de agendamentos, na ordem do {@code pageable} (quem chama garante o desempate). */
+    public Page<ItemAgendamento> pagina(Specification<Agendamento> spec, Pageable pageable) {
+        TypedQuery<ItemAgendamento> query = entityManager.createQuery(select(spec, pageable.getSort()));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<ItemAgendamento> itens =
+                query.setHint(HibernateHints.HINT_READ_ONLY, true).getResultList();
+        // Sem count quando a página já revela o total (primeira página incompleta, por exemplo).
+        return PageableExecutionUtils.getPage(itens, pageable, () -> contar(spec));
+    }
+
+    /**
+     * Primeiros {@code limite} agendamentos do filtro na ordem dada, sem offset nem count — a
+     * leitura da listagem por cursor, com a posição já no {@code spec}.
+     */
+    public List<ItemAgendamento> fatia(Specification<Agendamento> spec, Sort sort, int limite) {
+        return entityManager
+                .createQuery(select(spec, sort))
+                .setMaxResults(limite)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    /** Todos os agendamentos do filtro, por data. */
+    public List<ItemAgendamento> lista(Specification<Agendamento> spec) {
+        return entityManager
+                .createQuery(select(spec, ORDEM_PADRAO))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    private CriteriaQuery<ItemAgendamento> select(Specification<Agendamento> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ItemAgendamento> query = cb.createQuery(ItemAgendamento.class);
+        Root<Agendamento> root = query.from(Agendamento.class);
+        Join<Agendamento, Patient> paciente = root.join("paciente", JoinType.LEFT);
+        Join<Agendamento, Profissional> profissional = root.join("profissional", JoinType.LEFT);
+        Join<Agendamento, Servico> servico = root.join("servico", JoinType.LEFT);
+        Join<Agendamento, Assinatura> assinatura = root.join("assinatura", JoinType.LEFT);
+        query.select(cb.construct(
+                ItemAgendamento.class,
+                root.get("id"),
+                paciente.get("id"),
+                paciente.get("nomeCompleto"),
+                profissional.get("id"),
+                profissional.get("nome"),
+                servico.get("id"),
+                servico.join("atividade", JoinType.LEFT).get("nome"),
+                servico.join("plano", JoinType.LEFT).get("nome"),
+                assinatura.get("id"),
+                root.get("dataHora"),
+                root.get("duracaoMinutos"),
+                root.get("status"),
+                root.get("observacoes"),
+                root.get("tipoAgendamento"),
+                root.get("direitoReposicao"),
+                reposicaoAgendada(cb, query, root),
+                root.get("reposicaoOrigemId"),
+                root.get("dataLimiteReposicao"),
+                root.get("motivoCancelamento"),
+                root.get("ativo"),
+                root.get("createdAt")));
+        Predicate filtro = spec.toPredicate(root, query, cb);
+        if (filtro != null) query.where(filtro);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return query;
+    }
+
+    /**
+     * Cancelado com direito que já tem reposição ativa criada a partir dele. Só os cancelados
+     * com direito avaliam o exists — para os demais a resposta é false sem olhar a tabela.
+     */
+    private static Expression<Boolean> reposicaoAgendada(
+            CriteriaBuilder cb, CriteriaQuery<?> query, Root<Agendamento> root) {
+        Subquery<Integer> reposicao = query.subquery(Integer.class);
+        Root<Agendamento> r = reposicao.from(Agendamento.class);
+        reposicao
+                .select(cb.literal(1))
+                .where(
+                        cb.equal(r.get("reposicaoOrigemId"), root.get("id")),
+                        r.get("status").in(REPOSICAO_ATIVA));
+        return cb.<Boolean>selectCase()
+                .when(
+                        cb.and(
+                                cb.equal(root.get("status"), StatusAgendamento.CANCELADO),
+                                cb.isTrue(root.get("direitoReposicao")),
+                                cb.exists(reposicao)),
+                        true)
+                .otherwise(false);
+    }
+
+    public long contar(Specification<Agendamento> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Agendamento> root = query.from(Agendamento.class);
+        query.select(cb.count(root));
+        Predicate filtro = spec.toPredicate(root, query, cb);
+        if (filtro != null) query.where(filtro);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /** Uma linha da listagem: as colunas do {@code AgendamentoResponseDTO}, sem entidades. */
+    public record ItemAgendamento(
+            UUID id,
+            UUID pacienteId,
+            String pacienteNome,
+            UUID profissionalId,
+            String profissionalNome,
+            UUID servicoId,
+            String atividadeNome,
+            String planoNome,
+            UUID assinaturaId,
+            LocalDateTime dataHora,
+            Integer duracaoMinutos,
+            StatusAgendamento status,
+            String observacoes,
+            TipoAgendamento tipoAgendamento,
+            Boolean direitoReposicao,
+            Boolean reposicaoAgendada,
+            UUID reposicaoOrigemId,
+            LocalDateTime dataLimiteReposicao,
+            String motivoCancelamento,
+            boolean ativo,
+            LocalDateTime createdAt) {}
+}
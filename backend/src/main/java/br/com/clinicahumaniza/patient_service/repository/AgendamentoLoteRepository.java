@@ -0,0 +1,55 @@
+package br.com.clinicahumaniza.patient_service.repository;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import br.com.clinicahumaniza.patient_service.config.MedidorSql;
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+
+/**
+ * Inserção de agendamentos em lote via JDBC (um único batch), usada pela geração de
+ * recorrências. Os agendamentos já chegam com id, auditoria e vínculo da recorrência
+ * preenchidos — não passam pelo ciclo de vida do JPA, por isso o caller deve garantir que
+ * as entidades referenciadas (paciente, serviço, recorrência...) já estejam no banco.
+ */
+@Repository
+public class AgendamentoLoteRepository {
+
+    private static final String INSERT = "INSERT INTO agendamentos (id, paciente_id, profissional_id, servico_id, "
+            + "assinatura_id, agendamento_recorrente_id, data_hora, duracao_minutos, status, tipo_agendamento, "
+            + "observacoes, ativo, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AgendamentoLoteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void inserir(List<Agendamento> agendamentos) {
+        if (agendamentos.isEmpty()) return;
+        long inicio = System.nanoTime();
+        jdbcTemplate.batchUpdate(INSERT, agendamentos, agendamentos.size(), (ps, a) -> {
+            ps.setObject(1, a.getId());
+            ps.setObject(2, a.getPaciente().getId());
+            ps.setObject(3, a.getProfissional() != null ? a.getProfissional().getId() : null);
+            ps.setObject(4, a.getServico().getId());
+            ps.setObject(5, a.getAssinatura() != null ? a.getAssinatura().getId() : null);
+            ps.setObject(
+                    6,
+                    a.getAgendamentoRecorrente() != null
+                            ? a.getAgendamentoRecorrente().getId()
+                            : null);
+            ps.setObject(7, a.getDataHora());
+            ps.setInt(8, a.getDuracaoMinutos());
+            ps.setString(9, a.getStatus().name());
+            ps.setString(10, a.getTipoAgendamento().name());
+            ps.setString(11, a.getObservacoes());
+            ps.setBoolean(12, a.isAtivo());
+            ps.setObject(13, a.getCreatedAt());
+            ps.setObject(14, a.getUpdatedAt());
+        });
+        MedidorSql.registrarJdbc(System.nanoTime() - inicio);
+    }
+}
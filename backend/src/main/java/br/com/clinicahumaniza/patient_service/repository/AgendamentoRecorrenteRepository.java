@@ -1,8 +1,10 @@
 package br.com.clinicahumaniza.patient_service.repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,5 +13,10 @@ import br.com.clinicahumaniza.patient_service.model.AgendamentoRecorrente;
 @Repository
 public interface AgendamentoRecorrenteRepository extends JpaRepository<AgendamentoRecorrente, UUID> {
 
+    @Override
+    @EntityGraph(AgendamentoRecorrente.RENOVACAO)
+    Optional<AgendamentoRecorrente> findById(UUID id);
+
+    @EntityGraph(AgendamentoRecorrente.RENOVACAO)
     List<AgendamentoRecorrente> findByAssinaturaIdAndAtivoTrue(UUID assinaturaId);
 }
@@ -1,12 +1,18 @@
 package br.com.clinicahumaniza.patient_service.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.clinicahumaniza.patient_service.model.Agendamento;
 import br.com.clinicahumaniza.patient_service.model.StatusAgendamento;
@@ -14,18 +20,34 @@ import br.com.clinicahumaniza.patient_service.model.StatusAgendamento;
 @Repository
 public interface AgendamentoRepository extends JpaRepository<Agendamento, UUID>, JpaSpecificationExecutor<Agendamento> {
 
+    @Override
+    @EntityGraph(Agendamento.DETALHE)
+    Optional<Agendamento> findById(UUID id);
+
+    // Filtros por pai em JPQL, direto na FK: o derivado (findByPacienteId) faz LEFT JOIN no pai
+    // e filtra pelo id dele, e o banco acaba varrendo agendamentos em vez de usar o índice.
+    @EntityGraph(Agendamento.DETALHE)
+    @Query("SELECT a FROM Agendamento a WHERE a.paciente.id = :pacienteId")
     List<Agendamento> findByPacienteId(UUID pacienteId);
 
+    // fk(): a.profissional.id reaproveitaria o join do grafo (profissional é opcional), com o
+    // mesmo efeito.
+    @EntityGraph(Agendamento.DETALHE)
+    @Query("SELECT a FROM Agendamento a WHERE fk(a.profissional) = :profissionalId")
     List<Agendamento> findByProfissionalId(UUID profissionalId);
 
+    @EntityGraph(Agendamento.DETALHE)
     List<Agendamento> findByDataHoraBetween(LocalDateTime inicio, LocalDateTime fim);
 
+    @EntityGraph(Agendamento.CONFLITO)
     List<Agendamento> findByProfissionalIdAndStatusInAndDataHoraBetween(
             UUID profissionalId, List<StatusAgendamento> statuses, LocalDateTime inicio, LocalDateTime fim);
 
+    @EntityGraph(Agendamento.DETALHE)
     List<Agendamento> findByAgendamentoRecorrenteIdAndDataHoraGreaterThanEqualAndStatusIn(
             UUID recorrenteId, LocalDateTime dataHora, List<StatusAgendamento> statuses);
 
+    @EntityGraph(Agendamento.DETALHE)
     List<Agendamento> findByAssinaturaIdAndDataHoraGreaterThanEqualAndStatusIn(
             UUID assinaturaId, LocalDateTime dataHora, List<StatusAgendamento> statuses);
 
@@ -35,14 +57,55 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, UUID>,
     boolean existsByPacienteIdAndServicoIdAndDataHoraAndStatusIn(
             UUID pacienteId, UUID servicoId, LocalDateTime dataHora, List<StatusAgendamento> statuses);
 
+    // Nativas: ignoram o @SQLRestriction — a sincronização com o Google precisa enxergar
+    // agendamentos excluídos (ativo = false) para remover o evento deles.
+    @Query(value = "SELECT * FROM agendamentos WHERE id = :id", nativeQuery = true)
+    Optional<Agendamento> findByIdIncluindoInativos(UUID id);
+
+    @Query(value = "SELECT * FROM agendamentos WHERE id IN (:ids)", nativeQuery = true)
+    List<Agendamento> findAllByIdIncluindoInativos(Collection<UUID> ids);
+
+    // Os ativos de um lote do Google Calendar, com o que o evento mostra.
+    @EntityGraph(Agendamento.CALENDARIO)
+    List<Agendamento> findParaCalendarioByIdIn(Collection<UUID> ids);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE agendamentos SET google_calendar_event_id = :eventId WHERE id = :id", nativeQuery = true)
+    int atualizarGoogleCalendarEventId(UUID id, String eventId);
+
+    // Mesmo guard de duplicata, para um período inteiro de uma vez (geração de recorrência em lote).
+    @Query("SELECT a.dataHora FROM Agendamento a WHERE a.paciente.id = :pacienteId AND a.servico.id = :servicoId "
+            + "AND a.dataHora BETWEEN :inicio AND :fim AND a.status IN :statuses")
+    List<LocalDateTime> findDataHoraByPacienteIdAndServicoIdAndDataHoraBetweenAndStatusIn(
+            UUID pacienteId, UUID servicoId, LocalDateTime inicio, LocalDateTime fim, List<StatusAgendamento> statuses);
+
+    @Query("SELECT a FROM Agendamento a WHERE a.paciente.id = :pacienteId AND a.direitoReposicao = true")
     List<Agendamento> findByPacienteIdAndDireitoReposicaoTrue(UUID pacienteId);
 
     // Ressincronização do Google Calendar: todos os futuros e ativos (cria os que faltam
     // e repinta/atualiza os que já têm evento).
+    @EntityGraph(Agendamento.CALENDARIO)
     List<Agendamento> findByStatusInAndDataHoraGreaterThanEqual(
             List<StatusAgendamento> statuses, LocalDateTime dataHora);
 
     // Órfãos do Google Calendar: cancelados futuros que ainda têm evento (delete falhou).
+    @EntityGraph(Agendamento.CALENDARIO)
     List<Agendamento> findByStatusAndDataHoraGreaterThanEqualAndGoogleCalendarEventIdIsNotNull(
             StatusAgendamento status, LocalDateTime dataHora);
+
+    // Agendamentos do dia com o que a regra de confidencialidade precisa — carga dos
+    // contadores do dashboard sem montar as entidades.
+    @Query("SELECT a.id AS id, at.nome AS atividade, u.email AS profissionalEmail FROM Agendamento a "
+            + "LEFT JOIN a.servico s LEFT JOIN s.atividade at LEFT JOIN a.profissional p LEFT JOIN p.user u "
+            + "WHERE a.dataHora BETWEEN :inicio AND :fim")
+    List<AgendamentoDoDia> findDoDia(LocalDateTime inicio, LocalDateTime fim);
+
+    interface AgendamentoDoDia {
+        UUID getId();
+
+        String getAtividade();
+
+        String getProfissionalEmail();
+    }
 }
@@ -2,10 +2,17 @@ package br.com.clinicahumaniza.patient_service.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import br.com.clinicahumaniza.patient_service.model.Assinatura;
@@ -14,12 +21,34 @@ import br.com.clinicahumaniza.patient_service.model.StatusAssinatura;
 @Repository
 public interface AssinaturaRepository extends JpaRepository<Assinatura, UUID>, JpaSpecificationExecutor<Assinatura> {
 
+    @Override
+    @EntityGraph(Assinatura.DETALHE)
+    Optional<Assinatura> findById(UUID id);
+
+    @Override
+    @EntityGraph(Assinatura.DETALHE)
+    Page<Assinatura> findAll(Specification<Assinatura> spec, Pageable pageable);
+
+    @EntityGraph(Assinatura.DETALHE)
     List<Assinatura> findByPacienteId(UUID pacienteId);
 
+    @EntityGraph(Assinatura.DETALHE)
+    @Query("SELECT a FROM Assinatura a WHERE a.servico.id = :servicoId")
     List<Assinatura> findByServicoId(UUID servicoId);
 
+    @EntityGraph(Assinatura.DETALHE)
     List<Assinatura> findByStatusIn(List<StatusAssinatura> statuses);
 
-    List<Assinatura> findByRenovacaoAutomaticaTrueAndStatusInAndDataVencimentoLessThanEqual(
-            List<StatusAssinatura> statuses, LocalDate limitDate);
+    @Query("SELECT a.id FROM Assinatura a WHERE a.status = :status")
+    List<UUID> findIdsByStatus(StatusAssinatura status);
+
+    // Ids das assinaturas a renovar, em ordem de id: a renovação percorre em lotes por keyset
+    // (primeiro lote sem cursor, os seguintes a partir do último id do lote anterior).
+    @Query("SELECT a.id FROM Assinatura a WHERE a.renovacaoAutomatica = true AND a.status IN :statuses "
+            + "AND a.dataVencimento <= :limitDate ORDER BY a.id")
+    List<UUID> findIdsParaRenovacao(List<StatusAssinatura> statuses, LocalDate limitDate, Limit limit);
+
+    @Query("SELECT a.id FROM Assinatura a WHERE a.renovacaoAutomatica = true AND a.status IN :statuses "
+            + "AND a.dataVencimento <= :limitDate AND a.id > :aposId ORDER BY a.id")
+    List<UUID> findIdsParaRenovacaoApos(List<StatusAssinatura> statuses, LocalDate limitDate, UUID aposId, Limit limit);
 }
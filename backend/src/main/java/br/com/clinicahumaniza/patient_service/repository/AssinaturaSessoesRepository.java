@@ -0,0 +1,105 @@
+package br.com.clinicahumaniza.patient_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import jakarta.persistence.EntityManager;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import br.com.clinicahumaniza.patient_service.config.MedidorSql;
+import br.com.clinicahumaniza.patient_service.model.Assinatura;
+import br.com.clinicahumaniza.patient_service.model.StatusAssinatura;
+
+/**
+ * Contador de sessões da assinatura, alterado num único UPDATE em vez de ler, somar no Java e
+ * salvar. A linha fica travada só durante o próprio comando: check-ins simultâneos na mesma
+ * assinatura (turma em grupo, mudança de status em lote) não perdem incrementos.
+ *
+ * O mesmo comando vira o status para FINALIZADO ao atingir o total (e de volta para ATIVO na
+ * reversão). Quando o status muda, a {@code versao} sobe junto: quem editou a assinatura pelo
+ * JPA com a cópia antiga recebe conflito de versão em vez de sobrescrever o status. O
+ * incremento sozinho não mexe na versão, já que {@code sessoesRealizadas} não é gravado pelo
+ * JPA.
+ *
+ * No Postgres o resultado volta por {@code RETURNING}; no H2 dos testes, pela tabela delta
+ * {@code FINAL TABLE}, que tem o mesmo efeito.
+ */
+@Repository
+public class AssinaturaSessoesRepository {
+
+    private static final String FINALIZA = "sessoes_realizadas + 1 >= sessoes_contratadas";
+
+    private static final String INCREMENTAR = "UPDATE assinaturas SET sessoes_realizadas = sessoes_realizadas + 1, "
+            + "status = CASE WHEN " + FINALIZA + " THEN 'FINALIZADO' ELSE status END, "
+            + "versao = CASE WHEN " + FINALIZA + " THEN versao + 1 ELSE versao END, "
+            + "updated_at = ? WHERE id = ? AND ativo = true AND status = 'ATIVO'";
+
+    private static final String REABRE =
+            "status = 'FINALIZADO' AND GREATEST(sessoes_realizadas - 1, 0) < sessoes_contratadas";
+
+    private static final String DECREMENTAR = "UPDATE assinaturas "
+            + "SET sessoes_realizadas = GREATEST(sessoes_realizadas - 1, 0), "
+            + "status = CASE WHEN " + REABRE + " THEN 'ATIVO' ELSE status END, "
+            + "versao = CASE WHEN " + REABRE + " THEN versao + 1 ELSE versao END, "
+            + "updated_at = ? WHERE id = ? AND ativo = true";
+
+    private static final RowMapper<Contador> CONTADOR = (rs, i) -> new Contador(
+            rs.getInt("sessoes_realizadas"), StatusAssinatura.valueOf(rs.getString("status")), rs.getLong("versao"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final boolean postgres;
+
+    public AssinaturaSessoesRepository(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        ConnectionCallback<Boolean> ehPostgres =
+                conexao -> "PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName());
+        this.postgres = Boolean.TRUE.equals(jdbcTemplate.execute(ehPostgres));
+    }
+
+    /** Soma uma sessão a uma assinatura ATIVO. Vazio se ela não existe ou não está ATIVO. */
+    public Optional<Contador> registrar(UUID id) {
+        return executar(INCREMENTAR, id);
+    }
+
+    /** Desconta uma sessão (sem ficar negativo). Vazio se a assinatura não existe. */
+    public Optional<Contador> reverter(UUID id) {
+        return executar(DECREMENTAR, id);
+    }
+
+    /** Relê do banco uma assinatura que já estava no contexto com o contador antigo. */
+    public void recarregar(Assinatura assinatura) {
+        entityManager.refresh(assinatura);
+    }
+
+    private Optional<Contador> executar(String update, UUID id) {
+        // Alterações pendentes da assinatura vão antes, com a versão que o JPA conhece.
+        entityManager.flush();
+        String sql = postgres
+                ? update + " RETURNING sessoes_realizadas, status, versao"
+                : "SELECT sessoes_realizadas, status, versao FROM FINAL TABLE (" + update + ")";
+        long inicio = System.nanoTime();
+        List<Contador> linhas = jdbcTemplate.query(sql, CONTADOR, LocalDateTime.now(), id);
+        MedidorSql.registrarJdbc(System.nanoTime() - inicio);
+        return linhas.stream().findFirst();
+    }
+
+    /** Estado da assinatura logo depois do UPDATE. */
+    public record Contador(int sessoesRealizadas, StatusAssinatura status, long versao) {
+
+        /** Se a cópia da assinatura em memória já reflete este estado. */
+        public boolean confere(Assinatura assinatura) {
+            return Objects.equals(assinatura.getSessoesRealizadas(), sessoesRealizadas)
+                    && assinatura.getStatus() == status
+                    && Objects.equals(assinatura.getVersao(), versao);
+        }
+    }
+}
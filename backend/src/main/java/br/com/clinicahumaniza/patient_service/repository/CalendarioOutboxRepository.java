@@ -0,0 +1,25 @@
+package br.com.clinicahumaniza.patient_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import br.com.clinicahumaniza.patient_service.model.CalendarioOutbox;
+
+@Repository
+public interface CalendarioOutboxRepository extends JpaRepository<CalendarioOutbox, UUID> {
+
+    List<CalendarioOutbox> findByTentativasLessThanAndProximaTentativaEmLessThanEqualOrderByCreatedAtAsc(
+            int maxTentativas, LocalDateTime agora, Limit limit);
+
+    long countByTentativasLessThan(int maxTentativas);
+
+    long countByTentativasGreaterThanEqual(int maxTentativas);
+
+    Optional<CalendarioOutbox> findFirstByTentativasLessThanOrderByCreatedAtAsc(int maxTentativas);
+}
@@ -0,0 +1,118 @@
+package br.com.clinicahumaniza.patient_service.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.FormaPagamento;
+import br.com.clinicahumaniza.patient_service.model.Pagamento;
+import br.com.clinicahumaniza.patient_service.model.Patient;
+import br.com.clinicahumaniza.patient_service.model.Profissional;
+import br.com.clinicahumaniza.patient_service.model.Servico;
+import br.com.clinicahumaniza.patient_service.model.StatusAgendamento;
+import br.com.clinicahumaniza.patient_service.model.StatusPagamento;
+
+/**
+ * Consultas das exportações CSV: uma única query por exportação, já com os nomes de paciente,
+ * profissional e serviço vindos por join, devolvendo só as colunas do arquivo.
+ *
+ * As linhas são projeções, não entidades — nada entra no contexto de persistência, então a
+ * memória não cresce com o tamanho do período. O resultado é lido em blocos de
+ * {@link #FETCH_SIZE} linhas; o {@link Stream} devolvido deve ser consumido (e fechado)
+ * dentro de uma transação somente leitura.
+ */
+@Repository
+public class ExportacaoCsvRepository {
+
+    static final int FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    public ExportacaoCsvRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Stream<LinhaAgendamento> agendamentos(Specification<Agendamento> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LinhaAgendamento> query = cb.createQuery(LinhaAgendamento.class);
+        Root<Agendamento> root = query.from(Agendamento.class);
+        Join<Agendamento, Patient> paciente = root.join("paciente", JoinType.LEFT);
+        Join<Agendamento, Profissional> profissional = root.join("profissional", JoinType.LEFT);
+        Join<Agendamento, Servico> servico = root.join("servico", JoinType.LEFT);
+        query.select(cb.construct(
+                LinhaAgendamento.class,
+                root.get("id"),
+                paciente.get("nomeCompleto"),
+                profissional.get("nome"),
+                servico.join("atividade", JoinType.LEFT).get("nome"),
+                servico.join("plano", JoinType.LEFT).get("nome"),
+                root.get("dataHora"),
+                root.get("status"),
+                root.get("duracaoMinutos")));
+        Predicate filtro = spec.toPredicate(root, query, cb);
+        if (filtro != null) query.where(filtro);
+        query.orderBy(cb.asc(root.get("dataHora")), cb.asc(root.get("id")));
+        return stream(query);
+    }
+
+    public Stream<LinhaPagamento> pagamentos(Specification<Pagamento> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LinhaPagamento> query = cb.createQuery(LinhaPagamento.class);
+        Root<Pagamento> root = query.from(Pagamento.class);
+        query.select(cb.construct(
+                LinhaPagamento.class,
+                root.get("id"),
+                root.join("paciente", JoinType.LEFT).get("nomeCompleto"),
+                root.get("valor"),
+                root.get("formaPagamento"),
+                root.get("status"),
+                root.get("dataVencimento"),
+                root.get("dataPagamento")));
+        Predicate filtro = spec.toPredicate(root, query, cb);
+        if (filtro != null) query.where(filtro);
+        query.orderBy(cb.asc(root.get("dataVencimento")), cb.asc(root.get("id")));
+        return stream(query);
+    }
+
+    private <T> Stream<T> stream(CriteriaQuery<T> query) {
+        return entityManager
+                .createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    public record LinhaAgendamento(
+            UUID id,
+            String paciente,
+            String profissional,
+            String atividade,
+            String plano,
+            LocalDateTime dataHora,
+            StatusAgendamento status,
+            Integer duracaoMinutos) {}
+
+    public record LinhaPagamento(
+            UUID id,
+            String paciente,
+            BigDecimal valor,
+            FormaPagamento formaPagamento,
+            StatusPagamento status,
+            LocalDate dataVencimento,
+            LocalDateTime dataPagamento) {}
+}
@@ -0,0 +1,45 @@
+package br.com.clinicahumaniza.patient_service.repository;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Primeiros {@code limite} registros de um filtro, numa ordem, carregados pelo grafo nomeado
+ * da entidade — a leitura das listagens por cursor, onde a posição já vem no próprio filtro
+ * ({@code Keyset.depoisDe}). O {@code findAll(spec, pageable)} dos repositórios sempre pula
+ * {@code OFFSET} linhas e conta o total; aqui não há nem um nem outro.
+ */
+@Repository
+public class FatiaRepository {
+
+    private final EntityManager entityManager;
+
+    public FatiaRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public <T> List<T> fatia(Class<T> tipo, Specification<T> spec, Sort sort, int limite, String grafo) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(tipo);
+        Root<T> root = query.from(tipo);
+        Predicate filtro = spec.toPredicate(root, query, cb);
+        if (filtro != null) query.where(filtro);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager
+                .createQuery(query)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(grafo))
+                .setMaxResults(limite)
+                .getResultList();
+    }
+}
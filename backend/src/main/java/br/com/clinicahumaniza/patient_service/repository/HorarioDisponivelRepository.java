@@ -2,8 +2,12 @@ package br.com.clinicahumaniza.patient_service.repository;
 
 import java.time.DayOfWeek;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,7 +16,17 @@ import br.com.clinicahumaniza.patient_service.model.HorarioDisponivel;
 @Repository
 public interface HorarioDisponivelRepository extends JpaRepository<HorarioDisponivel, UUID> {
 
+    @Override
+    @EntityGraph(HorarioDisponivel.PROFISSIONAL)
+    Optional<HorarioDisponivel> findById(UUID id);
+
+    @Override
+    @EntityGraph(HorarioDisponivel.PROFISSIONAL)
+    Page<HorarioDisponivel> findAll(Pageable pageable);
+
+    @EntityGraph(HorarioDisponivel.PROFISSIONAL)
     List<HorarioDisponivel> findByProfissionalId(UUID profissionalId);
 
+    @EntityGraph(HorarioDisponivel.PROFISSIONAL)
     List<HorarioDisponivel> findByProfissionalIdAndDiaSemana(UUID profissionalId, DayOfWeek diaSemana);
 }
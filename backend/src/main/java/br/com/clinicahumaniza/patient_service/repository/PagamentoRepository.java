@@ -1,27 +1,58 @@
 package br.com.clinicahumaniza.patient_service.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import br.com.clinicahumaniza.patient_service.model.Pagamento;
+import br.com.clinicahumaniza.patient_service.model.StatusPagamento;
 
 @Repository
 public interface PagamentoRepository extends JpaRepository<Pagamento, UUID>, JpaSpecificationExecutor<Pagamento> {
 
+    @Override
+    @EntityGraph(Pagamento.DETALHE)
+    Optional<Pagamento> findById(UUID id);
+
+    @Override
+    @EntityGraph(Pagamento.DETALHE)
+    Page<Pagamento> findAll(Specification<Pagamento> spec, Pageable pageable);
+
+    @EntityGraph(Pagamento.DETALHE)
     List<Pagamento> findByPacienteId(UUID pacienteId);
 
+    // Em JPQL pelo mesmo motivo de AgendamentoRepository.findByPacienteId: o derivado faz LEFT
+    // JOIN e filtra pelo id do pai, e o banco varre pagamentos.
+    @EntityGraph(Pagamento.DETALHE)
+    @Query("SELECT p FROM Pagamento p JOIN p.assinaturas a WHERE a.id = :assinaturaId")
     List<Pagamento> findByAssinaturasId(UUID assinaturaId);
 
+    @EntityGraph(Pagamento.DETALHE)
+    @Query("SELECT p FROM Pagamento p WHERE p.agendamento.id = :agendamentoId")
     List<Pagamento> findByAgendamentoId(UUID agendamentoId);
 
+    @EntityGraph(Pagamento.DETALHE)
     List<Pagamento> findByDataVencimentoBetween(LocalDate inicio, LocalDate fim);
 
+    // Coleções dos pagamentos já carregados, uma por select: chamadas na mesma transação,
+    // inicializam as coleções das instâncias que já estão no contexto de persistência.
+    @EntityGraph(Pagamento.ASSINATURAS)
+    List<Pagamento> findComAssinaturasByIdIn(Collection<UUID> ids);
+
+    @EntityGraph(Pagamento.PARCELAS)
+    List<Pagamento> findComParcelasByIdIn(Collection<UUID> ids);
+
     /**
      * Idempotência da cobrança recorrente: indica se já existe um pagamento (não cancelado)
      * vinculado a esta assinatura com o vencimento informado. Evita gerar a mesma mensalidade
@@ -31,4 +62,7 @@ public interface PagamentoRepository extends JpaRepository<Pagamento, UUID>, Jpa
             + "WHERE a.id = :assinaturaId AND p.dataVencimento = :dataVencimento "
             + "AND p.status <> br.com.clinicahumaniza.patient_service.model.StatusPagamento.CANCELADO")
     boolean existsByAssinaturaAndVencimento(UUID assinaturaId, LocalDate dataVencimento);
+
+    @Query("SELECT p.id FROM Pagamento p WHERE p.status IN :statuses")
+    List<UUID> findIdsByStatusIn(List<StatusPagamento> statuses);
 }
@@ -2,6 +2,7 @@ package br.com.clinicahumaniza.patient_service.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -23,4 +24,17 @@ public interface ParcelaRepository extends JpaRepository<Parcela, UUID> {
             + "WHERE p.status = 'PAGO' "
             + "AND p.dataPagamento BETWEEN :inicio AND :fim")
     BigDecimal sumParcelasPagasBetween(LocalDateTime inicio, LocalDateTime fim);
+
+    /** Mesma soma de {@link #sumParcelasPagasBetween}, aberta por pagamento. */
+    @Query("SELECT p.pagamento.id AS pagamentoId, SUM(p.valor) AS total FROM Parcela p "
+            + "WHERE p.status = 'PAGO' "
+            + "AND p.dataPagamento BETWEEN :inicio AND :fim "
+            + "GROUP BY p.pagamento.id")
+    List<ReceitaPorPagamento> sumParcelasPagasPorPagamentoBetween(LocalDateTime inicio, LocalDateTime fim);
+
+    interface ReceitaPorPagamento {
+        UUID getPagamentoId();
+
+        BigDecimal getTotal();
+    }
 }
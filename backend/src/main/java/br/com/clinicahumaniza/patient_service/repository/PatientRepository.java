@@ -26,4 +26,28 @@ public interface PatientRepository
 
     // Pacientes sem o nome normalizado — usados no backfill único da busca flexível.
     List<Patient> findByNomeNormalizadoIsNull();
+
+    // Id e nome normalizado de todos os pacientes — carga do índice de busca por nome em memória.
+    List<NomeNormalizado> findAllProjectedBy();
+
+    interface NomeNormalizado {
+        UUID getId();
+
+        String getNomeNormalizado();
+    }
+
+    // Só as colunas do autocomplete, dos pacientes ativos — carga do índice em memória.
+    List<ResumoAutocomplete> findAutocompleteByStatusAtivoTrue();
+
+    interface ResumoAutocomplete {
+        UUID getId();
+
+        String getNomeCompleto();
+
+        String getNomeNormalizado();
+
+        String getTelefone();
+
+        String getCpf();
+    }
 }
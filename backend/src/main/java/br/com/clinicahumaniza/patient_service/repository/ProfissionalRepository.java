@@ -1,8 +1,12 @@
 package br.com.clinicahumaniza.patient_service.repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,5 +15,16 @@ import br.com.clinicahumaniza.patient_service.model.Profissional;
 @Repository
 public interface ProfissionalRepository extends JpaRepository<Profissional, UUID> {
 
+    @Override
+    @EntityGraph(Profissional.DETALHE)
+    Optional<Profissional> findById(UUID id);
+
+    // Só o usuário: coleção no fetch de uma página seria paginada em memória. As atividades
+    // vêm depois, em lote (@BatchSize).
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Profissional> findAll(Pageable pageable);
+
+    @EntityGraph(Profissional.DETALHE)
     List<Profissional> findByAtividadesId(UUID atividadeId);
 }
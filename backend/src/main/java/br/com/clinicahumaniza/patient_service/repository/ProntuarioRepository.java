@@ -1,18 +1,82 @@
 package br.com.clinicahumaniza.patient_service.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.StatusPreview;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
 import br.com.clinicahumaniza.patient_service.model.TipoDocumento;
 
 @Repository
 public interface ProntuarioRepository extends JpaRepository<Prontuario, UUID> {
+
+    @Override
+    @EntityGraph(Prontuario.PACIENTE)
+    Optional<Prontuario> findById(UUID id);
+
+    @EntityGraph(Prontuario.PACIENTE)
     Page<Prontuario> findByPacienteId(UUID pacienteId, Pageable pageable);
 
+    @EntityGraph(Prontuario.PACIENTE)
     Page<Prontuario> findByPacienteIdAndTipo(UUID pacienteId, TipoDocumento tipo, Pageable pageable);
+
+    List<Prontuario> findByStatusAndProximaTentativaEmLessThanEqualOrderByCreatedAtAsc(
+            StatusProntuario status, LocalDateTime agora, Limit limit);
+
+    long countByStatus(StatusProntuario status);
+
+    /**
+     * Prontuários já no Storage cuja miniatura falta gerar, mais recentes primeiro (upload novo
+     * não espera o backfill). {@code incluirLegado} traz também os anteriores às miniaturas.
+     */
+    @Query("SELECT p FROM Prontuario p"
+            + " WHERE (p.status IS NULL OR p.status = :pronto)"
+            + " AND (p.previewStatus = :pendente OR (:incluirLegado = TRUE AND p.previewStatus IS NULL))"
+            + " AND p.tipoArquivo IN :tipos"
+            + " ORDER BY p.createdAt DESC")
+    List<Prontuario> findPreviewsAGerar(
+            @Param("pronto") StatusProntuario pronto,
+            @Param("pendente") StatusPreview pendente,
+            @Param("incluirLegado") boolean incluirLegado,
+            @Param("tipos") Collection<String> tipos,
+            Limit limit);
+
+    /** Prontuários já no Storage que ainda não estão no índice de busca, mais recentes primeiro. */
+    @Query("SELECT p FROM Prontuario p"
+            + " WHERE (p.status IS NULL OR p.status = :pronto) AND p.indexadoEm IS NULL"
+            + " ORDER BY p.createdAt DESC")
+    List<Prontuario> findAIndexar(@Param("pronto") StatusProntuario pronto, Limit limit);
+
+    @Query("SELECT COUNT(p) FROM Prontuario p"
+            + " WHERE (p.status IS NULL OR p.status = :pronto) AND p.indexadoEm IS NULL")
+    long countAIndexar(@Param("pronto") StatusProntuario pronto);
+
+    boolean existsByIndexadoEmIsNotNull();
+
+    // UPDATE pontual em vez de save: não sobrescreve o que os outros workers gravaram na linha.
+    // 0 = o prontuário foi excluído no meio da indexação.
+    @Modifying
+    @Transactional
+    @Query("UPDATE Prontuario p SET p.indexadoEm = :em WHERE p.id = :id")
+    int marcarIndexado(@Param("id") UUID id, @Param("em") LocalDateTime em);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Prontuario p SET p.indexadoEm = NULL WHERE p.indexadoEm IS NOT NULL")
+    int limparIndexacao();
 }
@@ -1,17 +1,32 @@
 package br.com.clinicahumaniza.patient_service.repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import br.com.clinicahumaniza.patient_service.model.Servico;
 
+// Toda leitura de serviço termina num DTO (ou no ReferenciaCache) com atividade e plano.
 @Repository
 public interface ServicoRepository extends JpaRepository<Servico, UUID> {
 
+    @Override
+    @EntityGraph(Servico.DESCRICAO)
+    Optional<Servico> findById(UUID id);
+
+    @Override
+    @EntityGraph(Servico.DESCRICAO)
+    Page<Servico> findAll(Pageable pageable);
+
+    @EntityGraph(Servico.DESCRICAO)
     List<Servico> findByAtividadeId(UUID atividadeId);
 
+    @EntityGraph(Servico.DESCRICAO)
     List<Servico> findByPlanoId(UUID planoId);
 }
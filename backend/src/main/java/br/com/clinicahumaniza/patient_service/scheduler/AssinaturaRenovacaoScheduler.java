@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import br.com.clinicahumaniza.patient_service.dto.RenovacaoProgressoDTO;
 import br.com.clinicahumaniza.patient_service.service.AssinaturaRenovacaoService;
 
 @Component
@@ -22,8 +23,14 @@ public class AssinaturaRenovacaoScheduler {
     public void verificarRenovacoes() {
         log.info("Iniciando verificacao de renovacao automatica de assinaturas");
         try {
-            int renovadas = renovacaoService.renovarAssinaturasProximasDoVencimento();
-            log.info("Verificacao de renovacao concluida: {} assinaturas renovadas", renovadas);
+            renovacaoService.renovarAssinaturasProximasDoVencimento();
+            RenovacaoProgressoDTO progresso = renovacaoService.getProgresso();
+            log.info(
+                    "Verificacao de renovacao concluida: {} renovadas, {} puladas, {} falhas ({} assinaturas/min)",
+                    progresso.getRenovadas(),
+                    progresso.getPuladas(),
+                    progresso.getFalhas(),
+                    String.format("%.1f", progresso.getAssinaturasPorMinuto()));
         } catch (Exception e) {
             log.error("Erro na verificacao de renovacao automatica: {}", e.getMessage(), e);
         }
@@ -0,0 +1,39 @@
+package br.com.clinicahumaniza.patient_service.scheduler;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.clinicahumaniza.patient_service.service.ParticionamentoService;
+
+@Component
+@ConditionalOnProperty(name = "app.particionamento.habilitado", havingValue = "true")
+public class ParticionamentoScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionamentoScheduler.class);
+
+    private final ParticionamentoService particionamentoService;
+
+    public ParticionamentoScheduler(ParticionamentoService particionamentoService) {
+        this.particionamentoService = particionamentoService;
+    }
+
+    /**
+     * Roda todo dia às 03h: as duas operações são idempotentes e baratas quando não há nada a
+     * fazer, e uma rodada perdida não deixa o mês seguinte sem partição.
+     */
+    @Scheduled(cron = "0 0 3 * * *")
+    public void manterParticoes() {
+        try {
+            int criadas = particionamentoService.criarParticoes();
+            List<String> arquivadas = particionamentoService.arquivarParticoes();
+            log.info("Manutencao de particoes concluida: {} criadas, {} arquivadas", criadas, arquivadas.size());
+        } catch (Exception e) {
+            log.error("Erro na manutencao de particoes: {}", e.getMessage(), e);
+        }
+    }
+}
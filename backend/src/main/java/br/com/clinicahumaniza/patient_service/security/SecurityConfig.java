@@ -2,6 +2,8 @@ package br.com.clinicahumaniza.patient_service.security;
 
 import java.util.List;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +20,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.DispatcherTypeRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -47,6 +54,15 @@ public class SecurityConfig {
         return new JwtAuthenticationFilter(jwtService, userDetailsService);
     }
 
+    private static RequestMatcher exportacoesCsvAsync() {
+        PathPatternRequestMatcher.Builder caminho = PathPatternRequestMatcher.withDefaults();
+        return new AndRequestMatcher(
+                new DispatcherTypeRequestMatcher(DispatcherType.ASYNC),
+                new OrRequestMatcher(
+                        caminho.matcher(HttpMethod.GET, "/api/v1/agendamentos/export/csv"),
+                        caminho.matcher(HttpMethod.GET, "/api/v1/pagamentos/export/csv")));
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -55,7 +71,12 @@ public class SecurityConfig {
                         .contentTypeOptions(contentType -> {})
                         .httpStrictTransportSecurity(
                                 hsts -> hsts.includeSubDomains(true).maxAgeInSeconds(31536000)))
-                .authorizeHttpRequests(auth -> auth.requestMatchers(HttpMethod.POST, "/api/auth/login")
+                // ASYNC: segunda passagem das exportações CSV em streaming. A requisição original
+                // já foi autorizada; o JWT não é relido nessa passagem. Só essas rotas: qualquer
+                // outra passagem ASYNC segue as regras abaixo.
+                .authorizeHttpRequests(auth -> auth.requestMatchers(exportacoesCsvAsync())
+                        .permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/auth/login")
                         .permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/auth/logout")
                         .permitAll()
@@ -63,6 +84,12 @@ public class SecurityConfig {
                         .hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/patients/*/permanente")
                         .hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/api/v1/cache")
+                        .hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/v1/prontuarios/busca/reconstruir")
+                        .hasRole("ADMIN")
+                        .requestMatchers("/api/v1/metricas/**")
+                        .hasRole("ADMIN")
                         .requestMatchers("/h2-console/**")
                         .permitAll()
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**")
@@ -71,6 +98,9 @@ public class SecurityConfig {
                         .permitAll()
                         .requestMatchers("/api/health")
                         .permitAll()
+                        // URL assinada do armazenamento local: a assinatura HMAC é a autorização
+                        .requestMatchers(HttpMethod.GET, "/api/v1/documentos")
+                        .permitAll()
                         .requestMatchers("/api/pagamentos/**")
                         .hasAnyRole("ADMIN", "USER")
                         .requestMatchers("/api/assinaturas/**")
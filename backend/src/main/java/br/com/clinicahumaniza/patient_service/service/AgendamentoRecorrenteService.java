@@ -30,9 +30,8 @@ public class AgendamentoRecorrenteService {
     private final AgendamentoRepository agendamentoRepository;
     private final AgendamentoRecorrenteRepository recorrenteRepository;
     private final PatientRepository patientRepository;
-    private final ProfissionalRepository profissionalRepository;
-    private final ServicoRepository servicoRepository;
     private final AssinaturaRepository assinaturaRepository;
+    private final ReferenciaCache referenciaCache;
     private final AgendamentoMapper agendamentoMapper;
 
     @Autowired
@@ -41,20 +40,21 @@ public class AgendamentoRecorrenteService {
             AgendamentoRepository agendamentoRepository,
             AgendamentoRecorrenteRepository recorrenteRepository,
             PatientRepository patientRepository,
-            ProfissionalRepository profissionalRepository,
-            ServicoRepository servicoRepository,
             AssinaturaRepository assinaturaRepository,
+            ReferenciaCache referenciaCache,
             AgendamentoMapper agendamentoMapper) {
         this.agendamentoService = agendamentoService;
         this.agendamentoRepository = agendamentoRepository;
         this.recorrenteRepository = recorrenteRepository;
         this.patientRepository = patientRepository;
-        this.profissionalRepository = profissionalRepository;
-        this.servicoRepository = servicoRepository;
         this.assinaturaRepository = assinaturaRepository;
+        this.referenciaCache = referenciaCache;
         this.agendamentoMapper = agendamentoMapper;
     }
 
+    // noRollbackFor: datas rejeitadas viram "ignoradas" e não devem desfazer o lote
+    // (mesma razão de AgendamentoService.createAgendamento).
+    @Transactional(noRollbackFor = BusinessException.class)
     public AgendamentoRecorrenteResponseDTO createRecorrente(AgendamentoRecorrenteRequestDTO dto) {
         if (dto.getTotalSessoes() == null && dto.getDataFim() == null) {
             throw new BusinessException("É necessário informar totalSessoes ou dataFim");
@@ -69,14 +69,14 @@ public class AgendamentoRecorrenteService {
                 .orElseThrow(() -> new ResourceNotFoundException("Paciente", dto.getPacienteId()));
 
         // Carrega serviço primeiro (sempre obrigatório); profissional só se for informado
-        Servico servico = servicoRepository
-                .findById(dto.getServicoId())
+        Servico servico = referenciaCache
+                .servico(dto.getServicoId())
                 .orElseThrow(() -> new ResourceNotFoundException("Serviço", dto.getServicoId()));
 
         Profissional profissional = null;
         if (dto.getProfissionalId() != null) {
-            profissional = profissionalRepository
-                    .findById(dto.getProfissionalId())
+            profissional = referenciaCache
+                    .profissional(dto.getProfissionalId())
                     .orElseThrow(() -> new ResourceNotFoundException("Profissional", dto.getProfissionalId()));
 
             // Validar que o profissional atende a atividade do serviço
@@ -143,29 +143,9 @@ public class AgendamentoRecorrenteService {
         recorrente.setObservacoes(dto.getObservacoes());
         recorrente = recorrenteRepository.save(recorrente);
 
-        // Tentar criar cada agendamento
-        List<Agendamento> criados = new ArrayList<>();
+        // Criar todos os agendamentos de uma vez (validação por período + insert em lote)
         List<DataIgnoradaDTO> ignoradas = new ArrayList<>();
-
-        for (LocalDateTime dataHora : datasCandidatas) {
-            AgendamentoRequestDTO agendamentoDTO = new AgendamentoRequestDTO();
-            agendamentoDTO.setPacienteId(dto.getPacienteId());
-            agendamentoDTO.setProfissionalId(dto.getProfissionalId());
-            agendamentoDTO.setServicoId(dto.getServicoId());
-            agendamentoDTO.setAssinaturaId(dto.getAssinaturaId());
-            agendamentoDTO.setDataHora(dataHora);
-            agendamentoDTO.setDuracaoMinutos(duracaoMinutos);
-            agendamentoDTO.setObservacoes(dto.getObservacoes());
-
-            try {
-                Agendamento agendamento = agendamentoService.createAgendamento(agendamentoDTO);
-                agendamento.setAgendamentoRecorrente(recorrente);
-                agendamentoRepository.save(agendamento);
-                criados.add(agendamento);
-            } catch (BusinessException e) {
-                ignoradas.add(new DataIgnoradaDTO(dataHora.toLocalDate(), e.getMessage()));
-            }
-        }
+        List<Agendamento> criados = agendamentoService.criarEmLote(recorrente, datasCandidatas, ignoradas);
 
         // Montar response
         return toResponseDTO(recorrente, criados, ignoradas);
@@ -1,13 +1,13 @@
 package br.com.clinicahumaniza.patient_service.service;
 
-import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -23,10 +23,13 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoStatusDTO;
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoUpdateDTO;
+import br.com.clinicahumaniza.patient_service.dto.DataIgnoradaDTO;
+import br.com.clinicahumaniza.patient_service.dto.PaginaCursorDTO;
 import br.com.clinicahumaniza.patient_service.dto.ReposicaoInfoDTO;
 import br.com.clinicahumaniza.patient_service.dto.ReposicaoRequestDTO;
 import br.com.clinicahumaniza.patient_service.exception.BusinessException;
@@ -35,20 +38,27 @@ import br.com.clinicahumaniza.patient_service.mapper.AgendamentoMapper;
 import br.com.clinicahumaniza.patient_service.model.*;
 import br.com.clinicahumaniza.patient_service.repository.*;
 import br.com.clinicahumaniza.patient_service.spec.AgendamentoSpecification;
+import br.com.clinicahumaniza.patient_service.spec.Keyset;
+import br.com.clinicahumaniza.patient_service.spec.PaginacaoCursor;
 
 @Service
 public class AgendamentoService {
 
     private final AgendamentoRepository agendamentoRepository;
+    private final AgendamentoLoteRepository agendamentoLoteRepository;
+    private final AgendamentoListagemRepository agendamentoListagemRepository;
     private final PatientRepository patientRepository;
-    private final ProfissionalRepository profissionalRepository;
-    private final ServicoRepository servicoRepository;
     private final AssinaturaRepository assinaturaRepository;
-    private final HorarioDisponivelRepository horarioDisponivelRepository;
-    private final FeriadoRepository feriadoRepository;
+    private final ReferenciaCache referenciaCache;
+    private final FeriadoCalendar feriadoCalendar;
+    private final ExportadorCsv exportadorCsv;
+    private final BuscaNomePaciente buscaNome;
     private final AgendamentoMapper agendamentoMapper;
     private final AssinaturaService assinaturaService;
-    private final Optional<GoogleCalendarService> googleCalendarService;
+    private final ProfissionalAgendaIndex agendaIndex;
+    private final GuardaAgenda guardaAgenda;
+    private final CalendarioOutboxService calendarioOutbox;
+    private final DashboardContadores dashboardContadores;
 
     // Regra de confidencialidade: agendamentos desta atividade atendidos por este
     // profissional (e-mail do usuário vinculado) ficam ocultos para os demais perfis.
@@ -61,25 +71,35 @@ public class AgendamentoService {
     @Autowired
     public AgendamentoService(
             AgendamentoRepository agendamentoRepository,
+            AgendamentoLoteRepository agendamentoLoteRepository,
+            AgendamentoListagemRepository agendamentoListagemRepository,
             PatientRepository patientRepository,
-            ProfissionalRepository profissionalRepository,
-            ServicoRepository servicoRepository,
             AssinaturaRepository assinaturaRepository,
-            HorarioDisponivelRepository horarioDisponivelRepository,
-            FeriadoRepository feriadoRepository,
+            ReferenciaCache referenciaCache,
+            FeriadoCalendar feriadoCalendar,
+            ExportadorCsv exportadorCsv,
             AgendamentoMapper agendamentoMapper,
             AssinaturaService assinaturaService,
-            Optional<GoogleCalendarService> googleCalendarService) {
+            ProfissionalAgendaIndex agendaIndex,
+            GuardaAgenda guardaAgenda,
+            CalendarioOutboxService calendarioOutbox,
+            BuscaNomePaciente buscaNome,
+            DashboardContadores dashboardContadores) {
         this.agendamentoRepository = agendamentoRepository;
+        this.agendamentoLoteRepository = agendamentoLoteRepository;
+        this.agendamentoListagemRepository = agendamentoListagemRepository;
         this.patientRepository = patientRepository;
-        this.profissionalRepository = profissionalRepository;
-        this.servicoRepository = servicoRepository;
         this.assinaturaRepository = assinaturaRepository;
-        this.horarioDisponivelRepository = horarioDisponivelRepository;
-        this.feriadoRepository = feriadoRepository;
+        this.referenciaCache = referenciaCache;
+        this.feriadoCalendar = feriadoCalendar;
+        this.exportadorCsv = exportadorCsv;
         this.agendamentoMapper = agendamentoMapper;
         this.assinaturaService = assinaturaService;
-        this.googleCalendarService = googleCalendarService;
+        this.agendaIndex = agendaIndex;
+        this.guardaAgenda = guardaAgenda;
+        this.calendarioOutbox = calendarioOutbox;
+        this.buscaNome = buscaNome;
+        this.dashboardContadores = dashboardContadores;
     }
 
     // noRollbackFor BusinessException: todas as BusinessException aqui (duração ausente,
@@ -95,14 +115,14 @@ public class AgendamentoService {
                 .orElseThrow(() -> new ResourceNotFoundException("Paciente", dto.getPacienteId()));
 
         // Carrega serviço primeiro (sempre obrigatório); profissional só se for informado
-        Servico servico = servicoRepository
-                .findById(dto.getServicoId())
+        Servico servico = referenciaCache
+                .servico(dto.getServicoId())
                 .orElseThrow(() -> new ResourceNotFoundException("Serviço", dto.getServicoId()));
 
         Profissional profissional = null;
         if (dto.getProfissionalId() != null) {
-            profissional = profissionalRepository
-                    .findById(dto.getProfissionalId())
+            profissional = referenciaCache
+                    .profissional(dto.getProfissionalId())
                     .orElseThrow(() -> new ResourceNotFoundException("Profissional", dto.getProfissionalId()));
             // Validar que o profissional atende a atividade do serviço
             validarProfissionalAtendeAtividade(profissional, servico);
@@ -140,6 +160,9 @@ public class AgendamentoService {
             int capacidade = servico.getAtividade().getCapacidadeMaxima() != null
                     ? servico.getAtividade().getCapacidadeMaxima()
                     : 1;
+            // Até o commit, ninguém mais marca neste dia do profissional: a contagem abaixo
+            // e o insert valem juntos.
+            guardaAgenda.travar(profissional.getId(), dto.getDataHora().toLocalDate());
             validarConflitoHorario(profissional.getId(), dto.getDataHora(), dto.getDuracaoMinutos(), capacidade);
         }
 
@@ -158,11 +181,111 @@ public class AgendamentoService {
         agendamento.setStatus(StatusAgendamento.AGENDADO);
 
         Agendamento saved = agendamentoRepository.save(agendamento);
+        agendaIndex.registrar(saved);
+        dashboardContadores.registrar(saved);
         // Sincroniza inclusive sem profissional (vai para a agenda da clínica).
-        googleCalendarService.ifPresent(g -> g.createEvent(saved));
+        calendarioOutbox.registrar(saved);
         return saved;
     }
 
+    /**
+     * Cria, de uma vez, os agendamentos de uma recorrência nas datas informadas.
+     *
+     * Aplica as mesmas regras de {@link #createAgendamento} (assinatura, disponibilidade,
+     * capacidade, duplicata — na mesma ordem e com as mesmas mensagens), mas resolvendo
+     * cada uma para o período inteiro com poucas consultas: horários do profissional numa
+     * só leitura, ocupação dos dias pré-carregada no índice e duplicatas do período num
+     * conjunto. As datas aprovadas são gravadas num único batch JDBC; as rejeitadas vão
+     * para {@code ignoradas} com o motivo. Paciente, serviço, profissional e duração já
+     * vêm resolvidos (e validados) na recorrência, que precisa estar salva.
+     */
+    @Transactional(noRollbackFor = BusinessException.class)
+    public List<Agendamento> criarEmLote(
+            AgendamentoRecorrente recorrente, List<LocalDateTime> datas, List<DataIgnoradaDTO> ignoradas) {
+        if (datas.isEmpty()) {
+            return List.of();
+        }
+        Profissional profissional = recorrente.getProfissional();
+        Servico servico = recorrente.getServico();
+        Assinatura assinatura = recorrente.getAssinatura();
+        int duracao = recorrente.getDuracaoMinutos();
+        int capacidade = servico.getAtividade().getCapacidadeMaxima() != null
+                ? servico.getAtividade().getCapacidadeMaxima()
+                : 1;
+
+        LocalDateTime primeira = datas.stream().min(LocalDateTime::compareTo).get();
+        LocalDateTime ultima = datas.stream().max(LocalDateTime::compareTo).get();
+
+        Map<DayOfWeek, List<HorarioDisponivel>> horariosPorDia = Map.of();
+        if (profissional != null) {
+            horariosPorDia = referenciaCache.horarios(profissional.getId()).stream()
+                    .collect(Collectors.groupingBy(HorarioDisponivel::getDiaSemana));
+            guardaAgenda.travar(
+                    profissional.getId(),
+                    datas.stream().map(LocalDateTime::toLocalDate).collect(Collectors.toSet()));
+            agendaIndex.aquecer(profissional.getId(), primeira.toLocalDate(), ultima.toLocalDate());
+        }
+        Set<LocalDateTime> ocupadas =
+                new HashSet<>(agendamentoRepository.findDataHoraByPacienteIdAndServicoIdAndDataHoraBetweenAndStatusIn(
+                        recorrente.getPaciente().getId(),
+                        servico.getId(),
+                        primeira,
+                        ultima,
+                        List.of(
+                                StatusAgendamento.AGENDADO,
+                                StatusAgendamento.CONFIRMADO,
+                                StatusAgendamento.REALIZADO)));
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<Agendamento> criados = new ArrayList<>();
+        for (LocalDateTime dataHora : datas) {
+            try {
+                if (assinatura != null) {
+                    validarAssinatura(assinatura);
+                }
+                if (profissional != null) {
+                    if (!dataHora.isBefore(agora)) {
+                        validarDentroDoHorarioDisponivel(
+                                horariosPorDia.getOrDefault(dataHora.getDayOfWeek(), List.of()), dataHora, duracao);
+                    }
+                    validarConflitoHorario(profissional.getId(), dataHora, duracao, capacidade);
+                }
+                if (ocupadas.contains(dataHora)) {
+                    throw new BusinessException("Já existe um agendamento para este paciente neste horário");
+                }
+            } catch (BusinessException e) {
+                ignoradas.add(new DataIgnoradaDTO(dataHora.toLocalDate(), e.getMessage()));
+                continue;
+            }
+
+            Agendamento agendamento = new Agendamento();
+            agendamento.setId(UUID.randomUUID());
+            agendamento.setPaciente(recorrente.getPaciente());
+            agendamento.setProfissional(profissional);
+            agendamento.setServico(servico);
+            agendamento.setAssinatura(assinatura);
+            agendamento.setAgendamentoRecorrente(recorrente);
+            agendamento.setDataHora(dataHora);
+            agendamento.setDuracaoMinutos(duracao);
+            agendamento.setObservacoes(recorrente.getObservacoes());
+            agendamento.setStatus(StatusAgendamento.AGENDADO);
+            agendamento.setCreatedAt(agora);
+            agendamento.setUpdatedAt(agora);
+            // Entra no índice e no conjunto já aqui, para que as próximas datas do lote o enxerguem.
+            agendaIndex.registrar(agendamento);
+            ocupadas.add(dataHora);
+            criados.add(agendamento);
+        }
+
+        // O insert JDBC não passa pelo contexto de persistência: descarrega antes as escritas
+        // pendentes (a própria recorrência, assinatura recém-alterada...) para as FKs existirem.
+        agendamentoRepository.flush();
+        agendamentoLoteRepository.inserir(criados);
+        dashboardContadores.registrarTodos(criados);
+        calendarioOutbox.registrarTodos(criados);
+        return criados;
+    }
+
     public Agendamento getAgendamentoById(UUID id) {
         Agendamento agendamento =
                 agendamentoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Agendamento", id));
@@ -179,7 +302,7 @@ public class AgendamentoService {
      * - O próprio profissional confidencial vê os seus;
      * - Demais perfis têm os agendamentos confidenciais ocultados.
      */
-    private boolean ocultarConfidenciaisParaUsuarioAtual() {
+    boolean ocultarConfidenciaisParaUsuarioAtual() {
         if (profissionalConfidencialEmail == null || profissionalConfidencialEmail.isBlank()) {
             return false;
         }
@@ -197,32 +320,26 @@ public class AgendamentoService {
 
     /** True se o agendamento é da atividade confidencial atendida pelo profissional confidencial. */
     private boolean isConfidencial(Agendamento a) {
-        if (atividadeConfidencialNome == null
-                || atividadeConfidencialNome.isBlank()
-                || profissionalConfidencialEmail == null
-                || profissionalConfidencialEmail.isBlank()) {
-            return false;
-        }
-        boolean ehAtividade = a.getServico() != null
-                && a.getServico().getAtividade() != null
-                && atividadeConfidencialNome.equalsIgnoreCase(
-                        a.getServico().getAtividade().getNome());
-        boolean ehProfissional = a.getProfissional() != null
-                && a.getProfissional().getUser() != null
-                && profissionalConfidencialEmail.equalsIgnoreCase(
-                        a.getProfissional().getUser().getEmail());
-        return ehAtividade && ehProfissional;
+        return isConfidencial(a, atividadeConfidencialNome, profissionalConfidencialEmail);
     }
 
-    /** Filtra a lista removendo confidenciais quando o usuário atual não pode vê-los. */
-    private List<Agendamento> aplicarConfidencialidade(List<Agendamento> lista) {
-        if (!ocultarConfidenciaisParaUsuarioAtual()) {
-            return lista;
-        }
-        return lista.stream().filter(a -> !isConfidencial(a)).collect(Collectors.toList());
+    static boolean isConfidencial(
+            Agendamento a, String atividadeConfidencialNome, String profissionalConfidencialEmail) {
+        String atividade = a.getServico() != null && a.getServico().getAtividade() != null
+                ? a.getServico().getAtividade().getNome()
+                : null;
+        String email = a.getProfissional() != null && a.getProfissional().getUser() != null
+                ? a.getProfissional().getUser().getEmail()
+                : null;
+        return AgendamentoSpecification.isConfidencial(
+                atividade, email, atividadeConfidencialNome, profissionalConfidencialEmail);
     }
 
-    public Page<Agendamento> getAllAgendamentos(
+    /**
+     * Listagem paginada, lida como projeção ({@link AgendamentoListagemRepository}): número fixo
+     * de comandos por página, qualquer que seja o tamanho dela.
+     */
+    public Page<AgendamentoListagemRepository.ItemAgendamento> getAllAgendamentos(
             StatusAgendamento status,
             UUID pacienteId,
             String pacienteNome,
@@ -231,18 +348,51 @@ public class AgendamentoService {
             LocalDateTime dataInicio,
             LocalDateTime dataFim,
             Pageable pageable) {
-        Specification<Agendamento> spec = Specification.allOf(
+        Specification<Agendamento> spec =
+                filtroListagem(status, pacienteId, pacienteNome, profissionalId, assinaturaId, dataInicio, dataFim);
+        return agendamentoListagemRepository.pagina(spec, comDesempate(pageable));
+    }
+
+    /**
+     * A mesma listagem, por cursor ({@code dataHora}, {@code id}): cada página começa depois da
+     * anterior em vez de pular {@code OFFSET} linhas, e o count só roda com {@code comTotal}.
+     */
+    public PaginaCursorDTO<AgendamentoListagemRepository.ItemAgendamento> getAgendamentosPorCursor(
+            StatusAgendamento status,
+            UUID pacienteId,
+            String pacienteNome,
+            UUID profissionalId,
+            UUID assinaturaId,
+            LocalDateTime dataInicio,
+            LocalDateTime dataFim,
+            PaginacaoCursor paginacao) {
+        Specification<Agendamento> spec =
+                filtroListagem(status, pacienteId, pacienteNome, profissionalId, assinaturaId, dataInicio, dataFim);
+        List<AgendamentoListagemRepository.ItemAgendamento> lidos = agendamentoListagemRepository.fatia(
+                spec.and(paginacao.depoisDe("dataHora")), paginacao.ordem("dataHora"), paginacao.tamanho() + 1);
+        return PaginaCursorDTO.de(
+                lidos,
+                paginacao.tamanho(),
+                item -> new Keyset(item.dataHora(), item.id()),
+                paginacao.comTotal() ? agendamentoListagemRepository.contar(spec) : null);
+    }
+
+    private Specification<Agendamento> filtroListagem(
+            StatusAgendamento status,
+            UUID pacienteId,
+            String pacienteNome,
+            UUID profissionalId,
+            UUID assinaturaId,
+            LocalDateTime dataInicio,
+            LocalDateTime dataFim) {
+        return Specification.allOf(
                 AgendamentoSpecification.hasStatus(status),
                 AgendamentoSpecification.hasPaciente(pacienteId),
-                AgendamentoSpecification.hasPacienteNome(pacienteNome),
+                AgendamentoSpecification.hasPacienteNome(buscaNome, pacienteNome),
                 AgendamentoSpecification.hasProfissional(profissionalId),
                 AgendamentoSpecification.hasAssinatura(assinaturaId),
                 AgendamentoSpecification.betweenDatas(dataInicio, dataFim),
-                AgendamentoSpecification.ocultarConfidencial(
-                        ocultarConfidenciaisParaUsuarioAtual(),
-                        atividadeConfidencialNome,
-                        profissionalConfidencialEmail));
-        return agendamentoRepository.findAll(spec, comDesempate(pageable));
+                filtroConfidencial());
     }
 
     /**
@@ -258,57 +408,44 @@ public class AgendamentoService {
                 pageable.getSort().and(Sort.by("id")));
     }
 
-    public byte[] exportCsv(LocalDate inicio, LocalDate fim, StatusAgendamento status) {
+    /**
+     * CSV dos agendamentos filtrados, escrito direto na resposta à medida que é lido do banco.
+     * O filtro de confidencialidade é resolvido aqui, na thread da requisição, onde está o
+     * usuário logado — a escrita acontece depois, fora dela.
+     */
+    public StreamingResponseBody exportCsv(LocalDate inicio, LocalDate fim, StatusAgendamento status) {
         LocalDateTime dtInicio = inicio != null ? inicio.atStartOfDay() : null;
         LocalDateTime dtFim = fim != null ? fim.atTime(LocalTime.MAX) : null;
         Specification<Agendamento> spec = Specification.allOf(
                 AgendamentoSpecification.hasStatus(status),
                 AgendamentoSpecification.betweenDatas(dtInicio, dtFim),
-                AgendamentoSpecification.ocultarConfidencial(
-                        ocultarConfidenciaisParaUsuarioAtual(),
-                        atividadeConfidencialNome,
-                        profissionalConfidencialEmail));
-        List<Agendamento> agendamentos = agendamentoRepository.findAll(spec);
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Paciente,Profissional,Servico,DataHora,Status,DuracaoMinutos\n");
-        for (Agendamento a : agendamentos) {
-            String nomeProfissional =
-                    a.getProfissional() != null ? a.getProfissional().getNome() : "Sem profissional";
-            csv.append(String.join(
-                            ",",
-                            a.getId().toString(),
-                            escapeCsv(a.getPaciente().getNomeCompleto()),
-                            escapeCsv(nomeProfissional),
-                            escapeCsv(a.getServico().getAtividade().getNome() + " - "
-                                    + a.getServico().getPlano().getNome()),
-                            a.getDataHora() != null ? a.getDataHora().toString() : "",
-                            a.getStatus().name(),
-                            a.getDuracaoMinutos() != null
-                                    ? a.getDuracaoMinutos().toString()
-                                    : ""))
-                    .append("\n");
-        }
-        return csv.toString().getBytes(StandardCharsets.UTF_8);
+                filtroConfidencial());
+        return out -> exportadorCsv.agendamentos(spec, out);
     }
 
-    private String escapeCsv(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
+    // Listas por paciente, profissional e período: mesma leitura por projeção da paginada, com a
+    // confidencialidade no SQL em vez de filtrada em memória depois de carregar as entidades.
+
+    public List<AgendamentoListagemRepository.ItemAgendamento> getAgendamentosByPaciente(UUID pacienteId) {
+        return agendamentoListagemRepository.lista(
+                Specification.allOf(AgendamentoSpecification.hasPaciente(pacienteId), filtroConfidencial()));
     }
 
-    public List<Agendamento> getAgendamentosByPaciente(UUID pacienteId) {
-        return aplicarConfidencialidade(agendamentoRepository.findByPacienteId(pacienteId));
+    public List<AgendamentoListagemRepository.ItemAgendamento> getAgendamentosByProfissional(UUID profissionalId) {
+        return agendamentoListagemRepository.lista(
+                Specification.allOf(AgendamentoSpecification.hasProfissional(profissionalId), filtroConfidencial()));
     }
 
-    public List<Agendamento> getAgendamentosByProfissional(UUID profissionalId) {
-        return aplicarConfidencialidade(agendamentoRepository.findByProfissionalId(profissionalId));
+    public List<AgendamentoListagemRepository.ItemAgendamento> getAgendamentosByPeriodo(
+            LocalDateTime inicio, LocalDateTime fim) {
+        return agendamentoListagemRepository.lista(
+                Specification.allOf(AgendamentoSpecification.betweenDatas(inicio, fim), filtroConfidencial()));
     }
 
-    public List<Agendamento> getAgendamentosByPeriodo(LocalDateTime inicio, LocalDateTime fim) {
-        return aplicarConfidencialidade(agendamentoRepository.findByDataHoraBetween(inicio, fim));
+    /** Regra de confidencialidade como filtro de consulta, já resolvida para o usuário atual. */
+    private Specification<Agendamento> filtroConfidencial() {
+        return AgendamentoSpecification.ocultarConfidencial(
+                ocultarConfidenciaisParaUsuarioAtual(), atividadeConfidencialNome, profissionalConfidencialEmail);
     }
 
     @Transactional
@@ -327,8 +464,8 @@ public class AgendamentoService {
         boolean trocouProfissional = Boolean.TRUE.equals(dto.getAlterarProfissional());
         if (trocouProfissional) {
             if (dto.getProfissionalId() != null) {
-                profissionalEfetivo = profissionalRepository
-                        .findById(dto.getProfissionalId())
+                profissionalEfetivo = referenciaCache
+                        .profissional(dto.getProfissionalId())
                         .orElseThrow(() -> new ResourceNotFoundException("Profissional", dto.getProfissionalId()));
                 validarProfissionalAtendeAtividade(profissionalEfetivo, agendamento.getServico());
             } else {
@@ -351,6 +488,7 @@ public class AgendamentoService {
             int capacidade = agendamento.getServico().getAtividade().getCapacidadeMaxima() != null
                     ? agendamento.getServico().getAtividade().getCapacidadeMaxima()
                     : 1;
+            guardaAgenda.travar(profissionalEfetivo.getId(), novaDataHora.toLocalDate());
             validarConflitoHorarioExcluindo(
                     profissionalEfetivo.getId(), novaDataHora, novaDuracao, agendamento.getId(), capacidade);
         }
@@ -360,7 +498,9 @@ public class AgendamentoService {
         }
         agendamentoMapper.updateEntityFromDto(dto, agendamento);
         Agendamento saved = agendamentoRepository.save(agendamento);
-        googleCalendarService.ifPresent(g -> g.updateEvent(saved));
+        agendaIndex.registrar(saved);
+        dashboardContadores.registrar(saved);
+        calendarioOutbox.registrar(saved);
         return saved;
     }
 
@@ -406,15 +546,13 @@ public class AgendamentoService {
         }
 
         Agendamento saved = agendamentoRepository.save(agendamento);
+        agendaIndex.registrar(saved);
+        dashboardContadores.registrar(saved);
 
         // === Google Calendar ===
-        // Entrou em CANCELADO agora → remover evento
-        if (statusNovo == StatusAgendamento.CANCELADO && statusAnterior != StatusAgendamento.CANCELADO) {
-            googleCalendarService.ifPresent(g -> g.deleteEvent(saved));
-        }
-        // Saiu de CANCELADO → recriar evento
-        if (statusAnterior == StatusAgendamento.CANCELADO && statusNovo != StatusAgendamento.CANCELADO) {
-            googleCalendarService.ifPresent(g -> g.createEvent(saved));
+        // Entrou em CANCELADO (remove o evento) ou saiu dele (recria)
+        if ((statusNovo == StatusAgendamento.CANCELADO) != (statusAnterior == StatusAgendamento.CANCELADO)) {
+            calendarioOutbox.registrar(saved);
         }
 
         return saved;
@@ -424,46 +562,31 @@ public class AgendamentoService {
     public void deleteAgendamento(UUID id) {
         Agendamento agendamento =
                 agendamentoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Agendamento", id));
-        googleCalendarService.ifPresent(g -> g.deleteEvent(agendamento));
         agendamento.setAtivo(false);
         agendamentoRepository.save(agendamento);
+        agendaIndex.registrar(agendamento);
+        dashboardContadores.registrar(agendamento);
+        calendarioOutbox.registrar(agendamento);
     }
 
     public List<LocalDateTime> getAvailableSlots(
             UUID profissionalId, LocalDate data, Integer duracaoMinutos, int capacidadeMaxima) {
         DayOfWeek diaSemana = data.getDayOfWeek();
-        List<HorarioDisponivel> horarios =
-                horarioDisponivelRepository.findByProfissionalIdAndDiaSemana(profissionalId, diaSemana);
+        List<HorarioDisponivel> horarios = referenciaCache.horarios(profissionalId, diaSemana);
 
         if (horarios.isEmpty()) {
             return List.of();
         }
 
-        // Buscar agendamentos existentes do dia (AGENDADO ou CONFIRMADO)
-        LocalDateTime startOfDay = data.atStartOfDay();
-        LocalDateTime endOfDay = data.atTime(LocalTime.MAX);
-        List<Agendamento> existingAppointments =
-                agendamentoRepository.findByProfissionalIdAndStatusInAndDataHoraBetween(
-                        profissionalId,
-                        List.of(StatusAgendamento.AGENDADO, StatusAgendamento.CONFIRMADO),
-                        startOfDay,
-                        endOfDay);
-
-        // Gerar slots disponíveis
+        // Gerar slots disponíveis — ocupação do dia (AGENDADO ou CONFIRMADO) vem do índice em memória
         List<LocalDateTime> slots = new ArrayList<>();
         for (HorarioDisponivel horario : horarios) {
             LocalTime current = horario.getHoraInicio();
             while (!current.plusMinutes(duracaoMinutos).isAfter(horario.getHoraFim())) {
                 LocalDateTime slotDateTime = data.atTime(current);
-                LocalDateTime slotEnd = slotDateTime.plusMinutes(duracaoMinutos);
 
-                long overlappingCount = existingAppointments.stream()
-                        .filter(a -> {
-                            LocalDateTime existingStart = a.getDataHora();
-                            LocalDateTime existingEnd = existingStart.plusMinutes(a.getDuracaoMinutos());
-                            return slotDateTime.isBefore(existingEnd) && slotEnd.isAfter(existingStart);
-                        })
-                        .count();
+                int overlappingCount =
+                        agendaIndex.contarSobreposicoes(profissionalId, slotDateTime, duracaoMinutos, null);
 
                 if (overlappingCount < capacidadeMaxima) {
                     slots.add(slotDateTime);
@@ -508,8 +631,8 @@ public class AgendamentoService {
         // Buscar profissional (opcional — pode ficar nulo, ex.: Pilates onde varia por dia)
         Profissional profissional = null;
         if (dto.getProfissionalId() != null) {
-            profissional = profissionalRepository
-                    .findById(dto.getProfissionalId())
+            profissional = referenciaCache
+                    .profissional(dto.getProfissionalId())
                     .orElseThrow(() -> new ResourceNotFoundException("Profissional", dto.getProfissionalId()));
             validarProfissionalAtendeAtividade(profissional, origem.getServico());
         }
@@ -523,6 +646,7 @@ public class AgendamentoService {
             int capacidade = origem.getServico().getAtividade().getCapacidadeMaxima() != null
                     ? origem.getServico().getAtividade().getCapacidadeMaxima()
                     : 1;
+            guardaAgenda.travar(profissional.getId(), dto.getDataHora().toLocalDate());
             validarConflitoHorario(profissional.getId(), dto.getDataHora(), duracao, capacidade);
         }
 
@@ -540,7 +664,9 @@ public class AgendamentoService {
         reposicao.setStatus(StatusAgendamento.AGENDADO);
 
         Agendamento saved = agendamentoRepository.save(reposicao);
-        googleCalendarService.ifPresent(g -> g.createEvent(saved));
+        agendaIndex.registrar(saved);
+        dashboardContadores.registrar(saved);
+        calendarioOutbox.registrar(saved);
         return saved;
     }
 
@@ -586,13 +712,16 @@ public class AgendamentoService {
     }
 
     private void validarDentroDoHorarioDisponivel(UUID profissionalId, LocalDateTime dataHora, Integer duracaoMinutos) {
-        DayOfWeek diaSemana = dataHora.getDayOfWeek();
+        List<HorarioDisponivel> horarios = referenciaCache.horarios(profissionalId, dataHora.getDayOfWeek());
+        validarDentroDoHorarioDisponivel(horarios, dataHora, duracaoMinutos);
+    }
+
+    /** Mesma validação, sobre os horários do dia da semana já carregados pelo caller. */
+    private void validarDentroDoHorarioDisponivel(
+            List<HorarioDisponivel> horarios, LocalDateTime dataHora, Integer duracaoMinutos) {
         LocalTime horaInicio = dataHora.toLocalTime();
         LocalTime horaFim = horaInicio.plusMinutes(duracaoMinutos);
 
-        List<HorarioDisponivel> horarios =
-                horarioDisponivelRepository.findByProfissionalIdAndDiaSemana(profissionalId, diaSemana);
-
         boolean dentroDoHorario = horarios.stream()
                 .anyMatch(h -> !horaInicio.isBefore(h.getHoraInicio()) && !horaFim.isAfter(h.getHoraFim()));
 
@@ -603,28 +732,7 @@ public class AgendamentoService {
 
     private void validarConflitoHorario(
             UUID profissionalId, LocalDateTime dataHora, Integer duracaoMinutos, int capacidadeMaxima) {
-        LocalDateTime fim = dataHora.plusMinutes(duracaoMinutos);
-        LocalDateTime startOfDay = dataHora.toLocalDate().atStartOfDay();
-        LocalDateTime endOfDay = dataHora.toLocalDate().atTime(LocalTime.MAX);
-
-        List<Agendamento> existing = agendamentoRepository.findByProfissionalIdAndStatusInAndDataHoraBetween(
-                profissionalId,
-                List.of(StatusAgendamento.AGENDADO, StatusAgendamento.CONFIRMADO),
-                startOfDay,
-                endOfDay);
-
-        long overlappingCount = existing.stream()
-                .filter(a -> {
-                    LocalDateTime existingStart = a.getDataHora();
-                    LocalDateTime existingEnd = existingStart.plusMinutes(a.getDuracaoMinutos());
-                    return dataHora.isBefore(existingEnd) && fim.isAfter(existingStart);
-                })
-                .count();
-
-        if (overlappingCount >= capacidadeMaxima) {
-            throw new BusinessException("Conflito de horário: capacidade máxima (" + capacidadeMaxima
-                    + ") atingida neste período para o profissional");
-        }
+        validarConflitoHorarioExcluindo(profissionalId, dataHora, duracaoMinutos, null, capacidadeMaxima);
     }
 
     private void validarConflitoHorarioExcluindo(
@@ -633,24 +741,8 @@ public class AgendamentoService {
             Integer duracaoMinutos,
             UUID agendamentoIdExcluir,
             int capacidadeMaxima) {
-        LocalDateTime fim = dataHora.plusMinutes(duracaoMinutos);
-        LocalDateTime startOfDay = dataHora.toLocalDate().atStartOfDay();
-        LocalDateTime endOfDay = dataHora.toLocalDate().atTime(LocalTime.MAX);
-
-        List<Agendamento> existing = agendamentoRepository.findByProfissionalIdAndStatusInAndDataHoraBetween(
-                profissionalId,
-                List.of(StatusAgendamento.AGENDADO, StatusAgendamento.CONFIRMADO),
-                startOfDay,
-                endOfDay);
-
-        long overlappingCount = existing.stream()
-                .filter(a -> !a.getId().equals(agendamentoIdExcluir))
-                .filter(a -> {
-                    LocalDateTime existingStart = a.getDataHora();
-                    LocalDateTime existingEnd = existingStart.plusMinutes(a.getDuracaoMinutos());
-                    return dataHora.isBefore(existingEnd) && fim.isAfter(existingStart);
-                })
-                .count();
+        int overlappingCount =
+                agendaIndex.contarSobreposicoes(profissionalId, dataHora, duracaoMinutos, agendamentoIdExcluir);
 
         if (overlappingCount >= capacidadeMaxima) {
             throw new BusinessException("Conflito de horário: capacidade máxima (" + capacidadeMaxima
@@ -708,8 +800,7 @@ public class AgendamentoService {
         }
 
         // Verificar se o dia do agendamento é feriado
-        boolean isFeriado =
-                feriadoRepository.isFeriado(agendamento.getDataHora().toLocalDate());
+        boolean isFeriado = feriadoCalendar.isFeriado(agendamento.getDataHora().toLocalDate());
         if (isFeriado) {
             agendamento.setDireitoReposicao(false);
             return;
@@ -2,20 +2,34 @@ package br.com.clinicahumaniza.patient_service.service;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoRecorrenteRequestDTO;
+import br.com.clinicahumaniza.patient_service.dto.RenovacaoProgressoDTO;
+import br.com.clinicahumaniza.patient_service.exception.BusinessException;
 import br.com.clinicahumaniza.patient_service.model.*;
 import br.com.clinicahumaniza.patient_service.repository.AgendamentoRecorrenteRepository;
 import br.com.clinicahumaniza.patient_service.repository.AssinaturaRepository;
@@ -25,52 +39,148 @@ public class AssinaturaRenovacaoService {
 
     private static final Logger log = LoggerFactory.getLogger(AssinaturaRenovacaoService.class);
     private static final int DIAS_ANTECEDENCIA_RENOVACAO = 3;
+    // Inclui FINALIZADO: assinaturas recorrentes que completaram todas as sessões viram
+    // FINALIZADO e ainda assim devem renovar (são reativadas para ATIVO ao gerar o novo ciclo).
+    private static final List<StatusAssinatura> STATUS_RENOVAVEIS =
+            List.of(StatusAssinatura.ATIVO, StatusAssinatura.FINALIZADO);
 
     private final AssinaturaRepository assinaturaRepository;
     private final AgendamentoRecorrenteRepository recorrenteRepository;
     private final AgendamentoRecorrenteService agendamentoRecorrenteService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor renovacaoExecutor;
+    private final DashboardContadores dashboardContadores;
+    private final AtomicBoolean emExecucao = new AtomicBoolean(false);
+    private volatile Execucao ultimaExecucao;
+
+    @Value("${app.renovacao.tamanho-lote:50}")
+    private int tamanhoLote = 50;
 
     public AssinaturaRenovacaoService(
             AssinaturaRepository assinaturaRepository,
             AgendamentoRecorrenteRepository recorrenteRepository,
-            AgendamentoRecorrenteService agendamentoRecorrenteService) {
+            AgendamentoRecorrenteService agendamentoRecorrenteService,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("renovacaoExecutor") Executor renovacaoExecutor,
+            DashboardContadores dashboardContadores) {
         this.assinaturaRepository = assinaturaRepository;
         this.recorrenteRepository = recorrenteRepository;
         this.agendamentoRecorrenteService = agendamentoRecorrenteService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.renovacaoExecutor = renovacaoExecutor;
+        this.dashboardContadores = dashboardContadores;
     }
 
-    @Transactional
+    /**
+     * Renova as assinaturas que vencem nos próximos dias.
+     *
+     * Percorre os ids em lotes por keyset e processa cada lote em paralelo no
+     * {@code renovacaoExecutor}, cada assinatura na sua própria transação curta: uma assinatura
+     * lenta ou com erro não segura as demais nem acumula o contexto de persistência do lote
+     * inteiro. Assinaturas renovadas saem do filtro (o vencimento avança), então uma execução
+     * interrompida é retomada simplesmente rodando de novo.
+     *
+     * Retorna quantas assinaturas foram processadas sem erro (renovadas + puladas); o detalhe
+     * fica em {@link #getProgresso()}.
+     */
     public int renovarAssinaturasProximasDoVencimento() {
-        LocalDate limitDate = LocalDate.now().plusDays(DIAS_ANTECEDENCIA_RENOVACAO);
+        if (!emExecucao.compareAndSet(false, true)) {
+            throw new BusinessException("A renovação automática já está em andamento");
+        }
+        Execucao execucao = new Execucao();
+        ultimaExecucao = execucao;
+        try {
+            LocalDate limitDate = LocalDate.now().plusDays(DIAS_ANTECEDENCIA_RENOVACAO);
+            UUID cursor = null;
+            while (true) {
+                List<UUID> lote = cursor == null
+                        ? assinaturaRepository.findIdsParaRenovacao(STATUS_RENOVAVEIS, limitDate, Limit.of(tamanhoLote))
+                        : assinaturaRepository.findIdsParaRenovacaoApos(
+                                STATUS_RENOVAVEIS, limitDate, cursor, Limit.of(tamanhoLote));
+                if (lote.isEmpty()) break;
 
-        // Inclui FINALIZADO: assinaturas recorrentes que completaram todas as sessões viram
-        // FINALIZADO e ainda assim devem renovar (são reativadas para ATIVO ao gerar o novo ciclo).
-        List<Assinatura> assinaturas =
-                assinaturaRepository.findByRenovacaoAutomaticaTrueAndStatusInAndDataVencimentoLessThanEqual(
-                        List.of(StatusAssinatura.ATIVO, StatusAssinatura.FINALIZADO), limitDate);
+                CompletableFuture.allOf(lote.stream()
+                                .map(id -> CompletableFuture.runAsync(() -> processar(id, execucao), renovacaoExecutor))
+                                .toArray(CompletableFuture[]::new))
+                        .join();
 
-        log.info("Encontradas {} assinaturas para renovacao automatica", assinaturas.size());
+                cursor = lote.get(lote.size() - 1);
+                execucao.ultimoIdProcessado = cursor;
+                log.info(
+                        "Renovacao automatica: {} processadas ({} renovadas, {} puladas, {} falhas), {} ms/assinatura",
+                        execucao.processadas.get(),
+                        execucao.renovadas.get(),
+                        execucao.puladas.get(),
+                        execucao.falhas.get(),
+                        String.format("%.1f", execucao.msPorAssinatura()));
+                if (lote.size() < tamanhoLote) break;
+            }
+        } finally {
+            execucao.concluidaEm = LocalDateTime.now();
+            emExecucao.set(false);
+        }
 
-        int renovadas = 0;
-        for (Assinatura assinatura : assinaturas) {
-            try {
-                renovarAssinatura(assinatura);
-                renovadas++;
-            } catch (Exception e) {
-                log.error(
-                        "Erro ao renovar assinatura {} do paciente {}: {}",
-                        assinatura.getId(),
-                        assinatura.getPaciente().getNomeCompleto(),
-                        e.getMessage());
-                appendObservacao(
-                        assinatura,
-                        "Falha na renovacao automatica em " + formatDate(LocalDate.now()) + ": " + e.getMessage());
-                assinaturaRepository.save(assinatura);
+        log.info(
+                "Renovacao automatica concluida: {} renovadas, {} puladas, {} falhas",
+                execucao.renovadas.get(),
+                execucao.puladas.get(),
+                execucao.falhas.get());
+        return execucao.renovadas.get() + execucao.puladas.get();
+    }
+
+    /** Progresso da execução atual (ou da última); {@code null} se nenhuma rodou desde o start. */
+    public RenovacaoProgressoDTO getProgresso() {
+        Execucao execucao = ultimaExecucao;
+        return execucao != null ? execucao.toDTO() : null;
+    }
+
+    private void processar(UUID assinaturaId, Execucao execucao) {
+        long inicio = System.nanoTime();
+        try {
+            // Assinaturas do mesmo profissional em paralelo se serializam só nos dias em comum,
+            // pela GuardaAgenda que a geração dos agendamentos já usa.
+            Boolean renovada = transactionTemplate.execute(status -> assinaturaRepository
+                    .findById(assinaturaId)
+                    .map(this::renovarAssinatura)
+                    .orElse(false));
+            if (Boolean.TRUE.equals(renovada)) {
+                execucao.renovadas.incrementAndGet();
+            } else {
+                execucao.puladas.incrementAndGet();
             }
+        } catch (Exception e) {
+            execucao.falhas.incrementAndGet();
+            registrarFalha(assinaturaId, e);
+        } finally {
+            execucao.processadas.incrementAndGet();
+            execucao.nanosProcessando.add(System.nanoTime() - inicio);
         }
+    }
 
-        log.info("Renovacao automatica concluida: {}/{} assinaturas renovadas", renovadas, assinaturas.size());
-        return renovadas;
+    // A transação da renovação já foi desfeita: anota a falha numa transação própria,
+    // sobre a assinatura relida do banco.
+    private void registrarFalha(UUID assinaturaId, Exception e) {
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> assinaturaRepository.findById(assinaturaId).ifPresent(assinatura -> {
+                        log.error(
+                                "Erro ao renovar assinatura {} do paciente {}: {}",
+                                assinatura.getId(),
+                                assinatura.getPaciente().getNomeCompleto(),
+                                e.getMessage());
+                        appendObservacao(
+                                assinatura,
+                                "Falha na renovacao automatica em " + formatDate(LocalDate.now()) + ": "
+                                        + e.getMessage());
+                        assinaturaRepository.save(assinatura);
+                    }));
+        } catch (Exception falhaAoRegistrar) {
+            log.error(
+                    "Erro ao renovar assinatura {}: {} (falha ao registrar nas observacoes: {})",
+                    assinaturaId,
+                    e.getMessage(),
+                    falhaAoRegistrar.getMessage());
+        }
     }
 
     /**
@@ -79,7 +189,7 @@ public class AssinaturaRenovacaoService {
      * vencimento atual e reativa a assinatura caso estivesse FINALIZADA.
      */
     @Transactional
-    public Assinatura renovarAssinaturaManual(java.util.UUID id) {
+    public Assinatura renovarAssinaturaManual(UUID id) {
         Assinatura assinatura = assinaturaRepository
                 .findById(id)
                 .orElseThrow(() -> new br.com.clinicahumaniza.patient_service.exception.ResourceNotFoundException(
@@ -88,7 +198,8 @@ public class AssinaturaRenovacaoService {
         return assinaturaRepository.findById(id).orElse(assinatura);
     }
 
-    private void renovarAssinatura(Assinatura assinatura) {
+    /** Gera o próximo ciclo da assinatura; retorna false se ela foi pulada (nada a gerar). */
+    private boolean renovarAssinatura(Assinatura assinatura) {
         List<AgendamentoRecorrente> templatesAtivos =
                 recorrenteRepository.findByAssinaturaIdAndAtivoTrue(assinatura.getId());
 
@@ -96,7 +207,7 @@ public class AssinaturaRenovacaoService {
             log.warn(
                     "Assinatura {} nao possui agendamentos recorrentes vinculados, pulando renovacao",
                     assinatura.getId());
-            return;
+            return false;
         }
 
         // Deduplica por slot (dias da semana + hora): renovações anteriores podiam ter
@@ -128,7 +239,7 @@ public class AssinaturaRenovacaoService {
                     assinatura.getId(),
                     novaDataInicio,
                     novaDataVencimento);
-            return;
+            return false;
         }
 
         // createRecorrente/createAgendamento exigem assinatura ATIVA e COM sessões restantes.
@@ -212,19 +323,23 @@ public class AssinaturaRenovacaoService {
                     "Renovado automaticamente em " + formatDate(LocalDate.now()) + " (" + totalAgendamentosCriados
                             + " agendamentos criados)");
             assinaturaRepository.save(assinatura);
+            dashboardContadores.registrar(assinatura);
 
             log.info(
                     "Assinatura {} renovada: nova data vencimento={}, +{} agendamentos/sessoes",
                     assinatura.getId(),
                     novaDataVencimento,
                     totalAgendamentosCriados);
+            return true;
         } else {
             // Nada foi criado: reverte a reativação e a ampliação de sessões para não deixar
             // a assinatura num estado inconsistente (ATIVO porém sem novas sessões reais).
             assinatura.setStatus(statusOriginal);
             assinatura.setSessoesContratadas(contratadasOriginais);
             assinaturaRepository.save(assinatura);
+            dashboardContadores.registrar(assinatura);
             log.warn("Nenhum agendamento criado na renovacao da assinatura {}", assinatura.getId());
+            return false;
         }
     }
 
@@ -250,4 +365,38 @@ public class AssinaturaRenovacaoService {
     private String formatDate(LocalDate date) {
         return date.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
     }
+
+    /** Contadores de uma execução — atualizados pelos workers, lidos pelo endpoint de progresso. */
+    private static final class Execucao {
+
+        private final LocalDateTime iniciadaEm = LocalDateTime.now();
+        private final long inicioNanos = System.nanoTime();
+        private volatile LocalDateTime concluidaEm;
+        private volatile UUID ultimoIdProcessado;
+        private final AtomicInteger processadas = new AtomicInteger();
+        private final AtomicInteger renovadas = new AtomicInteger();
+        private final AtomicInteger puladas = new AtomicInteger();
+        private final AtomicInteger falhas = new AtomicInteger();
+        private final LongAdder nanosProcessando = new LongAdder();
+
+        double msPorAssinatura() {
+            int n = processadas.get();
+            return n == 0 ? 0 : nanosProcessando.sum() / 1_000_000.0 / n;
+        }
+
+        RenovacaoProgressoDTO toDTO() {
+            double minutos = (System.nanoTime() - inicioNanos) / 60_000_000_000.0;
+            return new RenovacaoProgressoDTO(
+                    concluidaEm == null,
+                    iniciadaEm,
+                    concluidaEm,
+                    processadas.get(),
+                    renovadas.get(),
+                    puladas.get(),
+                    falhas.get(),
+                    msPorAssinatura(),
+                    minutos > 0 ? processadas.get() / minutos : 0,
+                    ultimoIdProcessado);
+        }
+    }
 }
@@ -16,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 import br.com.clinicahumaniza.patient_service.dto.AssinaturaRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.AssinaturaStatusDTO;
 import br.com.clinicahumaniza.patient_service.dto.AssinaturaUpdateDTO;
+import br.com.clinicahumaniza.patient_service.dto.PaginaCursorDTO;
 import br.com.clinicahumaniza.patient_service.dto.ReativarAssinaturaRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.SuspenderAssinaturaRequestDTO;
 import br.com.clinicahumaniza.patient_service.exception.BusinessException;
@@ -31,9 +32,14 @@ import br.com.clinicahumaniza.patient_service.model.StatusAssinatura;
 import br.com.clinicahumaniza.patient_service.repository.AgendamentoRecorrenteRepository;
 import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
 import br.com.clinicahumaniza.patient_service.repository.AssinaturaRepository;
+import br.com.clinicahumaniza.patient_service.repository.AssinaturaSessoesRepository;
+import br.com.clinicahumaniza.patient_service.repository.AssinaturaSessoesRepository.Contador;
+import br.com.clinicahumaniza.patient_service.repository.FatiaRepository;
 import br.com.clinicahumaniza.patient_service.repository.PatientRepository;
 import br.com.clinicahumaniza.patient_service.repository.ServicoRepository;
 import br.com.clinicahumaniza.patient_service.spec.AssinaturaSpecification;
+import br.com.clinicahumaniza.patient_service.spec.Keyset;
+import br.com.clinicahumaniza.patient_service.spec.PaginacaoCursor;
 
 @Service
 public class AssinaturaService {
@@ -44,7 +50,12 @@ public class AssinaturaService {
     private final AssinaturaMapper assinaturaMapper;
     private final AgendamentoRepository agendamentoRepository;
     private final AgendamentoRecorrenteRepository recorrenteRepository;
-    private final Optional<GoogleCalendarService> googleCalendarService;
+    private final ProfissionalAgendaIndex agendaIndex;
+    private final CalendarioOutboxService calendarioOutbox;
+    private final BuscaNomePaciente buscaNome;
+    private final DashboardContadores dashboardContadores;
+    private final FatiaRepository fatiaRepository;
+    private final AssinaturaSessoesRepository sessoesRepository;
 
     @Autowired
     public AssinaturaService(
@@ -54,14 +65,24 @@ public class AssinaturaService {
             AssinaturaMapper assinaturaMapper,
             AgendamentoRepository agendamentoRepository,
             AgendamentoRecorrenteRepository recorrenteRepository,
-            Optional<GoogleCalendarService> googleCalendarService) {
+            ProfissionalAgendaIndex agendaIndex,
+            CalendarioOutboxService calendarioOutbox,
+            BuscaNomePaciente buscaNome,
+            DashboardContadores dashboardContadores,
+            FatiaRepository fatiaRepository,
+            AssinaturaSessoesRepository sessoesRepository) {
         this.assinaturaRepository = assinaturaRepository;
         this.patientRepository = patientRepository;
         this.servicoRepository = servicoRepository;
         this.assinaturaMapper = assinaturaMapper;
         this.agendamentoRepository = agendamentoRepository;
         this.recorrenteRepository = recorrenteRepository;
-        this.googleCalendarService = googleCalendarService;
+        this.agendaIndex = agendaIndex;
+        this.calendarioOutbox = calendarioOutbox;
+        this.buscaNome = buscaNome;
+        this.dashboardContadores = dashboardContadores;
+        this.fatiaRepository = fatiaRepository;
+        this.sessoesRepository = sessoesRepository;
     }
 
     @Transactional
@@ -83,7 +104,7 @@ public class AssinaturaService {
                     dto.getDataInicio().plusDays(servico.getPlano().getValidadeDias()));
         }
 
-        return assinaturaRepository.save(assinatura);
+        return salvar(assinatura);
     }
 
     public Assinatura getAssinaturaById(UUID id) {
@@ -92,11 +113,31 @@ public class AssinaturaService {
 
     public Page<Assinatura> getAllAssinaturas(
             StatusAssinatura status, UUID pacienteId, String pacienteNome, Pageable pageable) {
-        Specification<Assinatura> spec = Specification.allOf(
+        return assinaturaRepository.findAll(filtroListagem(status, pacienteId, pacienteNome), pageable);
+    }
+
+    /** A mesma listagem, por cursor ({@code createdAt}, {@code id}), sem offset e com count opcional. */
+    public PaginaCursorDTO<Assinatura> getAssinaturasPorCursor(
+            StatusAssinatura status, UUID pacienteId, String pacienteNome, PaginacaoCursor paginacao) {
+        Specification<Assinatura> spec = filtroListagem(status, pacienteId, pacienteNome);
+        List<Assinatura> lidos = fatiaRepository.fatia(
+                Assinatura.class,
+                spec.and(paginacao.depoisDe("createdAt")),
+                paginacao.ordem("createdAt"),
+                paginacao.tamanho() + 1,
+                Assinatura.DETALHE);
+        return PaginaCursorDTO.de(
+                lidos,
+                paginacao.tamanho(),
+                a -> new Keyset(a.getCreatedAt(), a.getId()),
+                paginacao.comTotal() ? assinaturaRepository.count(spec) : null);
+    }
+
+    private Specification<Assinatura> filtroListagem(StatusAssinatura status, UUID pacienteId, String pacienteNome) {
+        return Specification.allOf(
                 AssinaturaSpecification.hasStatus(status),
                 AssinaturaSpecification.hasPaciente(pacienteId),
-                AssinaturaSpecification.hasPacienteNome(pacienteNome));
-        return assinaturaRepository.findAll(spec, pageable);
+                AssinaturaSpecification.hasPacienteNome(buscaNome, pacienteNome));
     }
 
     public List<Assinatura> getAssinaturasByPaciente(UUID pacienteId) {
@@ -113,7 +154,7 @@ public class AssinaturaService {
                 assinaturaRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Assinatura", id));
 
         assinaturaMapper.updateEntityFromDto(dto, assinatura);
-        return assinaturaRepository.save(assinatura);
+        return salvar(assinatura);
     }
 
     @Transactional
@@ -127,7 +168,7 @@ public class AssinaturaService {
 
         StatusAssinatura anterior = assinatura.getStatus();
         assinatura.setStatus(dto.getStatus());
-        Assinatura saved = assinaturaRepository.save(assinatura);
+        Assinatura saved = salvar(assinatura);
 
         // Cancelar a assinatura também encerra a agenda futura dela (igual ao suspender):
         // cancela agendamentos pendentes, desativa recorrências e remove os eventos do Google.
@@ -149,34 +190,31 @@ public class AssinaturaService {
             ag.setStatus(StatusAgendamento.CANCELADO);
             ag.setMotivoCancelamento(motivo);
             ag.setDireitoReposicao(false);
-            agendamentoRepository.save(ag);
-            googleCalendarService.ifPresent(g -> g.deleteEvent(ag));
+            agendaIndex.registrar(ag);
         }
+        // Como na geração em lote: uma escrita e um registro no outbox para o período inteiro.
+        agendamentoRepository.saveAll(futuros);
+        dashboardContadores.registrarTodos(futuros);
+        calendarioOutbox.registrarTodos(futuros);
 
         List<AgendamentoRecorrente> templates = recorrenteRepository.findByAssinaturaIdAndAtivoTrue(assinaturaId);
-        for (AgendamentoRecorrente t : templates) {
-            t.setAtivo(false);
-            recorrenteRepository.save(t);
-        }
+        templates.forEach(t -> t.setAtivo(false));
+        recorrenteRepository.saveAll(templates);
     }
 
+    /**
+     * Soma uma sessão realizada; ao atingir o total contratado a assinatura vira FINALIZADO no
+     * mesmo comando (ver {@link AssinaturaSessoesRepository}).
+     */
     @Transactional
     public Assinatura registrarSessao(UUID id) {
-        Assinatura assinatura =
-                assinaturaRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Assinatura", id));
-
-        if (assinatura.getStatus() != StatusAssinatura.ATIVO) {
+        Optional<Contador> contador = sessoesRepository.registrar(id);
+        if (contador.isEmpty()) {
+            Assinatura assinatura = getAssinaturaById(id);
             throw new BusinessException(
                     "Não é possível registrar sessão em assinatura com status " + assinatura.getStatus());
         }
-
-        assinatura.setSessoesRealizadas(assinatura.getSessoesRealizadas() + 1);
-
-        if (assinatura.getSessoesRealizadas() >= assinatura.getSessoesContratadas()) {
-            assinatura.setStatus(StatusAssinatura.FINALIZADO);
-        }
-
-        return assinaturaRepository.save(assinatura);
+        return sincronizar(id, contador.get());
     }
 
     /**
@@ -187,20 +225,18 @@ public class AssinaturaService {
      */
     @Transactional
     public Assinatura reverterSessao(UUID id) {
-        Assinatura assinatura =
-                assinaturaRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Assinatura", id));
-
-        if (assinatura.getSessoesRealizadas() > 0) {
-            assinatura.setSessoesRealizadas(assinatura.getSessoesRealizadas() - 1);
-        }
-
-        // Se estava FINALIZADO só por ter atingido o total, reabre como ATIVO
-        if (assinatura.getStatus() == StatusAssinatura.FINALIZADO
-                && assinatura.getSessoesRealizadas() < assinatura.getSessoesContratadas()) {
-            assinatura.setStatus(StatusAssinatura.ATIVO);
-        }
+        Contador contador =
+                sessoesRepository.reverter(id).orElseThrow(() -> new ResourceNotFoundException("Assinatura", id));
+        return sincronizar(id, contador);
+    }
 
-        return assinaturaRepository.save(assinatura);
+    // O contador mudou fora do JPA. Se a assinatura já estava no contexto (ex.: carregada pelo
+    // agendamento), o findById devolve a cópia antiga, que então é relida do banco.
+    private Assinatura sincronizar(UUID id, Contador contador) {
+        Assinatura assinatura = getAssinaturaById(id);
+        if (!contador.confere(assinatura)) sessoesRepository.recarregar(assinatura);
+        dashboardContadores.registrar(assinatura);
+        return assinatura;
     }
 
     /**
@@ -234,7 +270,7 @@ public class AssinaturaService {
         // Encerra a agenda futura (cancela agendamentos pendentes + desativa recorrências + Google).
         encerrarAgendaFutura(id, "Suspensão da assinatura: " + dto.getMotivo());
 
-        return assinaturaRepository.save(assinatura);
+        return salvar(assinatura);
     }
 
     /**
@@ -272,7 +308,7 @@ public class AssinaturaService {
         assinatura.setMotivoSuspensao(null);
         assinatura.setDataPrevistaRetomada(null);
 
-        return assinaturaRepository.save(assinatura);
+        return salvar(assinatura);
     }
 
     @Transactional
@@ -280,6 +316,13 @@ public class AssinaturaService {
         Assinatura assinatura =
                 assinaturaRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Assinatura", id));
         assinatura.setAtivo(false);
-        assinaturaRepository.save(assinatura);
+        salvar(assinatura);
+    }
+
+    // Toda assinatura gravada passa por aqui: mantém os cards do dashboard em dia.
+    private Assinatura salvar(Assinatura assinatura) {
+        Assinatura saved = assinaturaRepository.save(assinatura);
+        dashboardContadores.registrar(saved);
+        return saved;
     }
 }
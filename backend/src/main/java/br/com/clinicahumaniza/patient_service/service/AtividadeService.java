@@ -3,6 +3,7 @@ package br.com.clinicahumaniza.patient_service.service;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -46,6 +47,10 @@ public class AtividadeService {
     }
 
     @Transactional
+    // Serviços e profissionais em cache carregam cópias da atividade.
+    @CacheEvict(
+            cacheNames = {ReferenciaCache.SERVICOS, ReferenciaCache.PROFISSIONAIS},
+            allEntries = true)
     public Atividade updateAtividade(UUID id, AtividadeUpdateDTO dto) {
         Atividade atividade =
                 atividadeRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Atividade", id));
@@ -61,6 +66,10 @@ public class AtividadeService {
     }
 
     @Transactional
+    // Serviços e profissionais em cache carregam cópias da atividade.
+    @CacheEvict(
+            cacheNames = {ReferenciaCache.SERVICOS, ReferenciaCache.PROFISSIONAIS},
+            allEntries = true)
     public void deleteAtividade(UUID id) {
         Atividade atividade =
                 atividadeRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Atividade", id));
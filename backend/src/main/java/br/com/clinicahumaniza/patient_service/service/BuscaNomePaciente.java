@@ -0,0 +1,32 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+import br.com.clinicahumaniza.patient_service.model.Patient;
+
+/**
+ * Filtro "nome do paciente contém cada palavra do termo" usado nas listagens de pacientes,
+ * agendamentos, assinaturas e pagamentos — acento/caixa-insensível, por tokens
+ * ({@link br.com.clinicahumaniza.patient_service.util.BuscaNome#tokens}).
+ *
+ * Duas implementações, escolhidas por {@code app.busca-nome.indice}:
+ * <ul>
+ *   <li>{@code trigrama} (Postgres): o LIKE por token é servido pelo índice GIN pg_trgm de
+ *       {@code patients.nome_normalizado} (migration-busca-nome-trigrama.sql);</li>
+ *   <li>{@code memoria} (H2, dev e testes): índice de trigramas em processo resolve os ids e
+ *       a consulta filtra por {@code paciente.id IN (...)}.</li>
+ * </ul>
+ * As duas devolvem exatamente os mesmos pacientes.
+ */
+public interface BuscaNomePaciente {
+
+    Predicate predicado(CriteriaBuilder cb, Path<Patient> paciente, String termo);
+
+    /** Reflete no índice o nome atual do paciente (após o commit). */
+    default void registrar(Patient paciente) {}
+
+    /** Tira o paciente do índice (após o commit). */
+    default void remover(Patient paciente) {}
+}
@@ -0,0 +1,178 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.clinicahumaniza.patient_service.model.Patient;
+import br.com.clinicahumaniza.patient_service.repository.PatientRepository;
+import br.com.clinicahumaniza.patient_service.spec.NomeBusca;
+import br.com.clinicahumaniza.patient_service.util.BuscaNome;
+import br.com.clinicahumaniza.patient_service.util.Trigramas;
+
+/**
+ * Busca por nome com índice de trigramas em processo — o equivalente, no H2, do GIN
+ * pg_trgm do Postgres.
+ *
+ * Guarda o nome normalizado de cada paciente e, para cada trigrama de palavra, o conjunto
+ * de pacientes que o contém. Um nome só pode conter o token "tania" se tiver "tan", "ani"
+ * e "nia": a busca parte da menor dessas listas e confirma cada candidato com
+ * {@code contains} — mesmo resultado do LIKE '%token%', sem varrer todos os nomes. Tokens
+ * de 1–2 letras não têm trigrama interno e são conferidos direto nos candidatos.
+ *
+ * Carregado do banco na primeira busca e mantido pelo PatientService via
+ * {@link #registrar}/{@link #remover}, aplicados após o commit.
+ */
+@Component
+@ConditionalOnProperty(name = "app.busca-nome.indice", havingValue = "memoria", matchIfMissing = true)
+public class BuscaNomePacienteMemoria implements BuscaNomePaciente {
+
+    /** Acima disso o IN fica maior que o LIKE que ele substitui. */
+    static final int MAX_IDS_NO_FILTRO = 1000;
+
+    private final PatientRepository patientRepository;
+    private final Map<UUID, String> nomes = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> porTrigrama = new ConcurrentHashMap<>();
+    private volatile boolean carregado;
+
+    public BuscaNomePacienteMemoria(PatientRepository patientRepository, DataSource dataSource) {
+        this.patientRepository = patientRepository;
+        registrarSimilarityNoH2(dataSource);
+    }
+
+    @Override
+    public Predicate predicado(CriteriaBuilder cb, Path<Patient> paciente, String termo) {
+        Set<UUID> ids = buscar(termo);
+        if (ids.isEmpty()) return cb.disjunction();
+        if (ids.size() > MAX_IDS_NO_FILTRO) return NomeBusca.predicado(cb, paciente.get("nomeNormalizado"), termo);
+        return paciente.get("id").in(ids);
+    }
+
+    /** Ids dos pacientes cujo nome normalizado contém todas as palavras do termo. */
+    public Set<UUID> buscar(String termo) {
+        carregar();
+        String[] tokens = BuscaNome.tokens(termo);
+        Collection<UUID> candidatos = nomes.keySet();
+        for (String token : tokens) {
+            for (String trigrama : Trigramas.internos(token)) {
+                Set<UUID> comTrigrama = porTrigrama.getOrDefault(trigrama, Set.of());
+                if (comTrigrama.size() < candidatos.size()) candidatos = comTrigrama;
+            }
+        }
+        Set<UUID> ids = new HashSet<>();
+        for (UUID id : candidatos) {
+            String nome = nomes.get(id);
+            if (nome != null && contemTodos(nome, tokens)) ids.add(id);
+        }
+        return ids;
+    }
+
+    @Override
+    public void registrar(Patient paciente) {
+        UUID id = paciente.getId();
+        String nome = BuscaNome.normalizar(paciente.getNomeCompleto());
+        aposCommit(() -> indexar(id, nome));
+    }
+
+    @Override
+    public void remover(Patient paciente) {
+        UUID id = paciente.getId();
+        aposCommit(() -> indexar(id, null));
+    }
+
+    int tamanho() {
+        return nomes.size();
+    }
+
+    private static boolean contemTodos(String nome, String[] tokens) {
+        for (String token : tokens) {
+            if (!nome.contains(token)) return false;
+        }
+        return true;
+    }
+
+    private void carregar() {
+        if (carregado) return;
+        synchronized (this) {
+            if (carregado) return;
+            for (PatientRepository.NomeNormalizado p : patientRepository.findAllProjectedBy()) {
+                adicionar(p.getId(), BuscaNome.normalizar(p.getNomeNormalizado()));
+            }
+            carregado = true;
+        }
+    }
+
+    // Antes da primeira carga não há o que atualizar: a carga já lerá o estado commitado.
+    private synchronized void indexar(UUID id, String nome) {
+        if (!carregado) return;
+        String anterior = nomes.remove(id);
+        if (anterior != null) {
+            for (String t : trigramasDoNome(anterior)) {
+                Set<UUID> ids = porTrigrama.get(t);
+                if (ids != null) ids.remove(id);
+            }
+        }
+        if (nome != null) adicionar(id, nome);
+    }
+
+    private void adicionar(UUID id, String nome) {
+        nomes.put(id, nome);
+        for (String t : trigramasDoNome(nome)) {
+            porTrigrama.computeIfAbsent(t, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /** Trigramas internos de cada palavra — os únicos que um token sem espaço pode exigir. */
+    private static Set<String> trigramasDoNome(String nome) {
+        Set<String> trigramas = new HashSet<>();
+        for (String palavra : nome.split(" ")) {
+            trigramas.addAll(Trigramas.internos(palavra));
+        }
+        return trigramas;
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    /**
+     * A ordenação por relevância usa {@code similarity(nome, termo)}, do pg_trgm no Postgres.
+     * No H2 a mesma função é registrada apontando para {@link Trigramas#similaridade}.
+     */
+    private static void registrarSimilarityNoH2(DataSource dataSource) {
+        try (Connection conexao = dataSource.getConnection();
+                Statement stmt = conexao.createStatement()) {
+            if (!"H2".equals(conexao.getMetaData().getDatabaseProductName())) return;
+            stmt.execute(
+                    "CREATE ALIAS IF NOT EXISTS SIMILARITY FOR \"" + Trigramas.class.getName() + ".similaridade\"");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível registrar a função similarity no H2", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import br.com.clinicahumaniza.patient_service.model.Patient;
+import br.com.clinicahumaniza.patient_service.spec.NomeBusca;
+
+/**
+ * Busca por nome no Postgres: um LIKE '%token%' por palavra, que o planner resolve pelo
+ * índice GIN {@code gin_trgm_ops} de {@code nome_normalizado} em vez de varrer a tabela.
+ * Sem estado em memória — o índice é do banco.
+ */
+@Component
+@ConditionalOnProperty(name = "app.busca-nome.indice", havingValue = "trigrama")
+public class BuscaNomePacienteTrigrama implements BuscaNomePaciente {
+
+    @Override
+    public Predicate predicado(CriteriaBuilder cb, Path<Patient> paciente, String termo) {
+        return NomeBusca.predicado(cb, paciente.get("nomeNormalizado"), termo);
+    }
+}
@@ -0,0 +1,240 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.CalendarioOutbox;
+import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
+import br.com.clinicahumaniza.patient_service.repository.CalendarioOutboxRepository;
+import br.com.clinicahumaniza.patient_service.service.GoogleCalendarService.ResultadoLote;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+
+/**
+ * Esvazia a fila de sincronização com o Google Calendar.
+ *
+ * A cada rodada pega as pendências vencidas (mais antigas primeiro), agrupa por agendamento
+ * — várias alterações do mesmo agendamento viram uma única sincronização com o estado atual
+ * — e manda os agendamentos da rodada numa requisição em lote do Google, respeitando um
+ * limite de operações por segundo. Falhas não seguram a thread: a pendência é reagendada com
+ * backoff exponencial e a rodada segue.
+ *
+ * O tamanho do lote é adaptativo: cai pela metade quando o Google responde com limite de uso
+ * (403/429) — o que também pausa o dispatcher até o fim do backoff — e volta a crescer aos
+ * poucos a cada rodada sem falhas, até {@code google.calendar.outbox.lote}.
+ *
+ * Com várias instâncias ({@code google.calendar.outbox.distribuido}, só Postgres), a rodada
+ * só roda em quem pega um advisory lock de transação: as outras pulam a vez. Sem isso, duas
+ * instâncias leriam as mesmas pendências e criariam o mesmo evento duas vezes — e cada uma
+ * gastaria o seu próprio limite por segundo. O lock é de transação, e não de sessão, porque
+ * o pooler em Transaction mode não garante a mesma conexão entre dois comandos; ele fica numa
+ * conexão à parte, aberta só durante a rodada.
+ */
+@Component
+@ConditionalOnProperty(name = "google.calendar.enabled", havingValue = "true")
+public class CalendarioOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarioOutboxDispatcher.class);
+    private static final Duration ESPERA_INICIAL = Duration.ofSeconds(5);
+    private static final Duration ESPERA_MAXIMA = Duration.ofHours(1);
+    private static final long CHAVE_LIDER = "calendario_outbox".hashCode();
+
+    private final CalendarioOutboxRepository outboxRepository;
+    private final AgendamentoRepository agendamentoRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean distribuido;
+    private final int tamanhoLote;
+    private final Bucket limite;
+    private volatile LocalDateTime pausadoAte = LocalDateTime.MIN;
+    private volatile int loteAtual;
+
+    public CalendarioOutboxDispatcher(
+            CalendarioOutboxRepository outboxRepository,
+            AgendamentoRepository agendamentoRepository,
+            GoogleCalendarService googleCalendarService,
+            JdbcTemplate jdbcTemplate,
+            @Value("${google.calendar.outbox.distribuido:false}") boolean distribuido,
+            @Value("${google.calendar.outbox.operacoes-por-segundo:10}") int operacoesPorSegundo,
+            @Value("${google.calendar.outbox.lote:50}") int tamanhoLote) {
+        this.outboxRepository = outboxRepository;
+        this.agendamentoRepository = agendamentoRepository;
+        this.googleCalendarService = googleCalendarService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.distribuido = distribuido;
+        this.tamanhoLote = Math.max(1, Math.min(tamanhoLote, GoogleCalendarService.MAX_OPERACOES_POR_LOTE));
+        this.loteAtual = this.tamanhoLote;
+        // Capacidade de um lote cheio: depois de um tempo parado, a primeira rodada sai inteira;
+        // na média, continua valendo o limite por segundo.
+        this.limite = Bucket.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(Math.max(operacoesPorSegundo, this.tamanhoLote))
+                        .refillGreedy(operacoesPorSegundo, Duration.ofSeconds(1))
+                        .build())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${google.calendar.outbox.intervalo-ms:2000}")
+    public void drenar() {
+        if (LocalDateTime.now().isBefore(pausadoAte)) return;
+        if (!distribuido) {
+            rodada();
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            boolean autoCommit = conexao.getAutoCommit();
+            conexao.setAutoCommit(false);
+            try {
+                if (lider(conexao)) rodada();
+            } finally {
+                // Nada foi escrito nesta conexão: o rollback só encerra a transação e solta o lock.
+                conexao.rollback();
+                conexao.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private static boolean lider(Connection conexao) throws SQLException {
+        try (PreparedStatement ps = conexao.prepareStatement("SELECT pg_try_advisory_xact_lock(?)")) {
+            ps.setLong(1, CHAVE_LIDER);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void rodada() {
+        LocalDateTime agora = LocalDateTime.now();
+
+        List<CalendarioOutbox> vencidas =
+                outboxRepository.findByTentativasLessThanAndProximaTentativaEmLessThanEqualOrderByCreatedAtAsc(
+                        CalendarioOutboxService.MAX_TENTATIVAS, agora, Limit.of(tamanhoLote));
+        Map<UUID, List<CalendarioOutbox>> porAgendamento = vencidas.stream()
+                .collect(Collectors.groupingBy(
+                        CalendarioOutbox::getAgendamentoId, LinkedHashMap::new, Collectors.toList()));
+        if (porAgendamento.isEmpty()) return;
+
+        // Sem fichas suficientes: o restante fica para a próxima rodada, sem dormir na thread.
+        int fichas = (int) limite.tryConsumeAsMuchAsPossible(Math.min(loteAtual, porAgendamento.size()));
+        if (fichas == 0) return;
+        List<UUID> ids = porAgendamento.keySet().stream().limit(fichas).toList();
+
+        List<Agendamento> agendamentos = carregar(ids);
+        ResultadoLote resultado = sincronizar(agendamentos);
+
+        // Removido de vez do banco: não há o que sincronizar — conta como concluído.
+        List<CalendarioOutbox> concluidas = new ArrayList<>();
+        List<CalendarioOutbox> falharam = new ArrayList<>();
+        for (UUID id : ids) {
+            String erro = resultado.falhas().get(id);
+            if (erro == null) {
+                concluidas.addAll(porAgendamento.get(id));
+            } else {
+                reagendar(id, porAgendamento.get(id), erro);
+                falharam.addAll(porAgendamento.get(id));
+            }
+        }
+        if (!concluidas.isEmpty()) outboxRepository.deleteAllInBatch(concluidas);
+        if (!falharam.isEmpty()) outboxRepository.saveAll(falharam);
+
+        if (resultado.limiteAtingido()) {
+            loteAtual = Math.max(1, loteAtual / 2);
+            pausadoAte = LocalDateTime.now().plus(espera(falharam));
+            log.warn(
+                    "Limite de uso do Google atingido; sincronização pausada até {}, lote reduzido para {}",
+                    pausadoAte,
+                    loteAtual);
+        } else if (falharam.isEmpty()) {
+            loteAtual = Math.min(tamanhoLote, loteAtual + Math.max(1, tamanhoLote / 10));
+        }
+    }
+
+    int loteAtual() {
+        return loteAtual;
+    }
+
+    /**
+     * Ativos com o que o evento mostra (graph {@link Agendamento#CALENDARIO}) num select; os
+     * excluídos, que o @SQLRestriction esconde, pela nativa — para esses basta o profissional,
+     * o evento só é removido. Roda fora de transação: nada pode ficar para carregar depois.
+     */
+    private List<Agendamento> carregar(List<UUID> ids) {
+        List<Agendamento> agendamentos = new ArrayList<>(agendamentoRepository.findParaCalendarioByIdIn(ids));
+        Set<UUID> encontrados = agendamentos.stream().map(Agendamento::getId).collect(Collectors.toSet());
+        List<UUID> excluidos =
+                ids.stream().filter(id -> !encontrados.contains(id)).toList();
+        if (!excluidos.isEmpty()) agendamentos.addAll(agendamentoRepository.findAllByIdIncluindoInativos(excluidos));
+        return agendamentos;
+    }
+
+    private ResultadoLote sincronizar(List<Agendamento> agendamentos) {
+        try {
+            if (agendamentos.isEmpty()) return new ResultadoLote(Map.of(), false);
+            // Um só não compensa o envelope multipart do lote.
+            if (agendamentos.size() == 1) {
+                googleCalendarService.sincronizar(agendamentos.get(0));
+                return new ResultadoLote(Map.of(), false);
+            }
+            return googleCalendarService.sincronizarEmLote(agendamentos);
+        } catch (Exception e) {
+            // A requisição inteira falhou: vale para todos os agendamentos da rodada.
+            Map<UUID, String> falhas = new HashMap<>();
+            agendamentos.forEach(a -> falhas.put(a.getId(), String.valueOf(e.getMessage())));
+            return new ResultadoLote(falhas, limiteDeUso(e));
+        }
+    }
+
+    private void reagendar(UUID agendamentoId, List<CalendarioOutbox> pendencias, String erro) {
+        Duration espera = espera(pendencias);
+        for (CalendarioOutbox pendencia : pendencias) {
+            pendencia.setTentativas(pendencia.getTentativas() + 1);
+            pendencia.setProximaTentativaEm(LocalDateTime.now().plus(espera));
+            pendencia.setUltimoErro(erro);
+        }
+        log.warn(
+                "Falha ao sincronizar agendamento {} com o Google Calendar (tentativa {}): {}",
+                agendamentoId,
+                pendencias.get(0).getTentativas(),
+                erro);
+    }
+
+    /** Backoff exponencial pela pendência com mais tentativas do grupo, limitado a {@link #ESPERA_MAXIMA}. */
+    private static Duration espera(List<CalendarioOutbox> pendencias) {
+        int tentativas = pendencias.stream()
+                .mapToInt(CalendarioOutbox::getTentativas)
+                .max()
+                .orElse(0);
+        Duration espera = ESPERA_INICIAL.multipliedBy(1L << Math.min(tentativas, 20));
+        return espera.compareTo(ESPERA_MAXIMA) > 0 ? ESPERA_MAXIMA : espera;
+    }
+
+    private static boolean limiteDeUso(Exception e) {
+        return e instanceof GoogleJsonResponseException g && (g.getStatusCode() == 403 || g.getStatusCode() == 429);
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.clinicahumaniza.patient_service.dto.CalendarioSyncStatusDTO;
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.CalendarioOutbox;
+import br.com.clinicahumaniza.patient_service.repository.CalendarioOutboxRepository;
+
+/**
+ * Registra na fila (outbox) os agendamentos que precisam ser refletidos no Google Calendar.
+ * Deve ser chamado dentro da transação que altera o agendamento; quem envia de fato é o
+ * {@link CalendarioOutboxDispatcher}. Com a integração desligada, não grava nada.
+ */
+@Service
+public class CalendarioOutboxService {
+
+    /** Tentativas antes de a pendência ficar parada como falha (visível em {@link #getStatus()}). */
+    static final int MAX_TENTATIVAS = 10;
+
+    private final CalendarioOutboxRepository outboxRepository;
+    private final boolean habilitado;
+
+    public CalendarioOutboxService(
+            CalendarioOutboxRepository outboxRepository,
+            @Value("${google.calendar.enabled:false}") boolean habilitado) {
+        this.outboxRepository = outboxRepository;
+        this.habilitado = habilitado;
+    }
+
+    @Transactional
+    public void registrar(Agendamento agendamento) {
+        registrarTodos(List.of(agendamento));
+    }
+
+    @Transactional
+    public void registrarTodos(Collection<Agendamento> agendamentos) {
+        if (!habilitado || agendamentos.isEmpty()) return;
+        outboxRepository.saveAll(agendamentos.stream()
+                .map(a -> {
+                    CalendarioOutbox pendencia = new CalendarioOutbox();
+                    pendencia.setAgendamentoId(a.getId());
+                    return pendencia;
+                })
+                .toList());
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public CalendarioSyncStatusDTO getStatus() {
+        long pendentes = outboxRepository.countByTentativasLessThan(MAX_TENTATIVAS);
+        long comFalha = outboxRepository.countByTentativasGreaterThanEqual(MAX_TENTATIVAS);
+        LocalDateTime maisAntiga = outboxRepository
+                .findFirstByTentativasLessThanOrderByCreatedAtAsc(MAX_TENTATIVAS)
+                .map(CalendarioOutbox::getCreatedAt)
+                .orElse(null);
+        long atraso = maisAntiga != null
+                ? Duration.between(maisAntiga, LocalDateTime.now()).toSeconds()
+                : 0;
+        return new CalendarioSyncStatusDTO(pendentes, comFalha, maisAntiga, atraso);
+    }
+}
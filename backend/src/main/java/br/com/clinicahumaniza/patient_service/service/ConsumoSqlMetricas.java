@@ -0,0 +1,67 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import br.com.clinicahumaniza.patient_service.config.MedidorSql;
+import br.com.clinicahumaniza.patient_service.dto.ConsumoSqlEstatisticaDTO;
+
+/**
+ * Comandos SQL e tempo de banco acumulados por operação — rota HTTP ({@code GET
+ * /api/v1/agendamentos}) ou job agendado ({@code job CalendarioOutboxDispatcher.drenar}) —
+ * desde a subida ou o último {@link #limpar()}. Em memória, como as estatísticas do cache.
+ */
+@Component
+public class ConsumoSqlMetricas {
+
+    private final Map<String, Acumulado> porOperacao = new ConcurrentHashMap<>();
+
+    public void registrar(String operacao, MedidorSql.Medicao medicao) {
+        porOperacao.computeIfAbsent(operacao, k -> new Acumulado()).somar(medicao);
+    }
+
+    /** Operações da que mais gastou comandos no total para a que menos gastou. */
+    public List<ConsumoSqlEstatisticaDTO> estatisticas() {
+        return porOperacao.entrySet().stream()
+                .map(e -> e.getValue().dto(e.getKey()))
+                .sorted(Comparator.comparingLong(ConsumoSqlEstatisticaDTO::getComandos)
+                        .reversed())
+                .toList();
+    }
+
+    public void limpar() {
+        porOperacao.clear();
+    }
+
+    private static final class Acumulado {
+
+        private long execucoes;
+        private long comandos;
+        private int comandosMax;
+        private long nanos;
+        private long nanosMax;
+
+        synchronized void somar(MedidorSql.Medicao medicao) {
+            execucoes++;
+            comandos += medicao.comandos();
+            comandosMax = Math.max(comandosMax, medicao.comandos());
+            nanos += medicao.nanos();
+            nanosMax = Math.max(nanosMax, medicao.nanos());
+        }
+
+        synchronized ConsumoSqlEstatisticaDTO dto(String operacao) {
+            return new ConsumoSqlEstatisticaDTO(
+                    operacao,
+                    execucoes,
+                    comandos,
+                    (double) comandos / execucoes,
+                    comandosMax,
+                    nanos / 1_000_000.0 / execucoes,
+                    nanosMax / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.Assinatura;
+import br.com.clinicahumaniza.patient_service.model.Pagamento;
+import br.com.clinicahumaniza.patient_service.model.StatusAssinatura;
+import br.com.clinicahumaniza.patient_service.model.StatusPagamento;
+import br.com.clinicahumaniza.patient_service.model.StatusParcela;
+import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
+import br.com.clinicahumaniza.patient_service.repository.AssinaturaRepository;
+import br.com.clinicahumaniza.patient_service.repository.PagamentoRepository;
+import br.com.clinicahumaniza.patient_service.repository.ParcelaRepository;
+import br.com.clinicahumaniza.patient_service.spec.AgendamentoSpecification;
+
+/**
+ * Contadores dos cards do dashboard, mantidos em memória.
+ *
+ * Cada card é o conjunto de ids que ele conta — agendamentos de hoje (e, à parte, os
+ * confidenciais entre eles), pagamentos em aberto, assinaturas ativas — e a receita do mês
+ * é a soma das parcelas pagas por pagamento. Os serviços chamam {@link #registrar} com o
+ * estado final da entidade depois de cada escrita; o registro só entra ou sai dos conjuntos,
+ * então chamar duas vezes, ou para uma escrita que não mexe no card, não desconta nada.
+ * Pacientes ativos vêm do {@link PacienteAutocompleteIndex}, que já mantém esse conjunto.
+ *
+ * Carregado na primeira leitura de cada dia (o "hoje" e o mês mudam com a data) e aplicado
+ * após o commit. Por processo, como o {@link ProfissionalAgendaIndex}.
+ */
+@Component
+public class DashboardContadores {
+
+    static final List<StatusPagamento> STATUS_EM_ABERTO =
+            List.of(StatusPagamento.PENDENTE, StatusPagamento.PARCIALMENTE_PAGO);
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final PagamentoRepository pagamentoRepository;
+    private final ParcelaRepository parcelaRepository;
+    private final AssinaturaRepository assinaturaRepository;
+    private final PacienteAutocompleteIndex pacientes;
+
+    @Value("${app.visibilidade.atividade-confidencial-nome:}")
+    private String atividadeConfidencialNome;
+
+    @Value("${app.visibilidade.profissional-confidencial-email:}")
+    private String profissionalConfidencialEmail;
+
+    // Incrementada a cada registro aplicado: uma carga que começou antes dele não é publicada.
+    private long versao;
+    private volatile Estado estado;
+
+    public DashboardContadores(
+            AgendamentoRepository agendamentoRepository,
+            PagamentoRepository pagamentoRepository,
+            ParcelaRepository parcelaRepository,
+            AssinaturaRepository assinaturaRepository,
+            PacienteAutocompleteIndex pacientes) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.pagamentoRepository = pagamentoRepository;
+        this.parcelaRepository = parcelaRepository;
+        this.assinaturaRepository = assinaturaRepository;
+        this.pacientes = pacientes;
+    }
+
+    /** Contagens atuais. {@code agendamentosHoje} inclui os confidenciais. */
+    public Contagem contagem() {
+        Estado e = atual();
+        BigDecimal receita = BigDecimal.ZERO;
+        for (BigDecimal valor : e.receitaPorPagamento.values()) {
+            receita = receita.add(valor);
+        }
+        return new Contagem(
+                pacientes.totalAtivos(),
+                e.agendamentosHoje.size(),
+                e.confidenciaisHoje.size(),
+                e.pagamentosEmAberto.size(),
+                e.assinaturasAtivas.size(),
+                receita);
+    }
+
+    public void registrar(Agendamento agendamento) {
+        UUID id = agendamento.getId();
+        LocalDateTime dataHora = agendamento.isAtivo() ? agendamento.getDataHora() : null;
+        boolean confidencial = AgendamentoService.isConfidencial(
+                agendamento, atividadeConfidencialNome, profissionalConfidencialEmail);
+        aposCommit(e -> {
+            boolean hoje = dataHora != null && dataHora.toLocalDate().equals(e.dia);
+            marcar(e.agendamentosHoje, id, hoje);
+            marcar(e.confidenciaisHoje, id, hoje && confidencial);
+        });
+    }
+
+    public void registrarTodos(Collection<Agendamento> agendamentos) {
+        agendamentos.forEach(this::registrar);
+    }
+
+    public void registrar(Pagamento pagamento) {
+        UUID id = pagamento.getId();
+        boolean emAberto = pagamento.isAtivo() && STATUS_EM_ABERTO.contains(pagamento.getStatus());
+        // Como o sumParcelasPagasBetween: conta a parcela paga mesmo de pagamento excluído.
+        List<ParcelaPaga> pagas = pagamento.getParcelas().stream()
+                .filter(p -> p.isAtivo() && p.getStatus() == StatusParcela.PAGO && p.getDataPagamento() != null)
+                .map(p -> new ParcelaPaga(p.getDataPagamento(), p.getValor()))
+                .toList();
+        aposCommit(e -> {
+            marcar(e.pagamentosEmAberto, id, emAberto);
+            BigDecimal total = BigDecimal.ZERO;
+            for (ParcelaPaga p : pagas) {
+                if (e.noMes(p.dataPagamento())) total = total.add(p.valor());
+            }
+            if (total.signum() != 0) e.receitaPorPagamento.put(id, total);
+            else e.receitaPorPagamento.remove(id);
+        });
+    }
+
+    public void registrar(Assinatura assinatura) {
+        UUID id = assinatura.getId();
+        boolean ativa = Boolean.TRUE.equals(assinatura.getAtivo()) && assinatura.getStatus() == StatusAssinatura.ATIVO;
+        aposCommit(e -> marcar(e.assinaturasAtivas, id, ativa));
+    }
+
+    /** Descarta os contadores; são recarregados na próxima leitura. */
+    public synchronized void invalidar() {
+        versao++;
+        estado = null;
+    }
+
+    private Estado atual() {
+        LocalDate hoje = LocalDate.now();
+        Estado e = estado;
+        if (e != null && e.dia.equals(hoje)) return e;
+        long versaoNaCarga;
+        synchronized (this) {
+            versaoNaCarga = versao;
+        }
+        Estado novo = carregar(hoje);
+        synchronized (this) {
+            if (versao == versaoNaCarga) estado = novo;
+        }
+        return novo;
+    }
+
+    private Estado carregar(LocalDate dia) {
+        Estado e = new Estado(dia);
+        for (AgendamentoRepository.AgendamentoDoDia a :
+                agendamentoRepository.findDoDia(dia.atStartOfDay(), dia.atTime(LocalTime.MAX))) {
+            e.agendamentosHoje.add(a.getId());
+            if (AgendamentoSpecification.isConfidencial(
+                    a.getAtividade(),
+                    a.getProfissionalEmail(),
+                    atividadeConfidencialNome,
+                    profissionalConfidencialEmail)) {
+                e.confidenciaisHoje.add(a.getId());
+            }
+        }
+        e.pagamentosEmAberto.addAll(pagamentoRepository.findIdsByStatusIn(STATUS_EM_ABERTO));
+        e.assinaturasAtivas.addAll(assinaturaRepository.findIdsByStatus(StatusAssinatura.ATIVO));
+        for (ParcelaRepository.ReceitaPorPagamento r :
+                parcelaRepository.sumParcelasPagasPorPagamentoBetween(e.inicioMes, e.fimDia)) {
+            if (r.getTotal() != null && r.getTotal().signum() != 0)
+                e.receitaPorPagamento.put(r.getPagamentoId(), r.getTotal());
+        }
+        return e;
+    }
+
+    // O registro vale para o estado publicado no commit; sem estado, a próxima carga já lê o dado novo.
+    private void aposCommit(Consumer<Estado> acao) {
+        Runnable aplicar = () -> {
+            synchronized (this) {
+                versao++;
+                Estado e = estado;
+                if (e != null) acao.accept(e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar.run();
+                }
+            });
+        } else {
+            aplicar.run();
+        }
+    }
+
+    private static void marcar(Set<UUID> conjunto, UUID id, boolean conta) {
+        if (conta) conjunto.add(id);
+        else conjunto.remove(id);
+    }
+
+    public record Contagem(
+            int pacientesAtivos,
+            int agendamentosHoje,
+            int agendamentosHojeConfidenciais,
+            int pagamentosEmAberto,
+            int assinaturasAtivas,
+            BigDecimal receitaMes) {}
+
+    private record ParcelaPaga(LocalDateTime dataPagamento, BigDecimal valor) {}
+
+    private static final class Estado {
+
+        final LocalDate dia;
+        final LocalDateTime inicioMes;
+        final LocalDateTime fimDia;
+        final Set<UUID> agendamentosHoje = ConcurrentHashMap.newKeySet();
+        final Set<UUID> confidenciaisHoje = ConcurrentHashMap.newKeySet();
+        final Set<UUID> pagamentosEmAberto = ConcurrentHashMap.newKeySet();
+        final Set<UUID> assinaturasAtivas = ConcurrentHashMap.newKeySet();
+        final Map<UUID, BigDecimal> receitaPorPagamento = new ConcurrentHashMap<>();
+
+        Estado(LocalDate dia) {
+            this.dia = dia;
+            this.inicioMes = dia.withDayOfMonth(1).atStartOfDay();
+            this.fimDia = dia.atTime(LocalTime.MAX);
+        }
+
+        /** Do primeiro dia do mês até o fim de hoje — o intervalo do card "Receita do mês". */
+        boolean noMes(LocalDateTime data) {
+            return !data.isBefore(inicioMes) && !data.isAfter(fimDia);
+        }
+    }
+}
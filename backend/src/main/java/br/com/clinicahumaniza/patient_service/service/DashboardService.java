@@ -0,0 +1,41 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import br.com.clinicahumaniza.patient_service.dto.DashboardResumoDTO;
+
+@Service
+public class DashboardService {
+
+    private final DashboardContadores contadores;
+    private final AgendamentoService agendamentoService;
+
+    public DashboardService(DashboardContadores contadores, AgendamentoService agendamentoService) {
+        this.contadores = contadores;
+        this.agendamentoService = agendamentoService;
+    }
+
+    /**
+     * Cards do dashboard lidos dos contadores em memória. Agendamentos de hoje seguem a
+     * mesma regra de confidencialidade da listagem para o usuário logado.
+     */
+    public DashboardResumoDTO getResumo() {
+        DashboardContadores.Contagem c = contadores.contagem();
+        int agendamentosHoje = agendamentoService.ocultarConfidenciaisParaUsuarioAtual()
+                ? c.agendamentosHoje() - c.agendamentosHojeConfidenciais()
+                : c.agendamentosHoje();
+        if (isProfissional()) {
+            return new DashboardResumoDTO(c.pacientesAtivos(), agendamentosHoje, null, null, null);
+        }
+        return new DashboardResumoDTO(
+                c.pacientesAtivos(), agendamentosHoje, c.pagamentosEmAberto(), c.assinaturasAtivas(), c.receitaMes());
+    }
+
+    private static boolean isProfissional() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null
+                && auth.getAuthorities().stream().anyMatch(a -> "ROLE_PROFISSIONAL".equals(a.getAuthority()));
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.PathResource;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Onde ficam os arquivos dos prontuários.
+ *
+ * Duas implementações, escolhidas por {@code app.storage.backend}:
+ * <ul>
+ *   <li>{@code supabase} (padrão): {@link SupabaseStorageService}, bucket privado no Supabase
+ *       Storage com URLs assinadas pelo próprio Supabase;</li>
+ *   <li>{@code local}: {@link DocumentStorageLocal}, disco do servidor com deduplicação por
+ *       SHA-256 e URLs assinadas servidas pelo backend — instalações pequenas e testes offline.</li>
+ * </ul>
+ * Leituras feitas pelo backend passam pelo {@link DocumentoCache}, que funciona sobre qualquer uma.
+ */
+public interface DocumentStorage {
+
+    /**
+     * Validade das URLs assinadas. 3h: cobre uma sessão de trabalho típica sem deixar
+     * o link (sensível) válido por muito tempo.
+     */
+    int EXPIRACAO_URL_SEGUNDOS = 10800;
+
+    /**
+     * Grava o conteúdo em {@code storagePath}, lendo-o em streaming, e sobrescreve o que
+     * houver no path: numa nova tentativa, o envio anterior pode ter chegado mesmo tendo
+     * falhado do nosso lado. Tamanho e SHA-256 são os dos bytes efetivamente gravados.
+     */
+    ArquivoEnviado upload(String storagePath, InputStreamSource conteudo, String contentType) throws IOException;
+
+    /** Upload direto do multipart, num path novo do paciente. */
+    default ArquivoEnviado upload(UUID pacienteId, MultipartFile file) throws IOException {
+        return upload(novoCaminho(pacienteId, file.getOriginalFilename()), file, file.getContentType());
+    }
+
+    /** Envia um arquivo já guardado em disco (upload assíncrono) para o path informado. */
+    default ArquivoEnviado upload(String storagePath, Path arquivo, String contentType) throws IOException {
+        return upload(storagePath, new PathResource(arquivo), contentType);
+    }
+
+    /**
+     * Assina vários paths de uma vez. Devolve path → URL só dos que foram assinados; os que
+     * ficarem de fora falharam (arquivo inexistente, por exemplo). Erro de acesso sobe como IOException.
+     */
+    Map<String, String> getSignedUrls(Collection<String> storagePaths) throws IOException;
+
+    /**
+     * Abre o conteúdo para leitura; quem chama fecha o stream.
+     *
+     * @throws java.nio.file.NoSuchFileException se não há arquivo no path
+     */
+    InputStream abrir(String storagePath) throws IOException;
+
+    /** Remove o arquivo; falha é só logada (o registro já está saindo do banco). */
+    void delete(String storagePath);
+
+    /** Path do arquivo: {@code pacienteId/uuid_nome-sanitizado}. */
+    static String novoCaminho(UUID pacienteId, String nomeOriginal) {
+        return pacienteId + "/" + UUID.randomUUID() + "_" + sanitizeFilename(nomeOriginal);
+    }
+
+    /**
+     * Sanitiza o nome do arquivo para o path no Storage:
+     * - Remove acentos (à -> a, ê -> e, ç -> c)
+     * - Substitui caracteres não suportados ([^A-Za-z0-9._-]) por "_"
+     * - Mantém a extensão e legibilidade
+     *
+     * Exemplo: "Captura de Tela às 21.39.png" -> "Captura_de_Tela_as_21.39.png"
+     */
+    static String sanitizeFilename(String original) {
+        if (original == null || original.isBlank()) return "arquivo";
+        // NFD decompõe acentos; depois removemos os marcadores de acento
+        String semAcentos =
+                Normalizer.normalize(original, Normalizer.Form.NFD).replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+        // Substitui qualquer caractere que não seja [A-Za-z0-9._-] por "_"
+        String safe = semAcentos.replaceAll("[^A-Za-z0-9._-]", "_");
+        // Comprime sequências de "_" e remove "_" no início/fim (preservando extensão)
+        safe = safe.replaceAll("_+", "_").replaceAll("^_|_$", "");
+        return safe.isBlank() ? "arquivo" : safe;
+    }
+
+    /** Resultado do upload: path, bytes gravados e SHA-256 (hex) do conteúdo. */
+    record ArquivoEnviado(String storagePath, long tamanhoBytes, String sha256) {}
+}
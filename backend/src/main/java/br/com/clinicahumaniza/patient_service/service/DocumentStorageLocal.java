@@ -0,0 +1,250 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Arquivos no disco do próprio servidor, endereçados pelo conteúdo.
+ *
+ * <pre>
+ *   objetos/ab/abcd…            conteúdo, nomeado pelo SHA-256 (um só por conteúdo)
+ *   objetos/ab/abcd….refs/      um marcador por path que aponta para ele
+ *   caminhos/{storagePath}      SHA-256 do conteúdo daquele path e o content-type
+ * </pre>
+ *
+ * O mesmo exame enviado duas vezes ocupa o disco uma vez; o conteúdo só sai quando o
+ * último path que o referencia é removido. As URLs assinadas apontam para
+ * {@code GET /api/v1/documentos}, que confere a assinatura HMAC e a validade como o
+ * Supabase faria com as dele. A chave é gerada a cada subida: links antigos deixam de valer
+ * junto com o {@link UrlAssinadaCache}, que também é em memória.
+ *
+ * Metadados (refs e caminhos) são alterados sob um lock do processo — mesma premissa de
+ * instância única do spool e dos índices em memória.
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local")
+public class DocumentStorageLocal implements DocumentStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentStorageLocal.class);
+
+    static final String ENDPOINT = "/api/v1/documentos";
+    private static final String HMAC = "HmacSHA256";
+
+    private final Path objetos;
+    private final Path caminhos;
+    private final Path temporarios;
+    private final String urlBase;
+    private final Clock clock;
+    private final SecretKeySpec chave;
+    private final Object lock = new Object();
+
+    @Autowired
+    public DocumentStorageLocal(
+            @Value("${app.storage.local.dir:${user.home}/humaniza-documentos}") String dir,
+            @Value("${app.storage.local.url-base:}") String urlBase)
+            throws IOException {
+        this(Path.of(dir), urlBase, Clock.systemUTC());
+    }
+
+    DocumentStorageLocal(Path raiz, String urlBase, Clock clock) throws IOException {
+        this.objetos = Files.createDirectories(raiz.resolve("objetos"));
+        this.caminhos = Files.createDirectories(raiz.resolve("caminhos"));
+        this.temporarios = Files.createDirectories(raiz.resolve("tmp"));
+        this.urlBase = urlBase;
+        this.clock = clock;
+        byte[] segredo = new byte[32];
+        new SecureRandom().nextBytes(segredo);
+        this.chave = new SecretKeySpec(segredo, HMAC);
+    }
+
+    @Override
+    public ArquivoEnviado upload(String storagePath, InputStreamSource conteudo, String contentType)
+            throws IOException {
+        Path caminho = caminho(storagePath);
+
+        // Grava e calcula o hash fora do lock; só a publicação é serializada.
+        Path temporario = temporarios.resolve(UUID.randomUUID().toString());
+        MessageDigest sha256 = novoSha256();
+        long tamanho;
+        try (InputStream in = conteudo.getInputStream();
+                OutputStream out = new DigestOutputStream(Files.newOutputStream(temporario), sha256)) {
+            tamanho = in.transferTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+        String hash = HexFormat.of().formatHex(sha256.digest());
+
+        synchronized (lock) {
+            Path objeto = objeto(hash);
+            if (Files.exists(objeto)) {
+                Files.delete(temporario); // conteúdo repetido: reaproveita o que já está no disco
+            } else {
+                Files.createDirectories(objeto.getParent());
+                Files.move(temporario, objeto, StandardCopyOption.ATOMIC_MOVE);
+            }
+            Metadados anterior = metadados(caminho);
+            if (anterior != null && !anterior.hash().equals(hash)) soltar(anterior.hash(), storagePath);
+            Files.createDirectories(refs(hash));
+            Files.write(refs(hash).resolve(marcador(storagePath)), new byte[0]);
+            Files.createDirectories(caminho.getParent());
+            Path novo = temporarios.resolve(UUID.randomUUID().toString());
+            Files.writeString(novo, hash + "\n" + (contentType != null ? contentType : "application/octet-stream"));
+            Files.move(novo, caminho, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new ArquivoEnviado(storagePath, tamanho, hash);
+    }
+
+    @Override
+    public InputStream abrir(String storagePath) throws IOException {
+        return Files.newInputStream(objeto(metadadosObrigatorios(storagePath).hash()));
+    }
+
+    /** Content-type informado no upload, para servir o arquivo pelo endpoint de documentos. */
+    public String contentType(String storagePath) throws IOException {
+        return metadadosObrigatorios(storagePath).contentType();
+    }
+
+    @Override
+    public void delete(String storagePath) {
+        try {
+            Path caminho = caminho(storagePath);
+            synchronized (lock) {
+                Metadados atual = metadados(caminho);
+                if (atual == null) return;
+                Files.delete(caminho);
+                soltar(atual.hash(), storagePath);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Nao foi possivel remover documento local {}: {}", storagePath, e.getMessage());
+        }
+    }
+
+    /** URLs de {@code GET /api/v1/documentos}, assinadas com HMAC e válidas por {@link #EXPIRACAO_URL_SEGUNDOS}. */
+    @Override
+    public Map<String, String> getSignedUrls(Collection<String> storagePaths) throws IOException {
+        long expira = clock.instant().getEpochSecond() + EXPIRACAO_URL_SEGUNDOS;
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String path : storagePaths) {
+            if (!Files.exists(caminho(path))) continue;
+            urls.put(
+                    path,
+                    urlBase + ENDPOINT + "?path=" + URLEncoder.encode(path, StandardCharsets.UTF_8)
+                            + "&expira=" + expira
+                            + "&assinatura=" + assinatura(path, expira));
+        }
+        return urls;
+    }
+
+    /** Confere uma URL gerada por {@link #getSignedUrls}: assinatura íntegra e ainda no prazo. */
+    public boolean validar(String storagePath, long expira, String assinatura) {
+        if (expira < clock.instant().getEpochSecond() || assinatura == null) return false;
+        return MessageDigest.isEqual(
+                assinatura(storagePath, expira).getBytes(StandardCharsets.US_ASCII),
+                assinatura.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String assinatura(String storagePath, long expira) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(chave);
+            byte[] assinado = mac.doFinal((storagePath + "\n" + expira).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(assinado);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponível na JVM", e);
+        }
+    }
+
+    /** Tira a referência do path ao conteúdo; sem referências, o conteúdo sai do disco. */
+    private void soltar(String hash, String storagePath) throws IOException {
+        Path refs = refs(hash);
+        Files.deleteIfExists(refs.resolve(marcador(storagePath)));
+        boolean semReferencias;
+        try (var restantes = Files.list(refs)) {
+            semReferencias = restantes.findAny().isEmpty();
+        } catch (NoSuchFileException e) {
+            semReferencias = true;
+        }
+        if (semReferencias) {
+            Files.deleteIfExists(refs);
+            Files.deleteIfExists(objeto(hash));
+        }
+    }
+
+    private Metadados metadadosObrigatorios(String storagePath) throws IOException {
+        Metadados m = metadados(caminho(storagePath));
+        if (m == null) throw new NoSuchFileException(storagePath);
+        return m;
+    }
+
+    private Metadados metadados(Path caminho) throws IOException {
+        try {
+            String[] linhas = Files.readString(caminho).split("\n", 2);
+            return new Metadados(linhas[0].trim(), linhas.length > 1 ? linhas[1].trim() : "application/octet-stream");
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /** Arquivo de {@code caminhos/} do path, recusando o que escaparia da pasta. */
+    private Path caminho(String storagePath) {
+        Path caminho = caminhos.resolve(storagePath).normalize();
+        if (storagePath.isBlank() || !caminho.startsWith(caminhos) || caminho.equals(caminhos)) {
+            throw new IllegalArgumentException("Path de documento inválido: " + storagePath);
+        }
+        return caminho;
+    }
+
+    private Path objeto(String hash) {
+        return objetos.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path refs(String hash) {
+        return objetos.resolve(hash.substring(0, 2)).resolve(hash + ".refs");
+    }
+
+    /** Nome do marcador de referência: hash do path, que cabe em qualquer sistema de arquivos. */
+    private static String marcador(String storagePath) {
+        return HexFormat.of().formatHex(novoSha256().digest(storagePath.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest novoSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    private record Metadados(String hash, String contentType) {}
+}
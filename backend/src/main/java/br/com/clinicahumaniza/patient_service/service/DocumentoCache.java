@@ -0,0 +1,181 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache em disco, de leitura, dos documentos abertos pelo backend — sobre qualquer
+ * {@link DocumentStorage}.
+ *
+ * Na primeira leitura o arquivo vem do Storage para a pasta do cache e é servido de lá;
+ * as seguintes não saem para a rede. O total fica limitado a {@code app.storage.cache.max-mb},
+ * descartando os menos usados recentemente. Arquivo maior que o limite é servido sem ficar
+ * no cache. Com {@code max-mb=0} o cache fica desligado. A pasta é esvaziada na
+ * subida: o índice do que está nela é só em memória (instância única, como os demais).
+ */
+@Component
+public class DocumentoCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentoCache.class);
+
+    private final DocumentStorage storage;
+    private final Path dir;
+    private final long maxBytes;
+
+    // Ordem de acesso: o primeiro é o menos usado recentemente.
+    private final LinkedHashMap<String, Long> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public DocumentoCache(
+            DocumentStorage storage,
+            @Value("${app.storage.cache.dir:${java.io.tmpdir}/humaniza-documentos-cache}") String dir,
+            @Value("${app.storage.cache.max-mb:256}") long maxMb)
+            throws IOException {
+        this.storage = storage;
+        this.dir = Path.of(dir);
+        this.maxBytes = maxMb * 1024 * 1024;
+        Files.createDirectories(this.dir);
+        limpar();
+    }
+
+    /**
+     * Abre o documento, do cache se estiver lá; quem chama fecha o stream.
+     *
+     * @throws java.nio.file.NoSuchFileException se o Storage não tem o arquivo
+     */
+    public InputStream abrir(String storagePath) throws IOException {
+        if (maxBytes <= 0) return storage.abrir(storagePath);
+
+        Path arquivo = arquivo(storagePath);
+        synchronized (this) {
+            if (entradas.get(storagePath) != null) {
+                try {
+                    return Files.newInputStream(arquivo);
+                } catch (NoSuchFileException e) {
+                    descartar(storagePath);
+                }
+            }
+        }
+
+        // Baixa fora do lock: um download lento não trava as leituras que já estão no cache.
+        Path temporario = dir.resolve(UUID.randomUUID() + ".tmp");
+        long tamanho;
+        try (InputStream in = storage.abrir(storagePath);
+                OutputStream out = Files.newOutputStream(temporario)) {
+            tamanho = in.transferTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+
+        if (tamanho > maxBytes) {
+            // Não cabe: serve a cópia baixada e a apaga ao fechar.
+            return new ApagaAoFechar(temporario);
+        }
+        synchronized (this) {
+            Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Long anterior = entradas.put(storagePath, tamanho);
+            totalBytes += tamanho - (anterior != null ? anterior : 0);
+            liberarEspaco(storagePath);
+            // Aberto ainda sob o lock: nenhuma outra leitura pode descartá-lo antes disso.
+            return Files.newInputStream(arquivo);
+        }
+    }
+
+    /** Esquece um documento removido (ou substituído) no Storage. */
+    public synchronized void remover(String storagePath) {
+        descartar(storagePath);
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    synchronized boolean contem(String storagePath) {
+        return entradas.containsKey(storagePath);
+    }
+
+    /** Apaga o que sobrou da execução anterior — só os arquivos que o próprio cache cria. */
+    private void limpar() throws IOException {
+        try (var arquivos = Files.list(dir)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                String nome = arquivo.getFileName().toString();
+                if (nome.matches("[0-9a-f]{64}") || nome.endsWith(".tmp")) apagar(arquivo);
+            }
+        }
+    }
+
+    private void liberarEspaco(String manter) {
+        Iterator<Map.Entry<String, Long>> it = entradas.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> maisAntigo = it.next();
+            if (maisAntigo.getKey().equals(manter)) continue;
+            it.remove();
+            totalBytes -= maisAntigo.getValue();
+            apagar(arquivo(maisAntigo.getKey()));
+        }
+    }
+
+    private void descartar(String storagePath) {
+        Long tamanho = entradas.remove(storagePath);
+        if (tamanho != null) totalBytes -= tamanho;
+        apagar(arquivo(storagePath));
+    }
+
+    private void apagar(Path arquivo) {
+        // Quem está lendo mantém o conteúdo até fechar o stream (unlink no Linux).
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Nao foi possivel remover {} do cache de documentos: {}", arquivo, e.getMessage());
+        }
+    }
+
+    /** Nome no cache: hash do path, sem depender dos caracteres do nome original. */
+    private Path arquivo(String storagePath) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(storagePath.getBytes(StandardCharsets.UTF_8));
+            return dir.resolve(HexFormat.of().formatHex(hash));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    private static final class ApagaAoFechar extends FilterInputStream {
+
+        private final Path arquivo;
+
+        ApagaAoFechar(Path arquivo) throws IOException {
+            super(Files.newInputStream(arquivo));
+            this.arquivo = arquivo;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+}
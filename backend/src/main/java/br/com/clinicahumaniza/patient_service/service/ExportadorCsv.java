@@ -0,0 +1,100 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.Pagamento;
+import br.com.clinicahumaniza.patient_service.repository.ExportacaoCsvRepository;
+import br.com.clinicahumaniza.patient_service.repository.ExportacaoCsvRepository.LinhaAgendamento;
+import br.com.clinicahumaniza.patient_service.repository.ExportacaoCsvRepository.LinhaPagamento;
+
+/**
+ * Escreve as exportações CSV direto no corpo da resposta, linha a linha, enquanto o
+ * resultado é lido do banco — memória constante, qualquer que seja o período exportado.
+ *
+ * Roda fora da thread da requisição (dentro de um StreamingResponseBody), por isso recebe o
+ * filtro já resolvido: regras que dependem do usuário logado são aplicadas por quem chama.
+ */
+@Component
+public class ExportadorCsv {
+
+    private final ExportacaoCsvRepository exportacaoCsvRepository;
+
+    public ExportadorCsv(ExportacaoCsvRepository exportacaoCsvRepository) {
+        this.exportacaoCsvRepository = exportacaoCsvRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public void agendamentos(Specification<Agendamento> spec, OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        writer.write("ID,Paciente,Profissional,Servico,DataHora,Status,DuracaoMinutos\n");
+        try (Stream<LinhaAgendamento> linhas = exportacaoCsvRepository.agendamentos(spec)) {
+            for (Iterator<LinhaAgendamento> it = linhas.iterator(); it.hasNext(); ) {
+                LinhaAgendamento a = it.next();
+                linha(
+                        writer,
+                        a.id().toString(),
+                        escapeCsv(a.paciente()),
+                        escapeCsv(a.profissional() != null ? a.profissional() : "Sem profissional"),
+                        escapeCsv(a.atividade() + " - " + a.plano()),
+                        a.dataHora() != null ? a.dataHora().toString() : "",
+                        a.status().name(),
+                        a.duracaoMinutos() != null ? a.duracaoMinutos().toString() : "");
+            }
+        }
+        writer.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void pagamentos(Specification<Pagamento> spec, OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        writer.write("ID,Paciente,Valor,FormaPagamento,Status,DataVencimento,DataPagamento\n");
+        try (Stream<LinhaPagamento> linhas = exportacaoCsvRepository.pagamentos(spec)) {
+            for (Iterator<LinhaPagamento> it = linhas.iterator(); it.hasNext(); ) {
+                LinhaPagamento p = it.next();
+                linha(
+                        writer,
+                        p.id().toString(),
+                        escapeCsv(p.paciente()),
+                        p.valor().toString(),
+                        p.formaPagamento().name(),
+                        p.status().name(),
+                        p.dataVencimento() != null ? p.dataVencimento().toString() : "",
+                        p.dataPagamento() != null ? p.dataPagamento().toString() : "");
+            }
+        }
+        writer.flush();
+    }
+
+    // Não fecha o writer: o stream da resposta é do container.
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    private static void linha(Writer writer, String... campos) throws IOException {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) writer.write(',');
+            writer.write(campos[i]);
+        }
+        writer.write('\n');
+    }
+
+    static String escapeCsv(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
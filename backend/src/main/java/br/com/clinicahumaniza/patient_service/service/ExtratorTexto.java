@@ -0,0 +1,107 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Texto de um documento para o índice de busca: PDF (camada de texto, via PDFBox) e DOCX
+ * (o {@code word/document.xml} do zip, lido em streaming).
+ *
+ * O resultado para em {@code app.prontuarios.busca.max-caracteres} e o PDF nas primeiras
+ * {@link #MAX_PAGINAS} páginas: um laudo de 400 páginas não trava o worker nem incha o
+ * índice. PDF escaneado (só imagem) e DOC binário não têm texto extraível aqui — entram no
+ * índice só com título, descrição e tipo.
+ */
+@Component
+public class ExtratorTexto {
+
+    static final String DOCX = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    public static final Set<String> TIPOS_SUPORTADOS = Set.of("application/pdf", DOCX);
+
+    static final int MAX_PAGINAS = 100;
+
+    private final int maxCaracteres;
+
+    public ExtratorTexto(@Value("${app.prontuarios.busca.max-caracteres:200000}") int maxCaracteres) {
+        this.maxCaracteres = maxCaracteres;
+    }
+
+    public static boolean suporta(String contentType) {
+        return contentType != null && TIPOS_SUPORTADOS.contains(contentType);
+    }
+
+    /** Extrai o texto; conteúdo ilegível sobe como IOException. */
+    public String extrair(InputStream conteudo, String contentType) throws IOException {
+        return "application/pdf".equals(contentType) ? pdf(conteudo) : docx(conteudo);
+    }
+
+    private String pdf(InputStream conteudo) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(new RandomAccessReadBuffer(conteudo))) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setEndPage(MAX_PAGINAS);
+            return limitar(stripper.getText(pdf));
+        }
+    }
+
+    private String docx(InputStream conteudo) throws IOException {
+        ZipInputStream zip = new ZipInputStream(conteudo);
+        for (ZipEntry entrada = zip.getNextEntry(); entrada != null; entrada = zip.getNextEntry()) {
+            if ("word/document.xml".equals(entrada.getName())) return documentXml(zip);
+        }
+        throw new IOException("DOCX sem word/document.xml");
+    }
+
+    /** Junta os {@code <w:t>} do documento, quebrando linha a cada parágrafo. */
+    private String documentXml(InputStream xml) throws IOException {
+        XMLInputFactory fabrica = XMLInputFactory.newFactory();
+        // Documento enviado pelo usuário: nada de DTD nem entidades externas (XXE).
+        fabrica.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        fabrica.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        StringBuilder texto = new StringBuilder();
+        try {
+            XMLStreamReader leitor = fabrica.createXMLStreamReader(xml);
+            boolean emTexto = false;
+            // Para de ler no limite: o XML descompactado pode ser bem maior que o arquivo.
+            while (leitor.hasNext() && texto.length() < maxCaracteres) {
+                switch (leitor.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        String nome = leitor.getLocalName();
+                        emTexto = "t".equals(nome);
+                        if ("tab".equals(nome)) texto.append('\t');
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        emTexto = false;
+                        if ("p".equals(leitor.getLocalName())) texto.append('\n');
+                    }
+                    case XMLStreamConstants.CHARACTERS -> {
+                        if (emTexto) texto.append(leitor.getText());
+                    }
+                    default -> {}
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("DOCX ilegível: " + e.getMessage(), e);
+        }
+        return limitar(texto.toString());
+    }
+
+    private String limitar(String texto) {
+        return texto.length() > maxCaracteres ? texto.substring(0, maxCaracteres) : texto;
+    }
+}
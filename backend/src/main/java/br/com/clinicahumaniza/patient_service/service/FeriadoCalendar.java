@@ -0,0 +1,127 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.clinicahumaniza.patient_service.model.Feriado;
+import br.com.clinicahumaniza.patient_service.repository.FeriadoRepository;
+
+/**
+ * Calendário de feriados pré-computado em memória.
+ *
+ * Todos os feriados são lidos de uma vez e viram dois bitsets: um das datas fixas, indexado
+ * pelo dia desde a primeira data cadastrada, e um dos recorrentes, indexado por mês/dia
+ * ({@code mes * 32 + dia} — não pelo dia do ano, que muda em ano bissexto a partir de março).
+ * {@link #isFeriado} é então só aritmética sobre a data e dois {@code BitSet.get}, sem ida ao
+ * banco nem alocação.
+ *
+ * O FeriadoService chama {@link #invalidar} a cada cadastro, alteração ou exclusão; o
+ * calendário é reconstruído na consulta seguinte, depois do commit.
+ */
+@Component
+public class FeriadoCalendar {
+
+    private final FeriadoRepository feriadoRepository;
+    // Incrementada a cada invalidação: uma carga que começou antes dela não é publicada.
+    private final AtomicLong versao = new AtomicLong();
+    private volatile Calendario calendario;
+
+    public FeriadoCalendar(FeriadoRepository feriadoRepository) {
+        this.feriadoRepository = feriadoRepository;
+    }
+
+    public boolean isFeriado(LocalDate data) {
+        return atual().contem(data);
+    }
+
+    /** Feriados (fixos e recorrentes) entre {@code inicio} e {@code fim}, inclusive, em ordem. */
+    public List<LocalDate> feriadosEntre(LocalDate inicio, LocalDate fim) {
+        Calendario c = atual();
+        List<LocalDate> feriados = new ArrayList<>();
+        for (LocalDate d = inicio; !d.isAfter(fim); d = d.plusDays(1)) {
+            if (c.contem(d)) feriados.add(d);
+        }
+        return feriados;
+    }
+
+    /**
+     * Descarta o calendário atual. Dentro de uma transação, só vale após o commit — antes
+     * disso a releitura ainda veria os feriados antigos.
+     */
+    public void invalidar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    descartar();
+                }
+            });
+        } else {
+            descartar();
+        }
+    }
+
+    private void descartar() {
+        versao.incrementAndGet();
+        calendario = null;
+    }
+
+    private Calendario atual() {
+        Calendario c = calendario;
+        if (c != null) return c;
+        synchronized (this) {
+            if (calendario != null) return calendario;
+            long lida = versao.get();
+            c = Calendario.de(feriadoRepository.findAll());
+            if (versao.get() == lida) calendario = c;
+            return c;
+        }
+    }
+
+    private static final class Calendario {
+
+        private final long primeiroDia;
+        private final BitSet fixos;
+        private final BitSet recorrentes;
+
+        private Calendario(long primeiroDia, BitSet fixos, BitSet recorrentes) {
+            this.primeiroDia = primeiroDia;
+            this.fixos = fixos;
+            this.recorrentes = recorrentes;
+        }
+
+        static Calendario de(List<Feriado> feriados) {
+            long primeiroDia = feriados.stream()
+                    .filter(f -> f.getData() != null && !f.isRecorrente())
+                    .mapToLong(f -> f.getData().toEpochDay())
+                    .min()
+                    .orElse(0);
+            BitSet fixos = new BitSet();
+            BitSet recorrentes = new BitSet(13 * 32);
+            for (Feriado f : feriados) {
+                if (f.getData() == null) continue;
+                // Recorrente vale também na própria data cadastrada — basta o mês/dia.
+                if (f.isRecorrente()) recorrentes.set(mesDia(f.getData()));
+                else fixos.set((int) (f.getData().toEpochDay() - primeiroDia));
+            }
+            return new Calendario(primeiroDia, fixos, recorrentes);
+        }
+
+        boolean contem(LocalDate data) {
+            if (recorrentes.get(mesDia(data))) return true;
+            long dia = data.toEpochDay() - primeiroDia;
+            return dia >= 0 && dia < fixos.length() && fixos.get((int) dia);
+        }
+
+        private static int mesDia(LocalDate data) {
+            return data.getMonthValue() * 32 + data.getDayOfMonth();
+        }
+    }
+}
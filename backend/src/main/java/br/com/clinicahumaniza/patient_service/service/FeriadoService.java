@@ -1,14 +1,19 @@
 package br.com.clinicahumaniza.patient_service.service;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import br.com.clinicahumaniza.patient_service.dto.FeriadoRequestDTO;
+import br.com.clinicahumaniza.patient_service.exception.BusinessException;
 import br.com.clinicahumaniza.patient_service.exception.ResourceNotFoundException;
 import br.com.clinicahumaniza.patient_service.mapper.FeriadoMapper;
 import br.com.clinicahumaniza.patient_service.model.Feriado;
@@ -17,18 +22,25 @@ import br.com.clinicahumaniza.patient_service.repository.FeriadoRepository;
 @Service
 public class FeriadoService {
 
+    // O calendário percorre o período dia a dia: sem limite, 0001-01-01..9999-12-31 são ~3,6 mi de dias.
+    static final int MAX_ANOS_PERIODO = 5;
+
     private final FeriadoRepository feriadoRepository;
     private final FeriadoMapper feriadoMapper;
+    private final FeriadoCalendar feriadoCalendar;
 
     @Autowired
-    public FeriadoService(FeriadoRepository feriadoRepository, FeriadoMapper feriadoMapper) {
+    public FeriadoService(
+            FeriadoRepository feriadoRepository, FeriadoMapper feriadoMapper, FeriadoCalendar feriadoCalendar) {
         this.feriadoRepository = feriadoRepository;
         this.feriadoMapper = feriadoMapper;
+        this.feriadoCalendar = feriadoCalendar;
     }
 
     @Transactional
     public Feriado createFeriado(FeriadoRequestDTO dto) {
         Feriado feriado = feriadoMapper.toEntity(dto);
+        feriadoCalendar.invalidar();
         return feriadoRepository.save(feriado);
     }
 
@@ -40,11 +52,23 @@ public class FeriadoService {
         return feriadoRepository.findAll(pageable);
     }
 
+    public List<LocalDate> getFeriadosEntre(LocalDate inicio, LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            throw new BusinessException("Data final deve ser igual ou posterior à data inicial");
+        }
+        if (fim.isAfter(inicio.plusYears(MAX_ANOS_PERIODO))) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "O período não pode passar de " + MAX_ANOS_PERIODO + " anos");
+        }
+        return feriadoCalendar.feriadosEntre(inicio, fim);
+    }
+
     @Transactional
     public Feriado updateFeriado(UUID id, FeriadoRequestDTO dto) {
         Feriado feriado =
                 feriadoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Feriado", id));
         feriadoMapper.updateEntityFromDto(dto, feriado);
+        feriadoCalendar.invalidar();
         return feriadoRepository.save(feriado);
     }
 
@@ -53,5 +77,6 @@ public class FeriadoService {
         Feriado feriado =
                 feriadoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Feriado", id));
         feriadoRepository.delete(feriado);
+        feriadoCalendar.invalidar();
     }
 }
@@ -0,0 +1,125 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Miniatura JPEG de um documento: a própria imagem reduzida (JPEG/PNG) ou a primeira página
+ * (PDF), com o lado maior em {@code app.prontuarios.preview.tamanho-px}.
+ *
+ * A memória fica proporcional à miniatura, não ao original: imagens são lidas com
+ * subamostragem (um scan de 6000px não é decodificado inteiro) e a página do PDF é
+ * renderizada já na escala final.
+ */
+@Component
+public class GeradorPreview {
+
+    public static final String CONTENT_TYPE = "image/jpeg";
+
+    public static final Set<String> TIPOS_SUPORTADOS = Set.of("application/pdf", "image/jpeg", "image/png");
+
+    private static final float QUALIDADE_JPEG = 0.8f;
+
+    private final int tamanho;
+
+    public GeradorPreview(@Value("${app.prontuarios.preview.tamanho-px:320}") int tamanho) {
+        this.tamanho = tamanho;
+    }
+
+    public static boolean suporta(String contentType) {
+        return contentType != null && TIPOS_SUPORTADOS.contains(contentType);
+    }
+
+    /** Gera a miniatura; conteúdo ilegível sobe como IOException. */
+    public byte[] gerar(InputStream conteudo, String contentType) throws IOException {
+        BufferedImage imagem = "application/pdf".equals(contentType) ? primeiraPagina(conteudo) : imagem(conteudo);
+        return jpeg(reduzir(imagem));
+    }
+
+    private BufferedImage primeiraPagina(InputStream conteudo) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(new RandomAccessReadBuffer(conteudo))) {
+            if (pdf.getNumberOfPages() == 0) throw new IOException("PDF sem páginas");
+            PDRectangle pagina = pdf.getPage(0).getCropBox();
+            // Escala 1 = 72 dpi: renderiza direto no tamanho da miniatura.
+            float escala = tamanho / Math.max(pagina.getWidth(), pagina.getHeight());
+            return new PDFRenderer(pdf).renderImage(0, escala, ImageType.RGB);
+        }
+    }
+
+    private BufferedImage imagem(InputStream conteudo) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(conteudo)) {
+            Iterator<ImageReader> leitores = entrada != null ? ImageIO.getImageReaders(entrada) : null;
+            if (leitores == null || !leitores.hasNext()) throw new IOException("Formato de imagem não reconhecido");
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(entrada, true, true);
+                int maior = Math.max(leitor.getWidth(0), leitor.getHeight(0));
+                // Lê uma a cada N linhas/colunas, ficando com ~2x a miniatura para reduzir com qualidade.
+                int passo = Math.max(1, maior / (tamanho * 2));
+                ImageReadParam param = leitor.getDefaultReadParam();
+                param.setSourceSubsampling(passo, passo, 0, 0);
+                return leitor.read(0, param);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    private BufferedImage reduzir(BufferedImage original) {
+        double fator = Math.min(1.0, (double) tamanho / Math.max(original.getWidth(), original.getHeight()));
+        int largura = Math.max(1, (int) Math.round(original.getWidth() * fator));
+        int altura = Math.max(1, (int) Math.round(original.getHeight() * fator));
+        BufferedImage reduzida = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = reduzida.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            // PNG com transparência: fundo branco em vez de preto no JPEG.
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, largura, altura);
+            g.drawImage(original, 0, 0, largura, altura, null);
+        } finally {
+            g.dispose();
+        }
+        return reduzida;
+    }
+
+    private static byte[] jpeg(BufferedImage imagem) throws IOException {
+        ImageWriter escritor = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream destino = new MemoryCacheImageOutputStream(saida)) {
+            escritor.setOutput(destino);
+            ImageWriteParam param = escritor.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(QUALIDADE_JPEG);
+            escritor.write(null, new IIOImage(imagem, null, null), param);
+        } finally {
+            escritor.dispose();
+        }
+        return saida.toByteArray();
+    }
+}
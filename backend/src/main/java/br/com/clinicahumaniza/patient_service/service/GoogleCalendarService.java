@@ -3,22 +3,34 @@ package br.com.clinicahumaniza.patient_service.service;
 import java.io.IOException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
-import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.util.DateTime;
 import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventDateTime;
 
 import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.StatusAgendamento;
 import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
 import br.com.clinicahumaniza.patient_service.util.NomeCurto;
 
@@ -28,8 +40,11 @@ public class GoogleCalendarService {
 
     private static final Logger log = LoggerFactory.getLogger(GoogleCalendarService.class);
     private static final String TIMEZONE = "America/Sao_Paulo";
-    // Tentativas em caso de limite de uso do Google (403/429), com backoff exponencial.
-    private static final int MAX_TENTATIVAS = 4;
+    private static final Set<String> MOTIVOS_LIMITE_DE_USO =
+            Set.of("rateLimitExceeded", "userRateLimitExceeded", "quotaExceeded");
+
+    /** Máximo de operações numa requisição em lote aceito pela API do Google Calendar. */
+    static final int MAX_OPERACOES_POR_LOTE = 50;
 
     private final Calendar calendar;
     private final AgendamentoRepository agendamentoRepository;
@@ -42,172 +57,315 @@ public class GoogleCalendarService {
         this.agendamentoRepository = agendamentoRepository;
     }
 
-    @Async("googleCalendarExecutor")
-    public void createEvent(Agendamento agendamento) {
-        doCreateEvent(agendamento);
-    }
-
-    /** Versão síncrona (sem @Async) — usada pelo backfill, que controla o ritmo das chamadas. */
-    public void createEventSync(Agendamento agendamento) {
-        doCreateEvent(agendamento);
+    /**
+     * Leva o Google Calendar ao estado atual do agendamento: o evento existe enquanto o
+     * agendamento está ativo e não cancelado (cria ou atualiza), e é removido caso contrário.
+     * Chamado pelo {@link CalendarioOutboxDispatcher}; erros do Google sobem para ele reagendar
+     * — nada de retry/espera aqui dentro.
+     */
+    public void sincronizar(Agendamento agendamento) throws IOException {
+        switch (acao(agendamento)) {
+            case CRIAR -> criarEvento(agendamento);
+            case ATUALIZAR -> atualizarEvento(agendamento);
+            case REMOVER -> removerEvento(agendamento);
+            case NENHUMA -> {}
+        }
     }
 
-    private void doCreateEvent(Agendamento agendamento) {
-        try {
-            Event event = buildEvent(agendamento);
-
-            // Create on clinic calendar
-            Event createdEvent = executarComRetry(calendar.events().insert(clinicCalendarId, event));
-            String eventId = createdEvent.getId();
-
-            // Save event ID on agendamento
-            agendamento.setGoogleCalendarEventId(eventId);
-            agendamentoRepository.save(agendamento);
-
-            log.info("Google Calendar event created: {} for agendamento {}", eventId, agendamento.getId());
-
-            // Create on professional's calendar if configured
-            String profCalendarId = agendamento.getProfissional() != null
-                    ? agendamento.getProfissional().getGoogleCalendarId()
-                    : null;
-            if (profCalendarId != null && !profCalendarId.isBlank()) {
-                try {
-                    calendar.events().insert(profCalendarId, event).execute();
-                    log.info("Google Calendar event created on professional calendar: {}", profCalendarId);
-                } catch (IOException e) {
-                    log.warn("Failed to create event on professional calendar {}: {}", profCalendarId, e.getMessage());
+    /**
+     * Mesma reconciliação de {@link #sincronizar}, para vários agendamentos de uma vez, usando
+     * requisições em lote do Google (até {@value #MAX_OPERACOES_POR_LOTE} operações por
+     * requisição HTTP). Roda em fases: primeiro a agenda da clínica; depois a recriação dos
+     * eventos apagados direto no Google; por fim, as agendas dos profissionais — que, como na
+     * sincronização individual, só recebem a operação se a da clínica deu certo e são melhor
+     * esforço.
+     *
+     * Falhas de um agendamento não derrubam os demais: voltam em {@link ResultadoLote#falhas()}.
+     * Só uma falha da requisição inteira (rede, lote recusado) sobe como exceção.
+     */
+    public ResultadoLote sincronizarEmLote(List<Agendamento> agendamentos) throws IOException {
+        Map<UUID, String> falhas = new HashMap<>();
+        boolean[] limiteAtingido = {false};
+        List<Agendamento> criados = new ArrayList<>();
+        List<Agendamento> atualizados = new ArrayList<>();
+        Map<Agendamento, String> removidos = new LinkedHashMap<>();
+        List<Agendamento> recriar = new ArrayList<>();
+
+        // Falha na agenda da clínica: registra para o dispatcher reagendar.
+        BiConsumer<Agendamento, GoogleJsonError> falhou = (ag, erro) -> {
+            falhas.put(ag.getId(), erro.getCode() + " " + erro.getMessage());
+            if (limiteDeUso(erro)) limiteAtingido[0] = true;
+        };
+
+        // Fase 1: agenda da clínica.
+        List<Operacao> clinica = new ArrayList<>();
+        for (Agendamento ag : agendamentos) {
+            switch (acao(ag)) {
+                case CRIAR -> clinica.add(criacaoNaClinica(ag, criados, falhou));
+                case ATUALIZAR -> clinica.add(lote -> calendar.events()
+                        .update(clinicCalendarId, ag.getGoogleCalendarEventId(), buildEvent(ag))
+                        .queue(lote, callback(ag, evento -> atualizados.add(ag), () -> recriar.add(ag), falhou)));
+                case REMOVER -> {
+                    Runnable removido = () -> {
+                        removidos.put(ag, ag.getGoogleCalendarEventId());
+                        agendamentoRepository.atualizarGoogleCalendarEventId(ag.getId(), null);
+                        ag.setGoogleCalendarEventId(null);
+                    };
+                    // Já apagado no Google conta como sucesso.
+                    clinica.add(lote -> calendar.events()
+                            .delete(clinicCalendarId, ag.getGoogleCalendarEventId())
+                            .queue(lote, callback(ag, v -> removido.run(), removido, falhou)));
                 }
+                case NENHUMA -> {}
             }
+        }
+        int requisicoes = executar(clinica);
+
+        // Fase 2: eventos apagados direto no Google — recria.
+        List<Operacao> recriacoes = new ArrayList<>();
+        for (Agendamento ag : recriar) {
+            log.warn(
+                    "Google Calendar event {} not found for agendamento {}, recreating",
+                    ag.getGoogleCalendarEventId(),
+                    ag.getId());
+            recriacoes.add(criacaoNaClinica(ag, criados, falhou));
+        }
+        requisicoes += executar(recriacoes);
+
+        // Fase 3: agendas dos profissionais (melhor esforço, como na sincronização individual).
+        List<Operacao> profissionais = new ArrayList<>();
+        for (Agendamento ag : criados) {
+            String profCalendarId = calendarioDoProfissional(ag);
+            if (profCalendarId == null) continue;
+            profissionais.add(lote -> calendar.events()
+                    .insert(profCalendarId, buildEvent(ag))
+                    .queue(lote, callbackDoProfissional(profCalendarId)));
+        }
+        for (Agendamento ag : atualizados) {
+            String profCalendarId = calendarioDoProfissional(ag);
+            if (profCalendarId == null) continue;
+            profissionais.add(lote -> calendar.events()
+                    .update(profCalendarId, ag.getGoogleCalendarEventId(), buildEvent(ag))
+                    .queue(lote, callbackDoProfissional(profCalendarId)));
+        }
+        for (Map.Entry<Agendamento, String> removido : removidos.entrySet()) {
+            String profCalendarId = calendarioDoProfissional(removido.getKey());
+            if (profCalendarId == null) continue;
+            profissionais.add(lote -> calendar.events()
+                    .delete(profCalendarId, removido.getValue())
+                    .queue(lote, callbackDoProfissional(profCalendarId)));
+        }
+        try {
+            requisicoes += executar(profissionais);
         } catch (IOException e) {
-            log.error(
-                    "Failed to create Google Calendar event for agendamento {}: {}",
-                    agendamento.getId(),
-                    e.getMessage());
+            log.warn("Failed to sync professional calendars in batch: {}", e.getMessage());
         }
+
+        log.info(
+                "Google Calendar batch: {} agendamento(s) in {} request(s) — {} created, {} updated, {} deleted, {} failed",
+                agendamentos.size(),
+                requisicoes,
+                criados.size(),
+                atualizados.size(),
+                removidos.size(),
+                falhas.size());
+        return new ResultadoLote(falhas, limiteAtingido[0]);
     }
 
-    @Async("googleCalendarExecutor")
-    public void updateEvent(Agendamento agendamento) {
-        doUpdateEvent(agendamento);
+    /**
+     * Resultado de {@link #sincronizarEmLote}: erro por agendamento que falhou na agenda da
+     * clínica (os demais foram sincronizados) e se alguma falha foi limite de uso do Google.
+     */
+    public record ResultadoLote(Map<UUID, String> falhas, boolean limiteAtingido) {}
+
+    /** Uma chamada à API, enfileirada numa requisição em lote. */
+    @FunctionalInterface
+    private interface Operacao {
+        void enfileirar(BatchRequest lote) throws IOException;
     }
 
-    /** Versão síncrona (sem @Async) — usada pelo backfill/ressincronização. */
-    public void updateEventSync(Agendamento agendamento) {
-        doUpdateEvent(agendamento);
+    private enum Acao {
+        CRIAR,
+        ATUALIZAR,
+        REMOVER,
+        NENHUMA
     }
 
-    private void doUpdateEvent(Agendamento agendamento) {
-        String eventId = agendamento.getGoogleCalendarEventId();
-        if (eventId == null) {
-            log.warn("No Google Calendar event ID for agendamento {}, creating new event", agendamento.getId());
-            doCreateEvent(agendamento);
-            return;
+    /** O evento existe enquanto o agendamento está ativo e não cancelado. */
+    private static Acao acao(Agendamento agendamento) {
+        boolean deveExistir = agendamento.isAtivo() && agendamento.getStatus() != StatusAgendamento.CANCELADO;
+        boolean temEvento = agendamento.getGoogleCalendarEventId() != null;
+        if (deveExistir) return temEvento ? Acao.ATUALIZAR : Acao.CRIAR;
+        return temEvento ? Acao.REMOVER : Acao.NENHUMA;
+    }
+
+    private Operacao criacaoNaClinica(
+            Agendamento ag, List<Agendamento> criados, BiConsumer<Agendamento, GoogleJsonError> falhou) {
+        return lote -> calendar.events()
+                .insert(clinicCalendarId, buildEvent(ag))
+                .queue(
+                        lote,
+                        callback(
+                                ag,
+                                evento -> {
+                                    // Grava o id assim que o Google confirma — uma falha nas fases
+                                    // seguintes não pode deixar o evento sem dono.
+                                    agendamentoRepository.atualizarGoogleCalendarEventId(ag.getId(), evento.getId());
+                                    ag.setGoogleCalendarEventId(evento.getId());
+                                    criados.add(ag);
+                                },
+                                null,
+                                falhou));
+    }
+
+    /** Executa as operações em requisições de até {@value #MAX_OPERACOES_POR_LOTE}; retorna quantas foram feitas. */
+    private int executar(List<Operacao> operacoes) throws IOException {
+        int requisicoes = 0;
+        for (int i = 0; i < operacoes.size(); i += MAX_OPERACOES_POR_LOTE) {
+            BatchRequest lote = calendar.batch();
+            for (Operacao operacao : operacoes.subList(i, Math.min(i + MAX_OPERACOES_POR_LOTE, operacoes.size()))) {
+                operacao.enfileirar(lote);
+            }
+            lote.execute();
+            requisicoes++;
         }
+        return requisicoes;
+    }
 
-        try {
-            Event event = buildEvent(agendamento);
-
-            // Update on clinic calendar
-            executarComRetry(calendar.events().update(clinicCalendarId, eventId, event));
-            log.info("Google Calendar event updated: {} for agendamento {}", eventId, agendamento.getId());
-
-            // Update on professional's calendar if configured
-            String profCalendarId = agendamento.getProfissional() != null
-                    ? agendamento.getProfissional().getGoogleCalendarId()
-                    : null;
-            if (profCalendarId != null && !profCalendarId.isBlank()) {
-                try {
-                    calendar.events().update(profCalendarId, eventId, event).execute();
-                    log.info("Google Calendar event updated on professional calendar: {}", profCalendarId);
-                } catch (IOException e) {
-                    log.warn("Failed to update event on professional calendar {}: {}", profCalendarId, e.getMessage());
+    /**
+     * Callback de uma operação na agenda da clínica. {@code inexistente} (opcional) trata
+     * 404/410 — evento que já não existe no Google; sem ele, conta como falha.
+     */
+    private static <T> JsonBatchCallback<T> callback(
+            Agendamento ag,
+            Consumer<T> sucesso,
+            Runnable inexistente,
+            BiConsumer<Agendamento, GoogleJsonError> falhou) {
+        return new JsonBatchCallback<>() {
+            @Override
+            public void onSuccess(T resultado, HttpHeaders headers) {
+                sucesso.accept(resultado);
+            }
+
+            @Override
+            public void onFailure(GoogleJsonError erro, HttpHeaders headers) {
+                if (inexistente != null && (erro.getCode() == 404 || erro.getCode() == 410)) {
+                    inexistente.run();
+                } else {
+                    falhou.accept(ag, erro);
                 }
             }
-        } catch (IOException e) {
-            log.error(
-                    "Failed to update Google Calendar event for agendamento {}: {}",
-                    agendamento.getId(),
-                    e.getMessage());
-        }
+        };
     }
 
-    @Async("googleCalendarExecutor")
-    public void deleteEvent(Agendamento agendamento) {
-        doDeleteEvent(agendamento);
+    private static <T> JsonBatchCallback<T> callbackDoProfissional(String profCalendarId) {
+        return new JsonBatchCallback<>() {
+            @Override
+            public void onSuccess(T resultado, HttpHeaders headers) {}
+
+            @Override
+            public void onFailure(GoogleJsonError erro, HttpHeaders headers) {
+                log.warn("Failed to sync event on professional calendar {}: {}", profCalendarId, erro.getMessage());
+            }
+        };
     }
 
-    /** Versão síncrona (sem @Async) — usada pela limpeza de órfãos no backfill. */
-    public void deleteEventSync(Agendamento agendamento) {
-        doDeleteEvent(agendamento);
+    /** 429, ou 403 com motivo de cota — 403 sem esse motivo é permissão, não limite. */
+    private static boolean limiteDeUso(GoogleJsonError erro) {
+        if (erro.getCode() == 429) return true;
+        if (erro.getCode() != 403 || erro.getErrors() == null) return false;
+        return erro.getErrors().stream().anyMatch(e -> MOTIVOS_LIMITE_DE_USO.contains(e.getReason()));
     }
 
-    private void doDeleteEvent(Agendamento agendamento) {
+    private static String calendarioDoProfissional(Agendamento agendamento) {
+        String profCalendarId = agendamento.getProfissional() != null
+                ? agendamento.getProfissional().getGoogleCalendarId()
+                : null;
+        return profCalendarId != null && !profCalendarId.isBlank() ? profCalendarId : null;
+    }
+
+    private void criarEvento(Agendamento agendamento) throws IOException {
+        Event event = buildEvent(agendamento);
+
+        // Create on clinic calendar
+        Event createdEvent = calendar.events().insert(clinicCalendarId, event).execute();
+        String eventId = createdEvent.getId();
+
+        // Save event ID on agendamento (só a coluna — não sobrescreve alterações feitas nesse meio-tempo)
+        agendamentoRepository.atualizarGoogleCalendarEventId(agendamento.getId(), eventId);
+        agendamento.setGoogleCalendarEventId(eventId);
+
+        log.info("Google Calendar event created: {} for agendamento {}", eventId, agendamento.getId());
+
+        // Create on professional's calendar if configured
+        String profCalendarId = calendarioDoProfissional(agendamento);
+        if (profCalendarId != null) {
+            try {
+                calendar.events().insert(profCalendarId, event).execute();
+                log.info("Google Calendar event created on professional calendar: {}", profCalendarId);
+            } catch (IOException e) {
+                log.warn("Failed to create event on professional calendar {}: {}", profCalendarId, e.getMessage());
+            }
+        }
+    }
+
+    private void atualizarEvento(Agendamento agendamento) throws IOException {
         String eventId = agendamento.getGoogleCalendarEventId();
-        if (eventId == null) {
-            log.warn("No Google Calendar event ID for agendamento {}, nothing to delete", agendamento.getId());
+        Event event = buildEvent(agendamento);
+
+        // Update on clinic calendar
+        try {
+            calendar.events().update(clinicCalendarId, eventId, event).execute();
+        } catch (GoogleJsonResponseException e) {
+            if (!eventoInexistente(e)) throw e;
+            // Evento apagado direto no Google: recria.
+            log.warn("Google Calendar event {} not found for agendamento {}, recreating", eventId, agendamento.getId());
+            criarEvento(agendamento);
             return;
         }
+        log.info("Google Calendar event updated: {} for agendamento {}", eventId, agendamento.getId());
 
-        try {
-            // Delete from clinic calendar
-            executarComRetry(calendar.events().delete(clinicCalendarId, eventId));
-            log.info("Google Calendar event deleted: {} for agendamento {}", eventId, agendamento.getId());
-
-            // Delete from professional's calendar if configured
-            String profCalendarId = agendamento.getProfissional() != null
-                    ? agendamento.getProfissional().getGoogleCalendarId()
-                    : null;
-            if (profCalendarId != null && !profCalendarId.isBlank()) {
-                try {
-                    calendar.events().delete(profCalendarId, eventId).execute();
-                    log.info("Google Calendar event deleted from professional calendar: {}", profCalendarId);
-                } catch (IOException e) {
-                    log.warn(
-                            "Failed to delete event from professional calendar {}: {}", profCalendarId, e.getMessage());
-                }
+        // Update on professional's calendar if configured
+        String profCalendarId = calendarioDoProfissional(agendamento);
+        if (profCalendarId != null) {
+            try {
+                calendar.events().update(profCalendarId, eventId, event).execute();
+                log.info("Google Calendar event updated on professional calendar: {}", profCalendarId);
+            } catch (IOException e) {
+                log.warn("Failed to update event on professional calendar {}: {}", profCalendarId, e.getMessage());
             }
-
-            // Limpa o id após apagar — evita re-tentativas e identifica órfãos já resolvidos.
-            agendamento.setGoogleCalendarEventId(null);
-            agendamentoRepository.save(agendamento);
-        } catch (IOException e) {
-            log.error(
-                    "Failed to delete Google Calendar event for agendamento {}: {}",
-                    agendamento.getId(),
-                    e.getMessage());
         }
     }
 
-    /**
-     * Executa uma requisição ao Google repetindo em caso de limite de uso (403/429),
-     * com backoff exponencial. Demais erros são propagados na hora.
-     */
-    private <T> T executarComRetry(AbstractGoogleClientRequest<T> requisicao) throws IOException {
-        long espera = 1000;
-        for (int tentativa = 1; ; tentativa++) {
+    private void removerEvento(Agendamento agendamento) throws IOException {
+        String eventId = agendamento.getGoogleCalendarEventId();
+
+        // Delete from clinic calendar (já apagado no Google conta como sucesso)
+        try {
+            calendar.events().delete(clinicCalendarId, eventId).execute();
+        } catch (GoogleJsonResponseException e) {
+            if (!eventoInexistente(e)) throw e;
+        }
+        log.info("Google Calendar event deleted: {} for agendamento {}", eventId, agendamento.getId());
+
+        // Delete from professional's calendar if configured
+        String profCalendarId = calendarioDoProfissional(agendamento);
+        if (profCalendarId != null) {
             try {
-                return requisicao.execute();
-            } catch (GoogleJsonResponseException e) {
-                int code = e.getStatusCode();
-                if ((code == 403 || code == 429) && tentativa < MAX_TENTATIVAS) {
-                    log.warn(
-                            "Limite do Google ({}). Tentativa {}/{} — aguardando {}ms.",
-                            code,
-                            tentativa,
-                            MAX_TENTATIVAS,
-                            espera);
-                    try {
-                        Thread.sleep(espera);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw e;
-                    }
-                    espera *= 2;
-                } else {
-                    throw e;
-                }
+                calendar.events().delete(profCalendarId, eventId).execute();
+                log.info("Google Calendar event deleted from professional calendar: {}", profCalendarId);
+            } catch (IOException e) {
+                log.warn("Failed to delete event from professional calendar {}: {}", profCalendarId, e.getMessage());
             }
         }
+
+        // Limpa o id após apagar — identifica órfãos já resolvidos.
+        agendamentoRepository.atualizarGoogleCalendarEventId(agendamento.getId(), null);
+        agendamento.setGoogleCalendarEventId(null);
+    }
+
+    private static boolean eventoInexistente(GoogleJsonResponseException e) {
+        return e.getStatusCode() == 404 || e.getStatusCode() == 410;
     }
 
     private Event buildEvent(Agendamento agendamento) {
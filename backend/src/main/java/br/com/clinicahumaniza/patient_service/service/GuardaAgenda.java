@@ -0,0 +1,163 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.clinicahumaniza.patient_service.exception.AgendaOcupadaException;
+
+/**
+ * Serializa as marcações na agenda de um profissional num dia, da checagem de capacidade até
+ * o commit. Sem isto a checagem e o insert são dois passos: duas marcações simultâneas para a
+ * mesma turma passam pela contagem e, juntas, estouram {@code capacidadeMaxima}.
+ *
+ * Duas camadas, liberadas no fim da transação:
+ * <ul>
+ *   <li>No processo, lock striping: a chave (profissional, dia) cai numa de
+ *       {@code app.agenda.guarda.listras} travas. Profissionais e dias diferentes só disputam
+ *       quando colidem na mesma listra.
+ *   <li>Entre instâncias ({@code app.agenda.guarda.distribuida}, só Postgres), um advisory lock
+ *       de transação na mesma chave.
+ * </ul>
+ *
+ * Com a trava na mão, o dia é descartado do {@link ProfissionalAgendaIndex} e relido do banco na
+ * checagem seguinte. Todas as marcações do dia passam por aqui, então a leitura já vê o commit
+ * da anterior. O índice sozinho pode ter sido carregado por uma leitura de slots antes desse
+ * commit (ou por outra instância, que não enxerga).
+ *
+ * A espera pela trava tem limite ({@code app.agenda.guarda.espera-ms}). Isso também desfaz o
+ * raro ciclo entre duas transações que travam vários dias em chamadas separadas. Estourado o
+ * limite, sai {@link AgendaOcupadaException}, que desfaz a transação inteira.
+ */
+@Component
+public class GuardaAgenda {
+
+    private final ReentrantLock[] listras;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProfissionalAgendaIndex agendaIndex;
+    private final boolean distribuida;
+    private final long esperaNanos;
+
+    public GuardaAgenda(
+            ProfissionalAgendaIndex agendaIndex,
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.agenda.guarda.listras:256}") int listras,
+            @Value("${app.agenda.guarda.distribuida:false}") boolean distribuida,
+            @Value("${app.agenda.guarda.espera-ms:5000}") long esperaMs) {
+        this.listras = new ReentrantLock[Math.max(1, listras)];
+        for (int i = 0; i < this.listras.length; i++) this.listras[i] = new ReentrantLock();
+        this.jdbcTemplate = jdbcTemplate;
+        this.agendaIndex = agendaIndex;
+        this.distribuida = distribuida;
+        this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMs);
+    }
+
+    /** Trava o dia do profissional até o fim da transação corrente. */
+    public void travar(UUID profissionalId, LocalDate dia) {
+        travar(profissionalId, List.of(dia));
+    }
+
+    /**
+     * Trava vários dias do profissional de uma vez (geração de recorrência), em ordem de
+     * listra: dois lotes concorrentes não se bloqueiam em ciclo. Dias já travados pela
+     * transação são ignorados.
+     */
+    public void travar(UUID profissionalId, Collection<LocalDate> dias) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A trava da agenda precisa de uma transação ativa");
+        }
+        Travas travas = travasDaTransacao();
+        List<Chave> novas = new ArrayList<>();
+        Set<Integer> listrasNovas = new TreeSet<>();
+        for (LocalDate dia : dias) {
+            Chave chave = new Chave(profissionalId, dia);
+            if (!travas.chaves.contains(chave) && !novas.contains(chave)) {
+                novas.add(chave);
+                listrasNovas.add(listra(chave));
+            }
+        }
+        if (novas.isEmpty()) return;
+
+        long limite = System.nanoTime() + esperaNanos;
+        for (int i : listrasNovas) {
+            if (travas.listras.contains(i)) continue;
+            if (!tentar(listras[i], limite)) {
+                throw new AgendaOcupadaException("Agenda do profissional em uso por outra marcação. Tente novamente.");
+            }
+            travas.listras.add(i);
+        }
+        travas.chaves.addAll(novas);
+        for (Chave chave : novas) {
+            if (distribuida) travarNoBanco(chave, limite);
+            agendaIndex.descartar(chave.profissionalId(), chave.dia());
+        }
+    }
+
+    private Travas travasDaTransacao() {
+        Travas travas = (Travas) TransactionSynchronizationManager.getResource(this);
+        if (travas != null) return travas;
+        Travas novas = new Travas();
+        TransactionSynchronizationManager.bindResource(this, novas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // Roda na thread da transação, depois do commit/rollback: o unlock é do dono.
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(GuardaAgenda.this);
+                novas.listras.forEach(i -> listras[i].unlock());
+            }
+        });
+        return novas;
+    }
+
+    // pg_try_ em laço em vez de pg_advisory_xact_lock: respeita o mesmo limite de espera sem
+    // mexer no lock_timeout da transação.
+    private void travarNoBanco(Chave chave, long limite) {
+        int profissional = chave.profissionalId().hashCode();
+        int dia = (int) chave.dia().toEpochDay();
+        while (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?, ?)", Boolean.class, profissional, dia))) {
+            if (System.nanoTime() - limite > 0) {
+                throw new AgendaOcupadaException("Agenda do profissional em uso por outra marcação. Tente novamente.");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AgendaOcupadaException("Marcação interrompida. Tente novamente.");
+            }
+        }
+    }
+
+    private static boolean tentar(ReentrantLock trava, long limite) {
+        try {
+            return trava.tryLock(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private int listra(Chave chave) {
+        return Math.floorMod(chave.hashCode(), listras.length);
+    }
+
+    private record Chave(UUID profissionalId, LocalDate dia) {}
+
+    private static final class Travas {
+        final Set<Chave> chaves = new HashSet<>();
+        final Set<Integer> listras = new HashSet<>();
+    }
+}
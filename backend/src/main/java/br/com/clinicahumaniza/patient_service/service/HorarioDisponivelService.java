@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -38,6 +39,7 @@ public class HorarioDisponivelService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = ReferenciaCache.HORARIOS, allEntries = true)
     public HorarioDisponivel createHorarioDisponivel(HorarioDisponivelRequestDTO dto) {
         Profissional profissional = profissionalRepository
                 .findById(dto.getProfissionalId())
@@ -68,6 +70,7 @@ public class HorarioDisponivelService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = ReferenciaCache.HORARIOS, allEntries = true)
     public HorarioDisponivel updateHorarioDisponivel(UUID id, HorarioDisponivelUpdateDTO dto) {
         HorarioDisponivel horario = horarioDisponivelRepository
                 .findById(id)
@@ -81,6 +84,7 @@ public class HorarioDisponivelService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = ReferenciaCache.HORARIOS, allEntries = true)
     public void deleteHorarioDisponivel(UUID id) {
         HorarioDisponivel horario = horarioDisponivelRepository
                 .findById(id)
@@ -0,0 +1,202 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.clinicahumaniza.patient_service.dto.PatientAutocompleteDTO;
+import br.com.clinicahumaniza.patient_service.model.Patient;
+import br.com.clinicahumaniza.patient_service.repository.PatientRepository;
+import br.com.clinicahumaniza.patient_service.util.BuscaNome;
+import br.com.clinicahumaniza.patient_service.util.NomeCurto;
+
+/**
+ * Índice em memória do autocomplete de pacientes ativos.
+ *
+ * Cada paciente entra com suas chaves — as palavras do nome normalizado, o CPF e o telefone
+ * (inteiro e os 4 últimos dígitos) — num mapa ordenado chave → pacientes. Uma palavra
+ * digitada é prefixo de alguma chave; as chaves que começam com ela formam uma faixa
+ * contígua do mapa. A busca percorre a faixa da palavra mais longa do termo, confere as
+ * demais palavras no próprio paciente e para ao atingir o limite — sem ida ao banco e sem
+ * contar o total.
+ *
+ * Carregado do banco na primeira busca e mantido pelo PatientService via
+ * {@link #registrar}/{@link #remover}, aplicados após o commit. Por processo, como o
+ * {@link ProfissionalAgendaIndex}: pressupõe uma única instância escrevendo pacientes.
+ */
+@Component
+public class PacienteAutocompleteIndex {
+
+    private final PatientRepository patientRepository;
+    private final Map<UUID, Entrada> entradas = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<UUID>> porChave = new ConcurrentSkipListMap<>();
+    private volatile boolean carregado;
+
+    public PacienteAutocompleteIndex(PatientRepository patientRepository) {
+        this.patientRepository = patientRepository;
+    }
+
+    /**
+     * Até {@code limite} pacientes ativos em que cada palavra do termo é início de uma
+     * palavra do nome, do CPF ou do telefone. Ordem: alfabética pela chave casada.
+     */
+    public List<PatientAutocompleteDTO> buscar(String termo, int limite) {
+        String[] tokens = tokens(termo);
+        if (tokens.length == 0 || limite <= 0) return List.of();
+        carregar();
+
+        String guia = tokens[0];
+        for (String token : tokens) {
+            if (token.length() > guia.length()) guia = token;
+        }
+
+        Set<UUID> encontrados = new LinkedHashSet<>();
+        NavigableMap<String, Set<UUID>> faixa = porChave.subMap(guia, true, guia + Character.MAX_VALUE, false);
+        for (Set<UUID> ids : faixa.values()) {
+            for (UUID id : ids) {
+                Entrada entrada = entradas.get(id);
+                if (entrada != null && entrada.casa(tokens) && encontrados.add(id) && encontrados.size() == limite) {
+                    return resposta(encontrados);
+                }
+            }
+        }
+        return resposta(encontrados);
+    }
+
+    /** Reflete o paciente no índice após o commit — inativo sai do índice. */
+    public void registrar(Patient paciente) {
+        UUID id = paciente.getId();
+        Entrada entrada = paciente.isStatusAtivo()
+                ? Entrada.de(
+                        id,
+                        paciente.getNomeCompleto(),
+                        BuscaNome.normalizar(paciente.getNomeCompleto()),
+                        paciente.getTelefone(),
+                        paciente.getCpf())
+                : null;
+        aposCommit(() -> indexar(id, entrada));
+    }
+
+    public void remover(Patient paciente) {
+        UUID id = paciente.getId();
+        aposCommit(() -> indexar(id, null));
+    }
+
+    /** Quantidade de pacientes ativos — o card do dashboard. */
+    public int totalAtivos() {
+        carregar();
+        return entradas.size();
+    }
+
+    int tamanho() {
+        return entradas.size();
+    }
+
+    private List<PatientAutocompleteDTO> resposta(Set<UUID> ids) {
+        List<PatientAutocompleteDTO> resposta = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Entrada e = entradas.get(id);
+            if (e != null) resposta.add(new PatientAutocompleteDTO(id, e.nomeCurto(), e.telefoneFinal(), e.cpf()));
+        }
+        return resposta;
+    }
+
+    // CPF/telefone digitados com pontuação ("123.456", "(21) 9888-") viram um token só de dígitos.
+    private static String[] tokens(String termo) {
+        if (termo == null) return new String[0];
+        return BuscaNome.tokens(termo.replaceAll("[.\\-()/]", "").replaceAll("(?<=\\d)\\s+(?=\\d)", ""));
+    }
+
+    private void carregar() {
+        if (carregado) return;
+        synchronized (this) {
+            if (carregado) return;
+            for (PatientRepository.ResumoAutocomplete p : patientRepository.findAutocompleteByStatusAtivoTrue()) {
+                String nomeNormalizado = p.getNomeNormalizado() != null
+                        ? p.getNomeNormalizado()
+                        : BuscaNome.normalizar(p.getNomeCompleto());
+                adicionar(Entrada.de(p.getId(), p.getNomeCompleto(), nomeNormalizado, p.getTelefone(), p.getCpf()));
+            }
+            carregado = true;
+        }
+    }
+
+    // Antes da primeira carga não há o que atualizar: a carga já lerá o estado commitado.
+    private synchronized void indexar(UUID id, Entrada entrada) {
+        if (!carregado) return;
+        Entrada anterior = entradas.remove(id);
+        if (anterior != null) {
+            for (String chave : anterior.chaves()) {
+                Set<UUID> ids = porChave.get(chave);
+                if (ids == null) continue;
+                ids.remove(id);
+                if (ids.isEmpty()) porChave.remove(chave, ids);
+            }
+        }
+        if (entrada != null) adicionar(entrada);
+    }
+
+    private void adicionar(Entrada entrada) {
+        entradas.put(entrada.id(), entrada);
+        for (String chave : entrada.chaves()) {
+            porChave.computeIfAbsent(chave, k -> ConcurrentHashMap.newKeySet()).add(entrada.id());
+        }
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    private record Entrada(UUID id, String nomeCurto, String telefoneFinal, String cpf, String[] chaves) {
+
+        static Entrada de(UUID id, String nomeCompleto, String nomeNormalizado, String telefone, String cpf) {
+            List<String> chaves = new ArrayList<>();
+            for (String palavra : BuscaNome.tokens(nomeNormalizado)) {
+                if (!chaves.contains(palavra)) chaves.add(palavra);
+            }
+            String digitosTelefone = telefone == null ? "" : telefone.replaceAll("\\D", "");
+            String telefoneFinal = digitosTelefone.length() > 4
+                    ? digitosTelefone.substring(digitosTelefone.length() - 4)
+                    : digitosTelefone;
+            if (!digitosTelefone.isEmpty()) chaves.add(digitosTelefone);
+            if (!telefoneFinal.isEmpty() && !telefoneFinal.equals(digitosTelefone)) chaves.add(telefoneFinal);
+            if (cpf != null && !cpf.isBlank()) chaves.add(cpf);
+            return new Entrada(
+                    id, NomeCurto.primeiroEUltimo(nomeCompleto), telefoneFinal, cpf, chaves.toArray(String[]::new));
+        }
+
+        /** Cada token é início de alguma chave do paciente. */
+        boolean casa(String[] tokens) {
+            for (String token : tokens) {
+                boolean achou = false;
+                for (String chave : chaves) {
+                    if (chave.startsWith(token)) {
+                        achou = true;
+                        break;
+                    }
+                }
+                if (!achou) return false;
+            }
+            return true;
+        }
+    }
+}
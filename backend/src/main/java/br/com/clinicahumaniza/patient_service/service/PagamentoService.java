@@ -2,7 +2,6 @@ package br.com.clinicahumaniza.patient_service.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -17,10 +16,12 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.clinicahumaniza.patient_service.dto.PagamentoRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.PagamentoStatusDTO;
 import br.com.clinicahumaniza.patient_service.dto.PagamentoUpdateDTO;
+import br.com.clinicahumaniza.patient_service.dto.PaginaCursorDTO;
 import br.com.clinicahumaniza.patient_service.dto.ParcelaStatusDTO;
 import br.com.clinicahumaniza.patient_service.exception.BusinessException;
 import br.com.clinicahumaniza.patient_service.exception.ResourceNotFoundException;
@@ -28,10 +29,13 @@ import br.com.clinicahumaniza.patient_service.mapper.PagamentoMapper;
 import br.com.clinicahumaniza.patient_service.model.*;
 import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
 import br.com.clinicahumaniza.patient_service.repository.AssinaturaRepository;
+import br.com.clinicahumaniza.patient_service.repository.FatiaRepository;
 import br.com.clinicahumaniza.patient_service.repository.PagamentoRepository;
 import br.com.clinicahumaniza.patient_service.repository.ParcelaRepository;
 import br.com.clinicahumaniza.patient_service.repository.PatientRepository;
+import br.com.clinicahumaniza.patient_service.spec.Keyset;
 import br.com.clinicahumaniza.patient_service.spec.PagamentoSpecification;
+import br.com.clinicahumaniza.patient_service.spec.PaginacaoCursor;
 
 @Service
 public class PagamentoService {
@@ -42,6 +46,10 @@ public class PagamentoService {
     private final AssinaturaRepository assinaturaRepository;
     private final AgendamentoRepository agendamentoRepository;
     private final PagamentoMapper pagamentoMapper;
+    private final ExportadorCsv exportadorCsv;
+    private final BuscaNomePaciente buscaNome;
+    private final DashboardContadores dashboardContadores;
+    private final FatiaRepository fatiaRepository;
 
     @Autowired
     public PagamentoService(
@@ -50,13 +58,21 @@ public class PagamentoService {
             PatientRepository patientRepository,
             AssinaturaRepository assinaturaRepository,
             AgendamentoRepository agendamentoRepository,
-            PagamentoMapper pagamentoMapper) {
+            PagamentoMapper pagamentoMapper,
+            ExportadorCsv exportadorCsv,
+            BuscaNomePaciente buscaNome,
+            DashboardContadores dashboardContadores,
+            FatiaRepository fatiaRepository) {
         this.pagamentoRepository = pagamentoRepository;
         this.parcelaRepository = parcelaRepository;
         this.patientRepository = patientRepository;
         this.assinaturaRepository = assinaturaRepository;
         this.agendamentoRepository = agendamentoRepository;
         this.pagamentoMapper = pagamentoMapper;
+        this.exportadorCsv = exportadorCsv;
+        this.buscaNome = buscaNome;
+        this.dashboardContadores = dashboardContadores;
+        this.fatiaRepository = fatiaRepository;
     }
 
     /**
@@ -97,7 +113,7 @@ public class PagamentoService {
 
         gerarParcelas(pagamento);
 
-        return pagamentoRepository.save(pagamento);
+        return salvar(pagamento);
     }
 
     /**
@@ -121,13 +137,15 @@ public class PagamentoService {
 
         gerarParcelas(pagamento);
 
-        return pagamentoRepository.save(pagamento);
+        return salvar(pagamento);
     }
 
+    @Transactional(readOnly = true)
     public Pagamento getPagamentoById(UUID id) {
-        return pagamentoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Pagamento", id));
+        return buscar(id);
     }
 
+    @Transactional(readOnly = true)
     public Page<Pagamento> getAllPagamentos(
             StatusPagamento status,
             List<StatusPagamento> statusIn,
@@ -139,15 +157,61 @@ public class PagamentoService {
             LocalDate pagamentoInicio,
             LocalDate pagamentoFim,
             Pageable pageable) {
-        Specification<Pagamento> spec = Specification.allOf(
+        Specification<Pagamento> spec = filtroListagem(
+                status, statusIn, formaPagamento, pacienteId, pacienteNome, inicio, fim, pagamentoInicio, pagamentoFim);
+        Page<Pagamento> pagina = pagamentoRepository.findAll(spec, comDesempate(pageable));
+        carregarColecoes(pagina.getContent());
+        return pagina;
+    }
+
+    /** A mesma listagem, por cursor ({@code createdAt}, {@code id}), sem offset e com count opcional. */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<Pagamento> getPagamentosPorCursor(
+            StatusPagamento status,
+            List<StatusPagamento> statusIn,
+            FormaPagamento formaPagamento,
+            UUID pacienteId,
+            String pacienteNome,
+            LocalDate inicio,
+            LocalDate fim,
+            LocalDate pagamentoInicio,
+            LocalDate pagamentoFim,
+            PaginacaoCursor paginacao) {
+        Specification<Pagamento> spec = filtroListagem(
+                status, statusIn, formaPagamento, pacienteId, pacienteNome, inicio, fim, pagamentoInicio, pagamentoFim);
+        List<Pagamento> lidos = fatiaRepository.fatia(
+                Pagamento.class,
+                spec.and(paginacao.depoisDe("createdAt")),
+                paginacao.ordem("createdAt"),
+                paginacao.tamanho() + 1,
+                Pagamento.DETALHE);
+        PaginaCursorDTO<Pagamento> pagina = PaginaCursorDTO.de(
+                lidos,
+                paginacao.tamanho(),
+                p -> new Keyset(p.getCreatedAt(), p.getId()),
+                paginacao.comTotal() ? pagamentoRepository.count(spec) : null);
+        carregarColecoes(pagina.getContent());
+        return pagina;
+    }
+
+    private Specification<Pagamento> filtroListagem(
+            StatusPagamento status,
+            List<StatusPagamento> statusIn,
+            FormaPagamento formaPagamento,
+            UUID pacienteId,
+            String pacienteNome,
+            LocalDate inicio,
+            LocalDate fim,
+            LocalDate pagamentoInicio,
+            LocalDate pagamentoFim) {
+        return Specification.allOf(
                 PagamentoSpecification.hasStatus(status),
                 PagamentoSpecification.hasStatusIn(statusIn),
                 PagamentoSpecification.hasFormaPagamento(formaPagamento),
                 PagamentoSpecification.hasPaciente(pacienteId),
-                PagamentoSpecification.hasPacienteNome(pacienteNome),
+                PagamentoSpecification.hasPacienteNome(buscaNome, pacienteNome),
                 PagamentoSpecification.betweenVencimento(inicio, fim),
                 PagamentoSpecification.betweenDataPagamento(pagamentoInicio, pagamentoFim));
-        return pagamentoRepository.findAll(spec, comDesempate(pageable));
     }
 
     /**
@@ -163,57 +227,36 @@ public class PagamentoService {
                 pageable.getSort().and(Sort.by("id")));
     }
 
-    public byte[] exportCsv(LocalDate inicio, LocalDate fim, StatusPagamento status) {
+    /** CSV dos pagamentos filtrados, escrito direto na resposta à medida que é lido do banco. */
+    public StreamingResponseBody exportCsv(LocalDate inicio, LocalDate fim, StatusPagamento status) {
         Specification<Pagamento> spec = Specification.allOf(
                 PagamentoSpecification.hasStatus(status), PagamentoSpecification.betweenVencimento(inicio, fim));
-        List<Pagamento> pagamentos = pagamentoRepository.findAll(spec);
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Paciente,Valor,FormaPagamento,Status,DataVencimento,DataPagamento\n");
-        for (Pagamento p : pagamentos) {
-            csv.append(String.join(
-                            ",",
-                            p.getId().toString(),
-                            escapeCsv(p.getPaciente().getNomeCompleto()),
-                            p.getValor().toString(),
-                            p.getFormaPagamento().name(),
-                            p.getStatus().name(),
-                            p.getDataVencimento() != null
-                                    ? p.getDataVencimento().toString()
-                                    : "",
-                            p.getDataPagamento() != null ? p.getDataPagamento().toString() : ""))
-                    .append("\n");
-        }
-        return csv.toString().getBytes(StandardCharsets.UTF_8);
-    }
-
-    private String escapeCsv(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
+        return out -> exportadorCsv.pagamentos(spec, out);
     }
 
+    @Transactional(readOnly = true)
     public List<Pagamento> getPagamentosByPaciente(UUID pacienteId) {
-        return pagamentoRepository.findByPacienteId(pacienteId);
+        return carregarColecoes(pagamentoRepository.findByPacienteId(pacienteId));
     }
 
+    @Transactional(readOnly = true)
     public List<Pagamento> getPagamentosByAssinatura(UUID assinaturaId) {
-        return pagamentoRepository.findByAssinaturasId(assinaturaId);
+        return carregarColecoes(pagamentoRepository.findByAssinaturasId(assinaturaId));
     }
 
+    @Transactional(readOnly = true)
     public List<Pagamento> getPagamentosByAgendamento(UUID agendamentoId) {
-        return pagamentoRepository.findByAgendamentoId(agendamentoId);
+        return carregarColecoes(pagamentoRepository.findByAgendamentoId(agendamentoId));
     }
 
+    @Transactional(readOnly = true)
     public List<Pagamento> getPagamentosByPeriodo(LocalDate inicio, LocalDate fim) {
-        return pagamentoRepository.findByDataVencimentoBetween(inicio, fim);
+        return carregarColecoes(pagamentoRepository.findByDataVencimentoBetween(inicio, fim));
     }
 
     @Transactional
     public Pagamento updatePagamento(UUID id, PagamentoUpdateDTO dto) {
-        Pagamento pagamento =
-                pagamentoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Pagamento", id));
+        Pagamento pagamento = buscar(id);
 
         // Resolve entidades relacionadas se foram enviadas no DTO
         Patient paciente = null;
@@ -255,13 +298,12 @@ public class PagamentoService {
             gerarParcelas(pagamento);
         }
 
-        return pagamentoRepository.save(pagamento);
+        return salvar(pagamento);
     }
 
     @Transactional
     public Pagamento updateStatus(UUID id, PagamentoStatusDTO dto) {
-        Pagamento pagamento =
-                pagamentoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Pagamento", id));
+        Pagamento pagamento = buscar(id);
 
         validarTransicaoStatus(pagamento.getStatus(), dto.getStatus());
 
@@ -292,14 +334,12 @@ public class PagamentoService {
             }
         }
 
-        return pagamentoRepository.save(pagamento);
+        return salvar(pagamento);
     }
 
     @Transactional
     public Pagamento updateParcelaStatus(UUID pagamentoId, UUID parcelaId, ParcelaStatusDTO dto) {
-        Pagamento pagamento = pagamentoRepository
-                .findById(pagamentoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Pagamento", pagamentoId));
+        Pagamento pagamento = buscar(pagamentoId);
 
         Parcela parcela = pagamento.getParcelas().stream()
                 .filter(p -> p.getId().equals(parcelaId))
@@ -314,7 +354,7 @@ public class PagamentoService {
 
         atualizarStatusPagamento(pagamento);
 
-        return pagamentoRepository.save(pagamento);
+        return salvar(pagamento);
     }
 
     @Transactional
@@ -322,7 +362,35 @@ public class PagamentoService {
         Pagamento pagamento =
                 pagamentoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Pagamento", id));
         pagamento.setAtivo(false);
-        pagamentoRepository.save(pagamento);
+        salvar(pagamento);
+    }
+
+    /** Pagamento com tudo o que o PagamentoMapper lê, em três selects. */
+    private Pagamento buscar(UUID id) {
+        Pagamento pagamento =
+                pagamentoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Pagamento", id));
+        carregarColecoes(List.of(pagamento));
+        return pagamento;
+    }
+
+    /**
+     * Assinaturas (com serviço) e parcelas dos pagamentos, um select por coleção para a lista
+     * inteira. Precisa da transação de quem chama: os selects preenchem as instâncias que já
+     * estão na sessão.
+     */
+    private List<Pagamento> carregarColecoes(List<Pagamento> pagamentos) {
+        if (pagamentos.isEmpty()) return pagamentos;
+        List<UUID> ids = pagamentos.stream().map(Pagamento::getId).toList();
+        pagamentoRepository.findComAssinaturasByIdIn(ids);
+        pagamentoRepository.findComParcelasByIdIn(ids);
+        return pagamentos;
+    }
+
+    // Todo pagamento gravado passa por aqui: mantém os cards do dashboard em dia.
+    private Pagamento salvar(Pagamento pagamento) {
+        Pagamento saved = pagamentoRepository.save(pagamento);
+        dashboardContadores.registrar(saved);
+        return saved;
     }
 
     private void gerarParcelas(Pagamento pagamento) {
@@ -0,0 +1,142 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Manutenção das tabelas particionadas por mês (migration-particionamento.sql): cria as
+ * partições dos próximos meses antes de chegarem dados nelas e arquiva as antigas.
+ *
+ * Arquivar é mover a partição para o schema {@value #SCHEMA_ARQUIVO} (e, se configurado, para
+ * um tablespace frio) sem desanexá-la. As consultas do dia a dia filtram por período e não
+ * chegam nela; quem lê pela tabela-mãe, como a exportação do paciente e os relatórios, continua
+ * vendo o histórico.
+ */
+@Service
+@ConditionalOnProperty(name = "app.particionamento.habilitado", havingValue = "true")
+public class ParticionamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionamentoService.class);
+
+    static final String SCHEMA_ARQUIVO = "arquivo";
+
+    record Tabela(String nome, String coluna) {}
+
+    static final List<Tabela> TABELAS =
+            List.of(new Tabela("agendamentos", "data_hora"), new Tabela("parcelas", "data_vencimento"));
+
+    // Nome das partições mensais criadas por criar_particao_mensal: <tabela>_pAAAA_MM.
+    private static final Pattern PARTICAO = Pattern.compile("([a-z_]+)_p(\\d{4})_(\\d{2})");
+    private static final Pattern IDENTIFICADOR = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final String PARTICOES_QUENTES = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_namespace n ON n.oid = c.relnamespace "
+            + "WHERE i.inhparent = to_regclass('public.' || ?) AND n.nspname = 'public' ORDER BY c.relname";
+
+    private static final String INDICES_DA_TABELA = "SELECT quote_ident(n.nspname) || '.' || quote_ident(c.relname) "
+            + "FROM pg_index x JOIN pg_class c ON c.oid = x.indexrelid JOIN pg_namespace n ON n.oid = c.relnamespace "
+            + "WHERE x.indrelid = to_regclass(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final int mesesAFrente;
+    private final int arquivarAposMeses;
+    private final String tablespaceFrio;
+
+    @Autowired
+    public ParticionamentoService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.particionamento.meses-a-frente:12}") int mesesAFrente,
+            @Value("${app.particionamento.arquivar-apos-meses:24}") int arquivarAposMeses,
+            @Value("${app.particionamento.tablespace-frio:}") String tablespaceFrio) {
+        this(jdbcTemplate, Clock.systemDefaultZone(), mesesAFrente, arquivarAposMeses, tablespaceFrio);
+    }
+
+    ParticionamentoService(
+            JdbcTemplate jdbcTemplate, Clock clock, int mesesAFrente, int arquivarAposMeses, String tablespaceFrio) {
+        if (!tablespaceFrio.isEmpty() && !IDENTIFICADOR.matcher(tablespaceFrio).matches()) {
+            throw new IllegalArgumentException("Tablespace inválido: " + tablespaceFrio);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.mesesAFrente = Math.max(1, mesesAFrente);
+        this.arquivarAposMeses = Math.max(1, arquivarAposMeses);
+        this.tablespaceFrio = tablespaceFrio;
+    }
+
+    /**
+     * Garante as partições do mês atual até {@code meses-a-frente} meses adiante. O que já foi
+     * agendado além disso está na partição padrão, e a função do banco move essas linhas para a
+     * partição do mês quando ela é criada. Devolve quantas partições criou.
+     */
+    public int criarParticoes() {
+        YearMonth atual = YearMonth.now(clock);
+        int criadas = 0;
+        for (Tabela tabela : TABELAS) {
+            for (int i = 0; i <= mesesAFrente; i++) {
+                YearMonth mes = atual.plusMonths(i);
+                Boolean criou = jdbcTemplate.queryForObject(
+                        "SELECT criar_particao_mensal(?, ?, ?)",
+                        Boolean.class,
+                        tabela.nome(),
+                        tabela.coluna(),
+                        mes.atDay(1));
+                if (Boolean.TRUE.equals(criou)) {
+                    criadas++;
+                    log.info("Particao de {} criada: {}", tabela.nome(), mes);
+                }
+            }
+        }
+        return criadas;
+    }
+
+    /**
+     * Move para o arquivo as partições de meses anteriores a {@code arquivar-apos-meses}. A
+     * partição continua anexada: só sai do schema (e do tablespace) das tabelas quentes.
+     * Devolve os nomes das partições arquivadas.
+     */
+    public List<String> arquivarParticoes() {
+        YearMonth limite = YearMonth.now(clock).minusMonths(arquivarAposMeses);
+        List<String> arquivadas = new ArrayList<>();
+        for (Tabela tabela : TABELAS) {
+            for (String particao : jdbcTemplate.queryForList(PARTICOES_QUENTES, String.class, tabela.nome())) {
+                YearMonth mes = mesDa(tabela, particao);
+                if (mes == null || !mes.isBefore(limite)) continue;
+                jdbcTemplate.execute("ALTER TABLE public." + particao + " SET SCHEMA " + SCHEMA_ARQUIVO);
+                if (!tablespaceFrio.isEmpty()) moverParaTablespaceFrio(SCHEMA_ARQUIVO + "." + particao);
+                arquivadas.add(particao);
+                log.info("Particao {} arquivada em {}", particao, SCHEMA_ARQUIVO);
+            }
+        }
+        return arquivadas;
+    }
+
+    // Reescreve a partição e os índices dela no tablespace frio (o SET TABLESPACE da tabela não
+    // leva os índices). Trava só a partição, que já é histórico.
+    private void moverParaTablespaceFrio(String particao) {
+        List<String> indices = jdbcTemplate.queryForList(INDICES_DA_TABELA, String.class, particao);
+        jdbcTemplate.execute("ALTER TABLE " + particao + " SET TABLESPACE " + tablespaceFrio);
+        for (String indice : indices) {
+            jdbcTemplate.execute("ALTER INDEX " + indice + " SET TABLESPACE " + tablespaceFrio);
+        }
+    }
+
+    // Mês de uma partição de <tabela>, ou null se o nome não é de partição mensal (a padrão).
+    private static YearMonth mesDa(Tabela tabela, String particao) {
+        Matcher m = PARTICAO.matcher(particao);
+        if (!m.matches() || !m.group(1).equals(tabela.nome())) return null;
+        return YearMonth.of(Integer.parseInt(m.group(2)), Integer.parseInt(m.group(3)));
+    }
+}
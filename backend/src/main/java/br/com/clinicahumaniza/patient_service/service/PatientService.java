@@ -10,7 +10,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,6 +20,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import br.com.clinicahumaniza.patient_service.dto.AniversarianteDTO;
+import br.com.clinicahumaniza.patient_service.dto.PatientAutocompleteDTO;
 import br.com.clinicahumaniza.patient_service.dto.PatientExportDTO;
 import br.com.clinicahumaniza.patient_service.dto.PatientRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.PatientUpdateDTO;
@@ -38,12 +41,16 @@ import br.com.clinicahumaniza.patient_service.spec.PatientSpecification;
 public class PatientService {
 
     private static final Logger log = LoggerFactory.getLogger(PatientService.class);
+    private static final String ORDEM_RELEVANCIA = "relevancia";
+    static final int MAX_AUTOCOMPLETE = 20;
 
     private final PatientRepository patientRepository;
     private final PatientMapper patientMapper;
     private final AssinaturaRepository assinaturaRepository;
     private final AgendamentoRepository agendamentoRepository;
     private final PagamentoRepository pagamentoRepository;
+    private final BuscaNomePaciente buscaNome;
+    private final PacienteAutocompleteIndex autocompleteIndex;
 
     @Autowired
     public PatientService(
@@ -51,12 +58,16 @@ public class PatientService {
             PatientMapper patientMapper,
             AssinaturaRepository assinaturaRepository,
             AgendamentoRepository agendamentoRepository,
-            PagamentoRepository pagamentoRepository) {
+            PagamentoRepository pagamentoRepository,
+            BuscaNomePaciente buscaNome,
+            PacienteAutocompleteIndex autocompleteIndex) {
         this.patientRepository = patientRepository;
         this.patientMapper = patientMapper;
         this.assinaturaRepository = assinaturaRepository;
         this.agendamentoRepository = agendamentoRepository;
         this.pagamentoRepository = pagamentoRepository;
+        this.buscaNome = buscaNome;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
     @Transactional
@@ -79,7 +90,10 @@ public class PatientService {
             patient.setDataConsentimentoLgpd(LocalDateTime.now());
         }
 
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        buscaNome.registrar(saved);
+        autocompleteIndex.registrar(saved);
+        return saved;
     }
 
     public Patient getPatientById(UUID id) {
@@ -92,15 +106,38 @@ public class PatientService {
                 .orElseThrow(() -> new PatientNotFoundException(id));
     }
 
+    /**
+     * Listagem com filtros opcionais. {@code sort=relevancia} (junto com {@code nome}) ordena
+     * pela semelhança do nome com o termo — "maria" traz "Maria" antes de "Ana Maria Souza".
+     */
     public Page<Patient> getAllPatients(String nome, String email, String cpf, Pageable pageable) {
         Specification<Patient> spec = Specification.allOf(
                 PatientSpecification.isAtivo(),
-                PatientSpecification.hasNome(nome),
+                PatientSpecification.hasNome(buscaNome, nome),
                 PatientSpecification.hasEmail(email),
                 PatientSpecification.hasCpf(cpf));
+        if (pageable.getSort().getOrderFor(ORDEM_RELEVANCIA) != null) {
+            if (nome != null && !nome.isBlank()) {
+                spec = spec.and(PatientSpecification.ordenarPorSemelhanca(nome));
+                pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            } else {
+                pageable = PageRequest.of(
+                        pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "createdAt"));
+            }
+        }
         return patientRepository.findAll(spec, pageable);
     }
 
+    /**
+     * Sugestões para a busca da recepção enquanto se digita: pacientes ativos em que cada
+     * palavra do termo começa uma palavra do nome, o CPF ou o telefone. Respondido pelo
+     * índice em memória — sem consulta nem contagem. {@code limite} entre 1 e
+     * {@value #MAX_AUTOCOMPLETE}.
+     */
+    public List<PatientAutocompleteDTO> autocomplete(String termo, int limite) {
+        return autocompleteIndex.buscar(termo, Math.max(1, Math.min(limite, MAX_AUTOCOMPLETE)));
+    }
+
     /**
      * Aniversariantes de um mês (1-12), ordenados pelo dia. Aniversário compara só
      * mês/dia (ignora o ano). O filtro é feito em memória — DB-agnóstico (Postgres
@@ -150,7 +187,10 @@ public class PatientService {
             }
         }
 
-        return patientRepository.save(existingPatient);
+        Patient saved = patientRepository.save(existingPatient);
+        buscaNome.registrar(saved);
+        autocompleteIndex.registrar(saved);
+        return saved;
     }
 
     @Transactional
@@ -162,6 +202,7 @@ public class PatientService {
 
         patient.setStatusAtivo(false);
         patientRepository.save(patient);
+        autocompleteIndex.remover(patient);
     }
 
     @Transactional
@@ -179,6 +220,8 @@ public class PatientService {
 
         String usuarioLogado = obterUsuarioLogado();
         patientRepository.delete(patient);
+        buscaNome.remover(patient);
+        autocompleteIndex.remover(patient);
         log.info("Exclusão permanente LGPD: paciente {} removido por {}", id, usuarioLogado);
     }
 
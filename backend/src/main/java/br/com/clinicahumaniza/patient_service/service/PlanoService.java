@@ -3,6 +3,7 @@ package br.com.clinicahumaniza.patient_service.service;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -46,6 +47,8 @@ public class PlanoService {
     }
 
     @Transactional
+    // Serviços em cache carregam cópias do plano.
+    @CacheEvict(cacheNames = ReferenciaCache.SERVICOS, allEntries = true)
     public Plano updatePlano(UUID id, PlanoUpdateDTO dto) {
         Plano plano = planoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Plano", id));
 
@@ -60,6 +63,8 @@ public class PlanoService {
     }
 
     @Transactional
+    // Serviços em cache carregam cópias do plano.
+    @CacheEvict(cacheNames = ReferenciaCache.SERVICOS, allEntries = true)
     public void deletePlano(UUID id) {
         Plano plano = planoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Plano", id));
         plano.setAtivo(false);
@@ -0,0 +1,346 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.StatusAgendamento;
+import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
+
+/**
+ * Índice em memória da ocupação diária de cada profissional.
+ *
+ * Para cada par (profissional, dia) guarda os intervalos dos agendamentos que ocupam a
+ * agenda (AGENDADO/CONFIRMADO) em arrays ordenados de segundos desde a meia-noite. Quantas
+ * sessões se sobrepõem a [inicio, fim) sai de duas buscas binárias:
+ * (inícios antes de fim) − (términos até inicio). Assim a checagem de conflito e a geração
+ * de slots não releem o dia inteiro do banco a cada chamada.
+ *
+ * O dia é carregado do repositório na primeira consulta. Os serviços que alteram
+ * agendamentos chamam {@link #registrar}, e a alteração vale na hora nos dias já carregados,
+ * para que vários agendamentos criados na mesma transação (recorrência, regeneração)
+ * enxerguem uns aos outros. No fim da transação, com commit ou rollback, os dias tocados são
+ * descartados e relidos do banco na consulta seguinte. O commit também descarta porque outra
+ * thread pode ter carregado o dia do banco antes dele, sem a linha nova; um dia que não
+ * estava carregado no registro também conta como tocado pelo mesmo motivo.
+ *
+ * O índice é por processo. Com mais de uma instância, um dia em memória não vê as marcações
+ * feitas pelas outras: a checagem de capacidade continua correta porque a
+ * {@link GuardaAgenda} descarta o dia, com a trava na mão, antes de contar; a lista de slots
+ * pode ficar defasada por até {@code app.agenda.indice.validade-segundos} (0, o padrão, é sem
+ * expiração, para uma instância só).
+ */
+@Component
+public class ProfissionalAgendaIndex {
+
+    /** Status que ocupam a agenda do profissional. */
+    static final List<StatusAgendamento> STATUS_OCUPANTES =
+            List.of(StatusAgendamento.AGENDADO, StatusAgendamento.CONFIRMADO);
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final long validadeNanos;
+    private final ConcurrentHashMap<ChaveDia, Dia> dias = new ConcurrentHashMap<>();
+    // Em que dia carregado cada agendamento está: a escrita vai direto ao dia anterior dele.
+    private final ConcurrentHashMap<UUID, ChaveDia> posicoes = new ConcurrentHashMap<>();
+    // Sobe a cada dia descartado; uma leitura do banco que atravessou um descarte não é publicada.
+    private final AtomicLong descartes = new AtomicLong();
+
+    public ProfissionalAgendaIndex(AgendamentoRepository agendamentoRepository) {
+        this(agendamentoRepository, 0);
+    }
+
+    @Autowired
+    public ProfissionalAgendaIndex(
+            AgendamentoRepository agendamentoRepository,
+            @Value("${app.agenda.indice.validade-segundos:0}") long validadeSegundos) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.validadeNanos = TimeUnit.SECONDS.toNanos(validadeSegundos);
+    }
+
+    /**
+     * Quantos agendamentos ocupantes do profissional se sobrepõem ao intervalo
+     * [inicio, inicio + duracaoMinutos). {@code excluirId} (opcional) é ignorado na
+     * contagem — usado ao remarcar um agendamento, que não conflita consigo mesmo.
+     */
+    public int contarSobreposicoes(UUID profissionalId, LocalDateTime inicio, int duracaoMinutos, UUID excluirId) {
+        Dia dia = carregar(profissionalId, inicio.toLocalDate());
+        int ini = inicio.toLocalTime().toSecondOfDay();
+        return dia.contar(ini, ini + duracaoMinutos * 60, excluirId);
+    }
+
+    /**
+     * Carrega de uma vez, com uma única consulta, todos os dias do período que ainda não
+     * estão no índice. Usado antes de validar muitas datas do mesmo profissional (geração
+     * de recorrência), evitando uma ida ao banco por dia.
+     */
+    public void aquecer(UUID profissionalId, LocalDate inicio, LocalDate fim) {
+        boolean faltaAlgum =
+                inicio.datesUntil(fim.plusDays(1)).anyMatch(d -> vigente(new ChaveDia(profissionalId, d)) == null);
+        if (!faltaAlgum) return;
+        long descartesAntes = descartes.get();
+        Map<LocalDate, List<Agendamento>> porDia = agendamentoRepository
+                .findByProfissionalIdAndStatusInAndDataHoraBetween(
+                        profissionalId, STATUS_OCUPANTES, inicio.atStartOfDay(), fim.atTime(LocalTime.MAX))
+                .stream()
+                .filter(a -> a.getDataHora() != null)
+                .collect(Collectors.groupingBy(a -> a.getDataHora().toLocalDate()));
+        // Só onde não há dia: um dia carregado/atualizado nesse meio-tempo é mais recente que esta leitura.
+        inicio.datesUntil(fim.plusDays(1))
+                .forEach(d ->
+                        publicar(new ChaveDia(profissionalId, d), porDia.getOrDefault(d, List.of()), descartesAntes));
+    }
+
+    /**
+     * Reflete no índice o estado atual do agendamento: remove a posição anterior (se
+     * houver) e, se ele ainda ocupa a agenda de alguém, insere a nova. Deve ser chamado
+     * depois de qualquer escrita que mude profissional, data, duração, status ou ativo.
+     */
+    public void registrar(Agendamento agendamento) {
+        if (agendamento == null || agendamento.getId() == null) return;
+        Set<ChaveDia> tocados = aplicar(agendamento);
+        if (!tocados.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    tocados.forEach(ProfissionalAgendaIndex.this::descartarDia);
+                }
+            });
+        }
+    }
+
+    /** Descarta um dia; ele volta a ser lido do banco na próxima consulta. */
+    public void descartar(UUID profissionalId, LocalDate data) {
+        descartarDia(new ChaveDia(profissionalId, data));
+    }
+
+    /** Descarta todo o índice; os dias voltam a ser lidos do banco sob demanda. */
+    public synchronized void invalidar() {
+        descartes.incrementAndGet();
+        dias.clear();
+        posicoes.clear();
+    }
+
+    /** Libera os dias que já passaram — são consultados raramente (só registros retroativos). */
+    @Scheduled(cron = "0 30 0 * * *")
+    public void descartarDiasPassados() {
+        LocalDate hoje = LocalDate.now();
+        dias.keySet().stream()
+                .filter(chave -> chave.data().isBefore(hoje))
+                .toList()
+                .forEach(this::descartarDia);
+    }
+
+    int diasCarregados() {
+        return dias.size();
+    }
+
+    private Dia carregar(UUID profissionalId, LocalDate data) {
+        ChaveDia chave = new ChaveDia(profissionalId, data);
+        Dia dia = vigente(chave);
+        if (dia != null) return dia;
+        // A consulta roda fora do mapa: nada de I/O (nem auto-flush do Hibernate) segurando o
+        // lock do bin do ConcurrentHashMap.
+        long descartesAntes = descartes.get();
+        List<Agendamento> doDia = agendamentoRepository.findByProfissionalIdAndStatusInAndDataHoraBetween(
+                profissionalId, STATUS_OCUPANTES, data.atStartOfDay(), data.atTime(LocalTime.MAX));
+        return publicar(chave, doDia, descartesAntes);
+    }
+
+    /**
+     * Publica um dia lido do banco, a menos que já haja outro (carregado/atualizado nesse
+     * meio-tempo, mais recente que esta leitura). Se algum dia foi descartado enquanto a
+     * consulta rodava, a leitura pode ser anterior a um commit que devia tê-lo invalidado: ela
+     * serve a esta chamada, mas não fica no índice.
+     */
+    private Dia publicar(ChaveDia chave, List<Agendamento> agendamentos, long descartesAntes) {
+        Dia novo = Dia.de(agendamentos, System.nanoTime());
+        Dia atual = dias.putIfAbsent(chave, novo);
+        if (atual != null) return atual;
+        for (UUID id : novo.ids) {
+            if (id != null) posicoes.put(id, chave);
+        }
+        if (descartes.get() != descartesAntes && dias.remove(chave, novo)) soltarPosicoes(chave, novo);
+        return novo;
+    }
+
+    // O dia carregado, ou null se não está no índice ou passou da validade (e então sai dele).
+    private Dia vigente(ChaveDia chave) {
+        Dia dia = dias.get(chave);
+        if (dia == null || validadeNanos <= 0 || System.nanoTime() - dia.carregadoEm < validadeNanos) return dia;
+        if (dias.remove(chave, dia)) soltarPosicoes(chave, dia);
+        return null;
+    }
+
+    private void descartarDia(ChaveDia chave) {
+        descartes.incrementAndGet();
+        Dia dia = dias.remove(chave);
+        if (dia != null) soltarPosicoes(chave, dia);
+    }
+
+    private void soltarPosicoes(ChaveDia chave, Dia dia) {
+        for (UUID id : dia.ids) {
+            if (id != null) posicoes.remove(id, chave);
+        }
+    }
+
+    // Sincronizado: duas escritas concorrentes do mesmo agendamento não podem intercalar
+    // remoção/inserção e deixá-lo em dois dias. Leituras não passam por aqui.
+    private synchronized Set<ChaveDia> aplicar(Agendamento agendamento) {
+        UUID id = agendamento.getId();
+        Set<ChaveDia> tocados = new HashSet<>();
+        ChaveDia anterior = posicoes.remove(id);
+        if (anterior != null) {
+            dias.computeIfPresent(anterior, (k, dia) -> dia.sem(id));
+            tocados.add(anterior);
+        }
+        if (ocupaAgenda(agendamento)) {
+            ChaveDia nova = new ChaveDia(
+                    agendamento.getProfissional().getId(),
+                    agendamento.getDataHora().toLocalDate());
+            int ini = agendamento.getDataHora().toLocalTime().toSecondOfDay();
+            int fim = ini + agendamento.getDuracaoMinutos() * 60;
+            // Só atualiza dias já carregados; os demais serão lidos do banco com o dado novo.
+            // Mesmo assim o dia conta como tocado: é descartado no fim da transação.
+            if (dias.computeIfPresent(nova, (k, dia) -> dia.sem(id).com(id, ini, fim)) != null) {
+                posicoes.put(id, nova);
+            }
+            tocados.add(nova);
+        }
+        return tocados;
+    }
+
+    private static boolean ocupaAgenda(Agendamento a) {
+        return a.isAtivo()
+                && a.getProfissional() != null
+                && a.getProfissional().getId() != null
+                && a.getDataHora() != null
+                && a.getDuracaoMinutos() != null
+                && STATUS_OCUPANTES.contains(a.getStatus());
+    }
+
+    private record ChaveDia(UUID profissionalId, LocalDate data) {}
+
+    /**
+     * Ocupação imutável de um dia. {@code ids/inicios/fins} são paralelos (um por
+     * agendamento); {@code iniciosOrdenados/finsOrdenados} são as mesmas pontas ordenadas
+     * independentemente, para a contagem por busca binária.
+     */
+    private static final class Dia {
+
+        private final UUID[] ids;
+        private final int[] inicios;
+        private final int[] fins;
+        private final int[] iniciosOrdenados;
+        private final int[] finsOrdenados;
+        private final long carregadoEm;
+
+        private Dia(UUID[] ids, int[] inicios, int[] fins, long carregadoEm) {
+            this.ids = ids;
+            this.carregadoEm = carregadoEm;
+            this.inicios = inicios;
+            this.fins = fins;
+            this.iniciosOrdenados = inicios.clone();
+            this.finsOrdenados = fins.clone();
+            Arrays.sort(iniciosOrdenados);
+            Arrays.sort(finsOrdenados);
+        }
+
+        static Dia de(List<Agendamento> agendamentos, long carregadoEm) {
+            List<Agendamento> validos = new ArrayList<>(agendamentos.size());
+            for (Agendamento a : agendamentos) {
+                if (a.getDataHora() != null && a.getDuracaoMinutos() != null) validos.add(a);
+            }
+            UUID[] ids = new UUID[validos.size()];
+            int[] inicios = new int[validos.size()];
+            int[] fins = new int[validos.size()];
+            for (int i = 0; i < validos.size(); i++) {
+                Agendamento a = validos.get(i);
+                ids[i] = a.getId();
+                inicios[i] = a.getDataHora().toLocalTime().toSecondOfDay();
+                fins[i] = inicios[i] + a.getDuracaoMinutos() * 60;
+            }
+            return new Dia(ids, inicios, fins, carregadoEm);
+        }
+
+        int contar(int inicio, int fim, UUID excluirId) {
+            // Sobrepõe [inicio, fim) quem começa antes de fim e termina depois de inicio.
+            // Todo intervalo que termina até inicio também começa antes de fim, então a
+            // diferença das duas contagens é exatamente o número de sobreposições.
+            int total = menoresQue(iniciosOrdenados, fim) - menoresQue(finsOrdenados, inicio + 1);
+            if (excluirId != null) {
+                int i = indice(excluirId);
+                if (i >= 0 && inicios[i] < fim && fins[i] > inicio) total--;
+            }
+            return total;
+        }
+
+        Dia sem(UUID id) {
+            int i = indice(id);
+            if (i < 0) return this;
+            return new Dia(remover(ids, i), remover(inicios, i), remover(fins, i), carregadoEm);
+        }
+
+        Dia com(UUID id, int inicio, int fim) {
+            int n = ids.length;
+            UUID[] novosIds = Arrays.copyOf(ids, n + 1);
+            int[] novosInicios = Arrays.copyOf(inicios, n + 1);
+            int[] novosFins = Arrays.copyOf(fins, n + 1);
+            novosIds[n] = id;
+            novosInicios[n] = inicio;
+            novosFins[n] = fim;
+            return new Dia(novosIds, novosInicios, novosFins, carregadoEm);
+        }
+
+        private int indice(UUID id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (id.equals(ids[i])) return i;
+            }
+            return -1;
+        }
+
+        /** Quantidade de elementos estritamente menores que {@code valor} no array ordenado. */
+        private static int menoresQue(int[] ordenado, int valor) {
+            int lo = 0;
+            int hi = ordenado.length;
+            while (lo < hi) {
+                int meio = (lo + hi) >>> 1;
+                if (ordenado[meio] < valor) lo = meio + 1;
+                else hi = meio;
+            }
+            return lo;
+        }
+
+        private static UUID[] remover(UUID[] origem, int i) {
+            UUID[] destino = new UUID[origem.length - 1];
+            System.arraycopy(origem, 0, destino, 0, i);
+            System.arraycopy(origem, i + 1, destino, i, origem.length - i - 1);
+            return destino;
+        }
+
+        private static int[] remover(int[] origem, int i) {
+            int[] destino = new int[origem.length - 1];
+            System.arraycopy(origem, 0, destino, 0, i);
+            System.arraycopy(origem, i + 1, destino, i, origem.length - i - 1);
+            return destino;
+        }
+    }
+}
@@ -5,7 +5,10 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -70,8 +73,11 @@ public class ProfissionalService {
         return profissionalRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Profissional", id));
     }
 
+    @Transactional(readOnly = true)
     public Page<Profissional> getAllProfissionais(Pageable pageable) {
-        return profissionalRepository.findAll(pageable);
+        Page<Profissional> pagina = profissionalRepository.findAll(pageable);
+        pagina.forEach(p -> Hibernate.initialize(p.getAtividades()));
+        return pagina;
     }
 
     public List<Profissional> getProfissionaisByAtividade(UUID atividadeId) {
@@ -79,6 +85,7 @@ public class ProfissionalService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = ReferenciaCache.PROFISSIONAIS, key = "#id")
     public Profissional updateProfissional(UUID id, ProfissionalUpdateDTO dto) {
         Profissional profissional = profissionalRepository
                 .findById(id)
@@ -94,6 +101,11 @@ public class ProfissionalService {
     }
 
     @Transactional
+    @Caching(
+            evict = {
+                @CacheEvict(cacheNames = ReferenciaCache.PROFISSIONAIS, key = "#id"),
+                @CacheEvict(cacheNames = ReferenciaCache.HORARIOS, allEntries = true)
+            })
     public void deleteProfissional(UUID id) {
         Profissional profissional = profissionalRepository
                 .findById(id)
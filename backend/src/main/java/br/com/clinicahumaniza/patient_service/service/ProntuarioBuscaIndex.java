@@ -0,0 +1,226 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.br.BrazilianAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.pt.PortugueseLightStemFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.TipoDocumento;
+
+/**
+ * Índice Lucene dos prontuários, em disco local ({@code app.prontuarios.busca.dir}).
+ *
+ * Um documento por prontuário com título, descrição e o texto extraído do arquivo (nessa
+ * ordem de peso), mais paciente e tipo para filtrar. A busca não toca no Storage nem no
+ * banco: sai do índice com o que precisa para listar o resultado.
+ *
+ * Quem escreve é o {@link ProntuarioIndexacaoWorker}, que confirma (commit) ao fim de cada
+ * rodada; as buscas enxergam as alterações já antes disso (near real-time). O Lucene trava
+ * a pasta para um único writer — mesma premissa de instância única do spool.
+ */
+@Component
+public class ProntuarioBuscaIndex implements Closeable {
+
+    static final String ID = "id";
+    static final String PACIENTE = "pacienteId";
+    static final String TIPO = "tipo";
+    static final String TITULO = "titulo";
+    static final String DESCRICAO = "descricao";
+    static final String CONTEUDO = "conteudo";
+    static final String NOME_ARQUIVO = "nomeArquivo";
+    static final String CRIADO_EM = "createdAt";
+
+    // Título pesa mais que a descrição, que pesa mais que o corpo do documento.
+    private static final Map<String, Float> PESOS = Map.of(TITULO, 3f, DESCRICAO, 2f, CONTEUDO, 1f);
+
+    private final Directory diretorio;
+    private final Analyzer analisador = analisador();
+    private final IndexWriter writer;
+    private final SearcherManager searchers;
+
+    public ProntuarioBuscaIndex(@Value("${app.prontuarios.busca.dir:${user.home}/humaniza-busca}") String dir)
+            throws IOException {
+        this.diretorio = FSDirectory.open(Path.of(dir));
+        this.writer = new IndexWriter(diretorio, new IndexWriterConfig(analisador));
+        this.searchers = new SearcherManager(writer, null);
+    }
+
+    /** Inclui ou substitui o prontuário no índice; visível na busca em seguida. */
+    public void indexar(Prontuario p, String texto) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, p.getId().toString(), Field.Store.YES));
+        doc.add(new StringField(PACIENTE, p.getPaciente().getId().toString(), Field.Store.YES));
+        TipoDocumento tipo = p.getTipo() != null ? p.getTipo() : TipoDocumento.PRONTUARIO;
+        doc.add(new StringField(TIPO, tipo.name(), Field.Store.YES));
+        doc.add(new TextField(TITULO, p.getTitulo(), Field.Store.YES));
+        if (p.getDescricao() != null) doc.add(new TextField(DESCRICAO, p.getDescricao(), Field.Store.NO));
+        if (texto != null && !texto.isBlank()) doc.add(new TextField(CONTEUDO, texto, Field.Store.NO));
+        if (p.getNomeArquivo() != null) doc.add(new StoredField(NOME_ARQUIVO, p.getNomeArquivo()));
+        if (p.getCreatedAt() != null) {
+            doc.add(new StoredField(CRIADO_EM, p.getCreatedAt().toString()));
+        }
+        try {
+            writer.updateDocument(new Term(ID, p.getId().toString()), doc);
+            searchers.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Tira o prontuário do índice e confirma na hora: excluído não volta numa busca. */
+    public void remover(UUID id) {
+        try {
+            writer.deleteDocuments(new Term(ID, id.toString()));
+            confirmar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Grava no disco o que foi indexado até aqui. */
+    public void confirmar() throws IOException {
+        writer.commit();
+        searchers.maybeRefresh();
+    }
+
+    /** Esvazia o índice (reconstrução do zero). */
+    public void limpar() throws IOException {
+        writer.deleteAll();
+        confirmar();
+    }
+
+    /**
+     * Até {@code limite} prontuários que casam com o termo, do mais relevante ao menos.
+     * Sintaxe simples: palavras (todas obrigatórias), {@code "frase exata"}, {@code prefixo*}
+     * e {@code -excluir}; erro de sintaxe nunca vira exceção. Filtra por paciente e tipo se vierem.
+     */
+    public List<Resultado> buscar(String termo, UUID pacienteId, TipoDocumento tipo, int limite) throws IOException {
+        if (termo == null || termo.isBlank() || limite <= 0) return List.of();
+        SimpleQueryParser parser = new SimpleQueryParser(analisador, PESOS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query consulta = parser.parse(termo);
+        if (consulta == null) return List.of(); // só stopwords
+
+        BooleanQuery.Builder q = new BooleanQuery.Builder().add(consulta, BooleanClause.Occur.MUST);
+        if (pacienteId != null) {
+            q.add(new TermQuery(new Term(PACIENTE, pacienteId.toString())), BooleanClause.Occur.FILTER);
+        }
+        if (tipo != null) q.add(new TermQuery(new Term(TIPO, tipo.name())), BooleanClause.Occur.FILTER);
+
+        IndexSearcher searcher = searchers.acquire();
+        try {
+            List<Resultado> resultados = new ArrayList<>();
+            for (ScoreDoc hit : searcher.search(q.build(), limite).scoreDocs) {
+                Document doc = searcher.storedFields().document(hit.doc);
+                String criadoEm = doc.get(CRIADO_EM);
+                resultados.add(new Resultado(
+                        UUID.fromString(doc.get(ID)),
+                        UUID.fromString(doc.get(PACIENTE)),
+                        TipoDocumento.valueOf(doc.get(TIPO)),
+                        doc.get(TITULO),
+                        doc.get(NOME_ARQUIVO),
+                        criadoEm != null ? LocalDateTime.parse(criadoEm) : null,
+                        hit.score));
+            }
+            return resultados;
+        } finally {
+            searchers.release(searcher);
+        }
+    }
+
+    /** Prontuários no índice (sem os excluídos ainda não compactados). */
+    public long documentos() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /** Espaço ocupado pela pasta do índice. */
+    public long tamanhoBytes() throws IOException {
+        long total = 0;
+        for (String arquivo : diretorio.listAll()) {
+            try {
+                total += diretorio.fileLength(arquivo);
+            } catch (NoSuchFileException e) {
+                // Segmento removido por um merge entre a listagem e a leitura.
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        searchers.close();
+        writer.close();
+        diretorio.close();
+    }
+
+    /**
+     * Português sem acento: "Exames", "exame" e "exâme" viram o mesmo termo. Stopwords saem
+     * antes do radical e o acento depois, porque as duas etapas esperam o texto acentuado.
+     */
+    static Analyzer analisador() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String campo) {
+                Tokenizer tokenizer = new StandardTokenizer();
+                TokenStream fluxo = new LowerCaseFilter(tokenizer);
+                fluxo = new StopFilter(fluxo, BrazilianAnalyzer.getDefaultStopSet());
+                fluxo = new PortugueseLightStemFilter(fluxo);
+                fluxo = new ASCIIFoldingFilter(fluxo);
+                return new TokenStreamComponents(tokenizer, fluxo);
+            }
+
+            @Override
+            protected TokenStream normalize(String campo, TokenStream entrada) {
+                // Prefixos ("exam*") não passam pelo radical, só por minúsculas e acentos.
+                return new ASCIIFoldingFilter(new LowerCaseFilter(entrada));
+            }
+        };
+    }
+
+    /** Um prontuário encontrado, com o que a listagem mostra e a relevância (BM25). */
+    public record Resultado(
+            UUID id,
+            UUID pacienteId,
+            TipoDocumento tipo,
+            String titulo,
+            String nomeArquivo,
+            LocalDateTime createdAt,
+            float score) {}
+}
@@ -0,0 +1,121 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
+import br.com.clinicahumaniza.patient_service.repository.ProntuarioRepository;
+
+/**
+ * Mantém o {@link ProntuarioBuscaIndex} em dia com o banco.
+ *
+ * Mesmo desenho do {@link ProntuarioPreviewWorker}: a cada rodada pega no máximo
+ * {@code app.prontuarios.busca.simultaneos} prontuários com {@code indexadoEm} nulo, extrai o
+ * texto (lendo pelo {@link DocumentoCache}) e indexa. Só depois do commit do índice marca
+ * {@code indexadoEm} no banco — se o processo cair no meio, a rodada é refeita, nunca perdida.
+ *
+ * Reconstruir é esvaziar o índice e zerar {@code indexadoEm}: o próprio worker reindexa tudo,
+ * mais recentes primeiro, sem travar as buscas. Na subida, índice vazio com prontuários
+ * marcados (pasta apagada, servidor novo) dispara a reconstrução.
+ */
+@Component
+public class ProntuarioIndexacaoWorker implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProntuarioIndexacaoWorker.class);
+
+    private final ProntuarioRepository prontuarioRepository;
+    private final DocumentoCache documentoCache;
+    private final ExtratorTexto extrator;
+    private final ProntuarioBuscaIndex index;
+    private final Executor indexacaoExecutor;
+    private final int simultaneos;
+
+    private volatile LocalDateTime ultimaReconstrucao;
+
+    public ProntuarioIndexacaoWorker(
+            ProntuarioRepository prontuarioRepository,
+            DocumentoCache documentoCache,
+            ExtratorTexto extrator,
+            ProntuarioBuscaIndex index,
+            @Qualifier("indexacaoExecutor") Executor indexacaoExecutor,
+            @Value("${app.prontuarios.busca.simultaneos:2}") int simultaneos) {
+        this.prontuarioRepository = prontuarioRepository;
+        this.documentoCache = documentoCache;
+        this.extrator = extrator;
+        this.index = index;
+        this.indexacaoExecutor = indexacaoExecutor;
+        this.simultaneos = Math.max(1, simultaneos);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (index.documentos() == 0 && prontuarioRepository.existsByIndexadoEmIsNotNull()) {
+            log.warn("Índice de busca vazio com prontuários já indexados no banco: reconstruindo");
+            reconstruir();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.prontuarios.busca.intervalo-ms:5000}")
+    public synchronized void drenar() throws IOException {
+        List<Prontuario> aIndexar = prontuarioRepository.findAIndexar(StatusProntuario.PRONTO, Limit.of(simultaneos));
+        if (aIndexar.isEmpty()) return;
+        CompletableFuture.allOf(aIndexar.stream()
+                        .map(p -> CompletableFuture.runAsync(() -> index.indexar(p, extrair(p)), indexacaoExecutor))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+        index.confirmar();
+
+        LocalDateTime agora = LocalDateTime.now();
+        for (Prontuario p : aIndexar) {
+            if (prontuarioRepository.marcarIndexado(p.getId(), agora) == 0) {
+                // Excluído enquanto era indexado: o delete pode ter passado antes da inclusão.
+                index.remover(p.getId());
+            }
+        }
+        log.debug("{} prontuário(s) indexado(s) para busca", aIndexar.size());
+    }
+
+    /**
+     * Esvazia o índice e devolve todos os prontuários à fila do worker. Espera a rodada em
+     * andamento terminar (mesmo lock), senão ela marcaria como indexado o que acabou de sair.
+     */
+    public synchronized void reconstruir() throws IOException {
+        index.limpar();
+        int total = prontuarioRepository.limparIndexacao();
+        ultimaReconstrucao = LocalDateTime.now();
+        log.info("Reconstrução do índice de busca iniciada: {} prontuário(s) na fila", total);
+    }
+
+    public LocalDateTime getUltimaReconstrucao() {
+        return ultimaReconstrucao;
+    }
+
+    /** Texto do arquivo; sem texto (tipo sem extração, arquivo ilegível) indexa só os metadados. */
+    String extrair(Prontuario p) {
+        if (!ExtratorTexto.suporta(p.getTipoArquivo())) return "";
+        try (InputStream conteudo = documentoCache.abrir(p.getStoragePath())) {
+            return extrator.extrair(conteudo, p.getTipoArquivo());
+        } catch (NoSuchFileException e) {
+            log.warn("Prontuario {} sem arquivo no Storage: indexado só pelos metadados", p.getId());
+        } catch (Exception e) {
+            log.warn("Falha ao extrair texto do Prontuario {}: {}", p.getId(), e.getMessage());
+        }
+        return "";
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
+import br.com.clinicahumaniza.patient_service.repository.ProntuarioRepository;
+
+/**
+ * Recebimento assíncrono de prontuários: grava o arquivo no disco local (spool) e o registro
+ * como PENDENTE, sem esperar o Storage. Quem envia de fato é o {@link ProntuarioIngestaoWorker}.
+ *
+ * O spool é local ao processo — mesma premissa de instância única dos índices em memória.
+ */
+@Service
+public class ProntuarioIngestaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProntuarioIngestaoService.class);
+
+    private final ProntuarioRepository prontuarioRepository;
+    private final Path spoolDir;
+    private final int maxPendentes;
+
+    public ProntuarioIngestaoService(
+            ProntuarioRepository prontuarioRepository,
+            @Value("${app.prontuarios.spool-dir:${java.io.tmpdir}/humaniza-prontuarios}") String spoolDir,
+            @Value("${app.prontuarios.ingestao.max-pendentes:50}") int maxPendentes)
+            throws IOException {
+        this.prontuarioRepository = prontuarioRepository;
+        this.spoolDir = Files.createDirectories(Path.of(spoolDir));
+        this.maxPendentes = maxPendentes;
+    }
+
+    /**
+     * Guarda o arquivo e persiste o prontuário como PENDENTE. Com a fila cheia (Storage fora
+     * ou lento), recusa com 503 em vez de acumular arquivos no disco indefinidamente.
+     */
+    public Prontuario receber(Prontuario prontuario, MultipartFile file) throws IOException {
+        if (prontuarioRepository.countByStatus(StatusProntuario.PENDENTE) >= maxPendentes) {
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE, "Fila de envio de documentos cheia, tente novamente em instantes");
+        }
+
+        // O multipart já está num arquivo temporário do Tomcat: transferTo só move/copia em disco.
+        Path spool = spoolDir.resolve(UUID.randomUUID() + ".upload");
+        file.transferTo(spool);
+
+        prontuario.setStoragePath(
+                DocumentStorage.novoCaminho(prontuario.getPaciente().getId(), file.getOriginalFilename()));
+        prontuario.setSpoolPath(spool.toString());
+        prontuario.setStatus(StatusProntuario.PENDENTE);
+        prontuario.setTamanhoBytes(file.getSize());
+        prontuario.setTentativasEnvio(0);
+        prontuario.setProximaTentativaEm(LocalDateTime.now());
+        try {
+            return prontuarioRepository.save(prontuario);
+        } catch (RuntimeException e) {
+            log.error("Falha ao salvar Prontuario pendente. Removendo spool: {}", spool, e);
+            apagarSpool(prontuario.getSpoolPath());
+            throw e;
+        }
+    }
+
+    /** Remove o arquivo local de um prontuário, se ainda existir. */
+    public void apagarSpool(String spoolPath) {
+        if (spoolPath == null) return;
+        try {
+            Files.deleteIfExists(Path.of(spoolPath));
+        } catch (IOException e) {
+            log.warn("Nao foi possivel remover spool {}: {}", spoolPath, e.getMessage());
+        }
+    }
+}
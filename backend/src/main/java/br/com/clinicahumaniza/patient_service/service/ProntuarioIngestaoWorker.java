@@ -0,0 +1,151 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
+import br.com.clinicahumaniza.patient_service.repository.ProntuarioRepository;
+
+/**
+ * Envia ao Storage os prontuários recebidos em modo assíncrono.
+ *
+ * A cada rodada pega no máximo {@code app.prontuarios.ingestao.envios-simultaneos} pendentes
+ * vencidos (mais antigos primeiro) e espera todos terminarem: o restante fica no banco, sem
+ * fila em memória. Envio concluído vira PRONTO e o spool é apagado; falha é reagendada com
+ * backoff exponencial e, depois de {@link #MAX_TENTATIVAS}, o prontuário fica como FALHA.
+ * Se o prontuário foi excluído enquanto subia, o arquivo órfão é removido do Storage.
+ *
+ * A espera ocupa uma thread do agendador; o pool dele ({@code spring.task.scheduling.pool.size})
+ * tem folga para os outros jobs não ficarem atrás de um envio lento.
+ */
+@Component
+public class ProntuarioIngestaoWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(ProntuarioIngestaoWorker.class);
+
+    static final int MAX_TENTATIVAS = 8;
+    private static final Duration ESPERA_INICIAL = Duration.ofSeconds(5);
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(30);
+
+    private final ProntuarioRepository prontuarioRepository;
+    private final DocumentStorage storageService;
+    private final ProntuarioIngestaoService ingestaoService;
+    private final Executor envioExecutor;
+    private final int enviosSimultaneos;
+
+    public ProntuarioIngestaoWorker(
+            ProntuarioRepository prontuarioRepository,
+            DocumentStorage storageService,
+            ProntuarioIngestaoService ingestaoService,
+            @Qualifier("prontuarioEnvioExecutor") Executor envioExecutor,
+            @Value("${app.prontuarios.ingestao.envios-simultaneos:2}") int enviosSimultaneos) {
+        this.prontuarioRepository = prontuarioRepository;
+        this.storageService = storageService;
+        this.ingestaoService = ingestaoService;
+        this.envioExecutor = envioExecutor;
+        this.enviosSimultaneos = Math.max(1, enviosSimultaneos);
+    }
+
+    @Scheduled(fixedDelayString = "${app.prontuarios.ingestao.intervalo-ms:2000}")
+    public void drenar() {
+        List<Prontuario> vencidos =
+                prontuarioRepository.findByStatusAndProximaTentativaEmLessThanEqualOrderByCreatedAtAsc(
+                        StatusProntuario.PENDENTE, LocalDateTime.now(), Limit.of(enviosSimultaneos));
+        if (vencidos.isEmpty()) return;
+        CompletableFuture.allOf(vencidos.stream()
+                        .map(p -> CompletableFuture.runAsync(() -> enviar(p), envioExecutor))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    void enviar(Prontuario pendente) {
+        String spoolPath = pendente.getSpoolPath();
+        Path spool = spoolPath != null ? Path.of(spoolPath) : null;
+        if (spool == null || !Files.exists(spool)) {
+            // Disco local perdido (restart do container, limpeza do tmp): não há o que reenviar.
+            prontuarioRepository
+                    .findById(pendente.getId())
+                    .ifPresent(p -> desistir(p, "Arquivo local não encontrado para envio"));
+            return;
+        }
+
+        DocumentStorage.ArquivoEnviado enviado;
+        try {
+            enviado = storageService.upload(pendente.getStoragePath(), spool, pendente.getTipoArquivo());
+        } catch (Exception e) {
+            reagendar(pendente, String.valueOf(e.getMessage()));
+            return;
+        }
+
+        Optional<Prontuario> atual = prontuarioRepository.findById(pendente.getId());
+        if (atual.isEmpty()) {
+            log.info("Prontuario {} excluido durante o envio; removendo arquivo orfao", pendente.getId());
+            storageService.delete(pendente.getStoragePath());
+            ingestaoService.apagarSpool(spoolPath);
+            return;
+        }
+
+        Prontuario pronto = atual.get();
+        pronto.setStatus(StatusProntuario.PRONTO);
+        pronto.setTamanhoBytes(enviado.tamanhoBytes());
+        pronto.setChecksumSha256(enviado.sha256());
+        pronto.setSpoolPath(null);
+        pronto.setUltimoErro(null);
+        try {
+            prontuarioRepository.save(pronto);
+        } catch (RuntimeException e) {
+            // Continua PENDENTE com o spool: a próxima rodada reenvia para o mesmo path.
+            log.error("Falha ao marcar Prontuario {} como enviado; removendo arquivo do Storage", pronto.getId(), e);
+            storageService.delete(pendente.getStoragePath());
+            return;
+        }
+        ingestaoService.apagarSpool(spoolPath);
+    }
+
+    private void reagendar(Prontuario pendente, String erro) {
+        prontuarioRepository.findById(pendente.getId()).ifPresent(p -> {
+            int tentativas = (p.getTentativasEnvio() != null ? p.getTentativasEnvio() : 0) + 1;
+            if (tentativas >= MAX_TENTATIVAS) {
+                desistir(p, erro);
+                return;
+            }
+            p.setTentativasEnvio(tentativas);
+            p.setProximaTentativaEm(LocalDateTime.now().plus(espera(tentativas)));
+            p.setUltimoErro(erro);
+            prontuarioRepository.save(p);
+            log.warn("Falha ao enviar Prontuario {} ao Storage (tentativa {}): {}", p.getId(), tentativas, erro);
+        });
+    }
+
+    private void desistir(Prontuario prontuario, String erro) {
+        log.error("Envio do Prontuario {} abandonado: {}", prontuario.getId(), erro);
+        ingestaoService.apagarSpool(prontuario.getSpoolPath());
+        // Um envio parcial pode ter deixado o objeto no bucket.
+        storageService.delete(prontuario.getStoragePath());
+        prontuario.setStatus(StatusProntuario.FALHA);
+        prontuario.setSpoolPath(null);
+        prontuario.setUltimoErro(erro);
+        prontuarioRepository.save(prontuario);
+    }
+
+    /** Backoff exponencial a partir de {@link #ESPERA_INICIAL}, limitado a {@link #ESPERA_MAXIMA}. */
+    static Duration espera(int tentativas) {
+        Duration espera = ESPERA_INICIAL.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        return espera.compareTo(ESPERA_MAXIMA) > 0 ? ESPERA_MAXIMA : espera;
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.StatusPreview;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
+import br.com.clinicahumaniza.patient_service.repository.ProntuarioRepository;
+
+/**
+ * Gera as miniaturas dos prontuários depois que o arquivo chega ao Storage.
+ *
+ * Mesmo desenho do {@link ProntuarioIngestaoWorker}: a cada rodada pega no máximo
+ * {@code app.prontuarios.preview.simultaneos} pendentes (mais recentes primeiro) e espera
+ * todos terminarem, sem fila em memória. Com {@code app.prontuarios.preview.backfill} os
+ * registros anteriores às miniaturas entram na mesma fila, depois dos uploads novos. A
+ * miniatura vai para o Storage ao lado do original ({@code <storagePath>.preview.jpg}).
+ */
+@Component
+public class ProntuarioPreviewWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(ProntuarioPreviewWorker.class);
+
+    static final int MAX_TENTATIVAS = 3;
+    static final String SUFIXO = ".preview.jpg";
+
+    private final ProntuarioRepository prontuarioRepository;
+    private final DocumentStorage storage;
+    private final DocumentoCache documentoCache;
+    private final GeradorPreview gerador;
+    private final Executor previewExecutor;
+    private final int simultaneos;
+    private final boolean backfill;
+
+    public ProntuarioPreviewWorker(
+            ProntuarioRepository prontuarioRepository,
+            DocumentStorage storage,
+            DocumentoCache documentoCache,
+            GeradorPreview gerador,
+            @Qualifier("previewExecutor") Executor previewExecutor,
+            @Value("${app.prontuarios.preview.simultaneos:2}") int simultaneos,
+            @Value("${app.prontuarios.preview.backfill:true}") boolean backfill) {
+        this.prontuarioRepository = prontuarioRepository;
+        this.storage = storage;
+        this.documentoCache = documentoCache;
+        this.gerador = gerador;
+        this.previewExecutor = previewExecutor;
+        this.simultaneos = Math.max(1, simultaneos);
+        this.backfill = backfill;
+    }
+
+    @Scheduled(fixedDelayString = "${app.prontuarios.preview.intervalo-ms:5000}")
+    public void drenar() {
+        List<Prontuario> aGerar = prontuarioRepository.findPreviewsAGerar(
+                StatusProntuario.PRONTO,
+                StatusPreview.PENDENTE,
+                backfill,
+                GeradorPreview.TIPOS_SUPORTADOS,
+                Limit.of(simultaneos));
+        if (aGerar.isEmpty()) return;
+        CompletableFuture.allOf(aGerar.stream()
+                        .map(p -> CompletableFuture.runAsync(() -> gerar(p), previewExecutor))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    void gerar(Prontuario prontuario) {
+        String previewPath = prontuario.getStoragePath() + SUFIXO;
+        byte[] miniatura;
+        try (InputStream original = documentoCache.abrir(prontuario.getStoragePath())) {
+            miniatura = gerador.gerar(original, prontuario.getTipoArquivo());
+            storage.upload(previewPath, new ByteArrayResource(miniatura), GeradorPreview.CONTENT_TYPE);
+        } catch (NoSuchFileException e) {
+            registrarFalha(prontuario, "arquivo não encontrado no Storage", true);
+            return;
+        } catch (Exception e) {
+            registrarFalha(prontuario, String.valueOf(e.getMessage()), false);
+            return;
+        }
+
+        Optional<Prontuario> atual = prontuarioRepository.findById(prontuario.getId());
+        if (atual.isEmpty()) {
+            // Excluído enquanto a miniatura era gerada: não deixa o arquivo órfão.
+            storage.delete(previewPath);
+            return;
+        }
+        Prontuario p = atual.get();
+        p.setPreviewPath(previewPath);
+        p.setPreviewStatus(StatusPreview.PRONTO);
+        prontuarioRepository.save(p);
+        log.debug("Miniatura do Prontuario {} gerada ({} bytes)", p.getId(), miniatura.length);
+    }
+
+    private void registrarFalha(Prontuario prontuario, String erro, boolean definitiva) {
+        prontuarioRepository.findById(prontuario.getId()).ifPresent(p -> {
+            int tentativas = (p.getPreviewTentativas() != null ? p.getPreviewTentativas() : 0) + 1;
+            p.setPreviewTentativas(tentativas);
+            if (definitiva || tentativas >= MAX_TENTATIVAS) {
+                p.setPreviewStatus(StatusPreview.INDISPONIVEL);
+                log.warn("Miniatura do Prontuario {} indisponível: {}", p.getId(), erro);
+            } else {
+                p.setPreviewStatus(StatusPreview.PENDENTE);
+                log.warn("Falha ao gerar miniatura do Prontuario {} (tentativa {}): {}", p.getId(), tentativas, erro);
+            }
+            prontuarioRepository.save(p);
+        });
+    }
+}
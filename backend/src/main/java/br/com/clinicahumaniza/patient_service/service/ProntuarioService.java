@@ -1,6 +1,11 @@
 package br.com.clinicahumaniza.patient_service.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -8,6 +13,7 @@ import jakarta.persistence.EntityNotFoundException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -16,9 +22,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import br.com.clinicahumaniza.patient_service.dto.BuscaIndiceEstatisticaDTO;
+import br.com.clinicahumaniza.patient_service.dto.ProntuarioBuscaResultadoDTO;
 import br.com.clinicahumaniza.patient_service.dto.ProntuarioResponseDTO;
 import br.com.clinicahumaniza.patient_service.model.Patient;
 import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.StatusPreview;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
 import br.com.clinicahumaniza.patient_service.model.TipoDocumento;
 import br.com.clinicahumaniza.patient_service.repository.PatientRepository;
 import br.com.clinicahumaniza.patient_service.repository.ProntuarioRepository;
@@ -32,7 +42,15 @@ public class ProntuarioService {
 
     private final ProntuarioRepository prontuarioRepository;
     private final PatientRepository patientRepository;
-    private final SupabaseStorageService storageService;
+    private final DocumentStorage storageService;
+    private final UrlAssinadaCache urlAssinadaCache;
+    private final DocumentoCache documentoCache;
+    private final ProntuarioIngestaoService ingestaoService;
+    private final ProntuarioBuscaIndex buscaIndex;
+    private final ProntuarioIndexacaoWorker indexacaoWorker;
+
+    @Value("${app.prontuarios.upload-assincrono:false}")
+    private boolean uploadAssincrono;
 
     private static final Set<String> ALLOWED_TYPES = Set.of(
             "application/pdf",
@@ -41,6 +59,7 @@ public class ProntuarioService {
             "application/msword",
             "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
     private static final long MAX_FILE_SIZE = 10_485_760L; // 10MB
+    private static final int MAX_RESULTADOS_BUSCA = 100;
 
     private void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
@@ -69,10 +88,6 @@ public class ProntuarioService {
                 .findById(pacienteId)
                 .orElseThrow(() -> new EntityNotFoundException("Paciente não encontrado"));
 
-        // Sobe primeiro no Storage (chamada externa, fora da transação JPA)
-        String storagePath = storageService.upload(pacienteId, file);
-        String storageUrl = storageService.getSignedUrl(storagePath);
-
         String uploadedBy =
                 SecurityContextHolder.getContext().getAuthentication().getName();
 
@@ -83,12 +98,28 @@ public class ProntuarioService {
                 .descricao(descricao)
                 .nomeArquivo(file.getOriginalFilename())
                 .tipoArquivo(file.getContentType())
-                .tamanhoBytes(file.getSize())
-                .storagePath(storagePath)
-                .storageUrl(storageUrl)
                 .uploadedBy(uploadedBy)
+                // A miniatura sai depois, pelo ProntuarioPreviewWorker, quando o arquivo estiver no Storage
+                .previewStatus(
+                        GeradorPreview.suporta(file.getContentType())
+                                ? StatusPreview.PENDENTE
+                                : StatusPreview.INDISPONIVEL)
                 .build();
 
+        // Assíncrono: responde assim que o arquivo está no disco; o worker envia ao Storage.
+        if (uploadAssincrono) {
+            return toDTO(ingestaoService.receber(prontuario, file));
+        }
+
+        // Sobe primeiro no Storage (chamada externa, fora da transação JPA)
+        DocumentStorage.ArquivoEnviado enviado = storageService.upload(pacienteId, file);
+        String storagePath = enviado.storagePath();
+        UrlAssinadaCache.UrlsAssinadas assinadas = urlAssinadaCache.assinar(List.of(storagePath));
+        prontuario.setTamanhoBytes(enviado.tamanhoBytes());
+        prontuario.setChecksumSha256(enviado.sha256());
+        prontuario.setStoragePath(storagePath);
+        prontuario.setStorageUrl(assinadas.urls().get(storagePath));
+
         // Rollback manual: se o save no banco falhar, remove o arquivo do Storage
         // pra evitar arquivos órfãos consumindo espaço e expondo dados de pacientes.
         try {
@@ -103,23 +134,81 @@ public class ProntuarioService {
             throw e;
         }
 
-        return toDTO(prontuario);
+        return toDTOComUrl(prontuario, assinadas);
     }
 
     public Page<ProntuarioResponseDTO> getByPaciente(UUID pacienteId, TipoDocumento tipo, Pageable pageable) {
         Page<Prontuario> page = (tipo != null)
                 ? prontuarioRepository.findByPacienteIdAndTipo(pacienteId, tipo, pageable)
                 : prontuarioRepository.findByPacienteId(pacienteId, pageable);
-        // Regenera a URL assinada na hora de servir: a guardada no banco expira em 1h
-        // após o upload e causaria InvalidJWT ("exp" claim) ao abrir depois.
-        return page.map(this::toDTOComUrlFresca);
+        // Não serve a URL guardada no banco: ela expira e causaria InvalidJWT ("exp" claim)
+        // ao abrir depois. A página inteira (arquivos e miniaturas) é assinada numa chamada só
+        // (ou vem do cache).
+        UrlAssinadaCache.UrlsAssinadas assinadas = urlAssinadaCache.assinar(
+                page.getContent().stream().flatMap(p -> paraAssinar(p).stream()).toList());
+        return page.map(p -> toDTOComUrl(p, assinadas));
     }
 
     public ProntuarioResponseDTO getById(UUID id) {
         Prontuario p = prontuarioRepository
                 .findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Prontuário não encontrado"));
-        return toDTOComUrlFresca(p);
+        return toDTOComUrl(p, urlAssinadaCache.assinar(paraAssinar(p)));
+    }
+
+    /**
+     * Busca textual (título, descrição e conteúdo do arquivo) no índice local, de um paciente
+     * ou da clínica toda. Só os nomes dos pacientes vêm do banco, numa consulta.
+     */
+    public List<ProntuarioBuscaResultadoDTO> buscar(String termo, UUID pacienteId, TipoDocumento tipo, int limite)
+            throws IOException {
+        List<ProntuarioBuscaIndex.Resultado> resultados =
+                buscaIndex.buscar(termo, pacienteId, tipo, Math.min(limite, MAX_RESULTADOS_BUSCA));
+        if (resultados.isEmpty()) return List.of();
+        Map<UUID, String> nomes = new HashMap<>();
+        patientRepository
+                .findAllById(resultados.stream()
+                        .map(ProntuarioBuscaIndex.Resultado::pacienteId)
+                        .distinct()
+                        .toList())
+                .forEach(paciente -> nomes.put(paciente.getId(), paciente.getNomeCompleto()));
+        return resultados.stream()
+                .map(r -> toBuscaDTO(r, nomes.get(r.pacienteId())))
+                .toList();
+    }
+
+    public BuscaIndiceEstatisticaDTO estatisticasBusca() throws IOException {
+        return new BuscaIndiceEstatisticaDTO(
+                buscaIndex.documentos(),
+                buscaIndex.tamanhoBytes(),
+                prontuarioRepository.countAIndexar(StatusProntuario.PRONTO),
+                indexacaoWorker.getUltimaReconstrucao());
+    }
+
+    /** Reconstrói o índice do zero; o worker reindexa em segundo plano. */
+    public void reconstruirBusca() throws IOException {
+        indexacaoWorker.reconstruir();
+    }
+
+    /**
+     * Conteúdo do documento pelo backend, via {@link DocumentoCache}: abrir o mesmo exame
+     * de novo não baixa do Storage outra vez. Quem chama fecha o stream.
+     */
+    public ArquivoProntuario abrirArquivo(UUID id) throws IOException {
+        Prontuario p = prontuarioRepository
+                .findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Prontuário não encontrado"));
+        if (!noStorage(p)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Documento ainda não está disponível no Storage");
+        }
+        try {
+            return new ArquivoProntuario(
+                    p.getNomeArquivo() != null ? p.getNomeArquivo() : "documento",
+                    p.getTipoArquivo(),
+                    documentoCache.abrir(p.getStoragePath()));
+        } catch (NoSuchFileException e) {
+            throw new EntityNotFoundException("Arquivo do prontuário não encontrado no Storage");
+        }
     }
 
     public void delete(UUID id) {
@@ -127,16 +216,61 @@ public class ProntuarioService {
                 .findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Prontuário não encontrado"));
         storageService.delete(p.getStoragePath());
+        urlAssinadaCache.remover(p.getStoragePath());
+        documentoCache.remover(p.getStoragePath());
+        if (p.getPreviewPath() != null) {
+            storageService.delete(p.getPreviewPath());
+            urlAssinadaCache.remover(p.getPreviewPath());
+        }
+        // Ainda aguardando envio: o arquivo local também sai. Se o worker estiver no meio do
+        // envio, ele percebe a exclusão e remove o que subiu.
+        ingestaoService.apagarSpool(p.getSpoolPath());
         prontuarioRepository.delete(p);
+        buscaIndex.remover(id);
     }
 
-    /** DTO com URL assinada gerada na hora (evita servir URL expirada do banco). */
-    private ProntuarioResponseDTO toDTOComUrlFresca(Prontuario p) {
+    /** DTO com a URL assinada vigente; sem ela, marca {@code urlIndisponivel} em vez de servir link quebrado. */
+    private ProntuarioResponseDTO toDTOComUrl(Prontuario p, UrlAssinadaCache.UrlsAssinadas assinadas) {
         ProntuarioResponseDTO dto = toDTO(p);
-        dto.setStorageUrl(storageService.getSignedUrl(p.getStoragePath()));
+        if (!noStorage(p)) return dto;
+        String url = assinadas.urls().get(p.getStoragePath());
+        dto.setStorageUrl(url);
+        dto.setUrlIndisponivel(url == null);
+        if (temPreview(p)) dto.setPreviewUrl(assinadas.urls().get(p.getPreviewPath()));
+        return dto;
+    }
+
+    /** Paths do prontuário que precisam de URL: o arquivo, se já está no Storage, e a miniatura. */
+    private static List<String> paraAssinar(Prontuario p) {
+        if (!noStorage(p)) return List.of();
+        return temPreview(p) ? List.of(p.getStoragePath(), p.getPreviewPath()) : List.of(p.getStoragePath());
+    }
+
+    private static boolean temPreview(Prontuario p) {
+        return p.getPreviewStatus() == StatusPreview.PRONTO && p.getPreviewPath() != null;
+    }
+
+    /** Arquivo já está no Storage (nulo = registro anterior ao upload assíncrono). */
+    private static boolean noStorage(Prontuario p) {
+        return p.getStatus() == null || p.getStatus() == StatusProntuario.PRONTO;
+    }
+
+    private static ProntuarioBuscaResultadoDTO toBuscaDTO(ProntuarioBuscaIndex.Resultado r, String pacienteNome) {
+        ProntuarioBuscaResultadoDTO dto = new ProntuarioBuscaResultadoDTO();
+        dto.setId(r.id());
+        dto.setPacienteId(r.pacienteId());
+        dto.setPacienteNome(pacienteNome);
+        dto.setTipo(r.tipo());
+        dto.setTitulo(r.titulo());
+        dto.setNomeArquivo(r.nomeArquivo());
+        dto.setCreatedAt(r.createdAt());
+        dto.setScore(r.score());
         return dto;
     }
 
+    /** Conteúdo aberto de um prontuário, com o que é preciso para servi-lo. */
+    public record ArquivoProntuario(String nomeArquivo, String contentType, InputStream conteudo) {}
+
     private ProntuarioResponseDTO toDTO(Prontuario p) {
         ProntuarioResponseDTO dto = new ProntuarioResponseDTO();
         dto.setId(p.getId());
@@ -148,8 +282,11 @@ public class ProntuarioService {
         dto.setNomeArquivo(p.getNomeArquivo());
         dto.setTipoArquivo(p.getTipoArquivo());
         dto.setTamanhoBytes(p.getTamanhoBytes());
+        dto.setChecksumSha256(p.getChecksumSha256());
         dto.setStoragePath(p.getStoragePath());
         dto.setStorageUrl(p.getStorageUrl());
+        dto.setStatus(p.getStatus() != null ? p.getStatus() : StatusProntuario.PRONTO);
+        dto.setPreviewStatus(p.getPreviewStatus());
         dto.setUploadedBy(p.getUploadedBy());
         dto.setCreatedAt(p.getCreatedAt());
         return dto;
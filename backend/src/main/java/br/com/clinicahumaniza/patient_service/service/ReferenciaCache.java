@@ -0,0 +1,114 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import br.com.clinicahumaniza.patient_service.dto.CacheEstatisticaDTO;
+import br.com.clinicahumaniza.patient_service.model.HorarioDisponivel;
+import br.com.clinicahumaniza.patient_service.model.Profissional;
+import br.com.clinicahumaniza.patient_service.model.Servico;
+import br.com.clinicahumaniza.patient_service.repository.HorarioDisponivelRepository;
+import br.com.clinicahumaniza.patient_service.repository.ProfissionalRepository;
+import br.com.clinicahumaniza.patient_service.repository.ServicoRepository;
+
+/**
+ * Leituras de dados de referência usadas no caminho de agendamento, em cache.
+ *
+ * Serviço, profissional e horários de atendimento mudam raramente, mas são
+ * relidos a cada agendamento criado, remarcado ou cancelado. As entidades devolvidas são
+ * instâncias destacadas compartilhadas entre requisições: servem para validar e para
+ * referenciar em associações — nunca devem ser alteradas. Quem altera esses dados usa o
+ * próprio repositório e invalida o cache correspondente (ver os {@code @CacheEvict} de
+ * ServicoService, ProfissionalService, HorarioDisponivelService, AtividadeService e
+ * PlanoService). Feriados ficam no {@link FeriadoCalendar}.
+ */
+@Component
+public class ReferenciaCache {
+
+    public static final String SERVICOS = "servicos";
+    public static final String PROFISSIONAIS = "profissionais";
+    public static final String HORARIOS = "horarios-disponiveis";
+    public static final List<String> CACHES = List.of(SERVICOS, PROFISSIONAIS, HORARIOS);
+
+    private final ServicoRepository servicoRepository;
+    private final ProfissionalRepository profissionalRepository;
+    private final HorarioDisponivelRepository horarioDisponivelRepository;
+    private final CacheManager cacheManager;
+
+    public ReferenciaCache(
+            ServicoRepository servicoRepository,
+            ProfissionalRepository profissionalRepository,
+            HorarioDisponivelRepository horarioDisponivelRepository,
+            CacheManager cacheManager) {
+        this.servicoRepository = servicoRepository;
+        this.profissionalRepository = profissionalRepository;
+        this.horarioDisponivelRepository = horarioDisponivelRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    /** Serviço com atividade e plano (graph {@link Servico#DESCRICAO}). */
+    @Cacheable(SERVICOS)
+    public Optional<Servico> servico(UUID id) {
+        return servicoRepository.findById(id);
+    }
+
+    /** Profissional com as atividades já carregadas — a coleção é lida fora da sessão. */
+    @Cacheable(PROFISSIONAIS)
+    @Transactional(readOnly = true)
+    public Optional<Profissional> profissional(UUID id) {
+        Optional<Profissional> profissional = profissionalRepository.findById(id);
+        profissional.ifPresent(p -> Hibernate.initialize(p.getAtividades()));
+        return profissional;
+    }
+
+    @Cacheable(HORARIOS)
+    public List<HorarioDisponivel> horarios(UUID profissionalId) {
+        return List.copyOf(horarioDisponivelRepository.findByProfissionalId(profissionalId));
+    }
+
+    @Cacheable(HORARIOS)
+    public List<HorarioDisponivel> horarios(UUID profissionalId, DayOfWeek diaSemana) {
+        return List.copyOf(horarioDisponivelRepository.findByProfissionalIdAndDiaSemana(profissionalId, diaSemana));
+    }
+
+    /** Acertos, falhas e tamanho de cada cache desde a subida da aplicação. */
+    public List<CacheEstatisticaDTO> estatisticas() {
+        List<CacheEstatisticaDTO> estatisticas = new ArrayList<>();
+        for (String nome : CACHES) {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache == null
+                    || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine)) {
+                continue;
+            }
+            CacheStats stats = caffeine.stats();
+            estatisticas.add(new CacheEstatisticaDTO(
+                    nome,
+                    caffeine.estimatedSize(),
+                    stats.hitCount(),
+                    stats.missCount(),
+                    stats.hitRate(),
+                    stats.evictionCount()));
+        }
+        return estatisticas;
+    }
+
+    /** Esvazia todos os caches de referência — para alterações feitas direto no banco. */
+    public void invalidarTudo() {
+        for (String nome : CACHES) {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache != null) cache.clear();
+        }
+    }
+}
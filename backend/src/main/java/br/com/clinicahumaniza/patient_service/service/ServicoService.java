@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -70,6 +71,7 @@ public class ServicoService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = ReferenciaCache.SERVICOS, key = "#id")
     public Servico updateServico(UUID id, ServicoUpdateDTO dto) {
         Servico servico =
                 servicoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Serviço", id));
@@ -93,6 +95,7 @@ public class ServicoService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = ReferenciaCache.SERVICOS, key = "#id")
     public void deleteServico(UUID id) {
         Servico servico =
                 servicoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Serviço", id));
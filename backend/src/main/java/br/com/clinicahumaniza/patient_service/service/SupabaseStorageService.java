@@ -1,20 +1,40 @@
 package br.com.clinicahumaniza.patient_service.service;
 
 import java.io.IOException;
-import java.text.Normalizer;
-import java.util.UUID;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.multipart.MultipartFile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
-public class SupabaseStorageService {
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "supabase", matchIfMissing = true)
+public class SupabaseStorageService implements DocumentStorage {
 
     private static final Logger log = LoggerFactory.getLogger(SupabaseStorageService.class);
 
@@ -27,42 +47,53 @@ public class SupabaseStorageService {
     @Value("${supabase.storage.bucket:prontuarios}")
     private String bucket;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final HttpClient httpClient;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public SupabaseStorageService() {
+        // HttpClient do JDK: mantém as conexões abertas entre chamadas e envia o corpo em
+        // streaming. Sem timeout uma chamada presa segura a thread da requisição indefinidamente.
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofSeconds(30));
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
 
     /**
-     * Sanitiza o nome do arquivo para o path do Supabase Storage:
-     * - Remove acentos (à -> a, ê -> e, ç -> c)
-     * - Substitui caracteres não suportados ([^A-Za-z0-9._-]) por "_"
-     * - Mantém a extensão e legibilidade
-     *
-     * Exemplo: "Captura de Tela às 21.39.png" -> "Captura_de_Tela_as_21.39.png"
+     * Envia em streaming (chunked), direto do InputStream — o multipart que o Tomcat já
+     * guardou em arquivo temporário ou o spool do upload assíncrono — sem carregar o conteúdo
+     * no heap. Tamanho e SHA-256 são calculados no caminho, sobre os bytes que de fato foram enviados.
      */
-    static String sanitizeFilename(String original) {
-        if (original == null || original.isBlank()) return "arquivo";
-        // NFD decompõe acentos; depois removemos os marcadores de acento
-        String semAcentos =
-                Normalizer.normalize(original, Normalizer.Form.NFD).replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
-        // Substitui qualquer caractere que não seja [A-Za-z0-9._-] por "_"
-        String safe = semAcentos.replaceAll("[^A-Za-z0-9._-]", "_");
-        // Comprime sequências de "_" e remove "_" no início/fim (preservando extensão)
-        safe = safe.replaceAll("_+", "_").replaceAll("^_|_$", "");
-        return safe.isBlank() ? "arquivo" : safe;
-    }
-
-    public String upload(UUID pacienteId, MultipartFile file) throws IOException {
-        String safeName = sanitizeFilename(file.getOriginalFilename());
-        String fileName = pacienteId + "/" + UUID.randomUUID() + "_" + safeName;
-
+    @Override
+    public ArquivoEnviado upload(String fileName, InputStreamSource conteudo, String contentType) throws IOException {
         String url = supabaseUrl + "/storage/v1/object/" + bucket + "/" + fileName;
 
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", "Bearer " + supabaseServiceKey);
-        headers.setContentType(MediaType.parseMediaType(
-                file.getContentType() != null ? file.getContentType() : "application/octet-stream"));
+        headers.setContentType(
+                MediaType.parseMediaType(contentType != null ? contentType : "application/octet-stream"));
+        headers.set("x-upsert", "true");
 
-        HttpEntity<byte[]> entity = new HttpEntity<>(file.getBytes(), headers);
+        MessageDigest sha256 = novoSha256();
+        AtomicLong enviados = new AtomicLong();
         try {
-            restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
+            restTemplate.execute(
+                    url,
+                    HttpMethod.POST,
+                    request -> {
+                        request.getHeaders().putAll(headers);
+                        // Sem Content-Length o corpo vai em chunked, escrito conforme é lido.
+                        ((StreamingHttpOutputMessage) request).setBody(out -> {
+                            try (InputStream in = conteudo.getInputStream()) {
+                                enviados.set(in.transferTo(new DigestOutputStream(out, sha256)));
+                            }
+                        });
+                    },
+                    response -> null);
         } catch (HttpClientErrorException e) {
             // Loga o status e body do Supabase para diagnóstico
             log.error(
@@ -79,40 +110,93 @@ public class SupabaseStorageService {
             throw new IOException("Erro inesperado ao enviar arquivo: " + e.getMessage(), e);
         }
 
-        return fileName;
+        return new ArquivoEnviado(fileName, enviados.get(), HexFormat.of().formatHex(sha256.digest()));
     }
 
-    public String getPublicUrl(String storagePath) {
-        return supabaseUrl + "/storage/v1/object/public/" + bucket + "/" + storagePath;
+    private static MessageDigest novoSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
     }
 
-    public String getSignedUrl(String storagePath) {
-        // For private buckets, generate a signed URL
-        String url = supabaseUrl + "/storage/v1/object/sign/" + bucket + "/" + storagePath;
+    /** Assina vários paths numa única chamada ao Supabase (sign com "paths"). */
+    @Override
+    public Map<String, String> getSignedUrls(Collection<String> storagePaths) throws IOException {
+        Map<String, String> urls = new HashMap<>();
+        if (storagePaths.isEmpty()) return urls;
+
+        String url = supabaseUrl + "/storage/v1/object/sign/" + bucket;
 
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", "Bearer " + supabaseServiceKey);
         headers.setContentType(MediaType.APPLICATION_JSON);
 
-        // 3h: cobre uma sessão de trabalho típica. A URL é regenerada a cada
-        // listagem/visualização, então não precisa ser longa (link sensível).
-        String body = "{\"expiresIn\": 10800}";
-        HttpEntity<String> entity = new HttpEntity<>(body, headers);
+        Map<String, Object> body = Map.of("expiresIn", EXPIRACAO_URL_SEGUNDOS, "paths", storagePaths);
+        HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(body), headers);
 
+        JsonNode resposta;
         try {
             ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
-            // Parse signedURL from response
-            String responseBody = response.getBody();
-            if (responseBody != null && responseBody.contains("signedURL")) {
-                String signedPath = responseBody.split("\"signedURL\":\"")[1].split("\"")[0];
-                return supabaseUrl + "/storage/v1" + signedPath;
-            }
+            resposta = objectMapper.readTree(response.getBody() != null ? response.getBody() : "[]");
+        } catch (HttpClientErrorException e) {
+            throw new IOException(
+                    "Supabase Storage rejeitou a assinatura (HTTP "
+                            + e.getStatusCode().value() + "): " + e.getResponseBodyAsString(),
+                    e);
+        } catch (IOException e) {
+            throw e;
         } catch (Exception e) {
-            // Fallback to public URL
+            throw new IOException("Erro inesperado ao assinar URLs: " + e.getMessage(), e);
+        }
+
+        // Resposta: [{"path": "...", "signedURL": "/object/sign/...", "error": null}, ...]
+        for (JsonNode item : resposta) {
+            String path = item.path("path").asText(null);
+            String signedPath = item.path("signedURL").asText(null);
+            if (path == null || signedPath == null || item.hasNonNull("error")) {
+                log.warn(
+                        "Supabase nao assinou path={}: {}",
+                        path,
+                        item.path("error").asText());
+                continue;
+            }
+            urls.put(path, supabaseUrl + "/storage/v1" + signedPath);
+        }
+        return urls;
+    }
+
+    /** Download autenticado (service key) do objeto, em streaming. */
+    @Override
+    public InputStream abrir(String storagePath) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(supabaseUrl + "/storage/v1/object/authenticated/" + bucket + "/" + storagePath))
+                .header("Authorization", "Bearer " + supabaseServiceKey)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Download interrompido: " + storagePath, e);
+        }
+        int status = response.statusCode();
+        if (status == 200) return response.body();
+        String erro;
+        try (InputStream corpo = response.body()) {
+            erro = new String(corpo.readNBytes(1024), StandardCharsets.UTF_8);
+        }
+        // O Supabase responde 400 "Object not found" para path inexistente.
+        if (status == 404 || (status == 400 && (erro.contains("not_found") || erro.contains("Object not found")))) {
+            throw new NoSuchFileException(storagePath);
         }
-        return getPublicUrl(storagePath);
+        throw new IOException("Supabase Storage recusou o download (HTTP " + status + "): " + erro);
     }
 
+    @Override
     public void delete(String storagePath) {
         String url = supabaseUrl + "/storage/v1/object/" + bucket + "/" + storagePath;
 
@@ -0,0 +1,104 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * URLs assinadas dos prontuários, guardadas em memória até pouco antes de expirar.
+ *
+ * Os paths que faltam numa listagem são assinados numa única chamada ao Storage; numa
+ * nova visualização da mesma página nada sai para a rede. Path que não pôde ser assinado
+ * volta em {@link UrlsAssinadas#falhas()} — quem chama decide como mostrar, sem cair
+ * na URL pública do bucket (que é privado).
+ */
+@Component
+public class UrlAssinadaCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UrlAssinadaCache.class);
+
+    // Folga para o link não expirar entre servir a página e o usuário clicar.
+    static final Duration MARGEM_EXPIRACAO = Duration.ofMinutes(10);
+
+    private static final Duration VALIDADE =
+            Duration.ofSeconds(DocumentStorage.EXPIRACAO_URL_SEGUNDOS).minus(MARGEM_EXPIRACAO);
+
+    private final DocumentStorage storageService;
+    private final Clock clock;
+    private final Map<String, Entrada> urls = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UrlAssinadaCache(DocumentStorage storageService) {
+        this(storageService, Clock.systemUTC());
+    }
+
+    UrlAssinadaCache(DocumentStorage storageService, Clock clock) {
+        this.storageService = storageService;
+        this.clock = clock;
+    }
+
+    public UrlsAssinadas assinar(Collection<String> storagePaths) {
+        Instant agora = clock.instant();
+        Map<String, String> assinadas = new HashMap<>();
+        Set<String> faltando = new LinkedHashSet<>();
+        for (String path : storagePaths) {
+            Entrada e = urls.get(path);
+            if (e != null && e.validaAte().isAfter(agora)) assinadas.put(path, e.url());
+            else faltando.add(path);
+        }
+        if (faltando.isEmpty()) return new UrlsAssinadas(assinadas, Set.of());
+
+        Map<String, String> novas;
+        try {
+            novas = storageService.getSignedUrls(List.copyOf(faltando));
+        } catch (IOException e) {
+            log.error("Falha ao assinar {} URL(s) no Storage: {}", faltando.size(), e.getMessage());
+            return new UrlsAssinadas(assinadas, faltando);
+        }
+
+        descartarExpiradas(agora);
+        Instant validaAte = agora.plus(VALIDADE);
+        Set<String> falhas = new LinkedHashSet<>();
+        for (String path : faltando) {
+            String url = novas.get(path);
+            if (url == null) {
+                falhas.add(path);
+                continue;
+            }
+            urls.put(path, new Entrada(url, validaAte));
+            assinadas.put(path, url);
+        }
+        return new UrlsAssinadas(assinadas, falhas);
+    }
+
+    /** Esquece a URL de um arquivo removido do Storage. */
+    public void remover(String storagePath) {
+        urls.remove(storagePath);
+    }
+
+    private void descartarExpiradas(Instant agora) {
+        urls.values().removeIf(e -> !e.validaAte().isAfter(agora));
+    }
+
+    int tamanho() {
+        return urls.size();
+    }
+
+    /** URLs por path e, à parte, os paths que o Storage não assinou. */
+    public record UrlsAssinadas(Map<String, String> urls, Set<String> falhas) {}
+
+    private record Entrada(String url, Instant validaAte) {}
+}
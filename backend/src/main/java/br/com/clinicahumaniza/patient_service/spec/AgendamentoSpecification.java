@@ -9,6 +9,7 @@ import org.springframework.data.jpa.domain.Specification;
 
 import br.com.clinicahumaniza.patient_service.model.Agendamento;
 import br.com.clinicahumaniza.patient_service.model.StatusAgendamento;
+import br.com.clinicahumaniza.patient_service.service.BuscaNomePaciente;
 
 public class AgendamentoSpecification {
 
@@ -26,10 +27,10 @@ public class AgendamentoSpecification {
         };
     }
 
-    public static Specification<Agendamento> hasPacienteNome(String nome) {
+    public static Specification<Agendamento> hasPacienteNome(BuscaNomePaciente busca, String nome) {
         return (root, query, cb) -> {
             if (nome == null || nome.isBlank()) return null;
-            return NomeBusca.predicado(cb, root.get("paciente").get("nomeNormalizado"), nome);
+            return busca.predicado(cb, root.get("paciente"), nome);
         };
     }
 
@@ -84,4 +85,21 @@ public class AgendamentoSpecification {
                     cb.notEqual(cb.lower(userJoin.get("email")), profissionalEmail.toLowerCase()));
         };
     }
+
+    /**
+     * A mesma regra de {@link #ocultarConfidencial}, avaliada em memória sobre o nome da
+     * atividade e o e-mail do profissional de um agendamento. Sem a configuração, nada é
+     * confidencial.
+     */
+    public static boolean isConfidencial(
+            String atividade, String email, String atividadeConfidencialNome, String profissionalConfidencialEmail) {
+        if (atividadeConfidencialNome == null
+                || atividadeConfidencialNome.isBlank()
+                || profissionalConfidencialEmail == null
+                || profissionalConfidencialEmail.isBlank()) {
+            return false;
+        }
+        return atividadeConfidencialNome.equalsIgnoreCase(atividade)
+                && profissionalConfidencialEmail.equalsIgnoreCase(email);
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.domain.Specification;
 
 import br.com.clinicahumaniza.patient_service.model.Assinatura;
 import br.com.clinicahumaniza.patient_service.model.StatusAssinatura;
+import br.com.clinicahumaniza.patient_service.service.BuscaNomePaciente;
 
 public class AssinaturaSpecification {
 
@@ -23,10 +24,10 @@ public class AssinaturaSpecification {
         };
     }
 
-    public static Specification<Assinatura> hasPacienteNome(String nome) {
+    public static Specification<Assinatura> hasPacienteNome(BuscaNomePaciente busca, String nome) {
         return (root, query, cb) -> {
             if (nome == null || nome.isBlank()) return null;
-            return NomeBusca.predicado(cb, root.get("paciente").get("nomeNormalizado"), nome);
+            return busca.predicado(cb, root.get("paciente"), nome);
         };
     }
 }
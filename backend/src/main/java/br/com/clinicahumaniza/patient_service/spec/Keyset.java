@@ -0,0 +1,70 @@
+package br.com.clinicahumaniza.patient_service.spec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Posição numa listagem por cursor: a chave de ordenação e o id do último item entregue. A
+ * próxima página começa logo depois dela ({@link #depoisDe}), em vez de pular {@code OFFSET n}
+ * linhas — o custo não cresce com a profundidade da página.
+ *
+ * O cliente recebe a posição como texto opaco ({@link #codificar()}) e a devolve sem mexer.
+ */
+public record Keyset(LocalDateTime chave, UUID id) {
+
+    private static final String SEPARADOR = "|";
+
+    public String codificar() {
+        String texto = chave + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Cursor recebido do cliente; null ou vazio é a primeira página. */
+    public static Keyset decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.indexOf(SEPARADOR);
+            return new Keyset(
+                    LocalDateTime.parse(texto.substring(0, separador)),
+                    UUID.fromString(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+
+    /** Ordem das listagens por cursor: a chave e o id como desempate, no mesmo sentido. */
+    public static Sort ordem(String campo, Sort.Direction direcao) {
+        return Sort.by(direcao, campo, "id");
+    }
+
+    /**
+     * Itens estritamente depois da posição na {@link #ordem}: {@code chave < c OR (chave = c AND
+     * id < i)} na ordem decrescente, {@code >} na crescente. Sem posição, não filtra.
+     */
+    public static <T> Specification<T> depoisDe(String campo, Sort.Direction direcao, Keyset posicao) {
+        return (root, query, cb) -> {
+            if (posicao == null) return null;
+            if (direcao.isDescending()) {
+                return cb.or(
+                        cb.lessThan(root.<LocalDateTime>get(campo), posicao.chave()),
+                        cb.and(
+                                cb.equal(root.get(campo), posicao.chave()),
+                                cb.lessThan(root.<UUID>get("id"), posicao.id())));
+            }
+            return cb.or(
+                    cb.greaterThan(root.<LocalDateTime>get(campo), posicao.chave()),
+                    cb.and(
+                            cb.equal(root.get(campo), posicao.chave()),
+                            cb.greaterThan(root.<UUID>get("id"), posicao.id())));
+        };
+    }
+}
@@ -10,7 +10,7 @@ import jakarta.persistence.criteria.Predicate;
 import br.com.clinicahumaniza.patient_service.util.BuscaNome;
 
 /** Predicado de busca flexível por nome (acento/caixa/espaço-insensível, por tokens). */
-final class NomeBusca {
+public final class NomeBusca {
 
     private NomeBusca() {}
 
@@ -19,11 +19,19 @@ final class NomeBusca {
      * Assim "tania alves" encontra "Tânia Mara Barreto Alves", mesmo fora de ordem.
      * O caller deve garantir termo não-vazio; com termo só de espaços, retorna conjunção vazia.
      */
-    static Predicate predicado(CriteriaBuilder cb, Expression<String> nomeNormalizado, String termo) {
+    public static Predicate predicado(CriteriaBuilder cb, Expression<String> nomeNormalizado, String termo) {
         List<Predicate> predicados = new ArrayList<>();
         for (String token : BuscaNome.tokens(termo)) {
             predicados.add(cb.like(nomeNormalizado, "%" + token + "%"));
         }
         return cb.and(predicados.toArray(new Predicate[0]));
     }
+
+    /**
+     * Semelhança por trigramas entre o nome e o termo, de 0 a 1 — {@code similarity} do
+     * pg_trgm no Postgres; no H2, a mesma função em processo (ver BuscaNomePacienteMemoria).
+     */
+    public static Expression<Double> semelhanca(CriteriaBuilder cb, Expression<String> nomeNormalizado, String termo) {
+        return cb.function("similarity", Double.class, nomeNormalizado, cb.literal(BuscaNome.normalizar(termo)));
+    }
 }
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.domain.Specification;
 import br.com.clinicahumaniza.patient_service.model.FormaPagamento;
 import br.com.clinicahumaniza.patient_service.model.Pagamento;
 import br.com.clinicahumaniza.patient_service.model.StatusPagamento;
+import br.com.clinicahumaniza.patient_service.service.BuscaNomePaciente;
 
 public class PagamentoSpecification {
 
@@ -45,10 +46,10 @@ public class PagamentoSpecification {
         };
     }
 
-    public static Specification<Pagamento> hasPacienteNome(String nome) {
+    public static Specification<Pagamento> hasPacienteNome(BuscaNomePaciente busca, String nome) {
         return (root, query, cb) -> {
             if (nome == null || nome.isBlank()) return null;
-            return NomeBusca.predicado(cb, root.get("paciente").get("nomeNormalizado"), nome);
+            return busca.predicado(cb, root.get("paciente"), nome);
         };
     }
 
@@ -0,0 +1,28 @@
+package br.com.clinicahumaniza.patient_service.spec;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Pedido de uma página por cursor: onde começar ({@code null} é o início), quantos itens, em
+ * que sentido e se o total deve ser contado — o count sobre o filtro inteiro é a parte cara
+ * que o cursor evita, então só roda quando pedido.
+ */
+public record PaginacaoCursor(Keyset posicao, int tamanho, Sort.Direction direcao, boolean comTotal) {
+
+    public static final int TAMANHO_MAXIMO = 100;
+
+    /** Tamanho fora de 1..{@value #TAMANHO_MAXIMO} é ajustado, como o Pageable faz. */
+    public static PaginacaoCursor de(String cursor, int tamanho, Sort.Direction direcao, boolean comTotal) {
+        return new PaginacaoCursor(
+                Keyset.decodificar(cursor), Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO)), direcao, comTotal);
+    }
+
+    public Sort ordem(String campo) {
+        return Keyset.ordem(campo, direcao);
+    }
+
+    public <T> Specification<T> depoisDe(String campo) {
+        return Keyset.depoisDe(campo, direcao, posicao);
+    }
+}
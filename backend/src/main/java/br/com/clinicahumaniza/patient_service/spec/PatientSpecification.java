@@ -3,6 +3,7 @@ package br.com.clinicahumaniza.patient_service.spec;
 import org.springframework.data.jpa.domain.Specification;
 
 import br.com.clinicahumaniza.patient_service.model.Patient;
+import br.com.clinicahumaniza.patient_service.service.BuscaNomePaciente;
 
 public class PatientSpecification {
 
@@ -10,10 +11,24 @@ public class PatientSpecification {
         return (root, query, cb) -> cb.isTrue(root.get("statusAtivo"));
     }
 
-    public static Specification<Patient> hasNome(String nome) {
+    public static Specification<Patient> hasNome(BuscaNomePaciente busca, String nome) {
         return (root, query, cb) -> {
             if (nome == null || nome.isBlank()) return null;
-            return NomeBusca.predicado(cb, root.get("nomeNormalizado"), nome);
+            return busca.predicado(cb, root, nome);
+        };
+    }
+
+    /**
+     * Ordena pela semelhança do nome com o termo (mais parecidos primeiro, desempate por id).
+     * Só na consulta da página — a de contagem não tem ordenação.
+     */
+    public static Specification<Patient> ordenarPorSemelhanca(String nome) {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        cb.desc(NomeBusca.semelhanca(cb, root.get("nomeNormalizado"), nome)), cb.asc(root.get("id")));
+            }
+            return null;
         };
     }
 
@@ -0,0 +1,54 @@
+package br.com.clinicahumaniza.patient_service.util;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Trigramas e semelhança no mesmo modelo do {@code pg_trgm} do Postgres.
+ *
+ * Cada palavra ganha dois espaços à esquerda e um à direita antes de ser fatiada em
+ * trigramas ("ana" → "  a", " an", "ana", "na "); a semelhança entre dois textos é a razão
+ * entre trigramas em comum e trigramas distintos dos dois. Serve de implementação em
+ * processo da função {@code similarity} quando o banco é o H2, e de chave do índice em
+ * memória de nomes de pacientes.
+ */
+public final class Trigramas {
+
+    private Trigramas() {}
+
+    /** Trigramas com as bordas de palavra, como o {@code show_trgm} do Postgres. */
+    public static Set<String> de(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        for (String palavra : BuscaNome.tokens(texto)) {
+            String comBordas = "  " + palavra + " ";
+            for (int i = 0; i + 3 <= comBordas.length(); i++) {
+                trigramas.add(comBordas.substring(i, i + 3));
+            }
+        }
+        return trigramas;
+    }
+
+    /**
+     * Trigramas internos do token, sem bordas — os que qualquer nome que contenha o token
+     * em qualquer posição obrigatoriamente tem. Vazio para tokens com menos de 3 letras.
+     */
+    public static Set<String> internos(String token) {
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            trigramas.add(token.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+
+    /** Semelhança entre 0 e 1 — mesmo resultado do {@code similarity(a, b)} do pg_trgm. */
+    public static double similaridade(String a, String b) {
+        Set<String> ta = de(a);
+        Set<String> tb = de(b);
+        if (ta.isEmpty() || tb.isEmpty()) return 0;
+        int comuns = 0;
+        for (String t : ta) {
+            if (tb.contains(t)) comuns++;
+        }
+        return (double) comuns / (ta.size() + tb.size() - comuns);
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.clinicahumaniza.patient_service.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na thread atual — registrado em
+ * {@code application-test.properties}. Por thread porque os workers agendados do contexto
+ * também falam com o banco enquanto o teste roda.
+ */
+public class ContadorSql implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> COMANDOS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        COMANDOS.get().add(sql);
+        return sql;
+    }
+
+    public static void zerar() {
+        COMANDOS.get().clear();
+    }
+
+    /** Comandos desde o último {@link #zerar()}. */
+    public static List<String> comandos() {
+        return List.copyOf(COMANDOS.get());
+    }
+}
@@ -5,7 +5,6 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import org.junit.jupiter.api.DisplayName;
@@ -16,7 +15,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import br.com.clinicahumaniza.patient_service.model.Agendamento;
 import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
-import br.com.clinicahumaniza.patient_service.service.GoogleCalendarService;
+import br.com.clinicahumaniza.patient_service.service.CalendarioOutboxService;
 
 @ExtendWith(MockitoExtension.class)
 class GoogleCalendarBackfillTest {
@@ -25,10 +24,10 @@ class GoogleCalendarBackfillTest {
     private AgendamentoRepository agendamentoRepository;
 
     @Mock
-    private GoogleCalendarService googleCalendarService;
+    private CalendarioOutboxService calendarioOutbox;
 
     @Test
-    @DisplayName("Cria os futuros sem evento e repinta (update) os que já têm")
+    @DisplayName("Enfileira os futuros, com ou sem evento, para sincronizar")
     void backfill_sincronizaFuturos() {
         Agendamento semEvento = new Agendamento();
         semEvento.setId(UUID.randomUUID());
@@ -39,17 +38,16 @@ class GoogleCalendarBackfillTest {
         when(agendamentoRepository.findByStatusInAndDataHoraGreaterThanEqual(anyList(), any()))
                 .thenReturn(List.of(semEvento, comEvento));
 
-        GoogleCalendarBackfill backfill =
-                new GoogleCalendarBackfill(agendamentoRepository, Optional.of(googleCalendarService));
+        when(calendarioOutbox.isHabilitado()).thenReturn(true);
+        GoogleCalendarBackfill backfill = new GoogleCalendarBackfill(agendamentoRepository, calendarioOutbox);
         backfill.run(null);
 
-        // Roda em thread de fundo, em série com pausa — espera com timeout.
-        verify(googleCalendarService, timeout(3000)).createEventSync(semEvento);
-        verify(googleCalendarService, timeout(3000)).updateEventSync(comEvento);
+        // Só enfileira: criar ou repintar fica com o dispatcher, pelo estado atual.
+        verify(calendarioOutbox).registrarTodos(List.of(semEvento, comEvento));
     }
 
     @Test
-    @DisplayName("Apaga eventos órfãos (cancelados que ainda têm evento no Google)")
+    @DisplayName("Enfileira eventos órfãos (cancelados que ainda têm evento no Google)")
     void backfill_apagaOrfaos() {
         Agendamento orfao = new Agendamento();
         orfao.setId(UUID.randomUUID());
@@ -61,19 +59,20 @@ class GoogleCalendarBackfillTest {
                         any(), any()))
                 .thenReturn(List.of(orfao));
 
-        GoogleCalendarBackfill backfill =
-                new GoogleCalendarBackfill(agendamentoRepository, Optional.of(googleCalendarService));
+        when(calendarioOutbox.isHabilitado()).thenReturn(true);
+        GoogleCalendarBackfill backfill = new GoogleCalendarBackfill(agendamentoRepository, calendarioOutbox);
         backfill.run(null);
 
-        verify(googleCalendarService, timeout(3000)).deleteEventSync(orfao);
+        verify(calendarioOutbox).registrarTodos(List.of(orfao));
     }
 
     @Test
     @DisplayName("Não faz nada quando a integração está desligada")
     void backfill_integracaoDesligada_naoFaz() {
-        GoogleCalendarBackfill backfill = new GoogleCalendarBackfill(agendamentoRepository, Optional.empty());
+        GoogleCalendarBackfill backfill = new GoogleCalendarBackfill(agendamentoRepository, calendarioOutbox);
         backfill.run(null);
 
         verifyNoInteractions(agendamentoRepository);
+        verify(calendarioOutbox, never()).registrarTodos(any());
     }
 }
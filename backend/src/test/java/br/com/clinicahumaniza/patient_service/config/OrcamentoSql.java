@@ -0,0 +1,22 @@
+package br.com.clinicahumaniza.patient_service.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Orçamento de comandos SQL do corpo do teste (os {@code @BeforeEach} ficam de fora): passou
+ * de {@link #value()}, o teste falha listando os comandos. Use um teste por endpoint ou
+ * método de serviço, com o mínimo além da chamada medida.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(OrcamentoSqlExtension.class)
+public @interface OrcamentoSql {
+
+    /** Máximo de comandos preparados, contando autenticação quando a chamada é HTTP. */
+    int value();
+}
@@ -0,0 +1,39 @@
+package br.com.clinicahumaniza.patient_service.config;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Mede o corpo dos testes anotados com {@link OrcamentoSql} pelo {@link MedidorSql} da
+ * aplicação; o {@link ContadorSql} guarda o texto dos comandos para a mensagem de erro.
+ */
+public class OrcamentoSqlExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        ContadorSql.zerar();
+        MedidorSql.iniciar();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        MedidorSql.Medicao medicao = MedidorSql.encerrar();
+        int orcamento = context.getRequiredTestMethod()
+                .getAnnotation(OrcamentoSql.class)
+                .value();
+        if (medicao.comandos() > orcamento) {
+            List<String> comandos = ContadorSql.comandos();
+            throw new AssertionFailedError(String.format(
+                    "%s: %d comandos SQL para um orçamento de %d%n%s",
+                    context.getDisplayName(),
+                    medicao.comandos(),
+                    orcamento,
+                    comandos.stream().map(sql -> "  " + sql).collect(Collectors.joining(System.lineSeparator()))));
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -33,11 +34,15 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import br.com.clinicahumaniza.patient_service.dto.*;
 import br.com.clinicahumaniza.patient_service.mapper.AgendamentoMapper;
 import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.AgendamentoListagemRepository.ItemAgendamento;
 import br.com.clinicahumaniza.patient_service.security.JwtAuthenticationFilter;
 import br.com.clinicahumaniza.patient_service.security.JwtService;
 import br.com.clinicahumaniza.patient_service.security.SecurityConfig;
 import br.com.clinicahumaniza.patient_service.service.AgendamentoRecorrenteService;
 import br.com.clinicahumaniza.patient_service.service.AgendamentoService;
+import br.com.clinicahumaniza.patient_service.service.CalendarioOutboxService;
+import br.com.clinicahumaniza.patient_service.spec.Keyset;
+import br.com.clinicahumaniza.patient_service.spec.PaginacaoCursor;
 
 @WebMvcTest(AgendamentoController.class)
 @Import({SecurityConfig.class, JwtAuthenticationFilter.class})
@@ -55,6 +60,9 @@ class AgendamentoControllerTest {
     @MockitoBean
     private AgendamentoMapper agendamentoMapper;
 
+    @MockitoBean
+    private CalendarioOutboxService calendarioOutboxService;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -63,6 +71,7 @@ class AgendamentoControllerTest {
 
     private ObjectMapper objectMapper;
     private Agendamento agendamento;
+    private ItemAgendamento item;
     private AgendamentoResponseDTO responseDTO;
     private UUID agendamentoId;
     private UUID pacienteId;
@@ -110,6 +119,29 @@ class AgendamentoControllerTest {
         agendamento.setStatus(StatusAgendamento.AGENDADO);
         agendamento.setAtivo(true);
 
+        item = new ItemAgendamento(
+                agendamentoId,
+                pacienteId,
+                "Maria Santos",
+                profissionalId,
+                "Dr. Ana",
+                servicoId,
+                "Pilates",
+                "Mensal",
+                null,
+                LocalDateTime.of(2025, 6, 2, 10, 0),
+                50,
+                StatusAgendamento.AGENDADO,
+                null,
+                TipoAgendamento.REGULAR,
+                false,
+                false,
+                null,
+                null,
+                null,
+                true,
+                null);
+
         responseDTO = new AgendamentoResponseDTO();
         responseDTO.setId(agendamentoId);
         responseDTO.setPacienteId(pacienteId);
@@ -156,14 +188,49 @@ class AgendamentoControllerTest {
     void getAllAgendamentos_Authenticated_200() throws Exception {
         when(agendamentoService.getAllAgendamentos(
                         any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(agendamento)));
-        when(agendamentoMapper.toResponseDTO(agendamento)).thenReturn(responseDTO);
+                .thenReturn(new PageImpl<>(List.of(item)));
+        when(agendamentoMapper.toResponseDTO(item)).thenReturn(responseDTO);
 
         mockMvc.perform(get("/api/v1/agendamentos"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].pacienteNome").value("Maria Santos"));
     }
 
+    @Test
+    @DisplayName("Deve listar agendamentos por cursor, repassando cursor, tamanho e sentido - 200")
+    @WithMockUser
+    void getAgendamentosPorCursor_200() throws Exception {
+        Keyset posicao = new Keyset(LocalDateTime.of(2025, 6, 2, 10, 0), UUID.randomUUID());
+        when(agendamentoService.getAgendamentosPorCursor(
+                        any(),
+                        any(),
+                        any(),
+                        any(),
+                        any(),
+                        any(),
+                        any(),
+                        eq(new PaginacaoCursor(posicao, 10, Sort.Direction.ASC, false))))
+                .thenReturn(new PaginaCursorDTO<>(List.of(item), 10, "proximo", null));
+        when(agendamentoMapper.toResponseDTO(item)).thenReturn(responseDTO);
+
+        mockMvc.perform(get("/api/v1/agendamentos/cursor")
+                        .param("cursor", posicao.codificar())
+                        .param("size", "10")
+                        .param("direcao", "ASC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].pacienteNome").value("Maria Santos"))
+                .andExpect(jsonPath("$.proximoCursor").value("proximo"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 para cursor inválido")
+    @WithMockUser
+    void getAgendamentosPorCursor_CursorInvalido_400() throws Exception {
+        mockMvc.perform(get("/api/v1/agendamentos/cursor").param("cursor", "nao-e-um-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Deve buscar agendamento por ID com autenticação - 200")
     @WithMockUser
@@ -225,8 +292,8 @@ class AgendamentoControllerTest {
     @DisplayName("Deve listar agendamentos por paciente - 200")
     @WithMockUser
     void getAgendamentosByPaciente_200() throws Exception {
-        when(agendamentoService.getAgendamentosByPaciente(pacienteId)).thenReturn(List.of(agendamento));
-        when(agendamentoMapper.toResponseDTO(agendamento)).thenReturn(responseDTO);
+        when(agendamentoService.getAgendamentosByPaciente(pacienteId)).thenReturn(List.of(item));
+        when(agendamentoMapper.toResponseDTO(item)).thenReturn(responseDTO);
 
         mockMvc.perform(get("/api/v1/agendamentos/paciente/{pacienteId}", pacienteId))
                 .andExpect(status().isOk())
@@ -237,8 +304,8 @@ class AgendamentoControllerTest {
     @DisplayName("Deve listar agendamentos por profissional - 200")
     @WithMockUser
     void getAgendamentosByProfissional_200() throws Exception {
-        when(agendamentoService.getAgendamentosByProfissional(profissionalId)).thenReturn(List.of(agendamento));
-        when(agendamentoMapper.toResponseDTO(agendamento)).thenReturn(responseDTO);
+        when(agendamentoService.getAgendamentosByProfissional(profissionalId)).thenReturn(List.of(item));
+        when(agendamentoMapper.toResponseDTO(item)).thenReturn(responseDTO);
 
         mockMvc.perform(get("/api/v1/agendamentos/profissional/{profissionalId}", profissionalId))
                 .andExpect(status().isOk())
@@ -267,8 +334,8 @@ class AgendamentoControllerTest {
     @WithMockUser
     void getAgendamentosByPeriodo_200() throws Exception {
         when(agendamentoService.getAgendamentosByPeriodo(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(List.of(agendamento));
-        when(agendamentoMapper.toResponseDTO(agendamento)).thenReturn(responseDTO);
+                .thenReturn(List.of(item));
+        when(agendamentoMapper.toResponseDTO(item)).thenReturn(responseDTO);
 
         mockMvc.perform(get("/api/v1/agendamentos/data")
                         .param("inicio", "2025-06-01")
@@ -22,6 +22,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -222,6 +223,25 @@ class AssinaturaControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("Edição com versão desatualizada deve retornar 409")
+    @WithMockUser
+    void updateAssinatura_VersaoDesatualizada_409() throws Exception {
+        AssinaturaUpdateDTO updateDTO = new AssinaturaUpdateDTO();
+        updateDTO.setValor(new BigDecimal("400.00"));
+
+        when(assinaturaService.updateAssinatura(any(UUID.class), any(AssinaturaUpdateDTO.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Assinatura.class, assinaturaId));
+
+        mockMvc.perform(put("/api/v1/assinaturas/{id}", assinaturaId)
+                        .with(csrf())
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(updateDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.mensagem")
+                        .value("O registro foi alterado por outra operação. Recarregue e tente novamente."));
+    }
+
     @Test
     @DisplayName("Deve alterar status com autenticação - 200")
     @WithMockUser
@@ -0,0 +1,62 @@
+package br.com.clinicahumaniza.patient_service.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.clinicahumaniza.patient_service.dto.DashboardResumoDTO;
+import br.com.clinicahumaniza.patient_service.security.JwtAuthenticationFilter;
+import br.com.clinicahumaniza.patient_service.security.JwtService;
+import br.com.clinicahumaniza.patient_service.security.SecurityConfig;
+import br.com.clinicahumaniza.patient_service.service.DashboardService;
+
+@WebMvcTest(DashboardController.class)
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private DashboardService dashboardService;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    @WithMockUser
+    @DisplayName("GET /api/v1/dashboard/resumo - 200")
+    void getResumo_Authenticated_200() throws Exception {
+        when(dashboardService.getResumo()).thenReturn(new DashboardResumoDTO(12, 5, 3, 8, new BigDecimal("4500.00")));
+
+        mockMvc.perform(get("/api/v1/dashboard/resumo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pacientesAtivos").value(12))
+                .andExpect(jsonPath("$.agendamentosHoje").value(5))
+                .andExpect(jsonPath("$.pagamentosEmAberto").value(3))
+                .andExpect(jsonPath("$.assinaturasAtivas").value(8))
+                .andExpect(jsonPath("$.receitaMes").value(4500.00));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/dashboard/resumo - 401 sem autenticação")
+    void getResumo_Unauthenticated_401() throws Exception {
+        mockMvc.perform(get("/api/v1/dashboard/resumo")).andExpect(status().isUnauthorized());
+    }
+}
@@ -32,6 +32,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import br.com.clinicahumaniza.patient_service.dto.PatientAutocompleteDTO;
 import br.com.clinicahumaniza.patient_service.dto.PatientRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.PatientResponseDTO;
 import br.com.clinicahumaniza.patient_service.dto.PatientUpdateDTO;
@@ -129,6 +130,19 @@ class PatientControllerTest {
                 .andExpect(jsonPath("$.content[0].nomeCompleto").value("João Silva"));
     }
 
+    @Test
+    @DisplayName("Deve retornar sugestões do autocomplete - 200")
+    @WithMockUser
+    void autocomplete_Authenticated_200() throws Exception {
+        when(patientService.autocomplete("joao", 10))
+                .thenReturn(List.of(new PatientAutocompleteDTO(patientId, "João Silva", "9999", "12345678909")));
+
+        mockMvc.perform(get("/api/v1/patients/autocomplete").param("q", "joao"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nomeCurto").value("João Silva"))
+                .andExpect(jsonPath("$[0].telefoneFinal").value("9999"));
+    }
+
     @Test
     @DisplayName("Deve buscar paciente por ID com autenticação - 200")
     @WithMockUser
@@ -1,17 +1,24 @@
 package br.com.clinicahumaniza.patient_service.integration;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import jakarta.servlet.DispatcherType;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,6 +29,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -382,6 +390,95 @@ class AgendamentoIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("Recorrência grava o lote inteiro e, repetida, ignora todas as datas já ocupadas")
+    void createRecorrente_LoteEDuplicatas() throws Exception {
+        LocalDate proximaSegunda = LocalDate.now().plusDays(1);
+        while (proximaSegunda.getDayOfWeek() != DayOfWeek.MONDAY) proximaSegunda = proximaSegunda.plusDays(1);
+
+        AgendamentoRecorrenteRequestDTO recorrenteDTO = new AgendamentoRecorrenteRequestDTO();
+        recorrenteDTO.setPacienteId(UUID.fromString(pacienteId));
+        recorrenteDTO.setProfissionalId(UUID.fromString(profissionalId));
+        recorrenteDTO.setServicoId(UUID.fromString(servicoId));
+        recorrenteDTO.setFrequencia(br.com.clinicahumaniza.patient_service.model.FrequenciaRecorrencia.SEMANAL);
+        recorrenteDTO.setDiasSemana(List.of(DayOfWeek.MONDAY));
+        recorrenteDTO.setHoraInicio(LocalTime.of(10, 0));
+        recorrenteDTO.setTotalSessoes(4);
+        recorrenteDTO.setDataInicio(proximaSegunda);
+
+        mockMvc.perform(post("/api/v1/agendamentos/recorrente")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(recorrenteDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.agendamentosCriados.length()").value(4))
+                .andExpect(jsonPath("$.datasIgnoradas.length()").value(0));
+
+        // As linhas gravadas em lote são lidas normalmente pelo JPA
+        mockMvc.perform(get("/api/v1/agendamentos/paciente/{pacienteId}", pacienteId)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4));
+
+        mockMvc.perform(post("/api/v1/agendamentos/recorrente")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(recorrenteDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.agendamentosCriados.length()").value(0))
+                .andExpect(jsonPath("$.datasIgnoradas.length()").value(4));
+    }
+
+    @Test
+    @DisplayName("Exporta CSV em streaming, só com os agendamentos do período, em ordem de data")
+    void exportCsv_Streaming() throws Exception {
+        for (LocalDateTime dataHora : List.of(
+                LocalDateTime.of(2025, 6, 3, 10, 0),
+                LocalDateTime.of(2025, 6, 2, 10, 0),
+                LocalDateTime.of(2025, 7, 1, 10, 0))) {
+            AgendamentoRequestDTO dto = new AgendamentoRequestDTO();
+            dto.setPacienteId(UUID.fromString(pacienteId));
+            dto.setProfissionalId(UUID.fromString(profissionalId));
+            dto.setServicoId(UUID.fromString(servicoId));
+            dto.setDataHora(dataHora);
+            mockMvc.perform(post("/api/v1/agendamentos")
+                            .header("Authorization", "Bearer " + token)
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult async = mockMvc.perform(get("/api/v1/agendamentos/export/csv")
+                        .header("Authorization", "Bearer " + token)
+                        .param("inicio", "2025-06-01")
+                        .param("fim", "2025-06-30"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=agendamentos.csv"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        String[] linhas = csv.split("\n");
+        assertThat(linhas).hasSize(3);
+        assertThat(linhas[0]).isEqualTo("ID,Paciente,Profissional,Servico,DataHora,Status,DuracaoMinutos");
+        assertThat(linhas[1]).endsWith(",Maria Santos,Dr. Ana,Pilates - Mensal,2025-06-02T10:00,AGENDADO,50");
+        assertThat(linhas[2]).contains(",2025-06-03T10:00,");
+    }
+
+    @Test
+    @DisplayName("Passagem ASYNC fora das exportações CSV continua exigindo autenticação")
+    void asyncDispatchForaDaExportacao_401() throws Exception {
+        RequestPostProcessor async = requisicao -> {
+            requisicao.setDispatcherType(DispatcherType.ASYNC);
+            return requisicao;
+        };
+
+        mockMvc.perform(get("/api/v1/agendamentos").with(async)).andExpect(status().isUnauthorized());
+    }
+
     @Test
     @DisplayName("Deve retornar 401 sem token")
     void accessWithoutToken_401() throws Exception {
@@ -0,0 +1,227 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.clinicahumaniza.patient_service.config.ContadorSql;
+import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.*;
+import br.com.clinicahumaniza.patient_service.repository.AgendamentoListagemRepository.ItemAgendamento;
+import br.com.clinicahumaniza.patient_service.service.AgendamentoService;
+
+/**
+ * Listagens de agendamento servidas pela projeção: quantidade fixa de comandos SQL por
+ * página (contados pelo {@link ContadorSql}), {@code reposicaoAgendada} calculado no banco e
+ * confidencialidade aplicada na consulta.
+ */
+@SpringBootTest(
+        properties = {
+            "app.visibilidade.atividade-confidencial-nome=Fisioterapia Pélvica",
+            "app.visibilidade.profissional-confidencial-email=caissa@test.com"
+        })
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AgendamentoListagemIntegrationTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 3, 4, 8, 0);
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private ProfissionalRepository profissionalRepository;
+
+    @Autowired
+    private AtividadeRepository atividadeRepository;
+
+    @Autowired
+    private PlanoRepository planoRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    private Patient paciente;
+    private Profissional ana;
+    private Profissional caissa;
+    private Servico pilates;
+    private Servico pelvica;
+
+    @BeforeEach
+    void setUp() {
+        paciente = new Patient();
+        paciente.setNomeCompleto("Maria Santos");
+        paciente.setTelefone("11999990000");
+        paciente = patientRepository.save(paciente);
+
+        ana = profissional("Ana", "ana@test.com");
+        caissa = profissional("Caíssa", "caissa@test.com");
+
+        Plano plano = new Plano();
+        plano.setNome("Mensal");
+        plano.setTipoPlano("mensal");
+        plano = planoRepository.save(plano);
+        pilates = servico("Pilates", plano);
+        pelvica = servico("Fisioterapia Pélvica", plano);
+
+        autenticar("ana@test.com", "ROLE_PROFISSIONAL");
+    }
+
+    @AfterEach
+    void limparAutenticacao() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Página custa lista + count, qualquer que seja o tamanho")
+    void pagina_ComandosConstantes() {
+        for (int i = 0; i < 40; i++) agendar(pilates, ana, INICIO.plusDays(i), StatusAgendamento.AGENDADO);
+
+        int pequena = comandos(() -> listar(PageRequest.of(0, 5)));
+        int grande = comandos(() -> listar(PageRequest.of(1, 20)));
+
+        assertThat(pequena).isEqualTo(2);
+        assertThat(grande).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Listas por paciente, profissional e período: um comando só")
+    void listas_UmComando() {
+        for (int i = 0; i < 10; i++) agendar(pilates, ana, INICIO.plusDays(i), StatusAgendamento.AGENDADO);
+
+        assertThat(comandos(() -> agendamentoService.getAgendamentosByPaciente(paciente.getId())))
+                .isEqualTo(1);
+        assertThat(comandos(() -> agendamentoService.getAgendamentosByProfissional(ana.getId())))
+                .isEqualTo(1);
+        assertThat(comandos(() -> agendamentoService.getAgendamentosByPeriodo(INICIO, INICIO.plusDays(30))))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("reposicaoAgendada só para cancelado com direito e reposição ativa")
+    void reposicaoAgendada_CalculadaNaConsulta() {
+        Agendamento comReposicao = cancelado(INICIO);
+        Agendamento semReposicao = cancelado(INICIO.plusDays(1));
+        Agendamento reposicaoCancelada = cancelado(INICIO.plusDays(2));
+
+        Agendamento reposicao = agendar(pilates, ana, INICIO.plusDays(7), StatusAgendamento.AGENDADO);
+        reposicao.setTipoAgendamento(TipoAgendamento.REPOSICAO);
+        reposicao.setReposicaoOrigemId(comReposicao.getId());
+        agendamentoRepository.save(reposicao);
+        Agendamento desistencia = agendar(pilates, ana, INICIO.plusDays(8), StatusAgendamento.CANCELADO);
+        desistencia.setReposicaoOrigemId(reposicaoCancelada.getId());
+        agendamentoRepository.save(desistencia);
+
+        List<ItemAgendamento> itens = agendamentoService.getAgendamentosByPaciente(paciente.getId());
+
+        assertThat(item(itens, comReposicao.getId()).reposicaoAgendada()).isTrue();
+        assertThat(item(itens, semReposicao.getId()).reposicaoAgendada()).isFalse();
+        assertThat(item(itens, reposicaoCancelada.getId()).reposicaoAgendada()).isFalse();
+        assertThat(item(itens, reposicao.getId()).reposicaoAgendada()).isFalse();
+        assertThat(item(itens, comReposicao.getId()).atividadeNome()).isEqualTo("Pilates");
+        assertThat(item(itens, comReposicao.getId()).profissionalNome()).isEqualTo("Ana");
+    }
+
+    @Test
+    @DisplayName("Confidenciais ficam de fora para outro profissional e aparecem para a própria Caíssa")
+    void confidencialidade_NaConsulta() {
+        Agendamento comum = agendar(pilates, ana, INICIO, StatusAgendamento.AGENDADO);
+        Agendamento confidencial = agendar(pelvica, caissa, INICIO.plusHours(2), StatusAgendamento.AGENDADO);
+
+        assertThat(agendamentoService.getAgendamentosByPaciente(paciente.getId()))
+                .extracting(ItemAgendamento::id)
+                .containsExactly(comum.getId());
+        assertThat(listar(PageRequest.of(0, 20)).getContent())
+                .extracting(ItemAgendamento::id)
+                .containsExactly(comum.getId());
+
+        autenticar("caissa@test.com", "ROLE_PROFISSIONAL");
+        assertThat(agendamentoService.getAgendamentosByPaciente(paciente.getId()))
+                .extracting(ItemAgendamento::id)
+                .containsExactly(comum.getId(), confidencial.getId());
+    }
+
+    private Page<ItemAgendamento> listar(PageRequest pageable) {
+        return agendamentoService.getAllAgendamentos(
+                null, null, null, null, null, null, null, pageable.withSort(Sort.by("dataHora")));
+    }
+
+    private int comandos(Runnable acao) {
+        ContadorSql.zerar();
+        acao.run();
+        return ContadorSql.comandos().size();
+    }
+
+    private static ItemAgendamento item(List<ItemAgendamento> itens, UUID id) {
+        return itens.stream().filter(i -> i.id().equals(id)).findFirst().orElseThrow();
+    }
+
+    private Agendamento cancelado(LocalDateTime dataHora) {
+        Agendamento a = agendar(pilates, ana, dataHora, StatusAgendamento.CANCELADO);
+        a.setDireitoReposicao(true);
+        return agendamentoRepository.save(a);
+    }
+
+    private Agendamento agendar(
+            Servico servico, Profissional profissional, LocalDateTime dataHora, StatusAgendamento status) {
+        Agendamento a = new Agendamento();
+        a.setPaciente(paciente);
+        a.setProfissional(profissional);
+        a.setServico(servico);
+        a.setDataHora(dataHora);
+        a.setDuracaoMinutos(50);
+        a.setStatus(status);
+        return agendamentoRepository.save(a);
+    }
+
+    private Profissional profissional(String nome, String email) {
+        User user = new User();
+        user.setNome(nome);
+        user.setEmail(email);
+        user.setSenha("x");
+        user.setRole(Role.ROLE_PROFISSIONAL);
+        Profissional p = new Profissional();
+        p.setNome(nome);
+        p.setTelefone("11988887777");
+        p.setUser(user);
+        return profissionalRepository.save(p);
+    }
+
+    private Servico servico(String atividadeNome, Plano plano) {
+        Atividade atividade = new Atividade();
+        atividade.setNome(atividadeNome);
+        atividade.setDuracaoPadrao(50);
+        Servico servico = new Servico();
+        servico.setAtividade(atividadeRepository.save(atividade));
+        servico.setPlano(plano);
+        return servicoRepository.save(servico);
+    }
+
+    private static void autenticar(String email, String role) {
+        var auth = new UsernamePasswordAuthenticationToken(email, "x", List.of(new SimpleGrantedAuthority(role)));
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
+}
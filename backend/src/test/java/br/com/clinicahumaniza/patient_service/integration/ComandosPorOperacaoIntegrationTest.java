@@ -0,0 +1,341 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.clinicahumaniza.patient_service.dto.AssinaturaStatusDTO;
+import br.com.clinicahumaniza.patient_service.dto.PagamentoStatusDTO;
+import br.com.clinicahumaniza.patient_service.mapper.*;
+import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.*;
+import br.com.clinicahumaniza.patient_service.service.*;
+
+/**
+ * Orçamento de comandos SQL por operação de serviço, contado pelas estatísticas do Hibernate.
+ *
+ * Cada operação roda com {@value #LINHAS} registros, cada um com paciente, profissional e
+ * serviço próprios — um N+1 apareceria como dezenas de comandos. O resultado é convertido em
+ * DTO depois que o serviço retornou, fora de transação (open-in-view desligado): o que o
+ * graph do caso de uso não trouxe estoura {@code LazyInitializationException} aqui.
+ */
+@SpringBootTest(
+        properties = {
+            "spring.jpa.properties.hibernate.generate_statistics=true",
+            // As estatísticas são da fábrica inteira: os workers não podem rodar no meio da medição.
+            "app.prontuarios.ingestao.intervalo-ms=3600000",
+            "app.prontuarios.preview.intervalo-ms=3600000",
+            "app.prontuarios.busca.intervalo-ms=3600000"
+        })
+@ActiveProfiles("test")
+@Import(SemeadorClinica.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ComandosPorOperacaoIntegrationTest {
+
+    private static final int LINHAS = 6;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 3, 4, 8, 0);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private AssinaturaService assinaturaService;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private ServicoService servicoService;
+
+    @Autowired
+    private HorarioDisponivelService horarioDisponivelService;
+
+    @Autowired
+    private ProfissionalService profissionalService;
+
+    @Autowired
+    private AgendamentoMapper agendamentoMapper;
+
+    @Autowired
+    private AssinaturaMapper assinaturaMapper;
+
+    @Autowired
+    private PagamentoMapper pagamentoMapper;
+
+    @Autowired
+    private ServicoMapper servicoMapper;
+
+    @Autowired
+    private HorarioDisponivelMapper horarioDisponivelMapper;
+
+    @Autowired
+    private ProfissionalMapper profissionalMapper;
+
+    @Autowired
+    private ProfissionalRepository profissionalRepository;
+
+    @Autowired
+    private AtividadeRepository atividadeRepository;
+
+    @Autowired
+    private PlanoRepository planoRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Autowired
+    private HorarioDisponivelRepository horarioDisponivelRepository;
+
+    @Autowired
+    private SemeadorClinica semeador;
+
+    private Statistics estatisticas;
+    private Plano plano;
+    private final List<Atividade> atividades = new ArrayList<>();
+    private final List<Servico> servicos = new ArrayList<>();
+    private final List<Profissional> profissionais = new ArrayList<>();
+    private final List<Assinatura> assinaturas = new ArrayList<>();
+    private final List<Agendamento> agendamentos = new ArrayList<>();
+    private final List<Pagamento> pagamentos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        plano = new Plano();
+        plano.setNome("Mensal");
+        plano.setTipoPlano("mensal");
+        plano = planoRepository.save(plano);
+        for (int i = 0; i < LINHAS; i++) semear(i);
+
+        var admin = new UsernamePasswordAuthenticationToken(
+                "admin@test.com", "x", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        SecurityContextHolder.getContext().setAuthentication(admin);
+    }
+
+    @AfterEach
+    void limparAutenticacao() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Agendamento: detalhe pelo graph do mapper, listas pela projeção")
+    void agendamento() {
+        Agendamento a = agendamentos.get(0);
+
+        // O exists da reposição no mapper só roda para cancelado com direito.
+        assertThat(comandos(() -> agendamentoMapper.toResponseDTO(agendamentoService.getAgendamentoById(a.getId())))
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+        assertThat(comandos(() -> agendamentoService.getAgendamentosByPaciente(
+                                a.getPaciente().getId()))
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+        assertThat(comandos(() -> agendamentoService.getAllAgendamentos(
+                                null, null, null, null, null, null, null, PageRequest.of(0, 20)))
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Assinatura: detalhe, listas e página num select; mudança de status sem recarregar")
+    void assinatura() {
+        Assinatura a = assinaturas.get(0);
+
+        assertThat(comandos(() -> assinaturaMapper.toResponseDTO(assinaturaService.getAssinaturaById(a.getId())))
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+        assertThat(comandos(() -> assinaturaService
+                                .getAssinaturasByPaciente(a.getPaciente().getId())
+                                .stream()
+                                .map(assinaturaMapper::toResponseDTO)
+                                .toList())
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+        assertThat(comandos(() -> assinaturaService
+                                .getAssinaturasByServico(a.getServico().getId())
+                                .stream()
+                                .map(assinaturaMapper::toResponseDTO)
+                                .toList())
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+        assertThat(comandos(() -> assinaturaService
+                                .getAllAssinaturas(null, null, null, PageRequest.of(0, 20))
+                                .map(assinaturaMapper::toResponseDTO))
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+
+        AssinaturaStatusDTO status = new AssinaturaStatusDTO();
+        status.setStatus(StatusAssinatura.VENCIDO);
+        // select com graph + update
+        assertThat(comandos(() -> assinaturaMapper.toResponseDTO(assinaturaService.updateStatus(a.getId(), status)))
+                        .getPrepareStatementCount())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Pagamento: associações + uma query por coleção, qualquer que seja a quantidade")
+    void pagamento() {
+        Pagamento p = pagamentos.get(0);
+
+        assertThat(comandos(() -> pagamentoMapper.toResponseDTO(pagamentoService.getPagamentoById(p.getId())))
+                        .getPrepareStatementCount())
+                .isEqualTo(3);
+        assertThat(comandos(() ->
+                                pagamentoService
+                                        .getPagamentosByPeriodo(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 12, 31))
+                                        .stream()
+                                        .map(pagamentoMapper::toResponseDTO)
+                                        .toList())
+                        .getPrepareStatementCount())
+                .isEqualTo(3);
+        assertThat(comandos(() -> pagamentoService
+                                .getPagamentosByPaciente(p.getPaciente().getId())
+                                .stream()
+                                .map(pagamentoMapper::toResponseDTO)
+                                .toList())
+                        .getPrepareStatementCount())
+                .isEqualTo(3);
+        // página + count + as duas coleções
+        assertThat(comandos(() -> pagamentoService
+                                .getAllPagamentos(
+                                        null, null, null, null, null, null, null, null, null, PageRequest.of(0, 4))
+                                .map(pagamentoMapper::toResponseDTO))
+                        .getPrepareStatementCount())
+                .isEqualTo(4);
+
+        PagamentoStatusDTO pago = new PagamentoStatusDTO();
+        pago.setStatus(StatusPagamento.PAGO);
+        // três selects + update do pagamento + update de cada parcela
+        assertThat(comandos(() -> pagamentoMapper.toResponseDTO(pagamentoService.updateStatus(p.getId(), pago)))
+                        .getPrepareStatementCount())
+                .isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Serviço, horário e profissional: um select por leitura, atividades em lote")
+    void cadastros() {
+        Servico servico = servicos.get(0);
+        Profissional profissional = profissionais.get(0);
+
+        assertThat(comandos(() -> servicoMapper.toResponseDTO(servicoService.getServicoById(servico.getId())))
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+        assertThat(comandos(() -> servicoService
+                                .getAllServicos(PageRequest.of(0, 20))
+                                .map(servicoMapper::toResponseDTO))
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+        assertThat(comandos(() -> servicoService.getServicosByPlano(plano.getId()).stream()
+                                .map(servicoMapper::toResponseDTO)
+                                .toList())
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+
+        assertThat(comandos(() -> horarioDisponivelService
+                                .getAllHorariosDisponiveis(PageRequest.of(0, 20))
+                                .map(horarioDisponivelMapper::toResponseDTO))
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+        assertThat(comandos(() -> horarioDisponivelService.getHorariosByProfissional(profissional.getId()).stream()
+                                .map(horarioDisponivelMapper::toResponseDTO)
+                                .toList())
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+
+        assertThat(comandos(() -> profissionalMapper.toResponseDTO(
+                                profissionalService.getProfissionalById(profissional.getId())))
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+        // página (com usuário) + atividades da página em lote
+        assertThat(comandos(() -> profissionalService
+                                .getAllProfissionais(PageRequest.of(0, 20))
+                                .map(profissionalMapper::toResponseDTO))
+                        .getPrepareStatementCount())
+                .isEqualTo(2);
+        assertThat(comandos(() -> profissionalService
+                                .getProfissionaisByAtividade(atividades.get(0).getId())
+                                .stream()
+                                .map(profissionalMapper::toResponseDTO)
+                                .toList())
+                        .getPrepareStatementCount())
+                .isEqualTo(1);
+    }
+
+    private Statistics comandos(Supplier<?> operacao) {
+        estatisticas.clear();
+        operacao.get();
+        return estatisticas;
+    }
+
+    /** Uma linha de cada cadastro, sem compartilhar associações com as outras linhas. */
+    private void semear(int i) {
+        Atividade atividade = new Atividade();
+        atividade.setNome("Atividade " + i);
+        atividade.setDuracaoPadrao(50);
+        atividade = atividadeRepository.save(atividade);
+        atividades.add(atividade);
+
+        Servico servico = new Servico();
+        servico.setAtividade(atividade);
+        servico.setPlano(plano);
+        servico = servicoRepository.save(servico);
+        servicos.add(servico);
+
+        User user = new User();
+        user.setNome("Profissional " + i);
+        user.setEmail("profissional" + i + "@test.com");
+        user.setSenha("x");
+        user.setRole(Role.ROLE_PROFISSIONAL);
+        Profissional profissional = new Profissional();
+        profissional.setNome("Profissional " + i);
+        profissional.setTelefone("1198888777" + i);
+        profissional.setUser(user);
+        profissional.getAtividades().add(atividade);
+        profissional = profissionalRepository.save(profissional);
+        profissionais.add(profissional);
+
+        HorarioDisponivel horario = new HorarioDisponivel();
+        horario.setProfissional(profissional);
+        horario.setDiaSemana(DayOfWeek.MONDAY);
+        horario.setHoraInicio(LocalTime.of(8, 0));
+        horario.setHoraFim(LocalTime.of(12, 0));
+        horarioDisponivelRepository.save(horario);
+
+        SemeadorClinica.Semeada linha = semeador.linha(i, servico)
+                .profissional(profissional)
+                .agendamento(INICIO.plusDays(i))
+                .pagamentoDoAgendamento()
+                .salvar();
+        assinaturas.add(linha.assinatura());
+        agendamentos.addAll(linha.agendamentos());
+        pagamentos.add(linha.pagamento());
+    }
+}
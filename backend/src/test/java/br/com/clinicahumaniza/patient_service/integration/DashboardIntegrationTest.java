@@ -0,0 +1,171 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.clinicahumaniza.patient_service.dto.*;
+import br.com.clinicahumaniza.patient_service.model.FormaPagamento;
+import br.com.clinicahumaniza.patient_service.model.StatusParcela;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DashboardIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Login com admin seedado pelo DataInitializer (application-test.properties)
+        LoginRequestDTO loginRequest = new LoginRequestDTO("admin@test.com", "senha123");
+        String body = objectMapper.writeValueAsString(loginRequest);
+        MvcResult result = mockMvc.perform(
+                        post("/api/auth/login").contentType("application/json").content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+        token = result.getResponse().getCookie("humaniza_token").getValue();
+    }
+
+    @Test
+    @DisplayName("Resumo acompanha cadastro de paciente, assinatura e pagamento sem recarregar")
+    void resumo_AcompanhaEscritas() throws Exception {
+        JsonNode antes = resumo();
+
+        // Criar paciente, atividade, plano, serviço e assinatura
+        PatientRequestDTO pacienteDTO = new PatientRequestDTO();
+        pacienteDTO.setNomeCompleto("Maria Santos");
+        pacienteDTO.setEmail("maria@email.com");
+        pacienteDTO.setCpf("12345678909");
+        pacienteDTO.setDataNascimento(LocalDate.of(1990, 5, 15));
+        pacienteDTO.setTelefone("11999990000");
+        String pacienteId = criar("/api/v1/patients", pacienteDTO).get("id").asText();
+
+        AtividadeRequestDTO atividadeDTO = new AtividadeRequestDTO();
+        atividadeDTO.setNome("Pilates");
+        atividadeDTO.setDescricao("Método de exercícios físicos");
+        atividadeDTO.setDuracaoPadrao(50);
+        String atividadeId = criar("/api/v1/atividades", atividadeDTO).get("id").asText();
+
+        PlanoRequestDTO planoDTO = new PlanoRequestDTO();
+        planoDTO.setNome("Mensal");
+        planoDTO.setDescricao("Plano mensal");
+        planoDTO.setTipoPlano("mensal");
+        planoDTO.setValidadeDias(30);
+        planoDTO.setSessoesIncluidas(1);
+        String planoId = criar("/api/v1/planos", planoDTO).get("id").asText();
+
+        ServicoRequestDTO servicoDTO = new ServicoRequestDTO();
+        servicoDTO.setAtividadeId(UUID.fromString(atividadeId));
+        servicoDTO.setPlanoId(UUID.fromString(planoId));
+        servicoDTO.setTipoAtendimento("individual");
+        servicoDTO.setQuantidade(1);
+        servicoDTO.setUnidadeServico("sessao");
+        servicoDTO.setModalidadeLocal("clinica");
+        servicoDTO.setValor(new BigDecimal("200.00"));
+        String servicoId = criar("/api/v1/servicos", servicoDTO).get("id").asText();
+
+        AssinaturaRequestDTO assinaturaDTO = new AssinaturaRequestDTO();
+        assinaturaDTO.setPacienteId(UUID.fromString(pacienteId));
+        assinaturaDTO.setServicoId(UUID.fromString(servicoId));
+        assinaturaDTO.setDataInicio(LocalDate.now());
+        assinaturaDTO.setSessoesContratadas(1);
+        assinaturaDTO.setValor(new BigDecimal("200.00"));
+        String assinaturaId =
+                criar("/api/v1/assinaturas", assinaturaDTO).get("id").asText();
+
+        // Pagamento em duas parcelas
+        PagamentoRequestDTO pagamentoDTO = new PagamentoRequestDTO();
+        pagamentoDTO.setPacienteId(UUID.fromString(pacienteId));
+        pagamentoDTO.setValor(new BigDecimal("200.00"));
+        pagamentoDTO.setFormaPagamento(FormaPagamento.PIX);
+        pagamentoDTO.setNumeroParcelas(2);
+        pagamentoDTO.setDataVencimento(LocalDate.now());
+        JsonNode pagamento = criar("/api/v1/pagamentos", pagamentoDTO);
+
+        JsonNode depois = resumo();
+        assertThat(depois.get("pacientesAtivos").asInt())
+                .isEqualTo(antes.get("pacientesAtivos").asInt() + 1);
+        assertThat(depois.get("assinaturasAtivas").asInt())
+                .isEqualTo(antes.get("assinaturasAtivas").asInt() + 1);
+        assertThat(depois.get("pagamentosEmAberto").asInt())
+                .isEqualTo(antes.get("pagamentosEmAberto").asInt() + 1);
+
+        // Pagar a primeira parcela entra na receita do mês
+        ParcelaStatusDTO pago = new ParcelaStatusDTO();
+        pago.setStatus(StatusParcela.PAGO);
+        mockMvc.perform(patch(
+                                "/api/v1/pagamentos/{id}/parcelas/{parcelaId}/status",
+                                pagamento.get("id").asText(),
+                                pagamento.get("parcelas").get(0).get("id").asText())
+                        .header("Authorization", "Bearer " + token)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(pago)))
+                .andExpect(status().isOk());
+
+        // Sessão única realizada finaliza a assinatura
+        mockMvc.perform(patch("/api/v1/assinaturas/{id}/registrar-sessao", assinaturaId)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        JsonNode fim = resumo();
+        assertThat(fim.get("receitaMes").decimalValue())
+                .isEqualByComparingTo(antes.get("receitaMes").decimalValue().add(new BigDecimal("100.00")));
+        assertThat(fim.get("assinaturasAtivas").asInt())
+                .isEqualTo(antes.get("assinaturasAtivas").asInt());
+
+        // Paciente excluído sai do card
+        mockMvc.perform(delete("/api/v1/patients/{id}", pacienteId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        assertThat(resumo().get("pacientesAtivos").asInt())
+                .isEqualTo(antes.get("pacientesAtivos").asInt());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 401 sem token")
+    void accessWithoutToken_401() throws Exception {
+        mockMvc.perform(get("/api/v1/dashboard/resumo")).andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode resumo() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/dashboard/resumo").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private JsonNode criar(String url, Object dto) throws Exception {
+        MvcResult result = mockMvc.perform(post(url)
+                        .header("Authorization", "Bearer " + token)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
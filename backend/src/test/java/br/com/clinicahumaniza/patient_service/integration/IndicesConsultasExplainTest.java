@@ -0,0 +1,339 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import br.com.clinicahumaniza.patient_service.config.ContadorSql;
+import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.*;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * EXPLAIN das consultas dos repositórios sobre {@code agendamentos}, {@code assinaturas},
+ * {@code pagamentos}, {@code parcelas} e {@code pagamento_assinaturas}, com os índices de
+ * {@code migration-indices-consultas.sql} aplicados: falha se alguma dessas tabelas for lida
+ * por varredura. O SQL é o que o Hibernate gera de fato (capturado pelo {@link ContadorSql}).
+ *
+ * Roda num Postgres embutido ({@code io.zonky.test:embedded-postgres}, binários baixados pelo
+ * Maven, sem Docker), com a migration inteira: os índices parciais ({@code WHERE ativo}) são
+ * criados como em produção e o planner só os usa se a consulta filtra pelo mesmo predicado.
+ * O H2 dos outros testes não tem índice parcial e não serviria para isso.
+ *
+ * O EXPLAIN roda com {@code enable_seqscan = off}: com poucas linhas o planner
+ * prefere varrer mesmo havendo índice, e assim só sobra varredura quando nenhum índice serve.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(SemeadorClinica.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class IndicesConsultasExplainTest {
+
+    private static final Path MIGRATION = Path.of("..", "migration-indices-consultas.sql");
+    private static final String TABELAS = "agendamentos|assinaturas|pagamentos|parcelas|pagamento_assinaturas";
+    private static final Pattern VARREDURA = Pattern.compile("Seq Scan on (" + TABELAS + ")\\b");
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 1, 7, 8, 0);
+    private static final List<StatusAgendamento> PENDENTES =
+            List.of(StatusAgendamento.AGENDADO, StatusAgendamento.CONFIRMADO);
+    private static final List<StatusAssinatura> RENOVAVEIS = List.of(StatusAssinatura.ATIVO, StatusAssinatura.VENCIDO);
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AgendamentoRepository agendamentos;
+
+    @Autowired
+    private AssinaturaRepository assinaturas;
+
+    @Autowired
+    private PagamentoRepository pagamentos;
+
+    @Autowired
+    private ParcelaRepository parcelas;
+
+    @Autowired
+    private AtividadeRepository atividadeRepository;
+
+    @Autowired
+    private PlanoRepository planoRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Autowired
+    private ProfissionalRepository profissionalRepository;
+
+    @Autowired
+    private SemeadorClinica semeador;
+
+    private UUID paciente;
+    private UUID profissional;
+    private UUID servico;
+    private UUID assinatura;
+    private UUID agendamento;
+    private UUID pagamento;
+
+    @DynamicPropertySource
+    static void postgresEmbutido(DynamicPropertyRegistry propriedades) throws IOException {
+        // Sem @AfterAll: ele rodaria antes de o contexto fechar, com os jobs agendados ainda
+        // usando o banco. O EmbeddedPostgres para sozinho no shutdown da JVM.
+        postgres = EmbeddedPostgres.start();
+        propriedades.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        propriedades.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        propriedades.add("spring.datasource.username", () -> "postgres");
+        propriedades.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeAll
+    void aplicarIndicesESemear() throws IOException {
+        String migration = Files.readString(MIGRATION).replaceAll("(?m)^--.*$", "");
+        for (String sql : migration.split(";")) {
+            if (!sql.isBlank()) jdbcTemplate.execute(sql);
+        }
+        semear();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultas")
+    void usaIndice(Consulta consulta) {
+        ContadorSql.zerar();
+        consulta.chamada().run();
+        String sql = ContadorSql.comandos().get(0);
+        assertThat(sql.chars().filter(c -> c == '?').count())
+                .as("parâmetros de %s", sql)
+                .isEqualTo(consulta.parametros().size());
+
+        String plano = explain(sql, consulta.parametros());
+
+        assertThat(plano).as("plano de %s:%n%s", sql, plano).doesNotContainPattern(VARREDURA);
+    }
+
+    Stream<Consulta> consultas() {
+        LocalDateTime fim = INICIO.plusDays(1);
+        List<String> pendentes = nomes(PENDENTES);
+        return Stream.of(
+                new Consulta(
+                        "findByProfissionalIdAndStatusInAndDataHoraBetween",
+                        () -> agendamentos.findByProfissionalIdAndStatusInAndDataHoraBetween(
+                                profissional, PENDENTES, INICIO, fim),
+                        parametros(profissional, pendentes, INICIO, fim)),
+                new Consulta(
+                        "findByAssinaturaIdAndDataHoraGreaterThanEqualAndStatusIn",
+                        () -> agendamentos.findByAssinaturaIdAndDataHoraGreaterThanEqualAndStatusIn(
+                                assinatura, INICIO, PENDENTES),
+                        parametros(assinatura, INICIO, pendentes)),
+                new Consulta(
+                        "findByAgendamentoRecorrenteIdAndDataHoraGreaterThanEqualAndStatusIn",
+                        () -> agendamentos.findByAgendamentoRecorrenteIdAndDataHoraGreaterThanEqualAndStatusIn(
+                                assinatura, INICIO, PENDENTES),
+                        parametros(assinatura, INICIO, pendentes)),
+                new Consulta(
+                        "existsByPacienteIdAndServicoIdAndDataHoraAndStatusIn",
+                        () -> agendamentos.existsByPacienteIdAndServicoIdAndDataHoraAndStatusIn(
+                                paciente, servico, INICIO, PENDENTES),
+                        parametros(paciente, servico, INICIO, pendentes, 1)),
+                new Consulta(
+                        "findDataHoraByPacienteIdAndServicoIdAndDataHoraBetweenAndStatusIn",
+                        () -> agendamentos.findDataHoraByPacienteIdAndServicoIdAndDataHoraBetweenAndStatusIn(
+                                paciente, servico, INICIO, fim, PENDENTES),
+                        parametros(paciente, servico, INICIO, fim, pendentes)),
+                new Consulta(
+                        "existsByReposicaoOrigemIdAndStatusIn",
+                        () -> agendamentos.existsByReposicaoOrigemIdAndStatusIn(agendamento, PENDENTES),
+                        parametros(agendamento, pendentes, 1)),
+                new Consulta(
+                        "findByStatusInAndDataHoraGreaterThanEqual",
+                        () -> agendamentos.findByStatusInAndDataHoraGreaterThanEqual(PENDENTES, fim),
+                        parametros(pendentes, fim)),
+                new Consulta(
+                        "findByPacienteId (agendamentos)",
+                        () -> agendamentos.findByPacienteId(paciente),
+                        parametros(paciente)),
+                new Consulta(
+                        "findByProfissionalId",
+                        () -> agendamentos.findByProfissionalId(profissional),
+                        parametros(profissional)),
+                new Consulta(
+                        "findByDataHoraBetween",
+                        () -> agendamentos.findByDataHoraBetween(INICIO, fim),
+                        parametros(INICIO, fim)),
+                new Consulta("findDoDia", () -> agendamentos.findDoDia(INICIO, fim), parametros(INICIO, fim)),
+                new Consulta(
+                        "findByPacienteIdAndDireitoReposicaoTrue",
+                        () -> agendamentos.findByPacienteIdAndDireitoReposicaoTrue(paciente),
+                        parametros(paciente)),
+                new Consulta(
+                        "findByServicoId (assinaturas)",
+                        () -> assinaturas.findByServicoId(servico),
+                        parametros(servico)),
+                new Consulta(
+                        "findByStatusIn (assinaturas)",
+                        () -> assinaturas.findByStatusIn(List.of(StatusAssinatura.SUSPENSO)),
+                        parametros(List.of(StatusAssinatura.SUSPENSO.name()))),
+                new Consulta(
+                        "findIdsByStatus",
+                        () -> assinaturas.findIdsByStatus(StatusAssinatura.SUSPENSO),
+                        parametros(StatusAssinatura.SUSPENSO.name())),
+                new Consulta(
+                        "findIdsParaRenovacaoApos",
+                        () -> assinaturas.findIdsParaRenovacaoApos(
+                                RENOVAVEIS, LocalDate.of(2030, 2, 1), assinatura, Limit.of(50)),
+                        parametros(nomes(RENOVAVEIS), LocalDate.of(2030, 2, 1), assinatura, 50)),
+                new Consulta(
+                        "findByAgendamentoId (pagamentos)",
+                        () -> pagamentos.findByAgendamentoId(agendamento),
+                        parametros(agendamento)),
+                new Consulta(
+                        "findByAssinaturasId",
+                        () -> pagamentos.findByAssinaturasId(assinatura),
+                        parametros(assinatura)),
+                new Consulta(
+                        "findByDataVencimentoBetween",
+                        () -> pagamentos.findByDataVencimentoBetween(
+                                LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 10)),
+                        parametros(LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 10))),
+                new Consulta(
+                        "existsByAssinaturaAndVencimento",
+                        () -> pagamentos.existsByAssinaturaAndVencimento(assinatura, LocalDate.of(2030, 1, 10)),
+                        parametros(assinatura, LocalDate.of(2030, 1, 10))),
+                new Consulta(
+                        "findIdsByStatusIn (pagamentos)",
+                        () -> pagamentos.findIdsByStatusIn(List.of(StatusPagamento.REEMBOLSADO)),
+                        parametros(List.of(StatusPagamento.REEMBOLSADO.name()))),
+                new Consulta(
+                        "findComParcelasByIdIn",
+                        () -> pagamentos.findComParcelasByIdIn(List.of(pagamento)),
+                        parametros(pagamento)),
+                new Consulta(
+                        "sumParcelasPagasBetween",
+                        () -> parcelas.sumParcelasPagasBetween(INICIO, fim),
+                        parametros(INICIO, fim)));
+    }
+
+    /** Uma clínica pequena com alguns meses de agenda: o bastante para o EXPLAIN ter o que escolher. */
+    private void semear() {
+        Atividade atividade = new Atividade();
+        atividade.setNome("Pilates");
+        atividade.setDuracaoPadrao(50);
+        Plano plano = new Plano();
+        plano.setNome("Mensal");
+        plano.setTipoPlano("mensal");
+        Servico s = new Servico();
+        s.setAtividade(atividadeRepository.save(atividade));
+        s.setPlano(planoRepository.save(plano));
+        s = servicoRepository.save(s);
+        servico = s.getId();
+
+        User user = new User();
+        user.setNome("Ana");
+        user.setEmail("ana@test.com");
+        user.setSenha("x");
+        user.setRole(Role.ROLE_PROFISSIONAL);
+        Profissional p = new Profissional();
+        p.setNome("Ana");
+        p.setTelefone("11988887777");
+        p.setUser(user);
+        p = profissionalRepository.save(p);
+        profissional = p.getId();
+
+        for (int i = 0; i < 40; i++) {
+            int n = i;
+            SemeadorClinica.Linha linha = semeador.linha(i, s)
+                    .profissional(i % 4 == 0 ? p : null)
+                    .inicio(LocalDate.of(2030, 1, 1))
+                    .assinatura(a -> {
+                        a.setStatus(n % 10 == 0 ? StatusAssinatura.SUSPENSO : StatusAssinatura.ATIVO);
+                        a.setRenovacaoAutomatica(n % 2 == 0);
+                    })
+                    .vencimentoPagamento(LocalDate.of(2030, 1, 1).plusDays(i))
+                    .primeiraParcelaPaga(INICIO.plusDays(i));
+            for (int semana = 0; semana < 12; semana++) {
+                linha.agendamento(
+                        INICIO.plusWeeks(semana).plusHours(i % 10).plusDays(i / 10),
+                        semana < 4 ? StatusAgendamento.REALIZADO : StatusAgendamento.AGENDADO);
+            }
+            SemeadorClinica.Semeada semeada = linha.salvar();
+
+            if (i == 0) {
+                paciente = semeada.paciente().getId();
+                assinatura = semeada.assinatura().getId();
+                agendamento = semeada.agendamentos().get(0).getId();
+                pagamento = semeada.pagamento().getId();
+            }
+        }
+    }
+
+    private String explain(String sql, List<Object> parametros) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) c -> {
+            try (Statement s = c.createStatement()) {
+                s.execute("SET enable_seqscan = off");
+            }
+            try (PreparedStatement ps = c.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parametros.size(); i++) ps.setObject(i + 1, parametros.get(i));
+                StringBuilder plano = new StringBuilder();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) plano.append(rs.getString(1)).append('\n');
+                }
+                return plano.toString();
+            } finally {
+                try (Statement s = c.createStatement()) {
+                    s.execute("RESET enable_seqscan");
+                }
+            }
+        });
+    }
+
+    /** Parâmetros na ordem dos {@code ?} do SQL, com as listas abertas (o {@code IN} gera um por item). */
+    private static List<Object> parametros(Object... valores) {
+        List<Object> lista = new ArrayList<>();
+        for (Object valor : valores) {
+            if (valor instanceof List<?> itens) lista.addAll(itens);
+            else lista.add(valor);
+        }
+        return lista;
+    }
+
+    private static List<String> nomes(List<? extends Enum<?>> valores) {
+        return valores.stream().map(Enum::name).toList();
+    }
+
+    record Consulta(String nome, Runnable chamada, List<Object> parametros) {
+        @Override
+        public String toString() {
+            return nome;
+        }
+    }
+}
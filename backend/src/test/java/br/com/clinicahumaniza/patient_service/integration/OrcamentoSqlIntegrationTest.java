@@ -0,0 +1,209 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.clinicahumaniza.patient_service.config.OrcamentoSql;
+import br.com.clinicahumaniza.patient_service.dto.AgendamentoRecorrenteRequestDTO;
+import br.com.clinicahumaniza.patient_service.dto.AgendamentoRecorrenteResponseDTO;
+import br.com.clinicahumaniza.patient_service.dto.ConsumoSqlEstatisticaDTO;
+import br.com.clinicahumaniza.patient_service.dto.LoginRequestDTO;
+import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.*;
+import br.com.clinicahumaniza.patient_service.service.AgendamentoRecorrenteService;
+import br.com.clinicahumaniza.patient_service.service.ConsumoSqlMetricas;
+
+/**
+ * Orçamento de comandos SQL dos caminhos quentes ({@link OrcamentoSql}), com
+ * {@value #LINHAS} registros de pacientes distintos: um N+1 estoura o orçamento na hora.
+ * Nas chamadas HTTP o orçamento inclui a leitura do usuário pela autenticação.
+ */
+@SpringBootTest(properties = "app.sql.cabecalho=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SemeadorClinica.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OrcamentoSqlIntegrationTest {
+
+    private static final int LINHAS = 30;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 3, 4, 8, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AgendamentoRecorrenteService recorrenteService;
+
+    @Autowired
+    private ConsumoSqlMetricas consumoSqlMetricas;
+
+    @Autowired
+    private ProfissionalRepository profissionalRepository;
+
+    @Autowired
+    private AtividadeRepository atividadeRepository;
+
+    @Autowired
+    private PlanoRepository planoRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Autowired
+    private HorarioDisponivelRepository horarioDisponivelRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private SemeadorClinica semeador;
+
+    private String token;
+    private Patient paciente;
+    private Profissional profissional;
+    private Servico servico;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        token = mockMvc.perform(post("/api/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(new LoginRequestDTO("admin@test.com", "senha123"))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getCookie("humaniza_token")
+                .getValue();
+
+        Atividade atividade = new Atividade();
+        atividade.setNome("Pilates");
+        atividade.setDuracaoPadrao(50);
+        atividade = atividadeRepository.save(atividade);
+        Plano plano = new Plano();
+        plano.setNome("Mensal");
+        plano.setTipoPlano("mensal");
+        servico = new Servico();
+        servico.setAtividade(atividade);
+        servico.setPlano(planoRepository.save(plano));
+        servico = servicoRepository.save(servico);
+
+        User user = new User();
+        user.setNome("Ana");
+        user.setEmail("ana@test.com");
+        user.setSenha("x");
+        user.setRole(Role.ROLE_PROFISSIONAL);
+        profissional = new Profissional();
+        profissional.setNome("Ana");
+        profissional.setTelefone("11988887777");
+        profissional.setUser(user);
+        profissional.getAtividades().add(atividade);
+        profissional = profissionalRepository.save(profissional);
+        for (DayOfWeek dia : List.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY)) {
+            HorarioDisponivel horario = new HorarioDisponivel();
+            horario.setProfissional(profissional);
+            horario.setDiaSemana(dia);
+            horario.setHoraInicio(LocalTime.of(8, 0));
+            horario.setHoraFim(LocalTime.of(20, 0));
+            horarioDisponivelRepository.save(horario);
+        }
+
+        for (int i = 0; i < LINHAS; i++) {
+            Patient p = semeador.linha(i, servico)
+                    .profissional(profissional)
+                    .agendamento(INICIO.plusHours(i))
+                    .salvar()
+                    .paciente();
+            if (paciente == null) paciente = p;
+        }
+    }
+
+    @Test
+    @OrcamentoSql(3)
+    @DisplayName("GET /agendamentos: usuário + página + count")
+    void listarAgendamentos() throws Exception {
+        mockMvc.perform(get("/api/v1/agendamentos").param("size", "20").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(header().string("X-SQL-Comandos", "3"));
+    }
+
+    @Test
+    @OrcamentoSql(5)
+    @DisplayName("GET /pagamentos: usuário + página + count + assinaturas + parcelas")
+    void listarPagamentos() throws Exception {
+        mockMvc.perform(get("/api/v1/pagamentos").param("size", "20").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(jsonPath("$.content[0].parcelas.length()").value(2));
+    }
+
+    @Test
+    @OrcamentoSql(8)
+    @DisplayName("createRecorrente: número de comandos não cresce com o número de sessões")
+    void criarRecorrente() {
+        AgendamentoRecorrenteRequestDTO dto = new AgendamentoRecorrenteRequestDTO();
+        dto.setPacienteId(paciente.getId());
+        dto.setProfissionalId(profissional.getId());
+        dto.setServicoId(servico.getId());
+        dto.setFrequencia(FrequenciaRecorrencia.SEMANAL);
+        dto.setDiasSemana(List.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY));
+        dto.setHoraInicio(LocalTime.of(18, 0));
+        dto.setTotalSessoes(24);
+        dto.setDataInicio(LocalDate.of(2031, 1, 6));
+
+        AgendamentoRecorrenteResponseDTO criado = recorrenteService.createRecorrente(dto);
+
+        assertThat(criado.getDatasIgnoradas()).isEmpty();
+        assertThat(criado.getAgendamentosCriados()).hasSize(24);
+    }
+
+    @Test
+    @DisplayName("Consumo registrado por rota e exposto em /metricas/sql")
+    void metricasPorRota() throws Exception {
+        consumoSqlMetricas.limpar();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get(
+                                    "/api/v1/agendamentos/{id}",
+                                    agendamentoRepository.findAll().get(i).getId())
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        ConsumoSqlEstatisticaDTO rota = consumoSqlMetricas.estatisticas().stream()
+                .filter(e -> e.getOperacao().equals("GET /api/v1/agendamentos/{id}"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(rota.getExecucoes()).isEqualTo(2);
+        assertThat(rota.getComandosMax()).isPositive();
+
+        mockMvc.perform(get("/api/v1/metricas/sql").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.operacao == 'GET /api/v1/agendamentos/{id}')].execucoes")
+                        .value(2));
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.clinicahumaniza.patient_service.dto.LoginRequestDTO;
+import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.*;
+import br.com.clinicahumaniza.patient_service.spec.Keyset;
+
+/**
+ * Página 1 contra página 500 (20 itens por página, {@value #AGENDAMENTOS} agendamentos) na
+ * listagem por offset e na por cursor. Fora do build normal:
+ *
+ * <pre>./mvnw test -Pbenchmark</pre>
+ *
+ * Por offset a página 500 pula 9.980 linhas e ainda conta o filtro inteiro; por cursor ela
+ * custa o mesmo que a primeira. Os dois modos devem devolver os mesmos agendamentos.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PaginacaoCursorBenchmarkTest {
+
+    private static final int AGENDAMENTOS = 12_000;
+    private static final int TAMANHO = 20;
+    private static final int PAGINA_FUNDA = 499;
+    private static final int REPETICOES = 30;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2020, 1, 6, 8, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AtividadeRepository atividadeRepository;
+
+    @Autowired
+    private PlanoRepository planoRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Autowired
+    private AgendamentoLoteRepository agendamentoLoteRepository;
+
+    @Test
+    void primeiraContraQuingentesima() throws Exception {
+        popular();
+        String token = mockMvc.perform(post("/api/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(new LoginRequestDTO("admin@test.com", "senha123"))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getCookie("humaniza_token")
+                .getValue();
+
+        // Horários distintos: sem empates, a ordem por offset (data, id asc) e a do cursor
+        // (data, id desc) coincidem e dá para comparar as páginas.
+        List<String> fundaOffset = ids(ler(token, offset(PAGINA_FUNDA)));
+        JsonNode anterior = ler(token, offset(PAGINA_FUNDA - 1)).get("content").get(TAMANHO - 1);
+        String cursor = new Keyset(
+                        LocalDateTime.parse(anterior.get("dataHora").asText()),
+                        UUID.fromString(anterior.get("id").asText()))
+                .codificar();
+        assertThat(ids(ler(token, porCursor(cursor)))).isEqualTo(fundaOffset);
+
+        relatar("offset", "página 1", token, offset(0));
+        relatar("offset", "página 500", token, offset(PAGINA_FUNDA));
+        relatar("cursor", "página 1", token, porCursor(null));
+        relatar("cursor", "página 500", token, porCursor(cursor));
+        relatar("cursor+total", "página 500", token, porCursor(cursor).param("comTotal", "true"));
+    }
+
+    private static MockHttpServletRequestBuilder offset(int pagina) {
+        return get("/api/v1/agendamentos").param("page", String.valueOf(pagina)).param("size", String.valueOf(TAMANHO));
+    }
+
+    private static MockHttpServletRequestBuilder porCursor(String cursor) {
+        MockHttpServletRequestBuilder requisicao =
+                get("/api/v1/agendamentos/cursor").param("size", String.valueOf(TAMANHO));
+        return cursor != null ? requisicao.param("cursor", cursor) : requisicao;
+    }
+
+    private JsonNode ler(String token, MockHttpServletRequestBuilder requisicao) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(requisicao.header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+    }
+
+    private static List<String> ids(JsonNode pagina) {
+        List<String> ids = new ArrayList<>();
+        pagina.get("content").forEach(item -> ids.add(item.get("id").asText()));
+        return ids;
+    }
+
+    private void relatar(String modo, String pagina, String token, MockHttpServletRequestBuilder requisicao)
+            throws Exception {
+        for (int i = 0; i < 5; i++) ler(token, requisicao);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) ler(token, requisicao);
+        double mediaMs = (System.nanoTime() - inicio) / 1_000_000.0 / REPETICOES;
+        System.out.printf(
+                "[benchmark] %,7d agendamentos | %-12s | %-10s | %8.3f ms%n", AGENDAMENTOS, modo, pagina, mediaMs);
+    }
+
+    private void popular() {
+        Atividade atividade = new Atividade();
+        atividade.setNome("Pilates");
+        atividade.setDuracaoPadrao(50);
+        Plano plano = new Plano();
+        plano.setNome("Mensal");
+        plano.setTipoPlano("mensal");
+        Servico servico = new Servico();
+        servico.setAtividade(atividadeRepository.save(atividade));
+        servico.setPlano(planoRepository.save(plano));
+        servico = servicoRepository.save(servico);
+        Patient paciente = new Patient();
+        paciente.setNomeCompleto("Paciente Benchmark");
+        paciente.setTelefone("11999990000");
+        paciente = patientRepository.save(paciente);
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<Agendamento> lote = new ArrayList<>(AGENDAMENTOS);
+        for (int i = 0; i < AGENDAMENTOS; i++) {
+            Agendamento agendamento = new Agendamento();
+            agendamento.setId(UUID.randomUUID());
+            agendamento.setPaciente(paciente);
+            agendamento.setServico(servico);
+            agendamento.setDataHora(INICIO.plusHours(i));
+            agendamento.setDuracaoMinutos(50);
+            agendamento.setStatus(StatusAgendamento.REALIZADO);
+            agendamento.setCreatedAt(agora);
+            agendamento.setUpdatedAt(agora);
+            lote.add(agendamento);
+        }
+        agendamentoLoteRepository.inserir(lote);
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.clinicahumaniza.patient_service.config.OrcamentoSql;
+import br.com.clinicahumaniza.patient_service.dto.LoginRequestDTO;
+import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.*;
+
+/**
+ * Listagens por cursor percorridas até o fim: cada item aparece uma vez, na ordem, mesmo com
+ * vários agendamentos no mesmo horário (o id desempata dentro da posição do cursor).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SemeadorClinica.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PaginacaoCursorIntegrationTest {
+
+    private static final int LINHAS = 23;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 3, 4, 8, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AtividadeRepository atividadeRepository;
+
+    @Autowired
+    private PlanoRepository planoRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Autowired
+    private SemeadorClinica semeador;
+
+    private String token;
+    private Servico servico;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        token = mockMvc.perform(post("/api/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(new LoginRequestDTO("admin@test.com", "senha123"))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getCookie("humaniza_token")
+                .getValue();
+
+        Atividade atividade = new Atividade();
+        atividade.setNome("Pilates");
+        atividade.setDuracaoPadrao(50);
+        Plano plano = new Plano();
+        plano.setNome("Mensal");
+        plano.setTipoPlano("mensal");
+        servico = new Servico();
+        servico.setAtividade(atividadeRepository.save(atividade));
+        servico.setPlano(planoRepository.save(plano));
+        servico = servicoRepository.save(servico);
+
+        // Três agendamentos por horário: os empates atravessam as fronteiras das páginas de 5.
+        for (int i = 0; i < LINHAS; i++) {
+            semeador.linha(i, servico).agendamento(INICIO.plusHours(i / 3)).salvar();
+        }
+    }
+
+    @Test
+    @DisplayName("Agendamentos: páginas de 5 cobrem todos, em ordem decrescente de data, sem repetir")
+    void agendamentosAteOFim() throws Exception {
+        List<JsonNode> itens = percorrer("/api/v1/agendamentos/cursor", "DESC");
+
+        assertThat(itens).hasSize(LINHAS);
+        assertThat(itens.stream().map(i -> i.get("id").asText()).distinct()).hasSize(LINHAS);
+        assertThat(itens.stream().map(i -> LocalDateTime.parse(i.get("dataHora").asText())))
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    @DisplayName("Agendamentos em ordem crescente também percorrem tudo")
+    void agendamentosCrescente() throws Exception {
+        List<JsonNode> itens = percorrer("/api/v1/agendamentos/cursor", "ASC");
+
+        assertThat(itens.stream().map(i -> i.get("id").asText()).distinct()).hasSize(LINHAS);
+        assertThat(itens.stream().map(i -> LocalDateTime.parse(i.get("dataHora").asText())))
+                .isSorted();
+    }
+
+    @Test
+    @DisplayName("Pagamentos e assinaturas por cursor cobrem todos, com o mapeamento completo")
+    void pagamentosEAssinaturas() throws Exception {
+        List<JsonNode> pagamentos = percorrer("/api/v1/pagamentos/cursor", "DESC");
+        List<JsonNode> assinaturas = percorrer("/api/v1/assinaturas/cursor", "DESC");
+
+        assertThat(pagamentos.stream().map(i -> i.get("id").asText()).distinct())
+                .hasSize(LINHAS);
+        assertThat(pagamentos.get(0).get("parcelas")).hasSize(2);
+        assertThat(assinaturas.stream().map(i -> i.get("id").asText()).distinct())
+                .hasSize(LINHAS);
+        assertThat(assinaturas.get(0).get("pacienteNome").asText()).startsWith("Paciente");
+    }
+
+    @Test
+    @DisplayName("comTotal conta o filtro; sem ele a resposta não traz total")
+    void comTotal() throws Exception {
+        mockMvc.perform(get("/api/v1/agendamentos/cursor")
+                        .param("size", "5")
+                        .param("comTotal", "true")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(LINHAS));
+        mockMvc.perform(get("/api/v1/pagamentos/cursor").param("size", "5").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(5))
+                .andExpect(jsonPath("$.totalElements").isEmpty());
+    }
+
+    @Test
+    @OrcamentoSql(2)
+    @DisplayName("Página por cursor sem total: usuário + lista, sem count")
+    void semCount() throws Exception {
+        mockMvc.perform(get("/api/v1/agendamentos/cursor")
+                        .param("size", "5")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(5));
+    }
+
+    private List<JsonNode> percorrer(String url, String direcao) throws Exception {
+        List<JsonNode> itens = new ArrayList<>();
+        String cursor = null;
+        do {
+            var requisicao = get(url).param("size", "5").param("direcao", direcao);
+            if (cursor != null) requisicao.param("cursor", cursor);
+            JsonNode pagina =
+                    objectMapper.readTree(mockMvc.perform(requisicao.header("Authorization", "Bearer " + token))
+                            .andExpect(status().isOk())
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsString());
+            pagina.get("content").forEach(itens::add);
+            cursor = pagina.get("proximoCursor").isNull()
+                    ? null
+                    : pagina.get("proximoCursor").asText();
+        } while (cursor != null);
+        return itens;
+    }
+}
@@ -91,6 +91,64 @@ class PatientIntegrationTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @DisplayName("Busca por nome ignora acento e ordena por relevância quando pedido")
+    void buscaPorNome_Relevancia() throws Exception {
+        // Mais recente primeiro pela ordem padrão; por relevância, o nome mais próximo do termo.
+        criarPaciente("Mária", "21922222222");
+        criarPaciente("Ana Maria Souza", "21911111111");
+        criarPaciente("Carlos Souza", "21933333333");
+
+        mockMvc.perform(get("/api/v1/patients")
+                        .param("nome", "maria")
+                        .param("sort", "relevancia")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].nomeCompleto").value("Mária"))
+                .andExpect(jsonPath("$.content[1].nomeCompleto").value("Ana Maria Souza"));
+
+        mockMvc.perform(get("/api/v1/patients").param("nome", "souza ana").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].nomeCompleto").value("Ana Maria Souza"));
+    }
+
+    @Test
+    @DisplayName("Autocomplete acompanha cadastro e desativação de pacientes")
+    void autocomplete_CadastroEDesativacao() throws Exception {
+        mockMvc.perform(get("/api/v1/patients/autocomplete")
+                        .param("q", "bea")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        criarPaciente("Beatriz dos Santos Lima", "21955554321");
+
+        MvcResult resultado = mockMvc.perform(get("/api/v1/patients/autocomplete")
+                        .param("q", "bea 4321")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].nomeCurto").value("Beatriz Lima"))
+                .andExpect(jsonPath("$[0].telefoneFinal").value("4321"))
+                .andReturn();
+        String id = objectMapper
+                .readTree(resultado.getResponse().getContentAsString())
+                .get(0)
+                .get("id")
+                .asText();
+
+        mockMvc.perform(delete("/api/v1/patients/{id}", id).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/patients/autocomplete")
+                        .param("q", "bea")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
     @Test
     @DisplayName("Deve retornar 401 sem token")
     void accessWithoutToken_401() throws Exception {
@@ -103,4 +161,16 @@ class PatientIntegrationTest {
         mockMvc.perform(get("/api/v1/patients").header("Authorization", "Bearer token-invalido"))
                 .andExpect(status().isUnauthorized());
     }
+
+    private void criarPaciente(String nome, String telefone) throws Exception {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setNomeCompleto(nome);
+        request.setTelefone(telefone);
+        request.setDataNascimento(LocalDate.of(1990, 1, 1));
+        mockMvc.perform(post("/api/v1/patients")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
 }
@@ -0,0 +1,259 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.clinicahumaniza.patient_service.dto.LoginRequestDTO;
+import br.com.clinicahumaniza.patient_service.dto.PatientRequestDTO;
+
+/** Ciclo completo de um documento no armazenamento local: nada sai para a rede. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ProntuarioIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+    private String pacienteId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        LoginRequestDTO loginRequest = new LoginRequestDTO("admin@test.com", "senha123");
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+        token = login.getResponse().getCookie("humaniza_token").getValue();
+
+        PatientRequestDTO paciente = new PatientRequestDTO();
+        paciente.setNomeCompleto("Maria Santos");
+        paciente.setEmail("maria@email.com");
+        paciente.setCpf("12345678909");
+        paciente.setDataNascimento(LocalDate.of(1990, 5, 15));
+        paciente.setTelefone("11999990000");
+        MvcResult criado = mockMvc.perform(post("/api/v1/patients")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(paciente)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        pacienteId = objectMapper
+                .readTree(criado.getResponse().getContentAsString())
+                .get("id")
+                .asText();
+    }
+
+    @Test
+    @DisplayName("Upload assíncrono fica PRONTO, abre pelo backend e pela URL assinada sem login")
+    void upload_Baixar_Excluir() throws Exception {
+        byte[] pdf = "%PDF-1.4 exame de sangue".getBytes();
+        MvcResult upload = mockMvc.perform(multipart("/api/v1/prontuarios")
+                        .file(new MockMultipartFile("file", "exame.pdf", "application/pdf", pdf))
+                        .param("pacienteId", pacienteId)
+                        .param("titulo", "Exame")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        String id = objectMapper
+                .readTree(upload.getResponse().getContentAsString())
+                .get("id")
+                .asText();
+
+        JsonNode doc = aguardar(id, "status", "PRONTO");
+        assertThat(doc.get("tamanhoBytes").asLong()).isEqualTo(pdf.length);
+        assertThat(doc.get("checksumSha256").asText()).hasSize(64);
+
+        mockMvc.perform(get("/api/v1/prontuarios/" + id + "/arquivo").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/pdf"))
+                .andExpect(content().bytes(pdf));
+
+        String url = doc.get("storageUrl").asText();
+        assertThat(url).startsWith("/api/v1/documentos?");
+        mockMvc.perform(get(URI.create(url)))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(pdf));
+        mockMvc.perform(get(URI.create(url.replaceAll("assinatura=[^&]+", "assinatura=forjada"))))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(delete("/api/v1/prontuarios/" + id).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get(URI.create(url))).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Imagem enviada ganha miniatura JPEG servida pela URL assinada")
+    void upload_GeraMiniatura() throws Exception {
+        BufferedImage imagem = new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(imagem, "png", png);
+        MvcResult upload = mockMvc.perform(multipart("/api/v1/prontuarios")
+                        .file(new MockMultipartFile("file", "raio-x.png", "image/png", png.toByteArray()))
+                        .param("pacienteId", pacienteId)
+                        .param("titulo", "Raio-X")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        JsonNode criado = objectMapper.readTree(upload.getResponse().getContentAsString());
+        assertThat(criado.get("previewStatus").asText()).isEqualTo("PENDENTE");
+
+        JsonNode doc = aguardar(criado.get("id").asText(), "previewStatus", "PRONTO");
+
+        MvcResult miniatura = mockMvc.perform(
+                        get(URI.create(doc.get("previewUrl").asText())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andReturn();
+        BufferedImage lida =
+                ImageIO.read(new ByteArrayInputStream(miniatura.getResponse().getContentAsByteArray()));
+        assertThat(lida.getWidth()).isEqualTo(320);
+        assertThat(lida.getHeight()).isEqualTo(240);
+    }
+
+    @Test
+    @DisplayName("Texto do PDF entra no índice de busca e sai dele na exclusão")
+    void upload_BuscaPeloConteudo() throws Exception {
+        MvcResult upload = mockMvc.perform(multipart("/api/v1/prontuarios")
+                        .file(new MockMultipartFile(
+                                "file", "laudo.pdf", "application/pdf", pdf("Avaliacao de processamento sensorial")))
+                        .param("pacienteId", pacienteId)
+                        .param("titulo", "Laudo")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        String id = objectMapper
+                .readTree(upload.getResponse().getContentAsString())
+                .get("id")
+                .asText();
+
+        JsonNode hits = aguardarBusca("/api/v1/prontuarios/busca?q=sensorial", 1);
+        assertThat(hits.get(0).get("id").asText()).isEqualTo(id);
+        assertThat(hits.get(0).get("pacienteNome").asText()).isEqualTo("Maria Santos");
+        assertThat(buscar("/api/v1/prontuarios/busca?q=sensorial&pacienteId=" + pacienteId))
+                .hasSize(1);
+        assertThat(buscar("/api/v1/prontuarios/busca?q=sensorial&pacienteId=" + UUID.randomUUID()))
+                .isEmpty();
+
+        MvcResult estatisticas = mockMvc.perform(
+                        get("/api/v1/prontuarios/busca/estatisticas").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode indice = objectMapper.readTree(estatisticas.getResponse().getContentAsString());
+        assertThat(indice.get("documentos").asLong()).isEqualTo(1);
+        assertThat(indice.get("tamanhoBytes").asLong()).isPositive();
+
+        mockMvc.perform(delete("/api/v1/prontuarios/" + id).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        assertThat(buscar("/api/v1/prontuarios/busca?q=sensorial")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Reconstrução devolve os documentos ao índice")
+    void busca_Reconstruir() throws Exception {
+        mockMvc.perform(multipart("/api/v1/prontuarios")
+                        .file(new MockMultipartFile("file", "termo.pdf", "application/pdf", pdf("Consentimento")))
+                        .param("pacienteId", pacienteId)
+                        .param("tipo", "TERMO")
+                        .param("titulo", "Termo assinado")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isAccepted());
+        aguardarBusca("/api/v1/prontuarios/busca?q=consentimento&tipo=TERMO", 1);
+
+        mockMvc.perform(post("/api/v1/prontuarios/busca/reconstruir").header("Authorization", "Bearer " + token))
+                .andExpect(status().isAccepted());
+
+        aguardarBusca("/api/v1/prontuarios/busca?q=consentimento&tipo=TERMO", 1);
+    }
+
+    @Test
+    @DisplayName("Download exige login")
+    void arquivo_SemToken_401() throws Exception {
+        mockMvc.perform(get("/api/v1/prontuarios/00000000-0000-0000-0000-000000000000/arquivo"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode aguardar(String id, String campo, String valor) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            MvcResult result = mockMvc.perform(
+                            get("/api/v1/prontuarios/" + id).header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode doc = objectMapper.readTree(result.getResponse().getContentAsString());
+            if (valor.equals(doc.get(campo).asText())) return doc;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Documento não ficou com " + campo + "=" + valor + " a tempo");
+    }
+
+    private JsonNode aguardarBusca(String url, int esperados) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            JsonNode hits = buscar(url);
+            if (hits.size() == esperados) return hits;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Busca não retornou " + esperados + " resultado(s) a tempo: " + url);
+    }
+
+    private JsonNode buscar(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static byte[] pdf(String texto) throws IOException {
+        try (PDDocument doc = new PDDocument()) {
+            PDPage pagina = new PDPage();
+            doc.addPage(pagina);
+            try (PDPageContentStream conteudo = new PDPageContentStream(doc, pagina)) {
+                conteudo.beginText();
+                conteudo.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                conteudo.newLineAtOffset(50, 700);
+                conteudo.showText(texto);
+                conteudo.endText();
+            }
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+            doc.save(saida);
+            return saida.toByteArray();
+        }
+    }
+}
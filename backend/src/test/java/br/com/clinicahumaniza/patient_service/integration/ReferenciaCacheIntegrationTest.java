@@ -0,0 +1,124 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import br.com.clinicahumaniza.patient_service.dto.CacheEstatisticaDTO;
+import br.com.clinicahumaniza.patient_service.dto.FeriadoRequestDTO;
+import br.com.clinicahumaniza.patient_service.model.Atividade;
+import br.com.clinicahumaniza.patient_service.model.Plano;
+import br.com.clinicahumaniza.patient_service.model.Servico;
+import br.com.clinicahumaniza.patient_service.repository.AtividadeRepository;
+import br.com.clinicahumaniza.patient_service.repository.FeriadoRepository;
+import br.com.clinicahumaniza.patient_service.repository.PlanoRepository;
+import br.com.clinicahumaniza.patient_service.repository.ServicoRepository;
+import br.com.clinicahumaniza.patient_service.service.FeriadoCalendar;
+import br.com.clinicahumaniza.patient_service.service.FeriadoService;
+import br.com.clinicahumaniza.patient_service.service.ReferenciaCache;
+import br.com.clinicahumaniza.patient_service.service.ServicoService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReferenciaCacheIntegrationTest {
+
+    @Autowired
+    private ReferenciaCache referenciaCache;
+
+    @Autowired
+    private ServicoService servicoService;
+
+    @Autowired
+    private FeriadoService feriadoService;
+
+    @Autowired
+    private FeriadoCalendar feriadoCalendar;
+
+    @Autowired
+    private AtividadeRepository atividadeRepository;
+
+    @Autowired
+    private PlanoRepository planoRepository;
+
+    @MockitoSpyBean
+    private ServicoRepository servicoRepository;
+
+    @MockitoSpyBean
+    private FeriadoRepository feriadoRepository;
+
+    private UUID servicoId;
+
+    @BeforeEach
+    void setUp() {
+        Atividade atividade = new Atividade();
+        atividade.setNome("Pilates");
+        atividade.setDuracaoPadrao(50);
+        atividade = atividadeRepository.save(atividade);
+
+        Plano plano = new Plano();
+        plano.setNome("Mensal");
+        plano.setTipoPlano("mensal");
+        plano = planoRepository.save(plano);
+
+        Servico servico = new Servico();
+        servico.setAtividade(atividade);
+        servico.setPlano(plano);
+        servicoId = servicoRepository.save(servico).getId();
+
+        referenciaCache.invalidarTudo();
+        feriadoCalendar.invalidar();
+        clearInvocations(servicoRepository, feriadoRepository);
+    }
+
+    @Test
+    @DisplayName("Segunda leitura do serviço vem do cache e conta como acerto")
+    void leituraRepetidaVemDoCache() {
+        assertThat(referenciaCache.servico(servicoId)).isPresent();
+        assertThat(referenciaCache.servico(servicoId)).isPresent();
+
+        verify(servicoRepository, times(1)).findById(servicoId);
+        CacheEstatisticaDTO servicos = referenciaCache.estatisticas().stream()
+                .filter(e -> e.getNome().equals(ReferenciaCache.SERVICOS))
+                .findFirst()
+                .orElseThrow();
+        assertThat(servicos.getAcertos()).isGreaterThanOrEqualTo(1);
+        assertThat(servicos.getEntradas()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Exclusão do serviço invalida a entrada — a próxima leitura já não o encontra")
+    void exclusaoInvalidaServico() {
+        assertThat(referenciaCache.servico(servicoId)).isPresent();
+
+        servicoService.deleteServico(servicoId);
+
+        assertThat(referenciaCache.servico(servicoId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Cadastro de feriado reconstrói o calendário de feriados após o commit")
+    void cadastroDeFeriadoReconstroiCalendario() {
+        LocalDate natal = LocalDate.of(2030, 12, 25);
+        assertThat(feriadoCalendar.isFeriado(natal)).isFalse();
+        assertThat(feriadoCalendar.isFeriado(natal)).isFalse();
+        verify(feriadoRepository, times(1)).findAll();
+
+        feriadoService.createFeriado(new FeriadoRequestDTO(natal.minusYears(5), "Natal", true));
+
+        assertThat(feriadoCalendar.isFeriado(natal)).isTrue();
+    }
+}
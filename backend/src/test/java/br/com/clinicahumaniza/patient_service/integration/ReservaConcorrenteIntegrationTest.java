@@ -0,0 +1,283 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.clinicahumaniza.patient_service.dto.AgendamentoRecorrenteRequestDTO;
+import br.com.clinicahumaniza.patient_service.dto.AgendamentoRequestDTO;
+import br.com.clinicahumaniza.patient_service.exception.AgendaOcupadaException;
+import br.com.clinicahumaniza.patient_service.exception.BusinessException;
+import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.*;
+import br.com.clinicahumaniza.patient_service.service.AgendamentoRecorrenteService;
+import br.com.clinicahumaniza.patient_service.service.AgendamentoService;
+import br.com.clinicahumaniza.patient_service.service.GuardaAgenda;
+
+/**
+ * Marcações simultâneas na mesma turma. Todas as threads largam juntas e passam pela mesma
+ * checagem de capacidade: sem a {@code GuardaAgenda}, várias leriam a contagem antes do commit
+ * das outras e a turma passaria de {@code capacidadeMaxima}.
+ *
+ * O {@code save} do repositório é atrasado de propósito: alarga a janela entre a contagem e a
+ * escrita, que no dia a dia é de microssegundos, para que a corrida apareça em toda execução.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReservaConcorrenteIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int CAPACIDADE = 3;
+    private static final long ESCRITA_LENTA_MS = 30;
+    // Segunda-feira, dentro do horário semeado abaixo.
+    private static final LocalDateTime HORARIO = LocalDateTime.of(2030, 3, 4, 9, 0);
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private AgendamentoRecorrenteService recorrenteService;
+
+    @Autowired
+    private GuardaAgenda guardaAgenda;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoSpyBean
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private AgendamentoRecorrenteRepository recorrenteRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private ProfissionalRepository profissionalRepository;
+
+    @Autowired
+    private AtividadeRepository atividadeRepository;
+
+    @Autowired
+    private PlanoRepository planoRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Autowired
+    private HorarioDisponivelRepository horarioDisponivelRepository;
+
+    private Servico servico;
+    private final List<UUID> pacientes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // O spy de um repositório Spring Data delega pela resposta padrão (não há método real).
+        Answer<?> real =
+                mockingDetails(agendamentoRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocacao -> {
+                    Thread.sleep(ESCRITA_LENTA_MS);
+                    return real.answer(invocacao);
+                })
+                .when(agendamentoRepository)
+                .save(any(Agendamento.class));
+
+        Atividade atividade = new Atividade();
+        atividade.setNome("Pilates em grupo");
+        atividade.setDuracaoPadrao(50);
+        atividade.setCapacidadeMaxima(CAPACIDADE);
+        atividade = atividadeRepository.save(atividade);
+
+        Plano plano = new Plano();
+        plano.setNome("Mensal");
+        plano.setTipoPlano("mensal");
+        plano = planoRepository.save(plano);
+
+        servico = new Servico();
+        servico.setAtividade(atividade);
+        servico.setPlano(plano);
+        servico = servicoRepository.save(servico);
+
+        for (int i = 0; i < THREADS; i++) {
+            Patient paciente = new Patient();
+            paciente.setNomeCompleto("Paciente " + i);
+            paciente.setTelefone("11999990" + String.format("%03d", i));
+            pacientes.add(patientRepository.save(paciente).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Turma cheia: das marcações simultâneas, exatamente capacidadeMaxima entram")
+    void mesmaTurma_SemOverbooking() throws Exception {
+        UUID profissional = profissional(0);
+
+        List<Future<Boolean>> resultados = disparar(i -> requisicao(pacientes.get(i), profissional));
+
+        long marcadas = contarSucessos(resultados);
+        assertThat(marcadas).isEqualTo(CAPACIDADE);
+        assertThat(agendamentoRepository.findByProfissionalId(profissional)).hasSize(CAPACIDADE);
+    }
+
+    @Test
+    @DisplayName("Profissionais diferentes no mesmo horário não se bloqueiam: todas as marcações entram")
+    void profissionaisDiferentes_TodosMarcam() throws Exception {
+        List<UUID> profissionais = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) profissionais.add(profissional(i));
+
+        List<Future<Boolean>> resultados = disparar(i -> requisicao(pacientes.get(i), profissionais.get(i)));
+
+        assertThat(contarSucessos(resultados)).isEqualTo(THREADS);
+        assertThat(agendamentoRepository.count()).isEqualTo(THREADS);
+    }
+
+    @Test
+    @DisplayName("Agenda travada por outra transação: a recorrência recebe 409 e nada fica gravado")
+    void recorrencia_AgendaOcupada_DesfazTudo() throws Exception {
+        UUID profissional = profissional(0);
+        CountDownLatch travado = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> outra =
+                    executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(s -> {
+                        guardaAgenda.travar(profissional, HORARIO.toLocalDate());
+                        travado.countDown();
+                        try {
+                            soltar.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }));
+            assertThat(travado.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> recorrenteService.createRecorrente(recorrencia(pacientes.get(0), profissional)))
+                    .isInstanceOf(AgendaOcupadaException.class);
+
+            soltar.countDown();
+            outra.get(10, TimeUnit.SECONDS);
+        } finally {
+            soltar.countDown();
+            executor.shutdownNow();
+        }
+        assertThat(recorrenteRepository.count()).isZero();
+        assertThat(agendamentoRepository.findByProfissionalId(profissional)).isEmpty();
+    }
+
+    // Cada tarefa devolve true se marcou e false se a regra de negócio recusou; qualquer outra
+    // falha (deadlock, timeout do pool) escapa e derruba o teste no get().
+    private List<Future<Boolean>> disparar(IntFunction<AgendamentoRequestDTO> requisicoes) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                AgendamentoRequestDTO dto = requisicoes.apply(i);
+                resultados.add(executor.submit(() -> {
+                    SecurityContextHolder.getContext()
+                            .setAuthentication(new UsernamePasswordAuthenticationToken(
+                                    "admin@test.com", "x", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+                    largada.await();
+                    try {
+                        agendamentoService.createAgendamento(dto);
+                        return true;
+                    } catch (BusinessException | AgendaOcupadaException e) {
+                        return false;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            largada.countDown();
+            for (Future<Boolean> resultado : resultados) resultado.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        return resultados;
+    }
+
+    private static long contarSucessos(List<Future<Boolean>> resultados) throws Exception {
+        long sucessos = 0;
+        for (Future<Boolean> resultado : resultados) {
+            if (resultado.get()) sucessos++;
+        }
+        return sucessos;
+    }
+
+    private AgendamentoRequestDTO requisicao(UUID pacienteId, UUID profissionalId) {
+        AgendamentoRequestDTO dto = new AgendamentoRequestDTO();
+        dto.setPacienteId(pacienteId);
+        dto.setProfissionalId(profissionalId);
+        dto.setServicoId(servico.getId());
+        dto.setDataHora(HORARIO);
+        dto.setDuracaoMinutos(50);
+        return dto;
+    }
+
+    private AgendamentoRecorrenteRequestDTO recorrencia(UUID pacienteId, UUID profissionalId) {
+        AgendamentoRecorrenteRequestDTO dto = new AgendamentoRecorrenteRequestDTO();
+        dto.setPacienteId(pacienteId);
+        dto.setProfissionalId(profissionalId);
+        dto.setServicoId(servico.getId());
+        dto.setFrequencia(FrequenciaRecorrencia.SEMANAL);
+        dto.setDiasSemana(List.of(DayOfWeek.MONDAY));
+        dto.setHoraInicio(HORARIO.toLocalTime());
+        dto.setDuracaoMinutos(50);
+        dto.setTotalSessoes(4);
+        dto.setDataInicio(HORARIO.toLocalDate());
+        return dto;
+    }
+
+    private UUID profissional(int i) {
+        User user = new User();
+        user.setNome("Profissional " + i);
+        user.setEmail("profissional" + i + "@test.com");
+        user.setSenha("x");
+        user.setRole(Role.ROLE_PROFISSIONAL);
+        Profissional profissional = new Profissional();
+        profissional.setNome("Profissional " + i);
+        profissional.setTelefone("11988880" + String.format("%03d", i));
+        profissional.setUser(user);
+        profissional.getAtividades().add(servico.getAtividade());
+        profissional = profissionalRepository.save(profissional);
+
+        HorarioDisponivel horario = new HorarioDisponivel();
+        horario.setProfissional(profissional);
+        horario.setDiaSemana(DayOfWeek.MONDAY);
+        horario.setHoraInicio(LocalTime.of(8, 0));
+        horario.setHoraFim(LocalTime.of(12, 0));
+        horarioDisponivelRepository.save(horario);
+        return profissional.getId();
+    }
+}
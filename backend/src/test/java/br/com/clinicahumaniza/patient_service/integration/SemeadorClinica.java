@@ -0,0 +1,163 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.*;
+
+/**
+ * Linhas de teste da cadeia paciente → assinatura → agendamentos → pagamento com duas
+ * parcelas, gravadas pelos repositórios. Entra no contexto com
+ * {@code @Import(SemeadorClinica.class)}; serviço, profissional e horários ficam com cada teste.
+ *
+ * <pre>
+ * semeador.linha(i, servico).profissional(ana).agendamento(INICIO.plusHours(i)).salvar();
+ * </pre>
+ *
+ * Sem ajuste, a assinatura vale do dia 1 ao fim de março de 2030, com 8 sessões; o
+ * pagamento de R$ 300 vence no dia 10 e as parcelas de R$ 150 vencem mês a mês a partir dele.
+ */
+class SemeadorClinica {
+
+    private final PatientRepository patientRepository;
+    private final AssinaturaRepository assinaturaRepository;
+    private final AgendamentoRepository agendamentoRepository;
+    private final PagamentoRepository pagamentoRepository;
+
+    SemeadorClinica(
+            PatientRepository patientRepository,
+            AssinaturaRepository assinaturaRepository,
+            AgendamentoRepository agendamentoRepository,
+            PagamentoRepository pagamentoRepository) {
+        this.patientRepository = patientRepository;
+        this.assinaturaRepository = assinaturaRepository;
+        this.agendamentoRepository = agendamentoRepository;
+        this.pagamentoRepository = pagamentoRepository;
+    }
+
+    /** Linha {@code i} (nome e telefone do paciente derivam dele; até 100 linhas). */
+    Linha linha(int i, Servico servico) {
+        return new Linha(i, servico);
+    }
+
+    final class Linha {
+
+        private final int i;
+        private final Servico servico;
+        private final List<Agendamento> agendamentos = new ArrayList<>();
+        private Profissional profissional;
+        private LocalDate inicio = LocalDate.of(2030, 3, 1);
+        private LocalDate vencimentoPagamento;
+        private LocalDateTime primeiraParcelaPagaEm;
+        private boolean pagamentoDoAgendamento;
+        private Consumer<Assinatura> ajusteAssinatura = a -> {};
+
+        private Linha(int i, Servico servico) {
+            this.i = i;
+            this.servico = servico;
+        }
+
+        /** Profissional dos agendamentos; sem ele, os agendamentos ficam sem profissional. */
+        Linha profissional(Profissional profissional) {
+            this.profissional = profissional;
+            return this;
+        }
+
+        /** Início da assinatura; ela vence no fim do mesmo mês. */
+        Linha inicio(LocalDate inicio) {
+            this.inicio = inicio;
+            return this;
+        }
+
+        Linha assinatura(Consumer<Assinatura> ajuste) {
+            this.ajusteAssinatura = ajuste;
+            return this;
+        }
+
+        /** Um agendamento AGENDADO no horário; pode ser chamado várias vezes. */
+        Linha agendamento(LocalDateTime dataHora) {
+            return agendamento(dataHora, StatusAgendamento.AGENDADO);
+        }
+
+        Linha agendamento(LocalDateTime dataHora, StatusAgendamento status) {
+            Agendamento agendamento = new Agendamento();
+            agendamento.setDataHora(dataHora);
+            agendamento.setDuracaoMinutos(50);
+            agendamento.setStatus(status);
+            agendamentos.add(agendamento);
+            return this;
+        }
+
+        /** Liga o pagamento ao primeiro agendamento da linha. */
+        Linha pagamentoDoAgendamento() {
+            this.pagamentoDoAgendamento = true;
+            return this;
+        }
+
+        Linha vencimentoPagamento(LocalDate vencimento) {
+            this.vencimentoPagamento = vencimento;
+            return this;
+        }
+
+        Linha primeiraParcelaPaga(LocalDateTime em) {
+            this.primeiraParcelaPagaEm = em;
+            return this;
+        }
+
+        Semeada salvar() {
+            Patient paciente = new Patient();
+            paciente.setNomeCompleto("Paciente " + i);
+            paciente.setTelefone("119999900" + String.format("%02d", i));
+            paciente = patientRepository.save(paciente);
+
+            Assinatura assinatura = new Assinatura();
+            assinatura.setPaciente(paciente);
+            assinatura.setServico(servico);
+            assinatura.setDataInicio(inicio);
+            assinatura.setDataVencimento(inicio.with(TemporalAdjusters.lastDayOfMonth()));
+            assinatura.setSessoesContratadas(8);
+            ajusteAssinatura.accept(assinatura);
+            assinatura = assinaturaRepository.save(assinatura);
+
+            for (Agendamento agendamento : agendamentos) {
+                agendamento.setPaciente(paciente);
+                agendamento.setProfissional(profissional);
+                agendamento.setServico(servico);
+                agendamento.setAssinatura(assinatura);
+            }
+            List<Agendamento> salvos = agendamentoRepository.saveAll(agendamentos);
+
+            Pagamento pagamento = new Pagamento();
+            pagamento.setPaciente(paciente);
+            if (pagamentoDoAgendamento) pagamento.setAgendamento(salvos.get(0));
+            pagamento.getAssinaturas().add(assinatura);
+            pagamento.setValor(new BigDecimal("300.00"));
+            pagamento.setFormaPagamento(FormaPagamento.PIX);
+            pagamento.setNumeroParcelas(2);
+            pagamento.setDataVencimento(vencimentoPagamento != null ? vencimentoPagamento : inicio.plusDays(9));
+            for (int n = 1; n <= 2; n++) {
+                Parcela parcela = new Parcela();
+                parcela.setPagamento(pagamento);
+                parcela.setNumero(n);
+                parcela.setValor(new BigDecimal("150.00"));
+                parcela.setDataVencimento(pagamento.getDataVencimento().plusMonths(n - 1));
+                if (n == 1 && primeiraParcelaPagaEm != null) {
+                    parcela.setStatus(StatusParcela.PAGO);
+                    parcela.setDataPagamento(primeiraParcelaPagaEm);
+                }
+                pagamento.getParcelas().add(parcela);
+            }
+            pagamento = pagamentoRepository.save(pagamento);
+
+            return new Semeada(paciente, assinatura, salvos, pagamento);
+        }
+    }
+
+    record Semeada(Patient paciente, Assinatura assinatura, List<Agendamento> agendamentos, Pagamento pagamento) {}
+}
@@ -0,0 +1,208 @@
+package br.com.clinicahumaniza.patient_service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.clinicahumaniza.patient_service.exception.BusinessException;
+import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.*;
+import br.com.clinicahumaniza.patient_service.service.AssinaturaService;
+
+/**
+ * Check-ins simultâneos na mesma assinatura. Com o antigo ler-somar-salvar, threads que liam o
+ * mesmo valor gravavam o mesmo resultado e incrementos se perdiam; com o UPDATE atômico o
+ * contador termina exatamente no número de chamadas aceitas.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SessoesConcorrentesIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int CHAMADAS_POR_THREAD = 5;
+
+    @Autowired
+    private AssinaturaService assinaturaService;
+
+    @Autowired
+    private AssinaturaRepository assinaturaRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AtividadeRepository atividadeRepository;
+
+    @Autowired
+    private PlanoRepository planoRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    private Patient paciente;
+    private Servico servico;
+
+    @BeforeEach
+    void setUp() {
+        Atividade atividade = new Atividade();
+        atividade.setNome("Pilates em grupo");
+        atividade.setDuracaoPadrao(50);
+        atividade = atividadeRepository.save(atividade);
+
+        Plano plano = new Plano();
+        plano.setNome("Mensal");
+        plano.setTipoPlano("mensal");
+        plano = planoRepository.save(plano);
+
+        servico = new Servico();
+        servico.setAtividade(atividade);
+        servico.setPlano(plano);
+        servico = servicoRepository.save(servico);
+
+        paciente = new Patient();
+        paciente.setNomeCompleto("Paciente Concorrente");
+        paciente.setTelefone("11999990000");
+        paciente = patientRepository.save(paciente);
+    }
+
+    @Test
+    @DisplayName("Saldo sobrando: todos os check-ins simultâneos são contados")
+    void registrar_ContagemExata() throws Exception {
+        int total = THREADS * CHAMADAS_POR_THREAD;
+        UUID id = assinatura(total + 10);
+
+        long aceitos = contarSucessos(disparar(i -> () -> assinaturaService.registrarSessao(id)));
+
+        Assinatura assinatura = assinaturaRepository.findById(id).orElseThrow();
+        assertThat(aceitos).isEqualTo(total);
+        assertThat(assinatura.getSessoesRealizadas()).isEqualTo(total);
+        assertThat(assinatura.getStatus()).isEqualTo(StatusAssinatura.ATIVO);
+    }
+
+    @Test
+    @DisplayName("Saldo menor que a demanda: entram exatamente as contratadas e a assinatura finaliza")
+    void registrar_FinalizaNoLimite() throws Exception {
+        int contratadas = 40;
+        UUID id = assinatura(contratadas);
+
+        long aceitos = contarSucessos(disparar(i -> () -> assinaturaService.registrarSessao(id)));
+
+        Assinatura assinatura = assinaturaRepository.findById(id).orElseThrow();
+        assertThat(aceitos).isEqualTo(contratadas);
+        assertThat(assinatura.getSessoesRealizadas()).isEqualTo(contratadas);
+        assertThat(assinatura.getStatus()).isEqualTo(StatusAssinatura.FINALIZADO);
+    }
+
+    @Test
+    @DisplayName("Registros e reversões misturados: o saldo final é a diferença exata")
+    void registrarEReverter_SaldoExato() throws Exception {
+        int inicial = THREADS * CHAMADAS_POR_THREAD;
+        UUID id = assinatura(inicial * 3);
+        disparar(i -> () -> assinaturaService.registrarSessao(id));
+
+        // Metade das threads registra, metade reverte: o saldo volta ao ponto de partida.
+        Runnable registrar = () -> assinaturaService.registrarSessao(id);
+        Runnable reverter = () -> assinaturaService.reverterSessao(id);
+        disparar(i -> i % 2 == 0 ? registrar : reverter);
+
+        Assinatura assinatura = assinaturaRepository.findById(id).orElseThrow();
+        assertThat(assinatura.getSessoesRealizadas()).isEqualTo(inicial);
+    }
+
+    @Test
+    @DisplayName("Edição com cópia anterior à finalização recebe conflito de versão, sem reabrir a assinatura")
+    void versao_ProtegeStatus() {
+        UUID id = assinatura(1);
+        Assinatura copiaAntiga = assinaturaRepository.findById(id).orElseThrow();
+
+        assinaturaService.registrarSessao(id);
+
+        copiaAntiga.setObservacoes("editada com a cópia antiga");
+        assertThatThrownBy(() -> assinaturaRepository.save(copiaAntiga))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        Assinatura gravada = assinaturaRepository.findById(id).orElseThrow();
+        assertThat(gravada.getStatus()).isEqualTo(StatusAssinatura.FINALIZADO);
+    }
+
+    @Test
+    @DisplayName("Check-in não conflita com edição simultânea: o incremento não muda a versão")
+    void versao_IncrementoNaoConflita() {
+        UUID id = assinatura(10);
+        Assinatura copia = assinaturaRepository.findById(id).orElseThrow();
+
+        assinaturaService.registrarSessao(id);
+        copia.setObservacoes("editada depois do check-in");
+        assinaturaRepository.save(copia);
+
+        Assinatura gravada = assinaturaRepository.findById(id).orElseThrow();
+        assertThat(gravada.getSessoesRealizadas()).isEqualTo(1);
+        assertThat(gravada.getObservacoes()).isEqualTo("editada depois do check-in");
+    }
+
+    // Cada thread faz CHAMADAS_POR_THREAD chamadas e devolve quantas a regra de negócio aceitou;
+    // qualquer outra falha escapa e derruba o teste no get().
+    private List<Future<Integer>> disparar(IntFunction<Runnable> chamadas) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                Runnable chamada = chamadas.apply(i);
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    int aceitas = 0;
+                    for (int n = 0; n < CHAMADAS_POR_THREAD; n++) {
+                        try {
+                            chamada.run();
+                            aceitas++;
+                        } catch (BusinessException e) {
+                            // assinatura já finalizada
+                        }
+                    }
+                    return aceitas;
+                }));
+            }
+            largada.countDown();
+            for (Future<Integer> resultado : resultados) resultado.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        return resultados;
+    }
+
+    private static long contarSucessos(List<Future<Integer>> resultados) throws Exception {
+        long sucessos = 0;
+        for (Future<Integer> resultado : resultados) sucessos += resultado.get();
+        return sucessos;
+    }
+
+    private UUID assinatura(int contratadas) {
+        Assinatura assinatura = new Assinatura();
+        assinatura.setPaciente(paciente);
+        assinatura.setServico(servico);
+        assinatura.setDataInicio(LocalDate.of(2030, 3, 1));
+        assinatura.setDataVencimento(LocalDate.of(2030, 3, 31));
+        assinatura.setSessoesContratadas(contratadas);
+        return assinaturaRepository.save(assinatura).getId();
+    }
+}
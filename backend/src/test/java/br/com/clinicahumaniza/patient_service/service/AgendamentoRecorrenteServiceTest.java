@@ -3,6 +3,8 @@ package br.com.clinicahumaniza.patient_service.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
@@ -18,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
 
 import br.com.clinicahumaniza.patient_service.dto.*;
 import br.com.clinicahumaniza.patient_service.exception.BusinessException;
@@ -73,9 +76,8 @@ class AgendamentoRecorrenteServiceTest {
                 agendamentoRepository,
                 recorrenteRepository,
                 patientRepository,
-                profissionalRepository,
-                servicoRepository,
                 assinaturaRepository,
+                new ReferenciaCache(servicoRepository, profissionalRepository, null, new NoOpCacheManager()),
                 agendamentoMapper);
 
         pacienteId = UUID.randomUUID();
@@ -159,15 +161,32 @@ class AgendamentoRecorrenteServiceTest {
     }
 
     private void mockAgendamentoCreation(int count) {
-        when(agendamentoService.createAgendamento(any(AgendamentoRequestDTO.class)))
+        mockCriacaoEmLote(count, "");
+    }
+
+    /** Simula o lote: as {@code aceitas} primeiras datas são criadas, as demais ignoradas com o motivo. */
+    @SuppressWarnings("unchecked")
+    private void mockCriacaoEmLote(int aceitas, String motivo) {
+        when(agendamentoService.criarEmLote(any(AgendamentoRecorrente.class), anyList(), anyList()))
                 .thenAnswer(invocation -> {
-                    Agendamento ag = createMockAgendamento(UUID.randomUUID());
-                    AgendamentoRequestDTO req = invocation.getArgument(0);
-                    ag.setDataHora(req.getDataHora());
-                    return ag;
+                    List<LocalDateTime> datas = invocation.getArgument(1);
+                    List<DataIgnoradaDTO> ignoradas = invocation.getArgument(2);
+                    List<Agendamento> criados = new ArrayList<>();
+                    for (LocalDateTime dataHora : datas) {
+                        if (criados.size() < aceitas) {
+                            Agendamento ag = createMockAgendamento(UUID.randomUUID());
+                            ag.setDataHora(dataHora);
+                            ag.setAgendamentoRecorrente(invocation.getArgument(0));
+                            criados.add(ag);
+                        } else {
+                            ignoradas.add(new DataIgnoradaDTO(dataHora.toLocalDate(), motivo));
+                        }
+                    }
+                    return criados;
                 });
-        when(agendamentoRepository.save(any(Agendamento.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(agendamentoMapper.toResponseDTO(any(Agendamento.class))).thenReturn(new AgendamentoResponseDTO());
+        lenient()
+                .when(agendamentoMapper.toResponseDTO(any(Agendamento.class)))
+                .thenReturn(new AgendamentoResponseDTO());
     }
 
     // --- Testes de geração de datas ---
@@ -283,7 +302,8 @@ class AgendamentoRecorrenteServiceTest {
         assertThat(response).isNotNull();
         assertThat(response.getAgendamentosCriados()).hasSize(4);
         assertThat(response.getDatasIgnoradas()).isEmpty();
-        verify(agendamentoService, times(4)).createAgendamento(any());
+        verify(agendamentoService, times(1)).criarEmLote(any(), argThat(datas -> datas.size() == 4), anyList());
+        verify(agendamentoService, never()).createAgendamento(any());
     }
 
     @Test
@@ -308,30 +328,8 @@ class AgendamentoRecorrenteServiceTest {
         mockBasicLookups();
         mockRecorrenteRepositorySave();
 
-        // Primeiro 3 chamadas ok, quarta com conflito
-        when(agendamentoService.createAgendamento(any(AgendamentoRequestDTO.class)))
-                .thenAnswer(invocation -> {
-                    Agendamento ag = createMockAgendamento(UUID.randomUUID());
-                    AgendamentoRequestDTO req = invocation.getArgument(0);
-                    ag.setDataHora(req.getDataHora());
-                    return ag;
-                })
-                .thenAnswer(invocation -> {
-                    Agendamento ag = createMockAgendamento(UUID.randomUUID());
-                    AgendamentoRequestDTO req = invocation.getArgument(0);
-                    ag.setDataHora(req.getDataHora());
-                    return ag;
-                })
-                .thenAnswer(invocation -> {
-                    Agendamento ag = createMockAgendamento(UUID.randomUUID());
-                    AgendamentoRequestDTO req = invocation.getArgument(0);
-                    ag.setDataHora(req.getDataHora());
-                    return ag;
-                })
-                .thenThrow(new BusinessException("Conflito de horário"));
-
-        when(agendamentoRepository.save(any(Agendamento.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(agendamentoMapper.toResponseDTO(any(Agendamento.class))).thenReturn(new AgendamentoResponseDTO());
+        // Três primeiras datas ok, quarta com conflito
+        mockCriacaoEmLote(3, "Conflito de horário");
 
         AgendamentoRecorrenteResponseDTO response = service.createRecorrente(dto);
 
@@ -348,8 +346,7 @@ class AgendamentoRecorrenteServiceTest {
         mockBasicLookups();
         mockRecorrenteRepositorySave();
 
-        when(agendamentoService.createAgendamento(any(AgendamentoRequestDTO.class)))
-                .thenThrow(new BusinessException("Conflito de horário"));
+        mockCriacaoEmLote(0, "Conflito de horário");
 
         AgendamentoRecorrenteResponseDTO response = service.createRecorrente(dto);
 
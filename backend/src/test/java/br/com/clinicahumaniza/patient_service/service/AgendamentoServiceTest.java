@@ -3,6 +3,7 @@ package br.com.clinicahumaniza.patient_service.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -19,10 +20,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -32,6 +35,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoStatusDTO;
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoUpdateDTO;
+import br.com.clinicahumaniza.patient_service.dto.DataIgnoradaDTO;
 import br.com.clinicahumaniza.patient_service.exception.BusinessException;
 import br.com.clinicahumaniza.patient_service.exception.ResourceNotFoundException;
 import br.com.clinicahumaniza.patient_service.mapper.AgendamentoMapper;
@@ -44,6 +48,12 @@ class AgendamentoServiceTest {
     @Mock
     private AgendamentoRepository agendamentoRepository;
 
+    @Mock
+    private AgendamentoLoteRepository agendamentoLoteRepository;
+
+    @Mock
+    private AgendamentoListagemRepository agendamentoListagemRepository;
+
     @Mock
     private PatientRepository patientRepository;
 
@@ -65,9 +75,24 @@ class AgendamentoServiceTest {
     @Mock
     private FeriadoRepository feriadoRepository;
 
+    @Mock
+    private ExportadorCsv exportadorCsv;
+
+    @Mock
+    private BuscaNomePaciente buscaNome;
+
     @Mock
     private AssinaturaService assinaturaService;
 
+    @Mock
+    private CalendarioOutboxService calendarioOutbox;
+
+    @Mock
+    private DashboardContadores dashboardContadores;
+
+    @Mock
+    private GuardaAgenda guardaAgenda;
+
     private AgendamentoService agendamentoService;
 
     private Agendamento agendamento;
@@ -89,15 +114,21 @@ class AgendamentoServiceTest {
     void setUp() {
         agendamentoService = new AgendamentoService(
                 agendamentoRepository,
+                agendamentoLoteRepository,
+                agendamentoListagemRepository,
                 patientRepository,
-                profissionalRepository,
-                servicoRepository,
                 assinaturaRepository,
-                horarioDisponivelRepository,
-                feriadoRepository,
+                new ReferenciaCache(
+                        servicoRepository, profissionalRepository, horarioDisponivelRepository, new NoOpCacheManager()),
+                new FeriadoCalendar(feriadoRepository),
+                exportadorCsv,
                 agendamentoMapper,
                 assinaturaService,
-                Optional.empty());
+                new ProfissionalAgendaIndex(agendamentoRepository),
+                guardaAgenda,
+                calendarioOutbox,
+                buscaNome,
+                dashboardContadores);
 
         agendamentoId = UUID.randomUUID();
         pacienteId = UUID.randomUUID();
@@ -502,6 +533,108 @@ class AgendamentoServiceTest {
                 .hasMessageContaining("Duração não informada");
     }
 
+    // --- Testes de criação em lote (recorrência) ---
+
+    private AgendamentoRecorrente recorrente() {
+        AgendamentoRecorrente recorrente = new AgendamentoRecorrente();
+        recorrente.setId(UUID.randomUUID());
+        recorrente.setPaciente(paciente);
+        recorrente.setProfissional(profissional);
+        recorrente.setServico(servico);
+        recorrente.setDuracaoMinutos(50);
+        return recorrente;
+    }
+
+    private List<LocalDateTime> segundasSeguidas(int quantidade) {
+        List<LocalDateTime> datas = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            datas.add(agendamento.getDataHora().plusWeeks(i));
+        }
+        return datas;
+    }
+
+    @Test
+    @DisplayName("Lote: valida o período com consultas únicas e insere tudo num batch")
+    @SuppressWarnings("unchecked")
+    void criarEmLote_Success() {
+        List<LocalDateTime> datas = segundasSeguidas(8);
+        when(horarioDisponivelRepository.findByProfissionalId(profissionalId)).thenReturn(List.of(horarioDisponivel));
+        when(agendamentoRepository.findByProfissionalIdAndStatusInAndDataHoraBetween(
+                        eq(profissionalId), any(), any(), any()))
+                .thenReturn(List.of());
+        List<DataIgnoradaDTO> ignoradas = new ArrayList<>();
+
+        List<Agendamento> criados = agendamentoService.criarEmLote(recorrente(), datas, ignoradas);
+
+        assertThat(criados).hasSize(8);
+        assertThat(ignoradas).isEmpty();
+        assertThat(criados).allSatisfy(a -> {
+            assertThat(a.getId()).isNotNull();
+            assertThat(a.getStatus()).isEqualTo(StatusAgendamento.AGENDADO);
+            assertThat(a.getAgendamentoRecorrente()).isNotNull();
+        });
+        verify(horarioDisponivelRepository, times(1)).findByProfissionalId(profissionalId);
+        verify(agendamentoRepository, times(1))
+                .findByProfissionalIdAndStatusInAndDataHoraBetween(eq(profissionalId), any(), any(), any());
+        verify(agendamentoRepository, times(1))
+                .findDataHoraByPacienteIdAndServicoIdAndDataHoraBetweenAndStatusIn(any(), any(), any(), any(), any());
+        verify(agendamentoLoteRepository, times(1)).inserir(argThat(lote -> lote.size() == 8));
+        verify(agendamentoRepository, never()).save(any(Agendamento.class));
+        verify(horarioDisponivelRepository, never()).findByProfissionalIdAndDiaSemana(any(), any());
+    }
+
+    @Test
+    @DisplayName("Lote: datas em conflito ou duplicadas são ignoradas com o mesmo motivo do fluxo unitário")
+    void criarEmLote_IgnoraConflitoEDuplicata() {
+        List<LocalDateTime> datas = segundasSeguidas(3);
+        Agendamento ocupando = new Agendamento();
+        ocupando.setId(UUID.randomUUID());
+        ocupando.setProfissional(profissional);
+        ocupando.setDataHora(datas.get(1));
+        ocupando.setDuracaoMinutos(50);
+        ocupando.setStatus(StatusAgendamento.CONFIRMADO);
+        when(horarioDisponivelRepository.findByProfissionalId(profissionalId)).thenReturn(List.of(horarioDisponivel));
+        when(agendamentoRepository.findByProfissionalIdAndStatusInAndDataHoraBetween(
+                        eq(profissionalId), any(), any(), any()))
+                .thenReturn(List.of(ocupando));
+        when(agendamentoRepository.findDataHoraByPacienteIdAndServicoIdAndDataHoraBetweenAndStatusIn(
+                        any(), any(), any(), any(), any()))
+                .thenReturn(List.of(datas.get(2)));
+        List<DataIgnoradaDTO> ignoradas = new ArrayList<>();
+
+        List<Agendamento> criados = agendamentoService.criarEmLote(recorrente(), datas, ignoradas);
+
+        assertThat(criados).extracting(Agendamento::getDataHora).containsExactly(datas.get(0));
+        assertThat(ignoradas)
+                .extracting(DataIgnoradaDTO::getMotivo)
+                .containsExactly(
+                        "Conflito de horário: capacidade máxima (1) atingida neste período para o profissional",
+                        "Já existe um agendamento para este paciente neste horário");
+    }
+
+    @Test
+    @DisplayName("Lote: fora da disponibilidade e assinatura inativa seguem as regras de createAgendamento")
+    void criarEmLote_DisponibilidadeEAssinatura() {
+        AgendamentoRecorrente recorrente = recorrente();
+        List<LocalDateTime> datas = List.of(agendamento.getDataHora().withHour(19));
+        when(horarioDisponivelRepository.findByProfissionalId(profissionalId)).thenReturn(List.of(horarioDisponivel));
+        List<DataIgnoradaDTO> ignoradas = new ArrayList<>();
+
+        assertThat(agendamentoService.criarEmLote(recorrente, datas, ignoradas)).isEmpty();
+        assertThat(ignoradas.get(0).getMotivo())
+                .isEqualTo("O horário solicitado está fora da disponibilidade do profissional");
+
+        assinatura.setStatus(StatusAssinatura.CANCELADO);
+        recorrente.setAssinatura(assinatura);
+        ignoradas.clear();
+
+        assertThat(agendamentoService.criarEmLote(recorrente, segundasSeguidas(2), ignoradas))
+                .isEmpty();
+        assertThat(ignoradas)
+                .extracting(DataIgnoradaDTO::getMotivo)
+                .containsOnly("Assinatura não está ativa (status: CANCELADO)");
+    }
+
     // --- Testes de busca ---
 
     @Test
@@ -525,39 +658,71 @@ class AgendamentoServiceTest {
     }
 
     @Test
-    @DisplayName("Deve listar todos os agendamentos")
+    @DisplayName("Deve listar todos os agendamentos pela projeção, com desempate por id")
     void getAllAgendamentos_Success() {
-        Pageable pageable = PageRequest.of(0, 20);
-        when(agendamentoRepository.findAll(
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("dataHora"));
+        when(agendamentoListagemRepository.pagina(
                         org.mockito.ArgumentMatchers.<Specification<Agendamento>>any(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(agendamento)));
+                .thenReturn(new PageImpl<>(List.of(item())));
 
-        Page<Agendamento> result =
+        Page<AgendamentoListagemRepository.ItemAgendamento> result =
                 agendamentoService.getAllAgendamentos(null, null, null, null, null, null, null, pageable);
 
         assertThat(result.getContent()).hasSize(1);
+        verify(agendamentoListagemRepository)
+                .pagina(any(), eq(PageRequest.of(0, 20, Sort.by("dataHora").and(Sort.by("id")))));
+        verify(agendamentoRepository, never())
+                .findAll(org.mockito.ArgumentMatchers.<Specification<Agendamento>>any(), any(Pageable.class));
     }
 
     @Test
     @DisplayName("Deve listar agendamentos por paciente")
     void getAgendamentosByPaciente_Success() {
-        when(agendamentoRepository.findByPacienteId(pacienteId)).thenReturn(List.of(agendamento));
+        when(agendamentoListagemRepository.lista(any())).thenReturn(List.of(item()));
 
-        List<Agendamento> result = agendamentoService.getAgendamentosByPaciente(pacienteId);
+        List<AgendamentoListagemRepository.ItemAgendamento> result =
+                agendamentoService.getAgendamentosByPaciente(pacienteId);
 
         assertThat(result).hasSize(1);
+        verify(agendamentoRepository, never()).findByPacienteId(any());
     }
 
     @Test
     @DisplayName("Deve listar agendamentos por profissional")
     void getAgendamentosByProfissional_Success() {
-        when(agendamentoRepository.findByProfissionalId(profissionalId)).thenReturn(List.of(agendamento));
+        when(agendamentoListagemRepository.lista(any())).thenReturn(List.of(item()));
 
-        List<Agendamento> result = agendamentoService.getAgendamentosByProfissional(profissionalId);
+        List<AgendamentoListagemRepository.ItemAgendamento> result =
+                agendamentoService.getAgendamentosByProfissional(profissionalId);
 
         assertThat(result).hasSize(1);
     }
 
+    private AgendamentoListagemRepository.ItemAgendamento item() {
+        return new AgendamentoListagemRepository.ItemAgendamento(
+                agendamentoId,
+                pacienteId,
+                "Maria",
+                profissionalId,
+                "Ana",
+                servicoId,
+                "Pilates",
+                "Mensal",
+                assinaturaId,
+                agendamento.getDataHora(),
+                50,
+                StatusAgendamento.AGENDADO,
+                null,
+                TipoAgendamento.REGULAR,
+                false,
+                false,
+                null,
+                null,
+                null,
+                true,
+                null);
+    }
+
     // --- Testes de atualização ---
 
     @Test
@@ -749,6 +914,8 @@ class AgendamentoServiceTest {
 
         assertThat(agendamento.isAtivo()).isFalse();
         verify(agendamentoRepository).save(agendamento);
+        // Remoção do evento no Google vai para a outbox, na mesma transação
+        verify(calendarioOutbox).registrar(agendamento);
     }
 
     // --- Testes de slots disponíveis ---
@@ -869,23 +1036,24 @@ class AgendamentoServiceTest {
         assertThat(agendamentoService.getAgendamentoById(agendamentoId)).isEqualTo(agendamento);
     }
 
+    // A confidencialidade das listas agora é filtro de consulta (AgendamentoSpecification.
+    // ocultarConfidencial); o efeito está coberto em AgendamentoListagemIntegrationTest.
+
     @Test
-    @DisplayName("Lista por paciente oculta confidenciais para outro profissional")
-    void getByPaciente_Confidencial_OutroProfissional_Filtra() {
+    @DisplayName("Listas ocultam confidenciais para outro profissional")
+    void ocultarConfidenciais_OutroProfissional() {
         configurarConfidencial();
         autenticar("beatrizpr@humaniza.com", "ROLE_PROFISSIONAL");
-        when(agendamentoRepository.findByPacienteId(pacienteId)).thenReturn(List.of(agendamento));
 
-        assertThat(agendamentoService.getAgendamentosByPaciente(pacienteId)).isEmpty();
+        assertThat(agendamentoService.ocultarConfidenciaisParaUsuarioAtual()).isTrue();
     }
 
     @Test
-    @DisplayName("Lista por paciente mantém confidenciais para a própria Caíssa")
-    void getByPaciente_Confidencial_Caissa_Mantem() {
+    @DisplayName("Listas mantêm confidenciais para a própria Caíssa")
+    void ocultarConfidenciais_Caissa() {
         configurarConfidencial();
         autenticar(EMAIL_CAISSA, "ROLE_PROFISSIONAL");
-        when(agendamentoRepository.findByPacienteId(pacienteId)).thenReturn(List.of(agendamento));
 
-        assertThat(agendamentoService.getAgendamentosByPaciente(pacienteId)).containsExactly(agendamento);
+        assertThat(agendamentoService.ocultarConfidenciaisParaUsuarioAtual()).isFalse();
     }
 }
@@ -2,6 +2,7 @@ package br.com.clinicahumaniza.patient_service.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -9,6 +10,7 @@ import static org.mockito.Mockito.when;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -17,13 +19,16 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoRecorrenteRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoRecorrenteResponseDTO;
 import br.com.clinicahumaniza.patient_service.dto.AgendamentoResponseDTO;
+import br.com.clinicahumaniza.patient_service.dto.RenovacaoProgressoDTO;
 import br.com.clinicahumaniza.patient_service.model.AgendamentoRecorrente;
 import br.com.clinicahumaniza.patient_service.model.Assinatura;
 import br.com.clinicahumaniza.patient_service.model.FrequenciaRecorrencia;
@@ -46,13 +51,27 @@ class AssinaturaRenovacaoServiceTest {
     @Mock
     private AgendamentoRecorrenteService agendamentoRecorrenteService;
 
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DashboardContadores dashboardContadores;
+
     private AssinaturaRenovacaoService renovacaoService;
 
     private Assinatura assinatura;
 
     @BeforeEach
     void setUp() {
+        // Executor síncrono: os lotes rodam na própria thread do teste
+        renovacaoService = new AssinaturaRenovacaoService(
+                assinaturaRepository,
+                recorrenteRepository,
+                agendamentoRecorrenteService,
+                transactionManager,
+                Runnable::run,
+                dashboardContadores);
+
         Patient paciente = new Patient();
         paciente.setId(UUID.randomUUID());
         paciente.setNomeCompleto("Maria Santos");
@@ -66,11 +85,16 @@ class AssinaturaRenovacaoServiceTest {
         assinatura.setSessoesRealizadas(0);
     }
 
+    private void mockAssinaturaParaRenovar() {
+        when(assinaturaRepository.findIdsParaRenovacao(any(), any(LocalDate.class), any(Limit.class)))
+                .thenReturn(List.of(assinatura.getId()));
+        when(assinaturaRepository.findById(assinatura.getId())).thenReturn(Optional.of(assinatura));
+    }
+
     @Test
     @DisplayName("Deve retornar 0 quando não há assinaturas próximas do vencimento")
     void renovar_NenhumaAssinatura() {
-        when(assinaturaRepository.findByRenovacaoAutomaticaTrueAndStatusInAndDataVencimentoLessThanEqual(
-                        any(), any(LocalDate.class)))
+        when(assinaturaRepository.findIdsParaRenovacao(any(), any(LocalDate.class), any(Limit.class)))
                 .thenReturn(List.of());
 
         int renovadas = renovacaoService.renovarAssinaturasProximasDoVencimento();
@@ -81,9 +105,7 @@ class AssinaturaRenovacaoServiceTest {
     @Test
     @DisplayName("Deve pular assinatura sem agendamentos recorrentes vinculados")
     void renovar_AssinaturaSemTemplates() {
-        when(assinaturaRepository.findByRenovacaoAutomaticaTrueAndStatusInAndDataVencimentoLessThanEqual(
-                        any(), any(LocalDate.class)))
-                .thenReturn(List.of(assinatura));
+        mockAssinaturaParaRenovar();
         when(recorrenteRepository.findByAssinaturaIdAndAtivoTrue(assinatura.getId()))
                 .thenReturn(List.of());
 
@@ -91,14 +113,14 @@ class AssinaturaRenovacaoServiceTest {
 
         // Sem templates a renovação nao cria nada, mas tambem nao lanca erro
         assertThat(renovadas).isEqualTo(1);
+        assertThat(renovacaoService.getProgresso().getPuladas()).isEqualTo(1);
+        assertThat(renovacaoService.getProgresso().getRenovadas()).isZero();
     }
 
     @Test
     @DisplayName("Deve capturar erro de renovação e anotar nas observações")
     void renovar_ErroNaRenovacao() {
-        when(assinaturaRepository.findByRenovacaoAutomaticaTrueAndStatusInAndDataVencimentoLessThanEqual(
-                        any(), any(LocalDate.class)))
-                .thenReturn(List.of(assinatura));
+        mockAssinaturaParaRenovar();
         // Template presente mas servico null -> NPE dentro de renovarAssinatura,
         // capturada pelo loop externo
         when(recorrenteRepository.findByAssinaturaIdAndAtivoTrue(assinatura.getId()))
@@ -110,6 +132,36 @@ class AssinaturaRenovacaoServiceTest {
         // A falha deve ter sido anotada e a assinatura salva
         verify(assinaturaRepository).save(assinatura);
         assertThat(assinatura.getObservacoes()).contains("Falha na renovacao automatica");
+        assertThat(renovacaoService.getProgresso().getFalhas()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Percorre as assinaturas em lotes por keyset e registra o progresso")
+    void renovar_PercorreLotesPorKeyset() {
+        ReflectionTestUtils.setField(renovacaoService, "tamanhoLote", 2);
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        UUID id3 = UUID.randomUUID();
+        when(assinaturaRepository.findIdsParaRenovacao(any(), any(LocalDate.class), eq(Limit.of(2))))
+                .thenReturn(List.of(id1, id2));
+        when(assinaturaRepository.findIdsParaRenovacaoApos(any(), any(LocalDate.class), eq(id2), eq(Limit.of(2))))
+                .thenReturn(List.of(id3));
+        when(assinaturaRepository.findById(any())).thenReturn(Optional.of(assinatura));
+        when(recorrenteRepository.findByAssinaturaIdAndAtivoTrue(any())).thenReturn(List.of());
+
+        int processadas = renovacaoService.renovarAssinaturasProximasDoVencimento();
+
+        assertThat(processadas).isEqualTo(3);
+        verify(assinaturaRepository).findById(id1);
+        verify(assinaturaRepository).findById(id2);
+        verify(assinaturaRepository).findById(id3);
+        RenovacaoProgressoDTO progresso = renovacaoService.getProgresso();
+        assertThat(progresso.isEmAndamento()).isFalse();
+        assertThat(progresso.getProcessadas()).isEqualTo(3);
+        assertThat(progresso.getPuladas()).isEqualTo(3);
+        assertThat(progresso.getUltimoIdProcessado()).isEqualTo(id3);
+        // Uma transação por assinatura
+        verify(transactionManager, times(3)).commit(any());
     }
 
     // --- Regressão: bug de duplicação na renovação (templates repetidos) ---
@@ -144,9 +196,7 @@ class AssinaturaRenovacaoServiceTest {
         AgendamentoRecorrente terca2 = template("TUESDAY", LocalTime.of(10, 0));
         AgendamentoRecorrente quinta = template("THURSDAY", LocalTime.of(8, 0));
 
-        when(assinaturaRepository.findByRenovacaoAutomaticaTrueAndStatusInAndDataVencimentoLessThanEqual(
-                        any(), any(LocalDate.class)))
-                .thenReturn(List.of(assinatura));
+        mockAssinaturaParaRenovar();
         when(recorrenteRepository.findByAssinaturaIdAndAtivoTrue(assinatura.getId()))
                 .thenReturn(List.of(terca1, terca2, quinta));
         when(agendamentoRecorrenteService.createRecorrente(any())).thenReturn(respostaComUmCriado());
@@ -173,9 +223,7 @@ class AssinaturaRenovacaoServiceTest {
     void renovar_AvancaVencimentoPorMesCalendario() {
         LocalDate vencimentoAtual = assinatura.getDataVencimento();
 
-        when(assinaturaRepository.findByRenovacaoAutomaticaTrueAndStatusInAndDataVencimentoLessThanEqual(
-                        any(), any(LocalDate.class)))
-                .thenReturn(List.of(assinatura));
+        mockAssinaturaParaRenovar();
         when(recorrenteRepository.findByAssinaturaIdAndAtivoTrue(assinatura.getId()))
                 .thenReturn(List.of(template("TUESDAY", LocalTime.of(10, 0))));
         when(agendamentoRecorrenteService.createRecorrente(any())).thenReturn(respostaComUmCriado());
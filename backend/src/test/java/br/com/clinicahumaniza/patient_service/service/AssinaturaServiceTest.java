@@ -7,6 +7,7 @@ import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,11 +22,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import br.com.clinicahumaniza.patient_service.dto.AssinaturaRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.AssinaturaStatusDTO;
 import br.com.clinicahumaniza.patient_service.dto.AssinaturaUpdateDTO;
+import br.com.clinicahumaniza.patient_service.dto.PaginaCursorDTO;
 import br.com.clinicahumaniza.patient_service.dto.ReativarAssinaturaRequestDTO;
 import br.com.clinicahumaniza.patient_service.dto.SuspenderAssinaturaRequestDTO;
 import br.com.clinicahumaniza.patient_service.exception.BusinessException;
@@ -35,8 +38,12 @@ import br.com.clinicahumaniza.patient_service.model.*;
 import br.com.clinicahumaniza.patient_service.repository.AgendamentoRecorrenteRepository;
 import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
 import br.com.clinicahumaniza.patient_service.repository.AssinaturaRepository;
+import br.com.clinicahumaniza.patient_service.repository.AssinaturaSessoesRepository;
+import br.com.clinicahumaniza.patient_service.repository.FatiaRepository;
 import br.com.clinicahumaniza.patient_service.repository.PatientRepository;
 import br.com.clinicahumaniza.patient_service.repository.ServicoRepository;
+import br.com.clinicahumaniza.patient_service.spec.Keyset;
+import br.com.clinicahumaniza.patient_service.spec.PaginacaoCursor;
 
 @ExtendWith(MockitoExtension.class)
 class AssinaturaServiceTest {
@@ -59,6 +66,21 @@ class AssinaturaServiceTest {
     @Mock
     private AgendamentoRecorrenteRepository recorrenteRepository;
 
+    @Mock
+    private CalendarioOutboxService calendarioOutbox;
+
+    @Mock
+    private BuscaNomePaciente buscaNome;
+
+    @Mock
+    private DashboardContadores dashboardContadores;
+
+    @Mock
+    private FatiaRepository fatiaRepository;
+
+    @Mock
+    private AssinaturaSessoesRepository sessoesRepository;
+
     private AssinaturaService assinaturaService;
 
     private Assinatura assinatura;
@@ -80,7 +102,12 @@ class AssinaturaServiceTest {
                 assinaturaMapper,
                 agendamentoRepository,
                 recorrenteRepository,
-                Optional.empty());
+                new ProfissionalAgendaIndex(agendamentoRepository),
+                calendarioOutbox,
+                buscaNome,
+                dashboardContadores,
+                fatiaRepository,
+                sessoesRepository);
 
         assinaturaId = UUID.randomUUID();
         pacienteId = UUID.randomUUID();
@@ -223,6 +250,55 @@ class AssinaturaServiceTest {
         assertThat(result.getContent()).hasSize(1);
     }
 
+    @Test
+    @DisplayName("Listagem por cursor lê um item a mais para saber se há próxima página, sem contar o total")
+    void getAssinaturasPorCursor_ProximaPagina() {
+        Assinatura segunda = new Assinatura();
+        segunda.setId(UUID.randomUUID());
+        segunda.setCreatedAt(LocalDateTime.of(2025, 1, 1, 9, 0));
+        Assinatura excedente = new Assinatura();
+        excedente.setId(UUID.randomUUID());
+        assinatura.setCreatedAt(LocalDateTime.of(2025, 1, 2, 9, 0));
+        when(fatiaRepository.fatia(
+                        eq(Assinatura.class),
+                        org.mockito.ArgumentMatchers.<Specification<Assinatura>>any(),
+                        eq(Sort.by(Sort.Direction.DESC, "createdAt", "id")),
+                        eq(3),
+                        eq(Assinatura.DETALHE)))
+                .thenReturn(List.of(assinatura, segunda, excedente));
+
+        PaginaCursorDTO<Assinatura> pagina = assinaturaService.getAssinaturasPorCursor(
+                null, null, null, PaginacaoCursor.de(null, 2, Sort.Direction.DESC, false));
+
+        assertThat(pagina.getContent()).containsExactly(assinatura, segunda);
+        assertThat(Keyset.decodificar(pagina.getProximoCursor()))
+                .isEqualTo(new Keyset(segunda.getCreatedAt(), segunda.getId()));
+        assertThat(pagina.getTotalElements()).isNull();
+        verify(assinaturaRepository, never()).count(org.mockito.ArgumentMatchers.<Specification<Assinatura>>any());
+    }
+
+    @Test
+    @DisplayName("Última página por cursor não tem próximo cursor; comTotal conta o filtro")
+    void getAssinaturasPorCursor_UltimaPaginaComTotal() {
+        Keyset posicao = new Keyset(LocalDateTime.of(2025, 1, 3, 9, 0), UUID.randomUUID());
+        when(fatiaRepository.fatia(
+                        eq(Assinatura.class),
+                        org.mockito.ArgumentMatchers.<Specification<Assinatura>>any(),
+                        any(Sort.class),
+                        eq(21),
+                        eq(Assinatura.DETALHE)))
+                .thenReturn(List.of(assinatura));
+        when(assinaturaRepository.count(org.mockito.ArgumentMatchers.<Specification<Assinatura>>any()))
+                .thenReturn(21L);
+
+        PaginaCursorDTO<Assinatura> pagina = assinaturaService.getAssinaturasPorCursor(
+                null, null, null, PaginacaoCursor.de(posicao.codificar(), 20, Sort.Direction.DESC, true));
+
+        assertThat(pagina.getContent()).containsExactly(assinatura);
+        assertThat(pagina.getProximoCursor()).isNull();
+        assertThat(pagina.getTotalElements()).isEqualTo(21L);
+    }
+
     @Test
     @DisplayName("Deve listar assinaturas por paciente")
     void getAssinaturasByPaciente_Success() {
@@ -289,28 +365,37 @@ class AssinaturaServiceTest {
 
         assertThat(futuro.getStatus()).isEqualTo(StatusAgendamento.CANCELADO);
         assertThat(futuro.getDireitoReposicao()).isFalse();
-        verify(agendamentoRepository).save(futuro);
+        verify(agendamentoRepository).saveAll(List.of(futuro));
+        verify(calendarioOutbox).registrarTodos(List.of(futuro));
     }
 
     @Test
     @DisplayName("Deve registrar sessão com sucesso")
     void registrarSessao_Success() {
+        when(sessoesRepository.registrar(assinaturaId))
+                .thenReturn(Optional.of(new AssinaturaSessoesRepository.Contador(1, StatusAssinatura.ATIVO, 0L)));
+        assinatura.setSessoesRealizadas(1);
+        assinatura.setVersao(0L);
         when(assinaturaRepository.findById(assinaturaId)).thenReturn(Optional.of(assinatura));
-        when(assinaturaRepository.save(assinatura)).thenReturn(assinatura);
 
         Assinatura result = assinaturaService.registrarSessao(assinaturaId);
 
         assertThat(result.getSessoesRealizadas()).isEqualTo(1);
+        verify(sessoesRepository, never()).recarregar(any());
+        verify(assinaturaRepository, never()).save(any());
+        verify(dashboardContadores).registrar(assinatura);
     }
 
     @Test
     @DisplayName("Deve finalizar automaticamente ao atingir limite de sessões")
     void registrarSessao_FinalizaAutomaticamente() {
-        assinatura.setSessoesRealizadas(3);
+        when(sessoesRepository.registrar(assinaturaId))
+                .thenReturn(Optional.of(new AssinaturaSessoesRepository.Contador(4, StatusAssinatura.FINALIZADO, 1L)));
+        assinatura.setSessoesRealizadas(4);
         assinatura.setSessoesContratadas(4);
-
+        assinatura.setStatus(StatusAssinatura.FINALIZADO);
+        assinatura.setVersao(1L);
         when(assinaturaRepository.findById(assinaturaId)).thenReturn(Optional.of(assinatura));
-        when(assinaturaRepository.save(assinatura)).thenReturn(assinatura);
 
         Assinatura result = assinaturaService.registrarSessao(assinaturaId);
 
@@ -318,11 +403,25 @@ class AssinaturaServiceTest {
         assertThat(result.getStatus()).isEqualTo(StatusAssinatura.FINALIZADO);
     }
 
+    @Test
+    @DisplayName("Assinatura já no contexto com o contador antigo é relida do banco")
+    void registrarSessao_RecarregaCopiaAntiga() {
+        when(sessoesRepository.registrar(assinaturaId))
+                .thenReturn(Optional.of(new AssinaturaSessoesRepository.Contador(1, StatusAssinatura.ATIVO, 0L)));
+        assinatura.setVersao(0L);
+        when(assinaturaRepository.findById(assinaturaId)).thenReturn(Optional.of(assinatura));
+
+        assinaturaService.registrarSessao(assinaturaId);
+
+        verify(sessoesRepository).recarregar(assinatura);
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao registrar sessão em assinatura não ativa")
     void registrarSessao_AssinaturaNaoAtiva() {
         assinatura.setStatus(StatusAssinatura.CANCELADO);
 
+        when(sessoesRepository.registrar(assinaturaId)).thenReturn(Optional.empty());
         when(assinaturaRepository.findById(assinaturaId)).thenReturn(Optional.of(assinatura));
 
         assertThatThrownBy(() -> assinaturaService.registrarSessao(assinaturaId))
@@ -332,6 +431,41 @@ class AssinaturaServiceTest {
         verify(assinaturaRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Deve lançar exceção ao registrar sessão em assinatura inexistente")
+    void registrarSessao_NotFound() {
+        when(sessoesRepository.registrar(assinaturaId)).thenReturn(Optional.empty());
+        when(assinaturaRepository.findById(assinaturaId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> assinaturaService.registrarSessao(assinaturaId))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Deve reverter sessão e reabrir assinatura finalizada")
+    void reverterSessao_Reabre() {
+        when(sessoesRepository.reverter(assinaturaId))
+                .thenReturn(Optional.of(new AssinaturaSessoesRepository.Contador(3, StatusAssinatura.ATIVO, 2L)));
+        assinatura.setSessoesRealizadas(3);
+        assinatura.setVersao(2L);
+        when(assinaturaRepository.findById(assinaturaId)).thenReturn(Optional.of(assinatura));
+
+        Assinatura result = assinaturaService.reverterSessao(assinaturaId);
+
+        assertThat(result.getSessoesRealizadas()).isEqualTo(3);
+        assertThat(result.getStatus()).isEqualTo(StatusAssinatura.ATIVO);
+        verify(assinaturaRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao reverter sessão de assinatura inexistente")
+    void reverterSessao_NotFound() {
+        when(sessoesRepository.reverter(assinaturaId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> assinaturaService.reverterSessao(assinaturaId))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
     @Test
     @DisplayName("Deve deletar assinatura com sucesso (soft delete)")
     void deleteAssinatura_Success() {
@@ -380,7 +514,8 @@ class AssinaturaServiceTest {
 
         assertThat(futuro.getStatus()).isEqualTo(StatusAgendamento.CANCELADO);
         assertThat(futuro.getDireitoReposicao()).isFalse();
-        verify(agendamentoRepository).save(futuro);
+        verify(agendamentoRepository).saveAll(List.of(futuro));
+        verify(calendarioOutbox).registrarTodos(List.of(futuro));
     }
 
     @Test
@@ -0,0 +1,147 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import br.com.clinicahumaniza.patient_service.repository.PatientRepository;
+
+/**
+ * Compara a busca de pacientes por nome com LIKE '%token%' (varredura) contra os índices de
+ * trigramas, em 10 mil e 100 mil nomes gerados. Fora do build normal:
+ *
+ * <pre>./mvnw test -Pbenchmark</pre>
+ *
+ * Sempre mede o H2 (LIKE) contra o índice em memória. Com
+ * {@code -Dbenchmark.postgres.url=jdbc:postgresql://...} (e {@code .user}/{@code .password})
+ * mede também o Postgres com e sem o GIN pg_trgm da migration-busca-nome-trigrama.sql.
+ */
+@Tag("benchmark")
+class BuscaNomePacienteBenchmarkTest {
+
+    private static final String[] PRENOMES = {
+        "ana", "maria", "jose", "joao", "tania", "carlos", "paula", "lucas", "beatriz", "rafael",
+        "fernanda", "gabriel", "juliana", "pedro", "camila", "marcos", "leticia", "bruno", "aline", "diego"
+    };
+    private static final String[] SOBRENOMES = {
+        "silva", "santos", "oliveira", "souza", "lima", "pereira", "costa", "rodrigues", "almeida", "nascimento",
+        "carvalho", "gomes", "martins", "araujo", "ribeiro", "barbosa", "cardoso", "teixeira", "moreira", "alves"
+    };
+    private static final String[] TERMOS = {"tania alves", "mari", "nascimento", "gabriel teix", "zzz"};
+    private static final int REPETICOES = 50;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000})
+    void buscaPorNome(int quantidade) {
+        List<PatientRepository.NomeNormalizado> pacientes = gerar(quantidade);
+
+        JdbcTemplate h2 = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:benchmark-" + quantidade + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        popular(h2, pacientes);
+
+        PatientRepository repository = mock(PatientRepository.class);
+        when(repository.findAllProjectedBy()).thenReturn(pacientes);
+        BuscaNomePacienteMemoria memoria = new BuscaNomePacienteMemoria(repository, h2.getDataSource());
+        memoria.buscar("aquecer");
+
+        for (String termo : TERMOS) {
+            Set<UUID> esperado = like(h2, termo);
+            assertThat(memoria.buscar(termo)).isEqualTo(esperado);
+            relatar(quantidade, termo, "h2 LIKE", () -> like(h2, termo));
+            relatar(quantidade, termo, "memoria", () -> memoria.buscar(termo));
+        }
+
+        String urlPostgres = System.getProperty("benchmark.postgres.url");
+        if (urlPostgres != null) {
+            JdbcTemplate pg = new JdbcTemplate(new DriverManagerDataSource(
+                    urlPostgres,
+                    System.getProperty("benchmark.postgres.user", "postgres"),
+                    System.getProperty("benchmark.postgres.password", "")));
+            pg.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            popular(pg, pacientes);
+            for (String termo : TERMOS) {
+                relatar(quantidade, termo, "pg sem GIN", () -> like(pg, termo));
+            }
+            pg.execute("CREATE INDEX idx_benchmark_nome_trgm ON benchmark_nomes USING gin (nome_normalizado"
+                    + " gin_trgm_ops)");
+            pg.execute("ANALYZE benchmark_nomes");
+            for (String termo : TERMOS) {
+                assertThat(like(pg, termo)).isEqualTo(like(h2, termo));
+                relatar(quantidade, termo, "pg com GIN", () -> like(pg, termo));
+            }
+            pg.execute("DROP TABLE benchmark_nomes");
+        }
+        h2.execute("DROP TABLE benchmark_nomes");
+    }
+
+    private static List<PatientRepository.NomeNormalizado> gerar(int quantidade) {
+        Random random = new Random(42);
+        List<PatientRepository.NomeNormalizado> pacientes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            UUID id = UUID.randomUUID();
+            String nome = PRENOMES[random.nextInt(PRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+            pacientes.add(new PatientRepository.NomeNormalizado() {
+                @Override
+                public UUID getId() {
+                    return id;
+                }
+
+                @Override
+                public String getNomeNormalizado() {
+                    return nome;
+                }
+            });
+        }
+        return pacientes;
+    }
+
+    private static void popular(JdbcTemplate jdbc, List<PatientRepository.NomeNormalizado> pacientes) {
+        jdbc.execute("DROP TABLE IF EXISTS benchmark_nomes");
+        jdbc.execute("CREATE TABLE benchmark_nomes (id UUID PRIMARY KEY, nome_normalizado VARCHAR(255))");
+        jdbc.batchUpdate(
+                "INSERT INTO benchmark_nomes (id, nome_normalizado) VALUES (?, ?)", pacientes, 1000, (ps, p) -> {
+                    ps.setObject(1, p.getId());
+                    ps.setString(2, p.getNomeNormalizado());
+                });
+    }
+
+    private static Set<UUID> like(JdbcTemplate jdbc, String termo) {
+        String[] tokens = termo.split(" ");
+        StringBuilder sql = new StringBuilder("SELECT id FROM benchmark_nomes WHERE 1 = 1");
+        Object[] args = new Object[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            sql.append(" AND nome_normalizado LIKE ?");
+            args[i] = "%" + tokens[i] + "%";
+        }
+        return new HashSet<>(jdbc.queryForList(sql.toString(), UUID.class, args));
+    }
+
+    private static void relatar(int quantidade, String termo, String estrategia, Supplier<Set<UUID>> busca) {
+        busca.get();
+        long inicio = System.nanoTime();
+        int encontrados = 0;
+        for (int i = 0; i < REPETICOES; i++) {
+            encontrados = busca.get().size();
+        }
+        double mediaMs = (System.nanoTime() - inicio) / 1_000_000.0 / REPETICOES;
+        System.out.printf(
+                "[benchmark] %,7d pacientes | %-14s | %-10s | %6d resultados | %8.3f ms%n",
+                quantidade, termo, estrategia, encontrados, mediaMs);
+    }
+}
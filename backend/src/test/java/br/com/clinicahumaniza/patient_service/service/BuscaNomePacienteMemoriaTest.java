@@ -0,0 +1,90 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import br.com.clinicahumaniza.patient_service.model.Patient;
+import br.com.clinicahumaniza.patient_service.repository.PatientRepository;
+
+class BuscaNomePacienteMemoriaTest {
+
+    private final UUID tania = UUID.randomUUID();
+    private final UUID mariana = UUID.randomUUID();
+    private final UUID anaMaria = UUID.randomUUID();
+
+    private PatientRepository patientRepository;
+    private BuscaNomePacienteMemoria busca;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository = mock(PatientRepository.class);
+        when(patientRepository.findAllProjectedBy())
+                .thenReturn(List.of(
+                        nome(tania, "tania alves"), nome(mariana, "mariana costa"), nome(anaMaria, "ana maria souza")));
+        busca = new BuscaNomePacienteMemoria(
+                patientRepository, new DriverManagerDataSource("jdbc:h2:mem:busca-nome-teste", "sa", ""));
+    }
+
+    @Test
+    @DisplayName("Deve achar os mesmos pacientes que o LIKE por token, sem acento nem caixa")
+    void buscar_MesmaSemanticaDoLike() {
+        assertThat(busca.buscar("Tânia")).containsExactly(tania);
+        assertThat(busca.buscar("maria")).containsExactlyInAnyOrder(mariana, anaMaria);
+        assertThat(busca.buscar("souza MARIA")).containsExactly(anaMaria);
+        assertThat(busca.buscar("aria cost")).containsExactly(mariana);
+        assertThat(busca.buscar("joao")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Tokens de 1–2 letras são conferidos direto nos nomes")
+    void buscar_TokenCurto() {
+        assertThat(busca.buscar("an")).containsExactlyInAnyOrder(tania, mariana, anaMaria);
+        assertThat(busca.buscar("al")).containsExactly(tania);
+    }
+
+    @Test
+    @DisplayName("Registrar e remover refletem no índice sem recarregar do banco")
+    void registrarRemover() {
+        assertThat(busca.buscar("alves")).containsExactly(tania);
+        assertThat(busca.tamanho()).isEqualTo(3);
+
+        Patient renomeado = new Patient();
+        renomeado.setId(tania);
+        renomeado.setNomeCompleto("Tânia Bezerra");
+        busca.registrar(renomeado);
+        assertThat(busca.buscar("alves")).isEmpty();
+        assertThat(busca.buscar("bezerra")).containsExactly(tania);
+
+        Patient removido = new Patient();
+        removido.setId(mariana);
+        busca.remover(removido);
+        assertThat(busca.buscar("maria")).containsExactly(anaMaria);
+
+        verify(patientRepository, times(1)).findAllProjectedBy();
+    }
+
+    private static PatientRepository.NomeNormalizado nome(UUID id, String nome) {
+        return new PatientRepository.NomeNormalizado() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getNomeNormalizado() {
+                return nome;
+            }
+        };
+    }
+}
@@ -0,0 +1,307 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.CalendarioOutbox;
+import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
+import br.com.clinicahumaniza.patient_service.repository.CalendarioOutboxRepository;
+import br.com.clinicahumaniza.patient_service.service.GoogleCalendarService.ResultadoLote;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarioOutboxDispatcherTest {
+
+    @Mock
+    private CalendarioOutboxRepository outboxRepository;
+
+    @Mock
+    private AgendamentoRepository agendamentoRepository;
+
+    @Mock
+    private GoogleCalendarService googleCalendarService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CalendarioOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new CalendarioOutboxDispatcher(
+                outboxRepository, agendamentoRepository, googleCalendarService, jdbcTemplate, false, 100, 50);
+    }
+
+    private Agendamento agendamento() {
+        Agendamento a = new Agendamento();
+        a.setId(UUID.randomUUID());
+        return a;
+    }
+
+    private CalendarioOutbox pendencia(UUID agendamentoId) {
+        CalendarioOutbox p = new CalendarioOutbox();
+        p.setId(UUID.randomUUID());
+        p.setAgendamentoId(agendamentoId);
+        p.setCreatedAt(LocalDateTime.now().minusSeconds(10));
+        return p;
+    }
+
+    private void filaCom(CalendarioOutbox... pendencias) {
+        when(outboxRepository.findByTentativasLessThanAndProximaTentativaEmLessThanEqualOrderByCreatedAtAsc(
+                        anyInt(), any(), any()))
+                .thenReturn(List.of(pendencias));
+    }
+
+    // Ativos pela query com graph, excluídos pela nativa — como no banco.
+    @SuppressWarnings("unchecked")
+    private void noBanco(Agendamento... agendamentos) {
+        when(agendamentoRepository.findParaCalendarioByIdIn(any())).thenAnswer(inv -> {
+            Collection<UUID> ids = inv.getArgument(0);
+            return Arrays.stream(agendamentos)
+                    .filter(a -> a.isAtivo() && ids.contains(a.getId()))
+                    .toList();
+        });
+        lenient()
+                .when(agendamentoRepository.findAllByIdIncluindoInativos(any()))
+                .thenAnswer(inv -> {
+                    Collection<UUID> ids = inv.getArgument(0);
+                    return Arrays.stream(agendamentos)
+                            .filter(a -> ids.contains(a.getId()))
+                            .toList();
+                });
+    }
+
+    private static GoogleJsonResponseException erroGoogle(int status) {
+        return new GoogleJsonResponseException(
+                new HttpResponseException.Builder(status, "erro", new HttpHeaders()), null);
+    }
+
+    @Test
+    @DisplayName("Várias alterações do mesmo agendamento viram uma única sincronização")
+    void drenar_AgrupaPorAgendamento() throws IOException {
+        Agendamento ag = agendamento();
+        CalendarioOutbox criado = pendencia(ag.getId());
+        CalendarioOutbox remarcado = pendencia(ag.getId());
+        CalendarioOutbox cancelado = pendencia(ag.getId());
+        filaCom(criado, remarcado, cancelado);
+        noBanco(ag);
+
+        dispatcher.drenar();
+
+        verify(googleCalendarService, times(1)).sincronizar(ag);
+        verify(googleCalendarService, never()).sincronizarEmLote(any());
+        verify(outboxRepository).deleteAllInBatch(List.of(criado, remarcado, cancelado));
+    }
+
+    @Test
+    @DisplayName("Agendamento apagado do banco: descarta a pendência sem chamar o Google")
+    void drenar_AgendamentoInexistente_Descarta() {
+        CalendarioOutbox p = pendencia(UUID.randomUUID());
+        filaCom(p);
+        noBanco();
+
+        dispatcher.drenar();
+
+        verifyNoInteractions(googleCalendarService);
+        verify(outboxRepository).deleteAllInBatch(List.of(p));
+    }
+
+    @Test
+    @DisplayName("Vários agendamentos vão numa única chamada em lote")
+    void drenar_VariosAgendamentos_UsaLote() throws IOException {
+        Agendamento a1 = agendamento();
+        Agendamento a2 = agendamento();
+        Agendamento a3 = agendamento();
+        filaCom(pendencia(a1.getId()), pendencia(a2.getId()), pendencia(a3.getId()));
+        noBanco(a1, a2, a3);
+        when(googleCalendarService.sincronizarEmLote(any())).thenReturn(new ResultadoLote(Map.of(), false));
+
+        dispatcher.drenar();
+
+        verify(googleCalendarService).sincronizarEmLote(List.of(a1, a2, a3));
+        verify(googleCalendarService, never()).sincronizar(any());
+    }
+
+    @Test
+    @DisplayName("Falha de um agendamento no lote reagenda só ele, com backoff")
+    void drenar_FalhaParcial_ReagendaSoOAfetado() throws IOException {
+        Agendamento falha = agendamento();
+        Agendamento ok = agendamento();
+        CalendarioOutbox pFalha = pendencia(falha.getId());
+        CalendarioOutbox pOk = pendencia(ok.getId());
+        filaCom(pFalha, pOk);
+        noBanco(falha, ok);
+        when(googleCalendarService.sincronizarEmLote(any()))
+                .thenReturn(new ResultadoLote(Map.of(falha.getId(), "500 indisponível"), false));
+
+        LocalDateTime antes = LocalDateTime.now();
+        dispatcher.drenar();
+
+        assertThat(pFalha.getTentativas()).isEqualTo(1);
+        assertThat(pFalha.getUltimoErro()).isEqualTo("500 indisponível");
+        assertThat(pFalha.getProximaTentativaEm()).isAfterOrEqualTo(antes.plusSeconds(5));
+        verify(outboxRepository).saveAll(List.of(pFalha));
+        verify(outboxRepository).deleteAllInBatch(List.of(pOk));
+    }
+
+    @Test
+    @DisplayName("Requisição em lote inteira falhando reagenda todos os agendamentos da rodada")
+    void drenar_FalhaDoLoteInteiro() throws IOException {
+        Agendamento a1 = agendamento();
+        Agendamento a2 = agendamento();
+        CalendarioOutbox p1 = pendencia(a1.getId());
+        CalendarioOutbox p2 = pendencia(a2.getId());
+        filaCom(p1, p2);
+        noBanco(a1, a2);
+        when(googleCalendarService.sincronizarEmLote(any())).thenThrow(new IOException("timeout"));
+
+        dispatcher.drenar();
+
+        assertThat(p1.getTentativas()).isEqualTo(1);
+        assertThat(p2.getTentativas()).isEqualTo(1);
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    @DisplayName("Limite de uso (429) pausa o dispatcher e reduz o lote pela metade")
+    void drenar_LimiteDeUso_PausaEReduzLote() throws IOException {
+        Agendamento a1 = agendamento();
+        Agendamento a2 = agendamento();
+        filaCom(pendencia(a1.getId()), pendencia(a2.getId()));
+        noBanco(a1, a2);
+        when(googleCalendarService.sincronizarEmLote(any()))
+                .thenReturn(new ResultadoLote(Map.of(a2.getId(), "429 rateLimitExceeded"), true));
+
+        dispatcher.drenar();
+        dispatcher.drenar();
+
+        assertThat(dispatcher.loteAtual()).isEqualTo(25);
+        // A rodada seguinte nem consulta a fila.
+        verify(outboxRepository, times(1))
+                .findByTentativasLessThanAndProximaTentativaEmLessThanEqualOrderByCreatedAtAsc(anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("429 na chamada individual também pausa o dispatcher")
+    void drenar_LimiteDeUsoIndividual_Pausa() throws IOException {
+        Agendamento ag = agendamento();
+        filaCom(pendencia(ag.getId()));
+        noBanco(ag);
+        doThrow(erroGoogle(429)).when(googleCalendarService).sincronizar(ag);
+
+        dispatcher.drenar();
+
+        assertThat(dispatcher.loteAtual()).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("Rodadas sem falha fazem o lote voltar a crescer até o máximo")
+    void drenar_SemFalhas_LoteCresce() throws IOException {
+        Agendamento a1 = agendamento();
+        Agendamento a2 = agendamento();
+        filaCom(pendencia(a1.getId()), pendencia(a2.getId()));
+        noBanco(a1, a2);
+        when(googleCalendarService.sincronizarEmLote(any()))
+                .thenReturn(new ResultadoLote(Map.of(a1.getId(), "429 rateLimitExceeded"), true))
+                .thenReturn(new ResultadoLote(Map.of(), false));
+
+        dispatcher.drenar();
+        assertThat(dispatcher.loteAtual()).isEqualTo(25);
+        // Encerra a pausa sem esperar o backoff.
+        ReflectionTestUtils.setField(dispatcher, "pausadoAte", LocalDateTime.MIN);
+        dispatcher.drenar();
+
+        assertThat(dispatcher.loteAtual()).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("Sem fichas no limite por segundo, o restante fica para a próxima rodada")
+    void drenar_RespeitaLimitePorSegundo() throws IOException {
+        dispatcher = new CalendarioOutboxDispatcher(
+                outboxRepository, agendamentoRepository, googleCalendarService, jdbcTemplate, false, 2, 2);
+        Agendamento a1 = agendamento();
+        Agendamento a2 = agendamento();
+        Agendamento a3 = agendamento();
+        filaCom(pendencia(a1.getId()), pendencia(a2.getId()), pendencia(a3.getId()));
+        noBanco(a1, a2, a3);
+        when(googleCalendarService.sincronizarEmLote(any())).thenReturn(new ResultadoLote(Map.of(), false));
+
+        dispatcher.drenar();
+
+        verify(googleCalendarService).sincronizarEmLote(List.of(a1, a2));
+        verify(outboxRepository).deleteAllInBatch(argThat(l -> ((List<?>) l).size() == 2));
+    }
+
+    @Test
+    @DisplayName("Distribuído: sem o lock de líder, a instância pula a rodada")
+    void drenar_Distribuido_OutraInstanciaDrena() throws Exception {
+        Connection conexao = conexaoComLider(false);
+        dispatcher = new CalendarioOutboxDispatcher(
+                outboxRepository, agendamentoRepository, googleCalendarService, jdbcTemplate, true, 100, 50);
+
+        dispatcher.drenar();
+
+        verifyNoInteractions(outboxRepository, googleCalendarService);
+        verify(conexao).rollback();
+    }
+
+    @Test
+    @DisplayName("Distribuído: com o lock de líder, drena e solta o lock ao fim da rodada")
+    void drenar_Distribuido_Lider() throws Exception {
+        Connection conexao = conexaoComLider(true);
+        dispatcher = new CalendarioOutboxDispatcher(
+                outboxRepository, agendamentoRepository, googleCalendarService, jdbcTemplate, true, 100, 50);
+        Agendamento a1 = agendamento();
+        filaCom(pendencia(a1.getId()));
+        noBanco(a1);
+
+        dispatcher.drenar();
+
+        verify(googleCalendarService).sincronizar(a1);
+        verify(conexao).rollback();
+        verify(conexao).setAutoCommit(true);
+    }
+
+    // Conexão em que pg_try_advisory_xact_lock devolve o valor dado.
+    @SuppressWarnings("unchecked")
+    private Connection conexaoComLider(boolean lider) throws Exception {
+        Connection conexao = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(conexao.getAutoCommit()).thenReturn(true);
+        when(conexao.prepareStatement(contains("pg_try_advisory_xact_lock"))).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getBoolean(1)).thenReturn(lider);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(inv -> ((ConnectionCallback<?>) inv.getArgument(0)).doInConnection(conexao));
+        return conexao;
+    }
+}
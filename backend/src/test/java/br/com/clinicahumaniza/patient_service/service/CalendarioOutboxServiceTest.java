@@ -0,0 +1,57 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.CalendarioOutbox;
+import br.com.clinicahumaniza.patient_service.repository.CalendarioOutboxRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarioOutboxServiceTest {
+
+    @Mock
+    private CalendarioOutboxRepository outboxRepository;
+
+    @Test
+    @DisplayName("Grava uma pendência por agendamento")
+    @SuppressWarnings("unchecked")
+    void registrarTodos_GravaPendencias() {
+        CalendarioOutboxService service = new CalendarioOutboxService(outboxRepository, true);
+        Agendamento a1 = new Agendamento();
+        a1.setId(UUID.randomUUID());
+        Agendamento a2 = new Agendamento();
+        a2.setId(UUID.randomUUID());
+
+        service.registrarTodos(List.of(a1, a2));
+
+        ArgumentCaptor<List<CalendarioOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAll(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(CalendarioOutbox::getAgendamentoId)
+                .containsExactly(a1.getId(), a2.getId());
+    }
+
+    @Test
+    @DisplayName("Integração desligada: não enfileira nada")
+    void registrar_IntegracaoDesligada_NaoFaz() {
+        CalendarioOutboxService service = new CalendarioOutboxService(outboxRepository, false);
+        Agendamento a = new Agendamento();
+        a.setId(UUID.randomUUID());
+
+        service.registrar(a);
+
+        verify(outboxRepository, never()).saveAll(anyList());
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.Assinatura;
+import br.com.clinicahumaniza.patient_service.model.Pagamento;
+import br.com.clinicahumaniza.patient_service.model.Parcela;
+import br.com.clinicahumaniza.patient_service.model.StatusAssinatura;
+import br.com.clinicahumaniza.patient_service.model.StatusPagamento;
+import br.com.clinicahumaniza.patient_service.model.StatusParcela;
+import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
+import br.com.clinicahumaniza.patient_service.repository.AssinaturaRepository;
+import br.com.clinicahumaniza.patient_service.repository.PagamentoRepository;
+import br.com.clinicahumaniza.patient_service.repository.ParcelaRepository;
+
+class DashboardContadoresTest {
+
+    private final UUID agendamentoHoje = UUID.randomUUID();
+    private final UUID pagamentoAberto = UUID.randomUUID();
+    private final UUID assinaturaAtiva = UUID.randomUUID();
+
+    private AgendamentoRepository agendamentoRepository;
+    private DashboardContadores contadores;
+
+    @BeforeEach
+    void setUp() {
+        agendamentoRepository = mock(AgendamentoRepository.class);
+        PagamentoRepository pagamentoRepository = mock(PagamentoRepository.class);
+        ParcelaRepository parcelaRepository = mock(ParcelaRepository.class);
+        AssinaturaRepository assinaturaRepository = mock(AssinaturaRepository.class);
+        PacienteAutocompleteIndex pacientes = mock(PacienteAutocompleteIndex.class);
+
+        when(agendamentoRepository.findDoDia(any(), any())).thenReturn(List.of(doDia(agendamentoHoje)));
+        when(pagamentoRepository.findIdsByStatusIn(DashboardContadores.STATUS_EM_ABERTO))
+                .thenReturn(List.of(pagamentoAberto));
+        when(assinaturaRepository.findIdsByStatus(StatusAssinatura.ATIVO)).thenReturn(List.of(assinaturaAtiva));
+        when(parcelaRepository.sumParcelasPagasPorPagamentoBetween(any(), any()))
+                .thenReturn(List.of(receita(pagamentoAberto, "100.00")));
+        when(pacientes.totalAtivos()).thenReturn(7);
+
+        contadores = new DashboardContadores(
+                agendamentoRepository, pagamentoRepository, parcelaRepository, assinaturaRepository, pacientes);
+    }
+
+    @Test
+    @DisplayName("Carrega as contagens do banco uma vez e reaproveita nas leituras seguintes")
+    void contagem_CarregaUmaVez() {
+        DashboardContadores.Contagem c = contadores.contagem();
+
+        assertThat(c.pacientesAtivos()).isEqualTo(7);
+        assertThat(c.agendamentosHoje()).isEqualTo(1);
+        assertThat(c.agendamentosHojeConfidenciais()).isZero();
+        assertThat(c.pagamentosEmAberto()).isEqualTo(1);
+        assertThat(c.assinaturasAtivas()).isEqualTo(1);
+        assertThat(c.receitaMes()).isEqualByComparingTo("100.00");
+
+        contadores.contagem();
+        verify(agendamentoRepository, times(1)).findDoDia(any(), any());
+    }
+
+    @Test
+    @DisplayName("Agendamento entra e sai do card de hoje, sem contar duas vezes")
+    void registrarAgendamento_Idempotente() {
+        contadores.contagem();
+
+        Agendamento novo = agendamento(UUID.randomUUID(), LocalDateTime.now());
+        contadores.registrar(novo);
+        contadores.registrar(novo);
+        assertThat(contadores.contagem().agendamentosHoje()).isEqualTo(2);
+
+        novo.setDataHora(LocalDateTime.now().plusDays(1));
+        contadores.registrar(novo);
+        Agendamento excluido = agendamento(agendamentoHoje, LocalDateTime.now());
+        excluido.setAtivo(false);
+        contadores.registrar(excluido);
+        assertThat(contadores.contagem().agendamentosHoje()).isZero();
+    }
+
+    @Test
+    @DisplayName("Pagamento quitado sai dos em aberto e a receita do mês segue as parcelas pagas")
+    void registrarPagamento_AtualizaAbertoEReceita() {
+        contadores.contagem();
+
+        Pagamento pagamento = new Pagamento();
+        pagamento.setId(pagamentoAberto);
+        pagamento.setStatus(StatusPagamento.PAGO);
+        pagamento.setParcelas(new ArrayList<>(List.of(
+                parcela("100.00", LocalDateTime.now()),
+                parcela("50.00", LocalDateTime.now()),
+                parcela("80.00", LocalDateTime.now().minusMonths(2)))));
+        contadores.registrar(pagamento);
+        contadores.registrar(pagamento);
+
+        DashboardContadores.Contagem c = contadores.contagem();
+        assertThat(c.pagamentosEmAberto()).isZero();
+        assertThat(c.receitaMes()).isEqualByComparingTo("150.00");
+    }
+
+    @Test
+    @DisplayName("Assinatura cancelada sai das ativas; invalidar recarrega do banco")
+    void registrarAssinatura_EInvalidar() {
+        contadores.contagem();
+
+        Assinatura assinatura = new Assinatura();
+        assinatura.setId(assinaturaAtiva);
+        assinatura.setStatus(StatusAssinatura.CANCELADO);
+        contadores.registrar(assinatura);
+        assertThat(contadores.contagem().assinaturasAtivas()).isZero();
+
+        contadores.invalidar();
+        assertThat(contadores.contagem().assinaturasAtivas()).isEqualTo(1);
+        verify(agendamentoRepository, times(2)).findDoDia(any(), any());
+    }
+
+    private static Agendamento agendamento(UUID id, LocalDateTime dataHora) {
+        Agendamento a = new Agendamento();
+        a.setId(id);
+        a.setDataHora(dataHora);
+        return a;
+    }
+
+    private static Parcela parcela(String valor, LocalDateTime dataPagamento) {
+        Parcela p = new Parcela();
+        p.setValor(new BigDecimal(valor));
+        p.setStatus(StatusParcela.PAGO);
+        p.setDataPagamento(dataPagamento);
+        return p;
+    }
+
+    private static AgendamentoRepository.AgendamentoDoDia doDia(UUID id) {
+        return new AgendamentoRepository.AgendamentoDoDia() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getAtividade() {
+                return "Pilates";
+            }
+
+            @Override
+            public String getProfissionalEmail() {
+                return "prof@test.com";
+            }
+        };
+    }
+
+    private static ParcelaRepository.ReceitaPorPagamento receita(UUID pagamentoId, String total) {
+        return new ParcelaRepository.ReceitaPorPagamento() {
+            @Override
+            public UUID getPagamentoId() {
+                return pagamentoId;
+            }
+
+            @Override
+            public BigDecimal getTotal() {
+                return new BigDecimal(total);
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@DisplayName("DocumentStorageLocal")
+class DocumentStorageLocalTest {
+
+    @TempDir
+    Path raiz;
+
+    private Instant agora = Instant.parse("2026-03-10T12:00:00Z");
+    private DocumentStorageLocal storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Clock relogio = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return agora;
+            }
+        };
+        storage = new DocumentStorageLocal(raiz, "", relogio);
+    }
+
+    @Test
+    @DisplayName("Grava e lê de volta o conteúdo, com tamanho e SHA-256")
+    void upload_Abrir() throws IOException {
+        DocumentStorage.ArquivoEnviado enviado = enviar("p1/a_exame.pdf", "conteudo do exame");
+
+        assertThat(enviado.tamanhoBytes()).isEqualTo(17);
+        assertThat(enviado.sha256()).hasSize(64);
+        assertThat(ler("p1/a_exame.pdf")).isEqualTo("conteudo do exame");
+        assertThat(storage.contentType("p1/a_exame.pdf")).isEqualTo("application/pdf");
+    }
+
+    @Test
+    @DisplayName("Mesmo conteúdo em dois paths ocupa o disco uma vez e só sai com o último")
+    void upload_Deduplica() throws IOException {
+        enviar("p1/a.pdf", "mesmo exame");
+        enviar("p2/b.pdf", "mesmo exame");
+        assertThat(objetos()).hasSize(1);
+
+        storage.delete("p1/a.pdf");
+        assertThatThrownBy(() -> storage.abrir("p1/a.pdf")).isInstanceOf(NoSuchFileException.class);
+        assertThat(ler("p2/b.pdf")).isEqualTo("mesmo exame");
+        assertThat(objetos()).hasSize(1);
+
+        storage.delete("p2/b.pdf");
+        assertThat(objetos()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Reenviar para o mesmo path troca o conteúdo e solta o anterior")
+    void upload_Sobrescreve() throws IOException {
+        enviar("p1/a.pdf", "versao 1");
+        enviar("p1/a.pdf", "versao 2");
+
+        assertThat(ler("p1/a.pdf")).isEqualTo("versao 2");
+        assertThat(objetos()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("URL assinada vale até expirar e não serve para outro path")
+    void getSignedUrls_AssinaturaEPrazo() throws IOException {
+        enviar("p1/a b.pdf", "x");
+
+        Map<String, String> urls = storage.getSignedUrls(List.of("p1/a b.pdf", "p1/inexistente.pdf"));
+
+        assertThat(urls).containsOnlyKeys("p1/a b.pdf");
+        UriComponents url =
+                UriComponentsBuilder.fromUriString(urls.get("p1/a b.pdf")).build(true);
+        assertThat(url.getPath()).isEqualTo(DocumentStorageLocal.ENDPOINT);
+        long expira = Long.parseLong(url.getQueryParams().getFirst("expira"));
+        String assinatura = url.getQueryParams().getFirst("assinatura");
+
+        assertThat(storage.validar("p1/a b.pdf", expira, assinatura)).isTrue();
+        assertThat(storage.validar("p1/outro.pdf", expira, assinatura)).isFalse();
+        assertThat(storage.validar("p1/a b.pdf", expira + 1, assinatura)).isFalse();
+
+        agora = agora.plus(Duration.ofSeconds(DocumentStorage.EXPIRACAO_URL_SEGUNDOS + 1));
+        assertThat(storage.validar("p1/a b.pdf", expira, assinatura)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Recusa path que sairia da pasta de documentos")
+    void upload_PathTraversal() {
+        assertThatThrownBy(() -> enviar("../fora.pdf", "x")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> storage.abrir("p1/../../fora.pdf")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private DocumentStorage.ArquivoEnviado enviar(String path, String conteudo) throws IOException {
+        return storage.upload(path, new ByteArrayResource(conteudo.getBytes()), "application/pdf");
+    }
+
+    private String ler(String path) throws IOException {
+        try (InputStream in = storage.abrir(path)) {
+            return new String(in.readAllBytes());
+        }
+    }
+
+    private List<Path> objetos() throws IOException {
+        try (Stream<Path> arquivos = Files.walk(raiz.resolve("objetos"))) {
+            return arquivos.filter(Files::isRegularFile)
+                    .filter(p -> !p.getParent().getFileName().toString().endsWith(".refs"))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("DocumentoCache")
+class DocumentoCacheTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private DocumentStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = mock(DocumentStorage.class);
+        when(storage.abrir("a")).thenAnswer(inv -> conteudo(MB, 'a'));
+        when(storage.abrir("b")).thenAnswer(inv -> conteudo(MB, 'b'));
+        when(storage.abrir("c")).thenAnswer(inv -> conteudo(MB, 'c'));
+        when(storage.abrir("grande")).thenAnswer(inv -> conteudo(3 * MB, 'g'));
+    }
+
+    @Test
+    @DisplayName("Segunda leitura vem do disco, sem ir ao Storage")
+    void abrir_ReadThrough() throws IOException {
+        DocumentoCache cache = new DocumentoCache(storage, dir.toString(), 2);
+
+        assertThat(ler(cache, "a")).hasSize(MB).startsWith("aaa");
+        assertThat(ler(cache, "a")).hasSize(MB).startsWith("aaa");
+
+        verify(storage, times(1)).abrir("a");
+        assertThat(cache.totalBytes()).isEqualTo(MB);
+    }
+
+    @Test
+    @DisplayName("Passando do limite, descarta o menos usado recentemente")
+    void abrir_DescartaLru() throws IOException {
+        DocumentoCache cache = new DocumentoCache(storage, dir.toString(), 2);
+
+        ler(cache, "a");
+        ler(cache, "b");
+        ler(cache, "a"); // "b" passa a ser o menos usado
+        ler(cache, "c");
+
+        assertThat(cache.contem("a")).isTrue();
+        assertThat(cache.contem("b")).isFalse();
+        assertThat(cache.contem("c")).isTrue();
+        assertThat(cache.totalBytes()).isEqualTo(2L * MB);
+        assertThat(arquivosNoCache()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Arquivo maior que o limite é servido sem ocupar o cache")
+    void abrir_MaiorQueLimite() throws IOException {
+        DocumentoCache cache = new DocumentoCache(storage, dir.toString(), 2);
+
+        assertThat(ler(cache, "grande")).hasSize(3 * MB);
+
+        assertThat(cache.contem("grande")).isFalse();
+        assertThat(cache.totalBytes()).isZero();
+        assertThat(arquivosNoCache()).isZero();
+    }
+
+    @Test
+    @DisplayName("Remover força buscar de novo; arquivo inexistente propaga NoSuchFileException")
+    void remover_EInexistente() throws IOException {
+        DocumentoCache cache = new DocumentoCache(storage, dir.toString(), 2);
+        when(storage.abrir("sumiu")).thenThrow(new NoSuchFileException("sumiu"));
+
+        ler(cache, "a");
+        cache.remover("a");
+        ler(cache, "a");
+
+        verify(storage, times(2)).abrir("a");
+        assertThatThrownBy(() -> cache.abrir("sumiu")).isInstanceOf(NoSuchFileException.class);
+        assertThat(arquivosNoCache()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Com max-mb=0 só repassa ao Storage")
+    void abrir_Desligado() throws IOException {
+        DocumentoCache cache = new DocumentoCache(storage, dir.toString(), 0);
+
+        ler(cache, "a");
+        ler(cache, "a");
+
+        verify(storage, times(2)).abrir("a");
+        assertThat(arquivosNoCache()).isZero();
+    }
+
+    private static String ler(DocumentoCache cache, String path) throws IOException {
+        try (InputStream in = cache.abrir(path)) {
+            return new String(in.readAllBytes());
+        }
+    }
+
+    private static InputStream conteudo(int tamanho, char c) {
+        return new ByteArrayInputStream(String.valueOf(c).repeat(tamanho).getBytes());
+    }
+
+    private long arquivosNoCache() throws IOException {
+        try (Stream<Path> arquivos = Files.list(dir)) {
+            return arquivos.count();
+        }
+    }
+}
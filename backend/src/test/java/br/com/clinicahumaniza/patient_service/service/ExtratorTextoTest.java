@@ -0,0 +1,112 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ExtratorTexto")
+class ExtratorTextoTest {
+
+    private final ExtratorTexto extrator = new ExtratorTexto(1000);
+
+    @Test
+    @DisplayName("Extrai a camada de texto do PDF")
+    void extrair_Pdf() throws IOException {
+        String texto = extrator.extrair(
+                new ByteArrayInputStream(pdf("Hemograma completo", "Plaquetas normais")), "application/pdf");
+
+        assertThat(texto).contains("Hemograma completo").contains("Plaquetas normais");
+    }
+
+    @Test
+    @DisplayName("Extrai os parágrafos do DOCX, um por linha")
+    void extrair_Docx() throws IOException {
+        byte[] docx = docx("<w:p><w:r><w:t>Relatório de</w:t></w:r><w:r><w:t xml:space=\"preserve\"> evolução</w:t>"
+                + "</w:r></w:p><w:p><w:r><w:t>Sessão 12</w:t></w:r></w:p>");
+
+        String texto = extrator.extrair(new ByteArrayInputStream(docx), ExtratorTexto.DOCX);
+
+        assertThat(texto).isEqualTo("Relatório de evolução\nSessão 12\n");
+    }
+
+    @Test
+    @DisplayName("Corta no limite de caracteres")
+    void extrair_Limite() throws IOException {
+        String paragrafo = "<w:p><w:r><w:t>" + "a".repeat(300) + "</w:t></w:r></w:p>";
+
+        String texto = extrator.extrair(new ByteArrayInputStream(docx(paragrafo.repeat(10))), ExtratorTexto.DOCX);
+
+        assertThat(texto).hasSize(1000);
+    }
+
+    @Test
+    @DisplayName("DOCX sem document.xml é ilegível")
+    void extrair_DocxInvalido() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(saida)) {
+            zip.putNextEntry(new ZipEntry("outro.xml"));
+        }
+
+        assertThatThrownBy(() -> extrator.extrair(new ByteArrayInputStream(saida.toByteArray()), ExtratorTexto.DOCX))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Só PDF e DOCX têm extração")
+    void suporta() {
+        assertThat(ExtratorTexto.suporta("application/pdf")).isTrue();
+        assertThat(ExtratorTexto.suporta(ExtratorTexto.DOCX)).isTrue();
+        assertThat(ExtratorTexto.suporta("application/msword")).isFalse();
+        assertThat(ExtratorTexto.suporta("image/png")).isFalse();
+        assertThat(ExtratorTexto.suporta(null)).isFalse();
+    }
+
+    static byte[] pdf(String... linhas) throws IOException {
+        try (PDDocument doc = new PDDocument()) {
+            PDPage pagina = new PDPage(PDRectangle.A4);
+            doc.addPage(pagina);
+            try (PDPageContentStream conteudo = new PDPageContentStream(doc, pagina)) {
+                conteudo.beginText();
+                conteudo.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                conteudo.newLineAtOffset(50, 750);
+                for (String linha : linhas) {
+                    conteudo.showText(linha);
+                    conteudo.newLineAtOffset(0, -16);
+                }
+                conteudo.endText();
+            }
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+            doc.save(saida);
+            return saida.toByteArray();
+        }
+    }
+
+    private static byte[] docx(String corpo) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(saida)) {
+            zip.putNextEntry(new ZipEntry("[Content_Types].xml"));
+            zip.write("<Types/>".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            zip.write(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                            + "<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">"
+                            + "<w:body>" + corpo + "</w:body></w:document>")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.clinicahumaniza.patient_service.model.Feriado;
+import br.com.clinicahumaniza.patient_service.repository.FeriadoRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FeriadoCalendarTest {
+
+    @Mock
+    private FeriadoRepository feriadoRepository;
+
+    private FeriadoCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new FeriadoCalendar(feriadoRepository);
+    }
+
+    private static Feriado feriado(LocalDate data, boolean recorrente) {
+        Feriado f = new Feriado();
+        f.setData(data);
+        f.setRecorrente(recorrente);
+        return f;
+    }
+
+    @Test
+    @DisplayName("Data fixa só vale no próprio dia; recorrente vale todo ano")
+    void fixosERecorrentes() {
+        when(feriadoRepository.findAll())
+                .thenReturn(List.of(
+                        feriado(LocalDate.of(2026, 2, 17), false), // carnaval
+                        feriado(LocalDate.of(2020, 12, 25), true)));
+
+        assertThat(calendar.isFeriado(LocalDate.of(2026, 2, 17))).isTrue();
+        assertThat(calendar.isFeriado(LocalDate.of(2027, 2, 17))).isFalse();
+        assertThat(calendar.isFeriado(LocalDate.of(2026, 2, 16))).isFalse();
+        assertThat(calendar.isFeriado(LocalDate.of(2019, 12, 25))).isTrue();
+        assertThat(calendar.isFeriado(LocalDate.of(2031, 12, 25))).isTrue();
+        assertThat(calendar.isFeriado(LocalDate.of(2031, 12, 24))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Recorrente em março não escorrega de dia em ano bissexto")
+    void recorrenteEmAnoBissexto() {
+        when(feriadoRepository.findAll()).thenReturn(List.of(feriado(LocalDate.of(2023, 3, 19), true)));
+
+        assertThat(calendar.isFeriado(LocalDate.of(2024, 3, 19))).isTrue();
+        assertThat(calendar.isFeriado(LocalDate.of(2024, 3, 18))).isFalse();
+    }
+
+    @Test
+    @DisplayName("feriadosEntre devolve fixos e recorrentes do período em ordem")
+    void feriadosEntre() {
+        when(feriadoRepository.findAll())
+                .thenReturn(List.of(
+                        feriado(LocalDate.of(2026, 11, 20), false),
+                        feriado(LocalDate.of(2000, 11, 2), true),
+                        feriado(LocalDate.of(2000, 11, 15), true)));
+
+        assertThat(calendar.feriadosEntre(LocalDate.of(2026, 11, 1), LocalDate.of(2026, 11, 30)))
+                .containsExactly(LocalDate.of(2026, 11, 2), LocalDate.of(2026, 11, 15), LocalDate.of(2026, 11, 20));
+    }
+
+    @Test
+    @DisplayName("Carrega do banco uma vez e recarrega só depois de invalidar")
+    void carregaUmaVez() {
+        when(feriadoRepository.findAll())
+                .thenReturn(List.of())
+                .thenReturn(List.of(feriado(LocalDate.of(2026, 9, 7), true)));
+
+        LocalDate independencia = LocalDate.of(2026, 9, 7);
+        assertThat(calendar.isFeriado(independencia)).isFalse();
+        assertThat(calendar.isFeriado(independencia)).isFalse();
+        verify(feriadoRepository, times(1)).findAll();
+
+        calendar.invalidar();
+
+        assertThat(calendar.isFeriado(independencia)).isTrue();
+        verify(feriadoRepository, times(2)).findAll();
+    }
+}
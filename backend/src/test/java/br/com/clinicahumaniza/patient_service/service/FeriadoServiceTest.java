@@ -0,0 +1,64 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.clinicahumaniza.patient_service.exception.BusinessException;
+import br.com.clinicahumaniza.patient_service.mapper.FeriadoMapper;
+import br.com.clinicahumaniza.patient_service.repository.FeriadoRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FeriadoServiceTest {
+
+    @Mock
+    private FeriadoRepository feriadoRepository;
+
+    @Mock
+    private FeriadoMapper feriadoMapper;
+
+    @Mock
+    private FeriadoCalendar feriadoCalendar;
+
+    @InjectMocks
+    private FeriadoService feriadoService;
+
+    @Test
+    @DisplayName("Período dentro do limite vai ao calendário")
+    void getFeriadosEntre_DentroDoLimite() {
+        LocalDate inicio = LocalDate.of(2030, 1, 1);
+        LocalDate fim = inicio.plusYears(FeriadoService.MAX_ANOS_PERIODO);
+        when(feriadoCalendar.feriadosEntre(inicio, fim)).thenReturn(List.of(inicio));
+
+        assertThat(feriadoService.getFeriadosEntre(inicio, fim)).containsExactly(inicio);
+    }
+
+    @Test
+    @DisplayName("Período acima do limite é recusado com 400, sem percorrer o calendário")
+    void getFeriadosEntre_PeriodoLongo() {
+        assertThatThrownBy(() -> feriadoService.getFeriadosEntre(LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31)))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode())
+                        .isEqualTo(HttpStatus.BAD_REQUEST));
+        verifyNoInteractions(feriadoCalendar);
+    }
+
+    @Test
+    @DisplayName("Data final antes da inicial continua sendo erro de regra de negócio")
+    void getFeriadosEntre_FimAntesDoInicio() {
+        assertThatThrownBy(() -> feriadoService.getFeriadosEntre(LocalDate.of(2030, 2, 1), LocalDate.of(2030, 1, 1)))
+                .isInstanceOf(BusinessException.class);
+        verifyNoInteractions(feriadoCalendar);
+    }
+}
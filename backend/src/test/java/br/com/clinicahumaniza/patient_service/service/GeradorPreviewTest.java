@@ -0,0 +1,109 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("GeradorPreview")
+class GeradorPreviewTest {
+
+    private final GeradorPreview gerador = new GeradorPreview(320);
+
+    @Test
+    @DisplayName("Reduz imagem grande para o lado maior da miniatura, mantendo a proporção")
+    void gerar_Imagem() throws IOException {
+        byte[] png = png(4000, 2000);
+
+        BufferedImage miniatura = ler(gerador.gerar(new ByteArrayInputStream(png), "image/png"));
+
+        assertThat(miniatura.getWidth()).isEqualTo(320);
+        assertThat(miniatura.getHeight()).isEqualTo(160);
+    }
+
+    @Test
+    @DisplayName("Imagem menor que a miniatura não é ampliada")
+    void gerar_ImagemPequena() throws IOException {
+        BufferedImage miniatura = ler(gerador.gerar(new ByteArrayInputStream(png(100, 50)), "image/png"));
+
+        assertThat(miniatura.getWidth()).isEqualTo(100);
+        assertThat(miniatura.getHeight()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Renderiza a primeira página do PDF no tamanho da miniatura")
+    void gerar_Pdf() throws IOException {
+        byte[] pdf;
+        try (PDDocument doc = new PDDocument()) {
+            PDPage pagina = new PDPage(PDRectangle.A4);
+            doc.addPage(pagina);
+            try (PDPageContentStream conteudo = new PDPageContentStream(doc, pagina)) {
+                conteudo.setNonStrokingColor(Color.BLUE);
+                conteudo.addRect(50, 50, 200, 300);
+                conteudo.fill();
+            }
+            doc.addPage(new PDPage(PDRectangle.A4));
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+            doc.save(saida);
+            pdf = saida.toByteArray();
+        }
+
+        byte[] jpeg = gerador.gerar(new ByteArrayInputStream(pdf), "application/pdf");
+
+        BufferedImage miniatura = ler(jpeg);
+        assertThat(miniatura.getHeight()).isEqualTo(320); // A4 é retrato
+        assertThat(miniatura.getWidth()).isBetween(225, 227);
+        assertThat(jpeg.length).isLessThan(pdf.length * 10).isLessThan(50_000);
+    }
+
+    @Test
+    @DisplayName("Conteúdo ilegível sobe como IOException")
+    void gerar_Corrompido() {
+        byte[] lixo = "isto não é um pdf".getBytes();
+
+        assertThatThrownBy(() -> gerador.gerar(new ByteArrayInputStream(lixo), "application/pdf"))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> gerador.gerar(new ByteArrayInputStream(lixo), "image/png"))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Só PDF, JPEG e PNG têm miniatura")
+    void suporta() {
+        assertThat(GeradorPreview.suporta("application/pdf")).isTrue();
+        assertThat(GeradorPreview.suporta("image/png")).isTrue();
+        assertThat(GeradorPreview.suporta("application/msword")).isFalse();
+        assertThat(GeradorPreview.suporta(null)).isFalse();
+    }
+
+    private static byte[] png(int largura, int altura) throws IOException {
+        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = imagem.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, largura / 2, altura);
+        g.dispose();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(imagem, "png", saida);
+        return saida.toByteArray();
+    }
+
+    private static BufferedImage ler(byte[] jpeg) throws IOException {
+        BufferedImage imagem = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertThat(imagem).as("JPEG válido").isNotNull();
+        return imagem;
+    }
+}
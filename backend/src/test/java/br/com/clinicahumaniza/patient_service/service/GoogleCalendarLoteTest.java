@@ -0,0 +1,170 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.clinicahumaniza.patient_service.model.*;
+import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
+import br.com.clinicahumaniza.patient_service.service.GoogleCalendarService.ResultadoLote;
+
+/** Sincronização em lote contra o {@link StubCalendarTransport} — sem rede. */
+@ExtendWith(MockitoExtension.class)
+class GoogleCalendarLoteTest {
+
+    private static final String CLINICA = "clinic@group.calendar.google.com";
+    private static final String AGENDA_PROFISSIONAL = "dr.ana@gmail.com";
+
+    @Mock
+    private AgendamentoRepository agendamentoRepository;
+
+    private StubCalendarTransport transporte;
+    private GoogleCalendarService service;
+
+    @BeforeEach
+    void setUp() {
+        transporte = new StubCalendarTransport();
+        service = new GoogleCalendarService(transporte.calendar(), agendamentoRepository);
+        ReflectionTestUtils.setField(service, "clinicCalendarId", CLINICA);
+    }
+
+    private Agendamento agendamento(String profCalendarId) {
+        Atividade atividade = new Atividade();
+        atividade.setNome("Pilates");
+        Plano plano = new Plano();
+        plano.setNome("Mensal");
+        Servico servico = new Servico();
+        servico.setAtividade(atividade);
+        servico.setPlano(plano);
+        Patient paciente = new Patient();
+        paciente.setNomeCompleto("Maria Santos");
+        Profissional profissional = new Profissional();
+        profissional.setGoogleCalendarId(profCalendarId);
+
+        Agendamento a = new Agendamento();
+        a.setId(UUID.randomUUID());
+        a.setPaciente(paciente);
+        a.setProfissional(profissional);
+        a.setServico(servico);
+        a.setDataHora(LocalDateTime.of(2030, 6, 3, 10, 0));
+        a.setDuracaoMinutos(50);
+        return a;
+    }
+
+    private List<Agendamento> agendamentos(int quantidade) {
+        List<Agendamento> lista = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) lista.add(agendamento(null));
+        return lista;
+    }
+
+    @Test
+    @DisplayName("Cria 120 eventos em 3 requisições HTTP (50 por lote) e grava os ids")
+    void criaEmPoucasRequisicoes() throws IOException {
+        List<Agendamento> novos = agendamentos(120);
+
+        ResultadoLote resultado = service.sincronizarEmLote(novos);
+
+        assertThat(resultado.falhas()).isEmpty();
+        assertThat(resultado.limiteAtingido()).isFalse();
+        assertThat(transporte.eventos(CLINICA)).hasSize(120);
+        assertThat(transporte.requisicoes()).isEqualTo(3);
+        assertThat(novos)
+                .allSatisfy(a -> assertThat(a.getGoogleCalendarEventId()).isNotNull());
+        verify(agendamentoRepository, times(120)).atualizarGoogleCalendarEventId(any(), any());
+    }
+
+    @Test
+    @DisplayName("Vazão: o mesmo volume um a um custa uma requisição por agendamento")
+    void comparaComSincronizacaoIndividual() throws IOException {
+        for (Agendamento a : agendamentos(120)) {
+            service.sincronizar(a);
+        }
+        int individuais = transporte.requisicoes();
+
+        StubCalendarTransport emLote = new StubCalendarTransport();
+        GoogleCalendarService serviceLote = new GoogleCalendarService(emLote.calendar(), agendamentoRepository);
+        ReflectionTestUtils.setField(serviceLote, "clinicCalendarId", CLINICA);
+        serviceLote.sincronizarEmLote(agendamentos(120));
+
+        assertThat(individuais).isEqualTo(120);
+        assertThat(emLote.requisicoes()).isEqualTo(3);
+        assertThat(emLote.operacoes()).isEqualTo(transporte.operacoes());
+    }
+
+    @Test
+    @DisplayName("Mistura criar, atualizar e remover; recria evento apagado direto no Google")
+    void reconciliaMisturaDeOperacoes() throws IOException {
+        Agendamento novo = agendamento(null);
+        Agendamento existente = agendamento(null);
+        existente.setGoogleCalendarEventId(transporte.criarEvento(CLINICA));
+        Agendamento apagadoNoGoogle = agendamento(null);
+        apagadoNoGoogle.setGoogleCalendarEventId("evt-sumiu");
+        Agendamento cancelado = agendamento(null);
+        String eventoCancelado = transporte.criarEvento(CLINICA);
+        cancelado.setGoogleCalendarEventId(eventoCancelado);
+        cancelado.setStatus(StatusAgendamento.CANCELADO);
+        Agendamento orfaoJaRemovido = agendamento(null);
+        orfaoJaRemovido.setGoogleCalendarEventId("evt-ja-removido");
+        orfaoJaRemovido.setAtivo(false);
+
+        ResultadoLote resultado =
+                service.sincronizarEmLote(List.of(novo, existente, apagadoNoGoogle, cancelado, orfaoJaRemovido));
+
+        assertThat(resultado.falhas()).isEmpty();
+        assertThat(novo.getGoogleCalendarEventId()).isNotNull();
+        assertThat(apagadoNoGoogle.getGoogleCalendarEventId()).isNotEqualTo("evt-sumiu");
+        assertThat(transporte.eventos(CLINICA))
+                .containsKeys(
+                        novo.getGoogleCalendarEventId(),
+                        existente.getGoogleCalendarEventId(),
+                        apagadoNoGoogle.getGoogleCalendarEventId())
+                .doesNotContainKey(eventoCancelado);
+        verify(agendamentoRepository).atualizarGoogleCalendarEventId(eq(cancelado.getId()), isNull());
+        verify(agendamentoRepository).atualizarGoogleCalendarEventId(eq(orfaoJaRemovido.getId()), isNull());
+        // Lote da clínica + lote da recriação.
+        assertThat(transporte.requisicoes()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Agenda do profissional só recebe o evento depois da clínica, em lote separado")
+    void agendaDoProfissional() throws IOException {
+        List<Agendamento> novos = List.of(agendamento(AGENDA_PROFISSIONAL), agendamento(AGENDA_PROFISSIONAL));
+
+        service.sincronizarEmLote(novos);
+
+        assertThat(transporte.eventos(CLINICA)).hasSize(2);
+        assertThat(transporte.eventos(AGENDA_PROFISSIONAL)).hasSize(2);
+        assertThat(transporte.requisicoes()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("429 em parte do lote: só os afetados falham e o limite é sinalizado")
+    void limiteDeUsoParcial() throws IOException {
+        transporte.limitarOperacoesPorRequisicao(3);
+        List<Agendamento> novos = agendamentos(5);
+
+        ResultadoLote resultado = service.sincronizarEmLote(novos);
+
+        assertThat(resultado.limiteAtingido()).isTrue();
+        assertThat(resultado.falhas())
+                .containsOnlyKeys(novos.get(3).getId(), novos.get(4).getId());
+        assertThat(transporte.eventos(CLINICA)).hasSize(3);
+        assertThat(novos.get(4).getGoogleCalendarEventId()).isNull();
+    }
+}
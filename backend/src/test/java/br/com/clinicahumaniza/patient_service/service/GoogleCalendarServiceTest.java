@@ -1,6 +1,7 @@
 package br.com.clinicahumaniza.patient_service.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -18,6 +19,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
 import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.Calendar.Events;
 import com.google.api.services.calendar.Calendar.Events.Delete;
@@ -95,12 +99,11 @@ class GoogleCalendarServiceTest {
         when(calendar.events()).thenReturn(events);
         when(events.insert(eq(CLINIC_CALENDAR_ID), any(Event.class))).thenReturn(insert);
         when(insert.execute()).thenReturn(createdEvent);
-        when(agendamentoRepository.save(any(Agendamento.class))).thenReturn(agendamento);
 
-        googleCalendarService.createEvent(agendamento);
+        googleCalendarService.sincronizar(agendamento);
 
         verify(events).insert(eq(CLINIC_CALENDAR_ID), any(Event.class));
-        verify(agendamentoRepository).save(agendamento);
+        verify(agendamentoRepository).atualizarGoogleCalendarEventId(agendamento.getId(), "event123");
         assertThat(agendamento.getGoogleCalendarEventId()).isEqualTo("event123");
     }
 
@@ -116,9 +119,8 @@ class GoogleCalendarServiceTest {
         when(calendar.events()).thenReturn(events);
         when(events.insert(any(String.class), any(Event.class))).thenReturn(insert);
         when(insert.execute()).thenReturn(createdEvent);
-        when(agendamentoRepository.save(any(Agendamento.class))).thenReturn(agendamento);
 
-        googleCalendarService.createEvent(agendamento);
+        googleCalendarService.sincronizar(agendamento);
 
         // Should insert twice: clinic + professional
         verify(events, times(2)).insert(any(String.class), any(Event.class));
@@ -127,16 +129,15 @@ class GoogleCalendarServiceTest {
     }
 
     @Test
-    @DisplayName("Deve tratar erro do Google Calendar sem lançar exceção")
-    void createEvent_IOException_DoesNotThrow() throws IOException {
+    @DisplayName("Erro do Google Calendar sobe para o dispatcher reagendar, sem gravar id")
+    void createEvent_IOException_Propaga() throws IOException {
         when(calendar.events()).thenReturn(events);
         when(events.insert(eq(CLINIC_CALENDAR_ID), any(Event.class))).thenReturn(insert);
         when(insert.execute()).thenThrow(new IOException("Google Calendar unavailable"));
 
-        // Should not throw - just log the error
-        googleCalendarService.createEvent(agendamento);
+        assertThatThrownBy(() -> googleCalendarService.sincronizar(agendamento)).isInstanceOf(IOException.class);
 
-        verify(agendamentoRepository, never()).save(any());
+        verify(agendamentoRepository, never()).atualizarGoogleCalendarEventId(any(), any());
     }
 
     @Test
@@ -152,22 +153,60 @@ class GoogleCalendarServiceTest {
                 .thenReturn(update);
         when(update.execute()).thenReturn(updatedEvent);
 
-        googleCalendarService.updateEvent(agendamento);
+        googleCalendarService.sincronizar(agendamento);
 
         verify(events).update(eq(CLINIC_CALENDAR_ID), eq("event123"), any(Event.class));
     }
 
     @Test
-    @DisplayName("Deve deletar evento do Google Calendar")
+    @DisplayName("Deve deletar evento do Google Calendar quando o agendamento foi cancelado")
     void deleteEvent_Success() throws IOException {
         agendamento.setGoogleCalendarEventId("event123");
+        agendamento.setStatus(StatusAgendamento.CANCELADO);
 
         when(calendar.events()).thenReturn(events);
         when(events.delete(CLINIC_CALENDAR_ID, "event123")).thenReturn(delete);
 
-        googleCalendarService.deleteEvent(agendamento);
+        googleCalendarService.sincronizar(agendamento);
 
         verify(events).delete(CLINIC_CALENDAR_ID, "event123");
+        verify(agendamentoRepository).atualizarGoogleCalendarEventId(agendamento.getId(), null);
+        assertThat(agendamento.getGoogleCalendarEventId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Agendamento excluído sem evento: nada a fazer no Google")
+    void sincronizar_InativoSemEvento_NaoChamaGoogle() throws IOException {
+        agendamento.setAtivo(false);
+
+        googleCalendarService.sincronizar(agendamento);
+
+        verifyNoInteractions(calendar, agendamentoRepository);
+    }
+
+    @Test
+    @DisplayName("Evento apagado direto no Google (404) é recriado no update")
+    void updateEvent_EventoInexistente_Recria() throws IOException {
+        agendamento.setGoogleCalendarEventId("event123");
+        Event createdEvent = new Event();
+        createdEvent.setId("event456");
+
+        when(calendar.events()).thenReturn(events);
+        when(events.update(eq(CLINIC_CALENDAR_ID), eq("event123"), any(Event.class)))
+                .thenReturn(update);
+        when(update.execute()).thenThrow(erroGoogle(404));
+        when(events.insert(eq(CLINIC_CALENDAR_ID), any(Event.class))).thenReturn(insert);
+        when(insert.execute()).thenReturn(createdEvent);
+
+        googleCalendarService.sincronizar(agendamento);
+
+        verify(agendamentoRepository).atualizarGoogleCalendarEventId(agendamento.getId(), "event456");
+        assertThat(agendamento.getGoogleCalendarEventId()).isEqualTo("event456");
+    }
+
+    private static GoogleJsonResponseException erroGoogle(int status) {
+        return new GoogleJsonResponseException(
+                new HttpResponseException.Builder(status, "erro", new HttpHeaders()), null);
     }
 
     @Test
@@ -182,9 +221,8 @@ class GoogleCalendarServiceTest {
         when(calendar.events()).thenReturn(events);
         when(events.insert(eq(CLINIC_CALENDAR_ID), eventCaptor.capture())).thenReturn(insert);
         when(insert.execute()).thenReturn(createdEvent);
-        when(agendamentoRepository.save(any(Agendamento.class))).thenReturn(agendamento);
 
-        googleCalendarService.createEvent(agendamento);
+        googleCalendarService.sincronizar(agendamento);
 
         // Só a agenda da clínica recebe o evento — sem NPE por profissional nulo
         verify(events, times(1)).insert(any(String.class), any(Event.class));
@@ -207,9 +245,8 @@ class GoogleCalendarServiceTest {
         when(calendar.events()).thenReturn(events);
         when(events.insert(eq(CLINIC_CALENDAR_ID), eventCaptor.capture())).thenReturn(insert);
         when(insert.execute()).thenReturn(createdEvent);
-        when(agendamentoRepository.save(any(Agendamento.class))).thenReturn(agendamento);
 
-        googleCalendarService.createEvent(agendamento);
+        googleCalendarService.sincronizar(agendamento);
 
         Event capturedEvent = eventCaptor.getValue();
         assertThat(capturedEvent.getSummary()).isEqualTo("Maria Silva"); // ignora conectivo "das"
@@ -230,9 +267,8 @@ class GoogleCalendarServiceTest {
         when(calendar.events()).thenReturn(events);
         when(events.insert(eq(CLINIC_CALENDAR_ID), eventCaptor.capture())).thenReturn(insert);
         when(insert.execute()).thenReturn(createdEvent);
-        when(agendamentoRepository.save(any(Agendamento.class))).thenReturn(agendamento);
 
-        googleCalendarService.createEvent(agendamento);
+        googleCalendarService.sincronizar(agendamento);
 
         assertThat(eventCaptor.getValue().getColorId()).isEqualTo("7");
     }
@@ -0,0 +1,141 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.clinicahumaniza.patient_service.exception.AgendaOcupadaException;
+
+class GuardaAgendaTest {
+
+    private static final UUID PROFISSIONAL = UUID.fromString("7d1f5a3e-2c4b-4e8a-9f60-1b2c3d4e5f60");
+    private static final LocalDate DIA = LocalDate.of(2030, 3, 4);
+
+    private JdbcTemplate jdbcTemplate;
+    private ProfissionalAgendaIndex agendaIndex;
+    private GuardaAgenda guarda;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        agendaIndex = mock(ProfissionalAgendaIndex.class);
+        guarda = new GuardaAgenda(agendaIndex, jdbcTemplate, 16, false, 200);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) concluir();
+    }
+
+    @Test
+    @DisplayName("Sem transação ativa, recusa travar: a trava não teria quando ser liberada")
+    void travar_SemTransacao() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThatThrownBy(() -> guarda.travar(PROFISSIONAL, DIA)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Trava o dia e o descarta do índice para a contagem vir do banco")
+    void travar_DescartaDiaDoIndice() {
+        guarda.travar(PROFISSIONAL, DIA);
+        guarda.travar(PROFISSIONAL, DIA);
+
+        verify(agendaIndex, times(1)).descartar(PROFISSIONAL, DIA);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Outra transação no mesmo dia espera e, passado o limite, recebe AgendaOcupadaException")
+    void travar_OcupadoPorOutraTransacao() throws Exception {
+        guarda.travar(PROFISSIONAL, DIA);
+
+        CompletableFuture<Throwable> outra = CompletableFuture.supplyAsync(() -> emOutraTransacao(DIA));
+
+        assertThat(outra.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(AgendaOcupadaException.class)
+                .hasMessageContaining("em uso");
+    }
+
+    @Test
+    @DisplayName("Ao fim da transação a trava é liberada para a próxima")
+    void travar_LiberaNoFimDaTransacao() throws Exception {
+        guarda.travar(PROFISSIONAL, DIA);
+        CountDownLatch tentando = new CountDownLatch(1);
+
+        CompletableFuture<Throwable> outra = CompletableFuture.supplyAsync(() -> {
+            tentando.countDown();
+            return emOutraTransacao(DIA);
+        });
+        tentando.await();
+        concluir();
+
+        assertThat(outra.get(5, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Dias diferentes do mesmo profissional travam em paralelo (listras distintas)")
+    void travar_DiasDiferentes() throws Exception {
+        guarda = new GuardaAgenda(agendaIndex, jdbcTemplate, 1 << 16, false, 200);
+        guarda.travar(PROFISSIONAL, DIA);
+
+        assertThat(CompletableFuture.supplyAsync(() -> emOutraTransacao(DIA.plusDays(1)))
+                        .get(5, TimeUnit.SECONDS))
+                .isNull();
+    }
+
+    @Test
+    @DisplayName("Distribuída: pega o advisory lock de transação do dia no banco")
+    void travar_Distribuida() {
+        guarda = new GuardaAgenda(agendaIndex, jdbcTemplate, 16, true, 200);
+        int chaveProfissional = PROFISSIONAL.hashCode();
+        int chaveDia = (int) DIA.toEpochDay();
+        String sql = "SELECT pg_try_advisory_xact_lock(?, ?)";
+        when(jdbcTemplate.queryForObject(sql, Boolean.class, chaveProfissional, chaveDia))
+                .thenReturn(false, true);
+
+        guarda.travar(PROFISSIONAL, List.of(DIA));
+
+        verify(jdbcTemplate, times(2)).queryForObject(sql, Boolean.class, chaveProfissional, chaveDia);
+        verify(agendaIndex).descartar(PROFISSIONAL, DIA);
+    }
+
+    // Simula outra transação numa thread própria; devolve a falha ao travar, ou null.
+    private Throwable emOutraTransacao(LocalDate dia) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            guarda.travar(PROFISSIONAL, dia);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        } finally {
+            concluir();
+        }
+    }
+
+    private static void concluir() {
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizacoes.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.clinicahumaniza.patient_service.dto.PatientAutocompleteDTO;
+import br.com.clinicahumaniza.patient_service.model.Patient;
+import br.com.clinicahumaniza.patient_service.repository.PatientRepository;
+
+class PacienteAutocompleteIndexTest {
+
+    private final UUID tania = UUID.randomUUID();
+    private final UUID mariana = UUID.randomUUID();
+    private final UUID anaMaria = UUID.randomUUID();
+
+    private PatientRepository patientRepository;
+    private PacienteAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository = mock(PatientRepository.class);
+        when(patientRepository.findAutocompleteByStatusAtivoTrue())
+                .thenReturn(List.of(
+                        resumo(tania, "Tânia de Souza Alves", "21988887777", "12345678909"),
+                        resumo(mariana, "Mariana Costa", "21911112222", null),
+                        resumo(anaMaria, "Ana Maria Souza", "(21) 3333-4444", "98765432100")));
+        index = new PacienteAutocompleteIndex(patientRepository);
+    }
+
+    @Test
+    @DisplayName("Casa prefixo de palavra do nome, sem acento nem caixa")
+    void buscar_PrefixoDoNome() {
+        assertThat(ids(index.buscar("TAN", 10))).containsExactly(tania);
+        assertThat(ids(index.buscar("mari", 10))).containsExactlyInAnyOrder(mariana, anaMaria);
+        assertThat(ids(index.buscar("souz ana", 10))).containsExactly(anaMaria);
+        // Prefixo, não trecho do meio: "aria" não é início de nenhuma palavra.
+        assertThat(index.buscar("aria", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Casa CPF e telefone, inclusive os 4 últimos dígitos e com pontuação")
+    void buscar_CpfETelefone() {
+        assertThat(ids(index.buscar("123.456", 10))).containsExactly(tania);
+        assertThat(ids(index.buscar("7777", 10))).containsExactly(tania);
+        assertThat(ids(index.buscar("(21) 3333", 10))).containsExactly(anaMaria);
+    }
+
+    @Test
+    @DisplayName("Devolve nome curto e final do telefone, respeitando o limite")
+    void buscar_RespostaELimite() {
+        PatientAutocompleteDTO sugestao = index.buscar("tania", 10).get(0);
+        assertThat(sugestao.getNomeCurto()).isEqualTo("Tânia Alves");
+        assertThat(sugestao.getTelefoneFinal()).isEqualTo("7777");
+        assertThat(sugestao.getCpf()).isEqualTo("12345678909");
+
+        assertThat(index.buscar("21", 2)).hasSize(2);
+        assertThat(index.buscar("  ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Registrar e remover atualizam o índice sem recarregar do banco")
+    void registrarRemover() {
+        assertThat(index.buscar("alves", 10)).hasSize(1);
+
+        Patient renomeado = paciente(tania, "Tânia Bezerra", true);
+        index.registrar(renomeado);
+        assertThat(index.buscar("alves", 10)).isEmpty();
+        assertThat(ids(index.buscar("bez", 10))).containsExactly(tania);
+
+        index.registrar(paciente(mariana, "Mariana Costa", false));
+        assertThat(ids(index.buscar("mari", 10))).containsExactly(anaMaria);
+
+        index.remover(paciente(anaMaria, "Ana Maria Souza", true));
+        assertThat(index.buscar("mari", 10)).isEmpty();
+        assertThat(index.tamanho()).isEqualTo(1);
+
+        verify(patientRepository, times(1)).findAutocompleteByStatusAtivoTrue();
+    }
+
+    private static List<UUID> ids(List<PatientAutocompleteDTO> sugestoes) {
+        return sugestoes.stream().map(PatientAutocompleteDTO::getId).toList();
+    }
+
+    private static Patient paciente(UUID id, String nome, boolean ativo) {
+        Patient p = new Patient();
+        p.setId(id);
+        p.setNomeCompleto(nome);
+        p.setTelefone("21900000000");
+        p.setStatusAtivo(ativo);
+        return p;
+    }
+
+    private static PatientRepository.ResumoAutocomplete resumo(UUID id, String nome, String telefone, String cpf) {
+        return new PatientRepository.ResumoAutocomplete() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getNomeCompleto() {
+                return nome;
+            }
+
+            @Override
+            public String getNomeNormalizado() {
+                return null;
+            }
+
+            @Override
+            public String getTelefone() {
+                return telefone;
+            }
+
+            @Override
+            public String getCpf() {
+                return cpf;
+            }
+        };
+    }
+}
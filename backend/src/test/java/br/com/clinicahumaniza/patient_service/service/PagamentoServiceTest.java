@@ -57,6 +57,12 @@ class PagamentoServiceTest {
     @Mock
     private PagamentoMapper pagamentoMapper;
 
+    @Mock
+    private BuscaNomePaciente buscaNome;
+
+    @Mock
+    private DashboardContadores dashboardContadores;
+
     @InjectMocks
     private PagamentoService pagamentoService;
 
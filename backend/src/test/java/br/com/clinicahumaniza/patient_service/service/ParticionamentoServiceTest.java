@@ -0,0 +1,113 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ParticionamentoServiceTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC);
+
+    private JdbcTemplate jdbcTemplate;
+    private ParticionamentoService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new ParticionamentoService(jdbcTemplate, clock, 2, 24, "");
+    }
+
+    @Test
+    @DisplayName("Garante as partições do mês atual até meses-a-frente, nas duas tabelas")
+    void criarParticoes_MesAtualEProximos() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any(), any()))
+                .thenReturn(false);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("agendamentos"), eq("data_hora"), any()))
+                .thenReturn(false, false, true);
+
+        int criadas = service.criarParticoes();
+
+        assertThat(criadas).isEqualTo(1);
+        for (LocalDate mes : List.of(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 11, 1), LocalDate.of(2026, 12, 1))) {
+            verify(jdbcTemplate)
+                    .queryForObject(
+                            "SELECT criar_particao_mensal(?, ?, ?)", Boolean.class, "agendamentos", "data_hora", mes);
+            verify(jdbcTemplate)
+                    .queryForObject(
+                            "SELECT criar_particao_mensal(?, ?, ?)", Boolean.class, "parcelas", "data_vencimento", mes);
+        }
+    }
+
+    @Test
+    @DisplayName("Arquiva só as partições anteriores ao limite e ignora a partição padrão")
+    void arquivarParticoes_SoAsAntigas() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("agendamentos")))
+                .thenReturn(List.of(
+                        "agendamentos_p2024_09",
+                        "agendamentos_p2024_10",
+                        "agendamentos_p2026_10",
+                        "agendamentos_padrao"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("parcelas")))
+                .thenReturn(List.of("parcelas_p2023_01", "parcelas_padrao"));
+
+        List<String> arquivadas = service.arquivarParticoes();
+
+        assertThat(arquivadas).containsExactly("agendamentos_p2024_09", "parcelas_p2023_01");
+        verify(jdbcTemplate).execute("ALTER TABLE public.agendamentos_p2024_09 SET SCHEMA arquivo");
+        verify(jdbcTemplate).execute("ALTER TABLE public.parcelas_p2023_01 SET SCHEMA arquivo");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("Com tablespace frio, move a partição arquivada e os índices dela")
+    void arquivarParticoes_TablespaceFrio() {
+        service = new ParticionamentoService(jdbcTemplate, clock, 2, 24, "frio");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("agendamentos")))
+                .thenReturn(List.of("agendamentos_p2024_01"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("parcelas")))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("arquivo.agendamentos_p2024_01")))
+                .thenReturn(List.of("arquivo.agendamentos_p2024_01_pkey"));
+
+        service.arquivarParticoes();
+
+        verify(jdbcTemplate).execute("ALTER TABLE public.agendamentos_p2024_01 SET SCHEMA arquivo");
+        verify(jdbcTemplate).execute("ALTER TABLE arquivo.agendamentos_p2024_01 SET TABLESPACE frio");
+        verify(jdbcTemplate).execute("ALTER INDEX arquivo.agendamentos_p2024_01_pkey SET TABLESPACE frio");
+    }
+
+    @Test
+    @DisplayName("Sem partição antiga, não altera nada")
+    void arquivarParticoes_NadaAntigo() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), anyString()))
+                .thenReturn(List.of("agendamentos_p2026_01"));
+
+        assertThat(service.arquivarParticoes()).isEmpty();
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("Recusa nome de tablespace que não é um identificador simples")
+    void construtor_TablespaceInvalido() {
+        assertThatThrownBy(() -> new ParticionamentoService(jdbcTemplate, clock, 2, 24, "frio; DROP TABLE x"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
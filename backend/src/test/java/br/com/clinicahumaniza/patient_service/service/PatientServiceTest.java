@@ -40,6 +40,12 @@ class PatientServiceTest {
     @Mock
     private PatientMapper patientMapper;
 
+    @Mock
+    private BuscaNomePaciente buscaNome;
+
+    @Mock
+    private PacienteAutocompleteIndex autocompleteIndex;
+
     @InjectMocks
     private PatientService patientService;
 
@@ -168,5 +174,19 @@ class PatientServiceTest {
 
         assertThat(patient.isStatusAtivo()).isFalse();
         verify(patientRepository).save(patient);
+        verify(autocompleteIndex).remover(patient);
+    }
+
+    @Test
+    @DisplayName("Autocomplete limita a quantidade de sugestões pedida")
+    void autocomplete_LimitaQuantidade() {
+        when(autocompleteIndex.buscar("jo", PatientService.MAX_AUTOCOMPLETE)).thenReturn(List.of());
+        when(autocompleteIndex.buscar("jo", 1)).thenReturn(List.of());
+
+        patientService.autocomplete("jo", 500);
+        patientService.autocomplete("jo", 0);
+
+        verify(autocompleteIndex).buscar("jo", PatientService.MAX_AUTOCOMPLETE);
+        verify(autocompleteIndex).buscar("jo", 1);
     }
 }
@@ -0,0 +1,193 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.clinicahumaniza.patient_service.model.Agendamento;
+import br.com.clinicahumaniza.patient_service.model.Profissional;
+import br.com.clinicahumaniza.patient_service.model.StatusAgendamento;
+import br.com.clinicahumaniza.patient_service.repository.AgendamentoRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProfissionalAgendaIndexTest {
+
+    @Mock
+    private AgendamentoRepository agendamentoRepository;
+
+    private ProfissionalAgendaIndex index;
+    private Profissional profissional;
+    private LocalDate dia;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProfissionalAgendaIndex(agendamentoRepository);
+        profissional = new Profissional();
+        profissional.setId(UUID.randomUUID());
+        dia = LocalDate.of(2030, 3, 4);
+    }
+
+    @AfterEach
+    void limparSincronizacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Agendamento agendamento(int hora, int minuto, int duracao) {
+        Agendamento a = new Agendamento();
+        a.setId(UUID.randomUUID());
+        a.setProfissional(profissional);
+        a.setDataHora(dia.atTime(hora, minuto));
+        a.setDuracaoMinutos(duracao);
+        a.setStatus(StatusAgendamento.AGENDADO);
+        return a;
+    }
+
+    private void diaComAgendamentos(Agendamento... agendamentos) {
+        when(agendamentoRepository.findByProfissionalIdAndStatusInAndDataHoraBetween(
+                        eq(profissional.getId()), any(), any(), any()))
+                .thenReturn(new ArrayList<>(List.of(agendamentos)));
+    }
+
+    @Test
+    @DisplayName("Conta sobreposições totais e parciais; intervalos encostados não conflitam")
+    void contarSobreposicoes() {
+        diaComAgendamentos(agendamento(8, 0, 50), agendamento(8, 30, 50), agendamento(10, 0, 60));
+
+        assertThat(index.contarSobreposicoes(profissional.getId(), dia.atTime(8, 0), 50, null))
+                .isEqualTo(2);
+        assertThat(index.contarSobreposicoes(profissional.getId(), dia.atTime(9, 20), 40, null))
+                .isZero();
+        assertThat(index.contarSobreposicoes(profissional.getId(), dia.atTime(9, 0), 90, null))
+                .isEqualTo(2);
+        assertThat(index.contarSobreposicoes(profissional.getId(), dia.atTime(11, 0), 30, null))
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Carrega o dia do banco uma única vez")
+    void carregaDiaUmaVez() {
+        diaComAgendamentos(agendamento(8, 0, 50));
+
+        for (int i = 0; i < 10; i++) {
+            index.contarSobreposicoes(profissional.getId(), dia.atTime(8, 0), 50, null);
+        }
+
+        verify(agendamentoRepository, times(1))
+                .findByProfissionalIdAndStatusInAndDataHoraBetween(eq(profissional.getId()), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Ignora o próprio agendamento ao remarcar")
+    void excluiAgendamentoInformado() {
+        Agendamento existente = agendamento(8, 0, 50);
+        diaComAgendamentos(existente);
+
+        assertThat(index.contarSobreposicoes(profissional.getId(), dia.atTime(8, 10), 50, existente.getId()))
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Registrar insere, move e remove agendamentos sem reler o banco")
+    void registrarMantemIndice() {
+        diaComAgendamentos();
+        LocalDateTime oito = dia.atTime(8, 0);
+        assertThat(index.contarSobreposicoes(profissional.getId(), oito, 50, null))
+                .isZero();
+
+        Agendamento novo = agendamento(8, 0, 50);
+        index.registrar(novo);
+        assertThat(index.contarSobreposicoes(profissional.getId(), oito, 50, null))
+                .isEqualTo(1);
+
+        novo.setDataHora(dia.atTime(14, 0));
+        index.registrar(novo);
+        assertThat(index.contarSobreposicoes(profissional.getId(), oito, 50, null))
+                .isZero();
+        assertThat(index.contarSobreposicoes(profissional.getId(), dia.atTime(14, 0), 50, null))
+                .isEqualTo(1);
+
+        novo.setStatus(StatusAgendamento.CANCELADO);
+        index.registrar(novo);
+        assertThat(index.contarSobreposicoes(profissional.getId(), dia.atTime(14, 0), 50, null))
+                .isZero();
+
+        verify(agendamentoRepository, times(1))
+                .findByProfissionalIdAndStatusInAndDataHoraBetween(eq(profissional.getId()), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Rollback descarta os dias tocados, que voltam a ser lidos do banco")
+    void rollbackDescartaDia() {
+        diaComAgendamentos();
+        index.contarSobreposicoes(profissional.getId(), dia.atTime(8, 0), 50, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.registrar(agendamento(8, 0, 50));
+        assertThat(index.diasCarregados()).isEqualTo(1);
+
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertThat(index.diasCarregados()).isZero();
+        assertThat(index.contarSobreposicoes(profissional.getId(), dia.atTime(8, 0), 50, null))
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Commit também descarta o dia, mesmo se ele foi carregado do banco antes do commit")
+    void commitDescartaDiaCarregadoAntes() {
+        Agendamento novo = agendamento(8, 0, 50);
+        // Primeira leitura: outra thread carrega o dia antes do commit (sem a linha nova);
+        // depois do commit o banco já a devolve.
+        when(agendamentoRepository.findByProfissionalIdAndStatusInAndDataHoraBetween(
+                        eq(profissional.getId()), any(), any(), any()))
+                .thenReturn(new ArrayList<>())
+                .thenReturn(new ArrayList<>(List.of(novo)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.registrar(novo);
+        assertThat(index.contarSobreposicoes(profissional.getId(), dia.atTime(8, 0), 50, null))
+                .isZero();
+
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertThat(index.contarSobreposicoes(profissional.getId(), dia.atTime(8, 0), 50, null))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Com validade configurada, o dia é relido do banco depois que ela expira")
+    void validadeExpiraDia() throws Exception {
+        index = new ProfissionalAgendaIndex(agendamentoRepository, 1);
+        diaComAgendamentos();
+
+        index.contarSobreposicoes(profissional.getId(), dia.atTime(8, 0), 50, null);
+        Thread.sleep(1100);
+        index.contarSobreposicoes(profissional.getId(), dia.atTime(8, 0), 50, null);
+
+        verify(agendamentoRepository, times(2))
+                .findByProfissionalIdAndStatusInAndDataHoraBetween(eq(profissional.getId()), any(), any(), any());
+    }
+}
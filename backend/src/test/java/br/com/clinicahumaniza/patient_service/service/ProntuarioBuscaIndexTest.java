@@ -0,0 +1,147 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.clinicahumaniza.patient_service.model.Patient;
+import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.TipoDocumento;
+
+@DisplayName("ProntuarioBuscaIndex")
+class ProntuarioBuscaIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private ProntuarioBuscaIndex index;
+    private final Patient ana = paciente();
+    private final Patient bruno = paciente();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new ProntuarioBuscaIndex(dir.toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    @DisplayName("Acha pelo texto do arquivo, sem diferenciar acento, plural ou maiúsculas")
+    void buscar_PeloConteudo() throws IOException {
+        Prontuario p = prontuario(ana, "Laudo", TipoDocumento.PRONTUARIO);
+        index.indexar(p, "Paciente apresentou melhora na coordenação motora.");
+        index.indexar(prontuario(ana, "Outro", TipoDocumento.PRONTUARIO), "Sem relação.");
+
+        List<ProntuarioBuscaIndex.Resultado> resultados = index.buscar("COORDENACAO motoras", null, null, 10);
+
+        assertThat(resultados).extracting(ProntuarioBuscaIndex.Resultado::id).containsExactly(p.getId());
+        assertThat(resultados.get(0).titulo()).isEqualTo("Laudo");
+        assertThat(resultados.get(0).pacienteId()).isEqualTo(ana.getId());
+        assertThat(resultados.get(0).nomeArquivo()).isEqualTo("arquivo.pdf");
+    }
+
+    @Test
+    @DisplayName("Título pesa mais que o corpo do documento")
+    void buscar_TituloPrimeiro() throws IOException {
+        Prontuario noCorpo = prontuario(ana, "Relatório", TipoDocumento.PRONTUARIO);
+        Prontuario noTitulo = prontuario(ana, "Avaliação fonoaudiológica", TipoDocumento.PRONTUARIO);
+        index.indexar(noCorpo, "Encaminhado para avaliação fonoaudiológica.");
+        index.indexar(noTitulo, "");
+
+        assertThat(index.buscar("fonoaudiologica", null, null, 10))
+                .extracting(ProntuarioBuscaIndex.Resultado::id)
+                .containsExactly(noTitulo.getId(), noCorpo.getId());
+    }
+
+    @Test
+    @DisplayName("Filtra por paciente e por tipo")
+    void buscar_Filtros() throws IOException {
+        Prontuario daAna = prontuario(ana, "Termo de consentimento", TipoDocumento.TERMO);
+        Prontuario doBruno = prontuario(bruno, "Termo de consentimento", TipoDocumento.TERMO);
+        Prontuario nota = prontuario(ana, "Nota de consentimento", TipoDocumento.NOTA_FISCAL);
+        index.indexar(daAna, "");
+        index.indexar(doBruno, "");
+        index.indexar(nota, "");
+
+        assertThat(index.buscar("consentimento", ana.getId(), null, 10))
+                .extracting(ProntuarioBuscaIndex.Resultado::id)
+                .containsExactlyInAnyOrder(daAna.getId(), nota.getId());
+        assertThat(index.buscar("consentimento", null, TipoDocumento.TERMO, 10))
+                .extracting(ProntuarioBuscaIndex.Resultado::id)
+                .containsExactlyInAnyOrder(daAna.getId(), doBruno.getId());
+    }
+
+    @Test
+    @DisplayName("Reindexar substitui; remover tira da busca")
+    void indexar_SubstituiERemove() throws IOException {
+        Prontuario p = prontuario(ana, "Exame", TipoDocumento.PRONTUARIO);
+        index.indexar(p, "glicemia");
+        index.indexar(p, "colesterol");
+
+        assertThat(index.buscar("glicemia", null, null, 10)).isEmpty();
+        assertThat(index.buscar("colesterol", null, null, 10)).hasSize(1);
+        assertThat(index.documentos()).isEqualTo(1);
+
+        index.remover(p.getId());
+
+        assertThat(index.buscar("colesterol", null, null, 10)).isEmpty();
+        assertThat(index.documentos()).isZero();
+    }
+
+    @Test
+    @DisplayName("Termo vazio, só stopwords ou com sintaxe quebrada não lança erro")
+    void buscar_TermoInvalido() throws IOException {
+        index.indexar(prontuario(ana, "Exame", TipoDocumento.PRONTUARIO), "glicemia");
+
+        assertThat(index.buscar("  ", null, null, 10)).isEmpty();
+        assertThat(index.buscar("de para com", null, null, 10)).isEmpty();
+        assertThat(index.buscar("\"glicemia", null, null, 10)).hasSize(1);
+        assertThat(index.buscar("glic*", null, null, 10)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Sobrevive ao reabrir a pasta; limpar esvazia")
+    void confirmar_PersisteELimpa() throws IOException {
+        index.indexar(prontuario(ana, "Exame", TipoDocumento.PRONTUARIO), "glicemia");
+        index.confirmar();
+        index.close();
+
+        index = new ProntuarioBuscaIndex(dir.toString());
+        assertThat(index.documentos()).isEqualTo(1);
+        assertThat(index.tamanhoBytes()).isPositive();
+
+        index.limpar();
+        assertThat(index.documentos()).isZero();
+        assertThat(index.buscar("glicemia", null, null, 10)).isEmpty();
+    }
+
+    private static Patient paciente() {
+        Patient p = new Patient();
+        p.setId(UUID.randomUUID());
+        return p;
+    }
+
+    private static Prontuario prontuario(Patient paciente, String titulo, TipoDocumento tipo) {
+        return Prontuario.builder()
+                .id(UUID.randomUUID())
+                .paciente(paciente)
+                .tipo(tipo)
+                .titulo(titulo)
+                .nomeArquivo("arquivo.pdf")
+                .createdAt(LocalDateTime.of(2026, 3, 10, 14, 0))
+                .build();
+    }
+}
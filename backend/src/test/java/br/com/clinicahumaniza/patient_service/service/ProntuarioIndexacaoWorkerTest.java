@@ -0,0 +1,134 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
+import br.com.clinicahumaniza.patient_service.repository.ProntuarioRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProntuarioIndexacaoWorker")
+class ProntuarioIndexacaoWorkerTest {
+
+    @Mock
+    private ProntuarioRepository prontuarioRepository;
+
+    @Mock
+    private DocumentoCache documentoCache;
+
+    @Mock
+    private ExtratorTexto extrator;
+
+    @Mock
+    private ProntuarioBuscaIndex index;
+
+    private ProntuarioIndexacaoWorker worker;
+    private Prontuario prontuario;
+
+    @BeforeEach
+    void setUp() {
+        worker = new ProntuarioIndexacaoWorker(prontuarioRepository, documentoCache, extrator, index, Runnable::run, 2);
+        prontuario = Prontuario.builder()
+                .id(UUID.randomUUID())
+                .storagePath("p/laudo.pdf")
+                .tipoArquivo("application/pdf")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Indexa com o texto extraído e só marca no banco depois do commit do índice")
+    void drenar_IndexaEConfirmaAntesDeMarcar() throws IOException {
+        when(prontuarioRepository.findAIndexar(StatusProntuario.PRONTO, Limit.of(2)))
+                .thenReturn(List.of(prontuario));
+        when(documentoCache.abrir("p/laudo.pdf")).thenReturn(new ByteArrayInputStream("pdf".getBytes()));
+        when(extrator.extrair(any(), eq("application/pdf"))).thenReturn("hemograma");
+        when(prontuarioRepository.marcarIndexado(eq(prontuario.getId()), any())).thenReturn(1);
+
+        worker.drenar();
+
+        InOrder ordem = inOrder(index, prontuarioRepository);
+        ordem.verify(index).indexar(prontuario, "hemograma");
+        ordem.verify(index).confirmar();
+        ordem.verify(prontuarioRepository).marcarIndexado(eq(prontuario.getId()), any());
+        verify(index, never()).remover(any());
+    }
+
+    @Test
+    @DisplayName("Excluído durante a indexação: tira do índice")
+    void drenar_ExcluidoDuranteIndexacao() throws IOException {
+        prontuario.setTipoArquivo("image/png");
+        when(prontuarioRepository.findAIndexar(StatusProntuario.PRONTO, Limit.of(2)))
+                .thenReturn(List.of(prontuario));
+        when(prontuarioRepository.marcarIndexado(eq(prontuario.getId()), any())).thenReturn(0);
+
+        worker.drenar();
+
+        verify(index).remover(prontuario.getId());
+    }
+
+    @Test
+    @DisplayName("Sem texto extraível (tipo sem extração, arquivo ausente ou ilegível): só metadados")
+    void extrair_SemTexto() throws IOException {
+        prontuario.setTipoArquivo("image/png");
+        assertThat(worker.extrair(prontuario)).isEmpty();
+
+        prontuario.setTipoArquivo("application/pdf");
+        when(documentoCache.abrir("p/laudo.pdf")).thenThrow(new NoSuchFileException("p/laudo.pdf"));
+        assertThat(worker.extrair(prontuario)).isEmpty();
+        verify(extrator, never()).extrair(any(), any());
+    }
+
+    @Test
+    @DisplayName("Reconstruir esvazia o índice antes de devolver tudo à fila")
+    void reconstruir() throws IOException {
+        worker.reconstruir();
+
+        InOrder ordem = inOrder(index, prontuarioRepository);
+        ordem.verify(index).limpar();
+        ordem.verify(prontuarioRepository).limparIndexacao();
+        assertThat(worker.getUltimaReconstrucao()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Subida com índice vazio e prontuários já indexados: reconstrói")
+    void run_IndicePerdido() throws IOException {
+        when(index.documentos()).thenReturn(0L);
+        when(prontuarioRepository.existsByIndexadoEmIsNotNull()).thenReturn(true);
+
+        worker.run(null);
+
+        verify(prontuarioRepository).limparIndexacao();
+    }
+
+    @Test
+    @DisplayName("Subida com índice em dia: não mexe")
+    void run_IndiceEmDia() throws IOException {
+        when(index.documentos()).thenReturn(5L);
+
+        worker.run(null);
+
+        verify(index, never()).limpar();
+        verify(prontuarioRepository, never()).limparIndexacao();
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.clinicahumaniza.patient_service.model.Patient;
+import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
+import br.com.clinicahumaniza.patient_service.repository.ProntuarioRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProntuarioIngestaoService")
+class ProntuarioIngestaoServiceTest {
+
+    @Mock
+    private ProntuarioRepository prontuarioRepository;
+
+    @TempDir
+    Path spoolDir;
+
+    private ProntuarioIngestaoService ingestaoService;
+    private Prontuario prontuario;
+    private MockMultipartFile pdf;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ingestaoService = new ProntuarioIngestaoService(prontuarioRepository, spoolDir.toString(), 2);
+        Patient paciente = new Patient();
+        paciente.setId(UUID.randomUUID());
+        prontuario = Prontuario.builder().paciente(paciente).build();
+        pdf = new MockMultipartFile("file", "Exame Março.pdf", "application/pdf", "conteudo-pdf".getBytes());
+    }
+
+    @Test
+    @DisplayName("Guarda o arquivo no spool e salva o prontuário como PENDENTE")
+    void receber_GravaSpoolEPendente() throws IOException {
+        when(prontuarioRepository.countByStatus(StatusProntuario.PENDENTE)).thenReturn(0L);
+        when(prontuarioRepository.save(any(Prontuario.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Prontuario salvo = ingestaoService.receber(prontuario, pdf);
+
+        assertThat(salvo.getStatus()).isEqualTo(StatusProntuario.PENDENTE);
+        assertThat(salvo.getTentativasEnvio()).isZero();
+        assertThat(salvo.getProximaTentativaEm()).isNotNull();
+        assertThat(salvo.getTamanhoBytes()).isEqualTo(pdf.getSize());
+        assertThat(salvo.getStoragePath())
+                .startsWith(prontuario.getPaciente().getId() + "/")
+                .endsWith("_Exame_Marco.pdf");
+        assertThat(Path.of(salvo.getSpoolPath()).getParent()).isEqualTo(spoolDir);
+        assertThat(Files.readAllBytes(Path.of(salvo.getSpoolPath()))).isEqualTo(pdf.getBytes());
+    }
+
+    @Test
+    @DisplayName("Com a fila cheia recusa com 503 sem gravar nada")
+    void receber_FilaCheia() throws IOException {
+        when(prontuarioRepository.countByStatus(StatusProntuario.PENDENTE)).thenReturn(2L);
+
+        assertThatThrownBy(() -> ingestaoService.receber(prontuario, pdf))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        verify(prontuarioRepository, never()).save(any());
+        try (var arquivos = Files.list(spoolDir)) {
+            assertThat(arquivos).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Remove o spool quando o save no banco falha")
+    void receber_SaveFalhaApagaSpool() throws IOException {
+        when(prontuarioRepository.countByStatus(StatusProntuario.PENDENTE)).thenReturn(0L);
+        when(prontuarioRepository.save(any(Prontuario.class))).thenThrow(new RuntimeException("db fora"));
+
+        assertThatThrownBy(() -> ingestaoService.receber(prontuario, pdf)).isInstanceOf(RuntimeException.class);
+
+        try (var arquivos = Files.list(spoolDir)) {
+            assertThat(arquivos).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
+import br.com.clinicahumaniza.patient_service.repository.ProntuarioRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProntuarioIngestaoWorker")
+class ProntuarioIngestaoWorkerTest {
+
+    @Mock
+    private ProntuarioRepository prontuarioRepository;
+
+    @Mock
+    private DocumentStorage storageService;
+
+    @Mock
+    private ProntuarioIngestaoService ingestaoService;
+
+    @TempDir
+    Path spoolDir;
+
+    private ProntuarioIngestaoWorker worker;
+    private Prontuario pendente;
+    private Path spool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        worker = new ProntuarioIngestaoWorker(prontuarioRepository, storageService, ingestaoService, Runnable::run, 2);
+        spool = Files.writeString(spoolDir.resolve("a.upload"), "conteudo");
+        pendente = Prontuario.builder()
+                .id(UUID.randomUUID())
+                .storagePath("p/a.pdf")
+                .tipoArquivo("application/pdf")
+                .spoolPath(spool.toString())
+                .status(StatusProntuario.PENDENTE)
+                .tentativasEnvio(0)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Pega no máximo envios-simultaneos pendentes por rodada")
+    void drenar_LimitaPorRodada() throws IOException {
+        when(prontuarioRepository.findByStatusAndProximaTentativaEmLessThanEqualOrderByCreatedAtAsc(
+                        eq(StatusProntuario.PENDENTE), any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of());
+
+        worker.drenar();
+
+        verify(storageService, never()).upload(any(String.class), any(Path.class), any());
+    }
+
+    @Test
+    @DisplayName("Envio concluído marca PRONTO com tamanho e checksum e apaga o spool")
+    void enviar_Sucesso() throws IOException {
+        when(storageService.upload("p/a.pdf", spool, "application/pdf"))
+                .thenReturn(new DocumentStorage.ArquivoEnviado("p/a.pdf", 8L, "abc"));
+        when(prontuarioRepository.findById(pendente.getId())).thenReturn(Optional.of(pendente));
+
+        worker.enviar(pendente);
+
+        Prontuario salvo = salvo();
+        assertThat(salvo.getStatus()).isEqualTo(StatusProntuario.PRONTO);
+        assertThat(salvo.getTamanhoBytes()).isEqualTo(8L);
+        assertThat(salvo.getChecksumSha256()).isEqualTo("abc");
+        assertThat(salvo.getSpoolPath()).isNull();
+        verify(ingestaoService).apagarSpool(spool.toString());
+        verify(storageService, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("Falha no Storage reagenda com backoff e mantém o spool")
+    void enviar_FalhaReagenda() throws IOException {
+        when(storageService.upload("p/a.pdf", spool, "application/pdf")).thenThrow(new IOException("HTTP 503"));
+        when(prontuarioRepository.findById(pendente.getId())).thenReturn(Optional.of(pendente));
+
+        worker.enviar(pendente);
+
+        Prontuario salvo = salvo();
+        assertThat(salvo.getStatus()).isEqualTo(StatusProntuario.PENDENTE);
+        assertThat(salvo.getTentativasEnvio()).isEqualTo(1);
+        assertThat(salvo.getProximaTentativaEm()).isAfter(LocalDateTime.now());
+        assertThat(salvo.getUltimoErro()).contains("503");
+        verify(ingestaoService, never()).apagarSpool(any());
+    }
+
+    @Test
+    @DisplayName("Na última tentativa desiste: FALHA, spool e objeto parcial removidos")
+    void enviar_DesisteAposMaxTentativas() throws IOException {
+        pendente.setTentativasEnvio(ProntuarioIngestaoWorker.MAX_TENTATIVAS - 1);
+        when(storageService.upload("p/a.pdf", spool, "application/pdf")).thenThrow(new IOException("HTTP 503"));
+        when(prontuarioRepository.findById(pendente.getId())).thenReturn(Optional.of(pendente));
+
+        worker.enviar(pendente);
+
+        assertThat(salvo().getStatus()).isEqualTo(StatusProntuario.FALHA);
+        verify(ingestaoService).apagarSpool(spool.toString());
+        verify(storageService).delete("p/a.pdf");
+    }
+
+    @Test
+    @DisplayName("Prontuário excluído durante o envio: remove o arquivo órfão do Storage")
+    void enviar_ExcluidoDuranteEnvio() throws IOException {
+        when(storageService.upload("p/a.pdf", spool, "application/pdf"))
+                .thenReturn(new DocumentStorage.ArquivoEnviado("p/a.pdf", 8L, "abc"));
+        when(prontuarioRepository.findById(pendente.getId())).thenReturn(Optional.empty());
+
+        worker.enviar(pendente);
+
+        verify(storageService).delete("p/a.pdf");
+        verify(ingestaoService).apagarSpool(spool.toString());
+        verify(prontuarioRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Falha ao marcar PRONTO: remove o objeto e deixa o pendente para a próxima rodada")
+    void enviar_SaveFalhaRemoveObjeto() throws IOException {
+        when(storageService.upload("p/a.pdf", spool, "application/pdf"))
+                .thenReturn(new DocumentStorage.ArquivoEnviado("p/a.pdf", 8L, "abc"));
+        when(prontuarioRepository.findById(pendente.getId())).thenReturn(Optional.of(pendente));
+        when(prontuarioRepository.save(any(Prontuario.class))).thenThrow(new RuntimeException("db fora"));
+
+        worker.enviar(pendente);
+
+        verify(storageService).delete("p/a.pdf");
+        verify(ingestaoService, never()).apagarSpool(any());
+    }
+
+    @Test
+    @DisplayName("Sem o arquivo local não há o que enviar: marca FALHA")
+    void enviar_SpoolPerdido() throws IOException {
+        Files.delete(spool);
+        when(prontuarioRepository.findById(pendente.getId())).thenReturn(Optional.of(pendente));
+
+        worker.enviar(pendente);
+
+        assertThat(salvo().getStatus()).isEqualTo(StatusProntuario.FALHA);
+        verify(storageService, never()).upload(any(String.class), any(Path.class), any());
+    }
+
+    @Test
+    @DisplayName("Backoff dobra a cada tentativa e para no teto")
+    void espera_Exponencial() {
+        assertThat(ProntuarioIngestaoWorker.espera(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(ProntuarioIngestaoWorker.espera(2)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(ProntuarioIngestaoWorker.espera(4)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(ProntuarioIngestaoWorker.espera(30)).isEqualTo(Duration.ofMinutes(30));
+    }
+
+    private Prontuario salvo() {
+        ArgumentCaptor<Prontuario> captor = ArgumentCaptor.forClass(Prontuario.class);
+        verify(prontuarioRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
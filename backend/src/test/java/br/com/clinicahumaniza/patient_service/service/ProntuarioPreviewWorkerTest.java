@@ -0,0 +1,143 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.domain.Limit;
+
+import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.StatusPreview;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
+import br.com.clinicahumaniza.patient_service.repository.ProntuarioRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProntuarioPreviewWorker")
+class ProntuarioPreviewWorkerTest {
+
+    @Mock
+    private ProntuarioRepository prontuarioRepository;
+
+    @Mock
+    private DocumentStorage storage;
+
+    @Mock
+    private DocumentoCache documentoCache;
+
+    @Mock
+    private GeradorPreview gerador;
+
+    private ProntuarioPreviewWorker worker;
+    private Prontuario prontuario;
+
+    @BeforeEach
+    void setUp() {
+        worker = new ProntuarioPreviewWorker(
+                prontuarioRepository, storage, documentoCache, gerador, Runnable::run, 2, true);
+        prontuario = Prontuario.builder()
+                .id(UUID.randomUUID())
+                .storagePath("p/exame.pdf")
+                .tipoArquivo("application/pdf")
+                .previewStatus(StatusPreview.PENDENTE)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Pega no máximo 'simultaneos' por rodada, incluindo o backfill")
+    void drenar_LimitaPorRodada() {
+        when(prontuarioRepository.findPreviewsAGerar(
+                        eq(StatusProntuario.PRONTO),
+                        eq(StatusPreview.PENDENTE),
+                        eq(true),
+                        eq(GeradorPreview.TIPOS_SUPORTADOS),
+                        eq(Limit.of(2))))
+                .thenReturn(List.of());
+
+        worker.drenar();
+
+        verify(prontuarioRepository).findPreviewsAGerar(any(), any(), anyBoolean(), any(), eq(Limit.of(2)));
+    }
+
+    @Test
+    @DisplayName("Gera, guarda ao lado do original e marca PRONTO")
+    void gerar_Sucesso() throws IOException {
+        when(documentoCache.abrir("p/exame.pdf")).thenReturn(new ByteArrayInputStream("pdf".getBytes()));
+        when(gerador.gerar(any(), eq("application/pdf"))).thenReturn(new byte[] {1, 2, 3});
+        when(prontuarioRepository.findById(prontuario.getId())).thenReturn(Optional.of(prontuario));
+
+        worker.gerar(prontuario);
+
+        ArgumentCaptor<InputStreamSource> conteudo = ArgumentCaptor.forClass(InputStreamSource.class);
+        verify(storage).upload(eq("p/exame.pdf.preview.jpg"), conteudo.capture(), eq("image/jpeg"));
+        assertThat(conteudo.getValue().getInputStream().readAllBytes()).containsExactly(1, 2, 3);
+        Prontuario salvo = salvo();
+        assertThat(salvo.getPreviewStatus()).isEqualTo(StatusPreview.PRONTO);
+        assertThat(salvo.getPreviewPath()).isEqualTo("p/exame.pdf.preview.jpg");
+    }
+
+    @Test
+    @DisplayName("Falha conta tentativa e, na última, fica INDISPONIVEL")
+    void gerar_FalhaAteDesistir() throws IOException {
+        when(documentoCache.abrir("p/exame.pdf")).thenReturn(new ByteArrayInputStream("pdf".getBytes()));
+        when(gerador.gerar(any(), any())).thenThrow(new IOException("PDF corrompido"));
+        when(prontuarioRepository.findById(prontuario.getId())).thenReturn(Optional.of(prontuario));
+
+        worker.gerar(prontuario);
+        assertThat(prontuario.getPreviewStatus()).isEqualTo(StatusPreview.PENDENTE);
+        assertThat(prontuario.getPreviewTentativas()).isEqualTo(1);
+
+        prontuario.setPreviewTentativas(ProntuarioPreviewWorker.MAX_TENTATIVAS - 1);
+        worker.gerar(prontuario);
+        assertThat(prontuario.getPreviewStatus()).isEqualTo(StatusPreview.INDISPONIVEL);
+        verify(storage, never()).upload(any(String.class), any(InputStreamSource.class), any());
+    }
+
+    @Test
+    @DisplayName("Original ausente no Storage: INDISPONIVEL sem novas tentativas")
+    void gerar_OriginalAusente() throws IOException {
+        when(documentoCache.abrir("p/exame.pdf")).thenThrow(new NoSuchFileException("p/exame.pdf"));
+        when(prontuarioRepository.findById(prontuario.getId())).thenReturn(Optional.of(prontuario));
+
+        worker.gerar(prontuario);
+
+        assertThat(salvo().getPreviewStatus()).isEqualTo(StatusPreview.INDISPONIVEL);
+    }
+
+    @Test
+    @DisplayName("Prontuário excluído durante a geração: remove a miniatura órfã")
+    void gerar_ExcluidoDuranteGeracao() throws IOException {
+        when(documentoCache.abrir("p/exame.pdf")).thenReturn(new ByteArrayInputStream("pdf".getBytes()));
+        when(gerador.gerar(any(), any())).thenReturn(new byte[] {1});
+        when(prontuarioRepository.findById(prontuario.getId())).thenReturn(Optional.empty());
+
+        worker.gerar(prontuario);
+
+        verify(storage).delete("p/exame.pdf.preview.jpg");
+        verify(prontuarioRepository, never()).save(any());
+    }
+
+    private Prontuario salvo() {
+        ArgumentCaptor<Prontuario> captor = ArgumentCaptor.forClass(Prontuario.class);
+        verify(prontuarioRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
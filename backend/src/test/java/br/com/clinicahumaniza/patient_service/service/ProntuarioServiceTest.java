@@ -5,10 +5,15 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -21,14 +26,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
 
+import br.com.clinicahumaniza.patient_service.dto.ProntuarioBuscaResultadoDTO;
 import br.com.clinicahumaniza.patient_service.dto.ProntuarioResponseDTO;
 import br.com.clinicahumaniza.patient_service.model.Patient;
 import br.com.clinicahumaniza.patient_service.model.Prontuario;
+import br.com.clinicahumaniza.patient_service.model.StatusPreview;
+import br.com.clinicahumaniza.patient_service.model.StatusProntuario;
 import br.com.clinicahumaniza.patient_service.model.TipoDocumento;
 import br.com.clinicahumaniza.patient_service.repository.PatientRepository;
 import br.com.clinicahumaniza.patient_service.repository.ProntuarioRepository;
@@ -44,7 +56,22 @@ class ProntuarioServiceTest {
     private PatientRepository patientRepository;
 
     @Mock
-    private SupabaseStorageService storageService;
+    private DocumentStorage storageService;
+
+    @Mock
+    private UrlAssinadaCache urlAssinadaCache;
+
+    @Mock
+    private ProntuarioIngestaoService ingestaoService;
+
+    @Mock
+    private DocumentoCache documentoCache;
+
+    @Mock
+    private ProntuarioBuscaIndex buscaIndex;
+
+    @Mock
+    private ProntuarioIndexacaoWorker indexacaoWorker;
 
     @InjectMocks
     private ProntuarioService prontuarioService;
@@ -122,8 +149,11 @@ class ProntuarioServiceTest {
     @DisplayName("Deve fazer upload com sucesso")
     void upload_Sucesso() throws IOException {
         when(patientRepository.findById(pacienteId)).thenReturn(Optional.of(paciente));
-        when(storageService.upload(any(), any())).thenReturn("caminho/arquivo.pdf");
-        when(storageService.getSignedUrl(any())).thenReturn("https://signed-url");
+        when(storageService.upload(any(), any()))
+                .thenReturn(new DocumentStorage.ArquivoEnviado("caminho/arquivo.pdf", 12L, "abc123"));
+        when(urlAssinadaCache.assinar(any()))
+                .thenReturn(new UrlAssinadaCache.UrlsAssinadas(
+                        Map.of("caminho/arquivo.pdf", "https://signed-url"), Set.of()));
         when(prontuarioRepository.save(any(Prontuario.class))).thenAnswer(inv -> {
             Prontuario p = inv.getArgument(0);
             p.setId(UUID.randomUUID());
@@ -136,10 +166,36 @@ class ProntuarioServiceTest {
         assertThat(dto).isNotNull();
         assertThat(dto.getTipo()).isEqualTo(TipoDocumento.NOTA_FISCAL);
         assertThat(dto.getTitulo()).isEqualTo("NF Maio");
+        assertThat(dto.getStorageUrl()).isEqualTo("https://signed-url");
+        assertThat(dto.getTamanhoBytes()).isEqualTo(12L);
+        assertThat(dto.getChecksumSha256()).isEqualTo("abc123");
         verify(storageService).upload(any(), any());
         verify(prontuarioRepository).save(any(Prontuario.class));
     }
 
+    @Test
+    @DisplayName("Em modo assíncrono, entrega à ingestão e responde PENDENTE sem tocar no Storage")
+    void upload_Assincrono() throws IOException {
+        ReflectionTestUtils.setField(prontuarioService, "uploadAssincrono", true);
+        when(patientRepository.findById(pacienteId)).thenReturn(Optional.of(paciente));
+        when(ingestaoService.receber(any(Prontuario.class), any())).thenAnswer(inv -> {
+            Prontuario p = inv.getArgument(0);
+            p.setId(UUID.randomUUID());
+            p.setStatus(StatusProntuario.PENDENTE);
+            p.setStoragePath("caminho/arquivo.pdf");
+            return p;
+        });
+
+        ProntuarioResponseDTO dto =
+                prontuarioService.upload(pacienteId, TipoDocumento.NOTA_FISCAL, "NF Maio", "obs", pdfValido);
+
+        assertThat(dto.getStatus()).isEqualTo(StatusProntuario.PENDENTE);
+        assertThat(dto.getStorageUrl()).isNull();
+        assertThat(dto.getUploadedBy()).isEqualTo("caissa@humaniza.com");
+        verify(ingestaoService).receber(any(Prontuario.class), any());
+        verify(storageService, never()).upload(any(), any());
+    }
+
     @Test
     @DisplayName("Deve lançar exceção quando paciente não existe")
     void upload_PacienteNaoEncontrado() {
@@ -153,8 +209,11 @@ class ProntuarioServiceTest {
     @DisplayName("Deve remover arquivo do Storage (rollback) quando o save no banco falha")
     void upload_RollbackQuandoSaveFalha() throws IOException {
         when(patientRepository.findById(pacienteId)).thenReturn(Optional.of(paciente));
-        when(storageService.upload(any(), any())).thenReturn("caminho/arquivo.pdf");
-        when(storageService.getSignedUrl(any())).thenReturn("https://signed-url");
+        when(storageService.upload(any(), any()))
+                .thenReturn(new DocumentStorage.ArquivoEnviado("caminho/arquivo.pdf", 12L, "abc123"));
+        when(urlAssinadaCache.assinar(any()))
+                .thenReturn(new UrlAssinadaCache.UrlsAssinadas(
+                        Map.of("caminho/arquivo.pdf", "https://signed-url"), Set.of()));
         when(prontuarioRepository.save(any(Prontuario.class)))
                 .thenThrow(new RuntimeException("value too long for type"));
 
@@ -165,6 +224,90 @@ class ProntuarioServiceTest {
         verify(storageService).delete("caminho/arquivo.pdf");
     }
 
+    // --- Listagem ---
+
+    @Test
+    @DisplayName("Assina a página inteira de uma vez e marca o documento sem URL em vez de usar a pública")
+    void getByPaciente_AssinaEmLote() {
+        Pageable pageable = PageRequest.of(0, 50);
+        Prontuario a = Prontuario.builder()
+                .id(UUID.randomUUID())
+                .paciente(paciente)
+                .storagePath("p/a.pdf")
+                .build();
+        Prontuario b = Prontuario.builder()
+                .id(UUID.randomUUID())
+                .paciente(paciente)
+                .storagePath("p/b.pdf")
+                .build();
+        when(prontuarioRepository.findByPacienteId(pacienteId, pageable)).thenReturn(new PageImpl<>(List.of(a, b)));
+        when(urlAssinadaCache.assinar(List.of("p/a.pdf", "p/b.pdf")))
+                .thenReturn(
+                        new UrlAssinadaCache.UrlsAssinadas(Map.of("p/a.pdf", "https://signed-a"), Set.of("p/b.pdf")));
+
+        List<ProntuarioResponseDTO> dtos =
+                prontuarioService.getByPaciente(pacienteId, null, pageable).getContent();
+
+        assertThat(dtos.get(0).getStorageUrl()).isEqualTo("https://signed-a");
+        assertThat(dtos.get(0).isUrlIndisponivel()).isFalse();
+        assertThat(dtos.get(1).getStorageUrl()).isNull();
+        assertThat(dtos.get(1).isUrlIndisponivel()).isTrue();
+        verify(urlAssinadaCache).assinar(List.of("p/a.pdf", "p/b.pdf"));
+    }
+
+    @Test
+    @DisplayName("Documento ainda pendente de envio não entra na assinatura")
+    void getByPaciente_PendenteSemUrl() {
+        Pageable pageable = PageRequest.of(0, 50);
+        Prontuario pronto = Prontuario.builder()
+                .id(UUID.randomUUID())
+                .paciente(paciente)
+                .storagePath("p/a.pdf")
+                .build();
+        Prontuario pendente = Prontuario.builder()
+                .id(UUID.randomUUID())
+                .paciente(paciente)
+                .storagePath("p/b.pdf")
+                .status(StatusProntuario.PENDENTE)
+                .build();
+        when(prontuarioRepository.findByPacienteId(pacienteId, pageable))
+                .thenReturn(new PageImpl<>(List.of(pronto, pendente)));
+        when(urlAssinadaCache.assinar(List.of("p/a.pdf")))
+                .thenReturn(new UrlAssinadaCache.UrlsAssinadas(Map.of("p/a.pdf", "https://signed-a"), Set.of()));
+
+        List<ProntuarioResponseDTO> dtos =
+                prontuarioService.getByPaciente(pacienteId, null, pageable).getContent();
+
+        assertThat(dtos.get(0).getStatus()).isEqualTo(StatusProntuario.PRONTO);
+        assertThat(dtos.get(1).getStatus()).isEqualTo(StatusProntuario.PENDENTE);
+        assertThat(dtos.get(1).getStorageUrl()).isNull();
+        assertThat(dtos.get(1).isUrlIndisponivel()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Miniatura pronta é assinada junto com o arquivo")
+    void getById_AssinaMiniatura() {
+        UUID id = UUID.randomUUID();
+        Prontuario p = Prontuario.builder()
+                .id(id)
+                .paciente(paciente)
+                .storagePath("p/a.pdf")
+                .previewPath("p/a.pdf.preview.jpg")
+                .previewStatus(StatusPreview.PRONTO)
+                .build();
+        when(prontuarioRepository.findById(id)).thenReturn(Optional.of(p));
+        when(urlAssinadaCache.assinar(List.of("p/a.pdf", "p/a.pdf.preview.jpg")))
+                .thenReturn(new UrlAssinadaCache.UrlsAssinadas(
+                        Map.of("p/a.pdf", "https://signed-a", "p/a.pdf.preview.jpg", "https://signed-preview"),
+                        Set.of()));
+
+        ProntuarioResponseDTO dto = prontuarioService.getById(id);
+
+        assertThat(dto.getStorageUrl()).isEqualTo("https://signed-a");
+        assertThat(dto.getPreviewUrl()).isEqualTo("https://signed-preview");
+        assertThat(dto.getPreviewStatus()).isEqualTo(StatusPreview.PRONTO);
+    }
+
     // --- Delete ---
 
     @Test
@@ -181,7 +324,10 @@ class ProntuarioServiceTest {
         prontuarioService.delete(id);
 
         verify(storageService).delete("caminho/arquivo.pdf");
+        verify(urlAssinadaCache).remover("caminho/arquivo.pdf");
+        verify(documentoCache).remover("caminho/arquivo.pdf");
         verify(prontuarioRepository).delete(p);
+        verify(buscaIndex).remover(id);
     }
 
     @Test
@@ -194,6 +340,77 @@ class ProntuarioServiceTest {
         verify(storageService, never()).delete(any());
     }
 
+    // --- Busca ---
+
+    @Test
+    @DisplayName("Busca no índice, limita o total e completa o nome do paciente")
+    void buscar_PeloIndice() throws IOException {
+        paciente.setNomeCompleto("Ana Souza");
+        UUID id = UUID.randomUUID();
+        when(buscaIndex.buscar("hemograma", null, TipoDocumento.PRONTUARIO, 100))
+                .thenReturn(List.of(new ProntuarioBuscaIndex.Resultado(
+                        id, pacienteId, TipoDocumento.PRONTUARIO, "Exame", "exame.pdf", null, 1.5f)));
+        when(patientRepository.findAllById(List.of(pacienteId))).thenReturn(List.of(paciente));
+
+        List<ProntuarioBuscaResultadoDTO> resultados =
+                prontuarioService.buscar("hemograma", null, TipoDocumento.PRONTUARIO, 500);
+
+        assertThat(resultados).hasSize(1);
+        assertThat(resultados.get(0).getId()).isEqualTo(id);
+        assertThat(resultados.get(0).getPacienteNome()).isEqualTo("Ana Souza");
+        assertThat(resultados.get(0).getScore()).isEqualTo(1.5f);
+    }
+
+    @Test
+    @DisplayName("Sem resultados não consulta o banco")
+    void buscar_SemResultados() throws IOException {
+        when(buscaIndex.buscar("xyz", pacienteId, null, 20)).thenReturn(List.of());
+
+        assertThat(prontuarioService.buscar("xyz", pacienteId, null, 20)).isEmpty();
+        verifyNoInteractions(patientRepository);
+    }
+
+    // --- Arquivo ---
+
+    @Test
+    @DisplayName("Serve o conteúdo pelo cache de documentos")
+    void abrirArquivo_PeloCache() throws IOException {
+        UUID id = UUID.randomUUID();
+        Prontuario p = Prontuario.builder()
+                .id(id)
+                .paciente(paciente)
+                .nomeArquivo("exame.pdf")
+                .tipoArquivo("application/pdf")
+                .storagePath("caminho/exame.pdf")
+                .build();
+        when(prontuarioRepository.findById(id)).thenReturn(Optional.of(p));
+        when(documentoCache.abrir("caminho/exame.pdf")).thenReturn(new ByteArrayInputStream("pdf".getBytes()));
+
+        ProntuarioService.ArquivoProntuario arquivo = prontuarioService.abrirArquivo(id);
+
+        assertThat(arquivo.nomeArquivo()).isEqualTo("exame.pdf");
+        assertThat(arquivo.contentType()).isEqualTo("application/pdf");
+        assertThat(arquivo.conteudo().readAllBytes()).isEqualTo("pdf".getBytes());
+    }
+
+    @Test
+    @DisplayName("Documento pendente de envio ainda não pode ser baixado")
+    void abrirArquivo_Pendente() {
+        UUID id = UUID.randomUUID();
+        Prontuario p = Prontuario.builder()
+                .id(id)
+                .paciente(paciente)
+                .storagePath("caminho/exame.pdf")
+                .status(StatusProntuario.PENDENTE)
+                .build();
+        when(prontuarioRepository.findById(id)).thenReturn(Optional.of(p));
+
+        assertThatThrownBy(() -> prontuarioService.abrirArquivo(id))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("ainda não está disponível");
+        verifyNoInteractions(documentoCache);
+    }
+
     // --- GetById ---
 
     @Test
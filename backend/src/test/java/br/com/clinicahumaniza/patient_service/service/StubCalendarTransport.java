@@ -0,0 +1,162 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.calendar.Calendar;
+
+/**
+ * Transporte HTTP falso da API do Google Calendar, para testar a sincronização sem rede.
+ *
+ * Guarda os eventos em memória, por agenda, e atende tanto chamadas individuais quanto
+ * requisições em lote (multipart/mixed), na ordem das partes — como o Google. Conta
+ * requisições HTTP e operações, e pode simular o limite de uso: a partir de
+ * {@link #limitarOperacoesPorRequisicao} operações na mesma requisição, as demais recebem 429.
+ */
+class StubCalendarTransport extends HttpTransport {
+
+    private static final Pattern EVENTOS = Pattern.compile("/calendar/v3/calendars/([^/]+)/events(?:/([^/?]+))?");
+    private static final String FRONTEIRA = "batch_stub";
+
+    private final Map<String, Map<String, String>> agendas = new ConcurrentHashMap<>();
+    private final AtomicInteger requisicoes = new AtomicInteger();
+    private final AtomicInteger operacoes = new AtomicInteger();
+    private final AtomicLong sequencia = new AtomicLong();
+    private volatile int limitePorRequisicao = Integer.MAX_VALUE;
+
+    Calendar calendar() {
+        return new Calendar.Builder(this, GsonFactory.getDefaultInstance(), null)
+                .setApplicationName("stub")
+                .build();
+    }
+
+    void limitarOperacoesPorRequisicao(int limite) {
+        this.limitePorRequisicao = limite;
+    }
+
+    /** Cria um evento direto na agenda, como se viesse de fora da aplicação. */
+    String criarEvento(String calendarId) {
+        String id = "evt-" + sequencia.incrementAndGet();
+        agendas.computeIfAbsent(calendarId, c -> new ConcurrentHashMap<>()).put(id, "{}");
+        return id;
+    }
+
+    Map<String, String> eventos(String calendarId) {
+        return agendas.getOrDefault(calendarId, Map.of());
+    }
+
+    int requisicoes() {
+        return requisicoes.get();
+    }
+
+    int operacoes() {
+        return operacoes.get();
+    }
+
+    @Override
+    protected LowLevelHttpRequest buildRequest(String method, String url) {
+        return new MockLowLevelHttpRequest(url) {
+            @Override
+            public LowLevelHttpResponse execute() throws IOException {
+                requisicoes.incrementAndGet();
+                if (url.contains("/batch/")) {
+                    return lote(getContentType(), getContentAsString());
+                }
+                Resposta resposta = operar(method, url, getContentAsString(), 0);
+                return new MockLowLevelHttpResponse()
+                        .setStatusCode(resposta.status())
+                        .setContentType("application/json; charset=UTF-8")
+                        .setContent(resposta.corpo());
+            }
+        };
+    }
+
+    private LowLevelHttpResponse lote(String contentType, String corpo) {
+        String fronteira = "--" + contentType.substring(contentType.indexOf("boundary=") + 9);
+        StringBuilder resposta = new StringBuilder();
+        int posicao = 0;
+        for (String parte : corpo.split(Pattern.quote(fronteira))) {
+            int inicioRequisicao = parte.indexOf("\r\n\r\n");
+            if (inicioRequisicao < 0) continue; // preâmbulo e "--" final
+            String requisicao = parte.substring(inicioRequisicao + 4);
+            String[] linhaInicial =
+                    requisicao.substring(0, requisicao.indexOf("\r\n")).split(" ");
+            int inicioCorpo = requisicao.indexOf("\r\n\r\n");
+            String corpoParte =
+                    inicioCorpo < 0 ? "" : requisicao.substring(inicioCorpo + 4).trim();
+
+            Resposta r = operar(linhaInicial[0], linhaInicial[1], corpoParte, posicao++);
+            byte[] bytes = r.corpo().getBytes(StandardCharsets.UTF_8);
+            resposta.append("--")
+                    .append(FRONTEIRA)
+                    .append("\r\nContent-Type: application/http\r\n\r\n")
+                    .append("HTTP/1.1 ")
+                    .append(r.status())
+                    .append(" STUB\r\n")
+                    .append("Content-Type: application/json; charset=UTF-8\r\n")
+                    .append("Content-Length: ")
+                    .append(bytes.length)
+                    .append("\r\n\r\n")
+                    .append(r.corpo())
+                    .append("\r\n");
+        }
+        resposta.append("--").append(FRONTEIRA).append("--\r\n");
+        return new MockLowLevelHttpResponse()
+                .setStatusCode(200)
+                .setContentType("multipart/mixed; boundary=" + FRONTEIRA)
+                .setContent(resposta.toString());
+    }
+
+    private Resposta operar(String metodo, String url, String corpo, int posicaoNaRequisicao) {
+        operacoes.incrementAndGet();
+        if (posicaoNaRequisicao >= limitePorRequisicao) {
+            return erro(429, "rateLimitExceeded");
+        }
+        Matcher m = EVENTOS.matcher(url);
+        if (!m.find()) return erro(400, "badRequest");
+        String calendarId = URLDecoder.decode(m.group(1), StandardCharsets.UTF_8);
+        String eventId = m.group(2);
+        Map<String, String> eventos = agendas.computeIfAbsent(calendarId, c -> new ConcurrentHashMap<>());
+
+        switch (metodo) {
+            case "POST" -> {
+                String id = "evt-" + sequencia.incrementAndGet();
+                eventos.put(id, corpo);
+                return new Resposta(200, "{\"id\":\"" + id + "\"}");
+            }
+            case "PUT" -> {
+                if (eventos.replace(eventId, corpo) == null) return erro(404, "notFound");
+                return new Resposta(200, "{\"id\":\"" + eventId + "\"}");
+            }
+            case "DELETE" -> {
+                if (eventos.remove(eventId) == null) return erro(410, "deleted");
+                return new Resposta(204, "");
+            }
+            default -> {
+                return erro(405, "methodNotAllowed");
+            }
+        }
+    }
+
+    private static Resposta erro(int status, String motivo) {
+        return new Resposta(
+                status,
+                "{\"error\":{\"code\":" + status + ",\"message\":\"" + motivo + "\",\"errors\":[{\"reason\":\"" + motivo
+                        + "\"}]}}");
+    }
+
+    private record Resposta(int status, String corpo) {}
+}
@@ -0,0 +1,228 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Upload contra um Storage local (HttpServer do JDK) que recebe o corpo em streaming e
+ * calcula o SHA-256 do que chegou, no lugar do Supabase.
+ */
+class SupabaseStorageServiceTest {
+
+    private static final int MB = 1024 * 1024;
+
+    private HttpServer storage;
+    private ExecutorService executor;
+    private final Map<String, Recebido> recebidos = new ConcurrentHashMap<>();
+
+    // Quando setados, o Storage lê só o começo de cada corpo e espera a liberação.
+    private volatile CountDownLatch pausados;
+    private volatile CountDownLatch liberar;
+
+    private SupabaseStorageService storageService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        storage.createContext("/storage/v1/object/prontuarios/", this::receber);
+        storage.setExecutor(Executors.newCachedThreadPool());
+        storage.start();
+        executor = Executors.newFixedThreadPool(4);
+
+        storageService = new SupabaseStorageService();
+        ReflectionTestUtils.setField(
+                storageService,
+                "supabaseUrl",
+                "http://127.0.0.1:" + storage.getAddress().getPort());
+        ReflectionTestUtils.setField(storageService, "supabaseServiceKey", "chave-teste");
+        ReflectionTestUtils.setField(storageService, "bucket", "prontuarios");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (liberar != null) liberar.countDown();
+        executor.shutdownNow();
+        storage.stop(0);
+    }
+
+    @Test
+    @DisplayName("Envia em chunked, sem getBytes, e devolve tamanho e SHA-256 do que chegou ao Storage")
+    void upload_StreamingComChecksum() throws Exception {
+        ArquivoGerado arquivo = new ArquivoGerado("exame.pdf", 3 * MB + 17);
+
+        DocumentStorage.ArquivoEnviado enviado = storageService.upload(UUID.randomUUID(), arquivo);
+
+        Recebido r = recebidos.get(enviado.storagePath());
+        assertThat(r.chunked()).isTrue();
+        assertThat(r.contentType()).isEqualTo("application/pdf");
+        assertThat(enviado.tamanhoBytes()).isEqualTo(arquivo.getSize()).isEqualTo(r.bytes());
+        assertThat(enviado.sha256()).isEqualTo(r.sha256());
+    }
+
+    @Test
+    @DisplayName("Uploads concorrentes não leem o arquivo além do que a rede já levou (memória constante)")
+    void upload_ConcorrenteSemBufferizar() throws Exception {
+        int uploads = 4;
+        long tamanho = 64L * MB;
+        pausados = new CountDownLatch(uploads);
+        liberar = new CountDownLatch(1);
+
+        List<ArquivoGerado> arquivos = new ArrayList<>();
+        List<Future<DocumentStorage.ArquivoEnviado>> futuros = new ArrayList<>();
+        for (int i = 0; i < uploads; i++) {
+            ArquivoGerado arquivo = new ArquivoGerado("arquivo" + i + ".pdf", tamanho);
+            arquivos.add(arquivo);
+            futuros.add(executor.submit(() -> storageService.upload(UUID.randomUUID(), arquivo)));
+        }
+
+        // Todos os uploads em andamento, com o Storage parado depois do primeiro MB de cada um:
+        // o que saiu do arquivo fica limitado aos buffers de rede, não ao tamanho do arquivo.
+        assertThat(pausados.await(30, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(500);
+        for (ArquivoGerado arquivo : arquivos) {
+            assertThat(arquivo.lidos()).isLessThan(tamanho / 4);
+        }
+
+        liberar.countDown();
+        for (Future<DocumentStorage.ArquivoEnviado> futuro : futuros) {
+            DocumentStorage.ArquivoEnviado enviado = futuro.get(60, TimeUnit.SECONDS);
+            Recebido r = recebidos.get(enviado.storagePath());
+            assertThat(r.bytes()).isEqualTo(tamanho);
+            assertThat(enviado.sha256()).isEqualTo(r.sha256());
+        }
+    }
+
+    @Test
+    @DisplayName("Rejeição do Storage vira IOException com o status")
+    void upload_Rejeitado() {
+        storage.removeContext("/storage/v1/object/prontuarios/");
+        storage.createContext("/storage/v1/object/prontuarios/", exchange -> {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            byte[] erro = "{\"error\":\"Payload too large\"}".getBytes();
+            exchange.sendResponseHeaders(413, erro.length);
+            exchange.getResponseBody().write(erro);
+            exchange.close();
+        });
+
+        assertThatThrownBy(() -> storageService.upload(UUID.randomUUID(), new ArquivoGerado("a.pdf", 1024)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("413");
+    }
+
+    private void receber(HttpExchange exchange) throws IOException {
+        try (InputStream corpo = exchange.getRequestBody()) {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            long total = 0;
+            boolean pausou = false;
+            int n;
+            while ((n = corpo.read(buffer)) != -1) {
+                sha256.update(buffer, 0, n);
+                total += n;
+                if (!pausou && pausados != null && total >= MB) {
+                    pausou = true;
+                    pausados.countDown();
+                    liberar.await(60, TimeUnit.SECONDS);
+                }
+            }
+            String path = exchange.getRequestURI().getPath().substring("/storage/v1/object/prontuarios/".length());
+            recebidos.put(
+                    path,
+                    new Recebido(
+                            total,
+                            HexFormat.of().formatHex(sha256.digest()),
+                            "chunked"
+                                    .equalsIgnoreCase(
+                                            exchange.getRequestHeaders().getFirst("Transfer-Encoding")),
+                            exchange.getRequestHeaders().getFirst("Content-Type")));
+            byte[] ok = "{\"Key\":\"ok\"}".getBytes();
+            exchange.sendResponseHeaders(200, ok.length);
+            exchange.getResponseBody().write(ok);
+        } catch (Exception e) {
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private record Recebido(long bytes, String sha256, boolean chunked, String contentType) {}
+
+    /** Arquivo de conteúdo gerado sob demanda: nunca existe inteiro em memória. */
+    private static final class ArquivoGerado extends MockMultipartFile {
+
+        private final long tamanho;
+        private final AtomicLong lidos = new AtomicLong();
+
+        ArquivoGerado(String nome, long tamanho) {
+            super("file", nome, "application/pdf", new byte[0]);
+            this.tamanho = tamanho;
+        }
+
+        @Override
+        public long getSize() {
+            return tamanho;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new UnsupportedOperationException("upload não deve carregar o arquivo inteiro");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long posicao;
+
+                @Override
+                public int read() {
+                    byte[] um = new byte[1];
+                    return read(um, 0, 1) == -1 ? -1 : um[0] & 0xff;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (posicao >= tamanho) return -1;
+                    int n = (int) Math.min(len, tamanho - posicao);
+                    for (int i = 0; i < n; i++) {
+                        b[off + i] = (byte) ((posicao + i) * 31);
+                    }
+                    posicao += n;
+                    lidos.addAndGet(n);
+                    return n;
+                }
+            };
+        }
+
+        long lidos() {
+            return lidos.get();
+        }
+    }
+}
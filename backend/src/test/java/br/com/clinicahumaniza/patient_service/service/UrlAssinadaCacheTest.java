@@ -0,0 +1,80 @@
+package br.com.clinicahumaniza.patient_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UrlAssinadaCacheTest {
+
+    private final Instant inicio = Instant.parse("2026-03-02T12:00:00Z");
+
+    private DocumentStorage storageService;
+    private Clock clock;
+    private UrlAssinadaCache cache;
+
+    @BeforeEach
+    void setUp() {
+        storageService = mock(DocumentStorage.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(inicio);
+        cache = new UrlAssinadaCache(storageService, clock);
+    }
+
+    @Test
+    @DisplayName("Assina só os paths que faltam, numa chamada, e reaproveita na visualização seguinte")
+    void assinar_ReaproveitaCache() throws IOException {
+        when(storageService.getSignedUrls(List.of("a", "b"))).thenReturn(Map.of("a", "url-a", "b", "url-b"));
+        when(storageService.getSignedUrls(List.of("c"))).thenReturn(Map.of("c", "url-c"));
+
+        assertThat(cache.assinar(List.of("a", "b")).urls()).containsEntry("a", "url-a");
+        UrlAssinadaCache.UrlsAssinadas segunda = cache.assinar(List.of("a", "b", "c"));
+        cache.assinar(List.of("a", "b", "c"));
+
+        assertThat(segunda.urls()).containsOnlyKeys("a", "b", "c");
+        assertThat(segunda.falhas()).isEmpty();
+        verify(storageService, times(2)).getSignedUrls(any());
+    }
+
+    @Test
+    @DisplayName("Assina de novo quando a URL se aproxima da expiração")
+    void assinar_RenovaPertoDeExpirar() throws IOException {
+        when(storageService.getSignedUrls(List.of("a"))).thenReturn(Map.of("a", "url-a"));
+        cache.assinar(List.of("a"));
+
+        Duration quaseExpirando =
+                Duration.ofSeconds(DocumentStorage.EXPIRACAO_URL_SEGUNDOS).minus(UrlAssinadaCache.MARGEM_EXPIRACAO);
+        when(clock.instant()).thenReturn(inicio.plus(quaseExpirando));
+        cache.assinar(List.of("a"));
+
+        verify(storageService, times(2)).getSignedUrls(List.of("a"));
+        assertThat(cache.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Path não assinado ou erro de rede volta como falha, sem URL de fallback")
+    void assinar_ReportaFalhas() throws IOException {
+        when(storageService.getSignedUrls(List.of("a", "sumiu"))).thenReturn(Map.of("a", "url-a"));
+        UrlAssinadaCache.UrlsAssinadas parcial = cache.assinar(List.of("a", "sumiu"));
+        assertThat(parcial.urls()).containsOnlyKeys("a");
+        assertThat(parcial.falhas()).containsExactly("sumiu");
+
+        when(storageService.getSignedUrls(List.of("b"))).thenThrow(new IOException("timeout"));
+        UrlAssinadaCache.UrlsAssinadas erro = cache.assinar(List.of("a", "b"));
+        assertThat(erro.urls()).containsOnlyKeys("a");
+        assertThat(erro.falhas()).containsExactly("b");
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.clinicahumaniza.patient_service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TrigramasTest {
+
+    @Test
+    @DisplayName("de gera trigramas com bordas de palavra, como o pg_trgm")
+    void de() {
+        assertThat(Trigramas.de("Ana")).containsExactlyInAnyOrder("  a", " an", "ana", "na ");
+        assertThat(Trigramas.de("")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("internos ignora bordas e é vazio para tokens curtos")
+    void internos() {
+        assertThat(Trigramas.internos("tania")).containsExactlyInAnyOrder("tan", "ani", "nia");
+        assertThat(Trigramas.internos("an")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("similaridade é 1 para textos iguais e maior para o nome mais próximo do termo")
+    void similaridade() {
+        assertThat(Trigramas.similaridade("Maria", "maria")).isCloseTo(1.0, within(1e-9));
+        assertThat(Trigramas.similaridade("maria", "joao")).isZero();
+        assertThat(Trigramas.similaridade("maria", "maria"))
+                .isGreaterThan(Trigramas.similaridade("ana maria souza", "maria"));
+    }
+}
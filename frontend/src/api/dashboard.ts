@@ -0,0 +1,8 @@
+import { apiClient } from "./client"
+import type { DashboardResumo } from "@/types"
+
+/** Contagens dos cards do dashboard numa única chamada (receita do mês corrente). */
+export async function getDashboardResumo(): Promise<DashboardResumo> {
+  const { data } = await apiClient.get<DashboardResumo>("/api/v1/dashboard/resumo")
+  return data
+}
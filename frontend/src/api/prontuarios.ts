@@ -32,7 +32,7 @@ export async function uploadProntuario(
   return data
 }
 
-export async function getProntuarioUrl(id: string): Promise<string> {
+export async function getProntuarioUrl(id: string): Promise<string | null> {
   const { data } = await apiClient.get<Prontuario>(`/api/v1/prontuarios/${id}`)
   return data.storageUrl
 }
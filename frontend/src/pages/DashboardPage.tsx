@@ -22,11 +22,11 @@ import {
   TableRow,
 } from "@/components/ui/table"
 import { Card, CardContent, CardHeader, CardTitle } from "@/components/ui/card"
-import { getPatients, getAniversariantes } from "@/api/patients"
+import { getAniversariantes } from "@/api/patients"
+import { getDashboardResumo } from "@/api/dashboard"
 import { shortenName } from "@/lib/names"
 import { getAgendamentos } from "@/api/agendamentos"
 import { getPagamentos, getReceita } from "@/api/pagamentos"
-import { getAssinaturas } from "@/api/assinaturas"
 import { useAuthStore } from "@/store/authStore"
 import type { StatusAgendamento, Pagamento } from "@/types"
 
@@ -148,39 +148,24 @@ export function DashboardPage() {
     return { receitaInicio: inicio, receitaFim: fim }
   }, [selectedMonth])
 
-  const { data: patientsData, isLoading: loadingPatients } = useQuery({
-    queryKey: ["patients-count"],
-    queryFn: () => getPatients({ size: 1 }),
-  })
-
-  const { data: agendamentosHoje, isLoading: loadingAgendamentosHoje } = useQuery({
-    queryKey: ["agendamentos-hoje"],
-    queryFn: () => getAgendamentos({ dataInicio: today, dataFim: today, size: 1 }),
-  })
-
-  // "Em aberto" = PENDENTE + PARCIALMENTE_PAGO. Um pagamento parcelado vira
-  // PARCIALMENTE_PAGO assim que a 1ª parcela é paga, mas ainda tem parcelas a
-  // receber — então também conta como pendente.
-  const { data: pagamentosPendentes, isLoading: loadingPagPendentes } = useQuery({
-    queryKey: ["pagamentos-pendentes-count"],
-    queryFn: () => getPagamentos({ statusIn: ["PENDENTE", "PARCIALMENTE_PAGO"], size: 1 }),
-    enabled: !isProfissional,
+  // Cards numa única chamada, servida pelos contadores em memória do backend.
+  // "Em aberto" = PENDENTE + PARCIALMENTE_PAGO; a receita vem do mês corrente.
+  const { data: resumo, isLoading: loadingResumo } = useQuery({
+    queryKey: ["dashboard-resumo"],
+    queryFn: getDashboardResumo,
   })
 
   // Receita do mês = soma das PARCELAS PAGAS cuja dataPagamento cai no mês.
   // Reflete o regime de CAIXA — dinheiro efetivamente recebido — e inclui
   // pagamentos parcialmente pagos (ex: 1ª parcela de 2x já entrou no mês).
-  const { data: receitaMesValor, isLoading: loadingReceitaMes } = useQuery({
+  // O mês corrente já vem no resumo; meses anteriores consultam a soma.
+  const mesCorrente = selectedMonth === format(new Date(), "yyyy-MM")
+  const { data: receitaMesValor, isLoading: loadingReceitaOutroMes } = useQuery({
     queryKey: ["receita-mes", receitaInicio, receitaFim],
     queryFn: () => getReceita(receitaInicio, receitaFim),
-    enabled: !isProfissional,
-  })
-
-  const { data: assinaturasAtivas, isLoading: loadingAssinaturas } = useQuery({
-    queryKey: ["assinaturas-ativas-count"],
-    queryFn: () => getAssinaturas({ status: "ATIVO", size: 1 }),
-    enabled: !isProfissional,
+    enabled: !isProfissional && !mesCorrente,
   })
+  const loadingReceitaMes = mesCorrente ? loadingResumo : loadingReceitaOutroMes
 
   const { data: proximosAgendamentos, isLoading: loadingProximos } = useQuery({
     queryKey: ["proximos-agendamentos"],
@@ -210,7 +195,7 @@ export function DashboardPage() {
       .slice(0, 5)
   }, [pagamentosPendentesLista])
 
-  const receitaMes = receitaMesValor ?? 0
+  const receitaMes = (mesCorrente ? resumo?.receitaMes : receitaMesValor) ?? 0
 
   // Mês escolhido no card de aniversariantes (1-12). Começa no mês atual.
   const [aniversariantesMes, setAniversariantesMes] = useState(() => new Date().getMonth() + 1)
@@ -236,33 +221,33 @@ export function DashboardPage() {
       <div className={`grid grid-cols-1 gap-4 sm:grid-cols-2 ${isProfissional ? "lg:grid-cols-2" : "lg:grid-cols-5"}`}>
         <StatCard
           title="Pacientes Ativos"
-          value={patientsData?.totalElements}
+          value={resumo?.pacientesAtivos}
           icon={Users}
-          isLoading={loadingPatients}
+          isLoading={loadingResumo}
           accent="sage"
         />
         <StatCard
           title="Agendamentos Hoje"
-          value={agendamentosHoje?.totalElements}
+          value={resumo?.agendamentosHoje}
           icon={Calendar}
-          isLoading={loadingAgendamentosHoje}
+          isLoading={loadingResumo}
           accent="blue"
         />
         {!isProfissional && (
           <StatCard
             title="Assinaturas Ativas"
-            value={assinaturasAtivas?.totalElements}
+            value={resumo?.assinaturasAtivas ?? undefined}
             icon={Star}
-            isLoading={loadingAssinaturas}
+            isLoading={loadingResumo}
             accent="sage"
           />
         )}
         {!isProfissional && (
           <StatCard
             title="Pgtos Pendentes"
-            value={pagamentosPendentes?.totalElements}
+            value={resumo?.pagamentosEmAberto ?? undefined}
             icon={CreditCard}
-            isLoading={loadingPagPendentes}
+            isLoading={loadingResumo}
             accent="earth"
           />
         )}
@@ -111,6 +111,12 @@ export function PacienteResumoPage() {
     queryKey: ["prontuarios", id],
     queryFn: () => getProntuarios(id!, { size: 50 }),
     enabled: !!id,
+    // Upload assíncrono: enquanto houver documento subindo (ou miniatura sendo gerada),
+    // acompanha até ficar pronto
+    refetchInterval: (query) =>
+      query.state.data?.content.some((p) => p.status === "PENDENTE" || p.previewStatus === "PENDENTE")
+        ? 3000
+        : false,
   })
 
   const uploadMutation = useMutation({
@@ -118,10 +124,15 @@ export function PacienteResumoPage() {
       tipo: uploadTipo,
       descricao: uploadDescricao || undefined,
     }),
-    onSuccess: () => {
+    onSuccess: (doc) => {
       queryClient.invalidateQueries({ queryKey: ["prontuarios", id] })
       const label = tipoDocumentoConfig[uploadTipo].singular
-      toast({ title: `${label} anexado`, description: "O arquivo foi enviado com sucesso." })
+      toast({
+        title: `${label} anexado`,
+        description: doc.status === "PENDENTE"
+          ? "O arquivo foi recebido e está sendo enviado em segundo plano."
+          : "O arquivo foi enviado com sucesso.",
+      })
       setActiveTipo(uploadTipo)
       setUploadOpen(false)
       setUploadTitulo("")
@@ -445,7 +456,16 @@ export function PacienteResumoPage() {
                 const Icon = tipoDocumentoConfig[p.tipo ?? "PRONTUARIO"].icon
                 return (
                   <div key={p.id} className="flex items-center gap-3 p-3 rounded-lg border border-border/40 hover:bg-muted/20">
-                    <Icon className="h-6 w-6 sm:h-8 sm:w-8 text-primary/60 shrink-0" />
+                    {p.previewUrl ? (
+                      <img
+                        src={p.previewUrl}
+                        alt=""
+                        loading="lazy"
+                        className="h-10 w-10 sm:h-12 sm:w-12 rounded object-cover border border-border/40 shrink-0"
+                      />
+                    ) : (
+                      <Icon className="h-6 w-6 sm:h-8 sm:w-8 text-primary/60 shrink-0" />
+                    )}
                     <div className="flex-1 min-w-0">
                       <p className="text-sm font-semibold font-primary truncate">{p.titulo}</p>
                       <p className="text-xs text-muted-foreground font-secondary">
@@ -455,11 +475,29 @@ export function PacienteResumoPage() {
                         <p className="text-xs text-muted-foreground font-secondary mt-0.5">{p.descricao}</p>
                       )}
                     </div>
-                    <a href={p.storageUrl} target="_blank" rel="noopener noreferrer">
-                      <Button variant="ghost" size="icon" className="h-8 w-8">
+                    {p.status === "PENDENTE" && (
+                      <Badge variant="secondary" className="shrink-0">Enviando…</Badge>
+                    )}
+                    {p.status === "FALHA" && (
+                      <Badge variant="destructive" className="shrink-0">Falha no envio</Badge>
+                    )}
+                    {p.storageUrl ? (
+                      <a href={p.storageUrl} target="_blank" rel="noopener noreferrer">
+                        <Button variant="ghost" size="icon" className="h-8 w-8">
+                          <ExternalLink className="h-4 w-4" />
+                        </Button>
+                      </a>
+                    ) : (
+                      <Button
+                        variant="ghost"
+                        size="icon"
+                        className="h-8 w-8"
+                        disabled
+                        title="Link indisponível no momento — tente novamente"
+                      >
                         <ExternalLink className="h-4 w-4" />
                       </Button>
-                    </a>
+                    )}
                     <Button
                       variant="ghost"
                       size="icon"
@@ -52,6 +52,8 @@ export interface Aniversariante {
 
 export type TipoDocumento = "PRONTUARIO" | "TERMO" | "NOTA_FISCAL"
 
+export type StatusProntuario = "PENDENTE" | "PRONTO" | "FALHA"
+
 export interface Prontuario {
   id: string
   pacienteId: string
@@ -62,8 +64,17 @@ export interface Prontuario {
   nomeArquivo: string
   tipoArquivo: string
   tamanhoBytes: number
+  /** SHA-256 (hex) do arquivo enviado; nulo em documentos antigos. */
+  checksumSha256?: string | null
   storagePath: string
-  storageUrl: string
+  storageUrl: string | null
+  /** O Storage não assinou a URL nesta leitura; o link volta numa próxima tentativa. */
+  urlIndisponivel?: boolean
+  /** PENDENTE enquanto o arquivo sobe ao Storage em segundo plano; FALHA se o envio desistiu. */
+  status?: StatusProntuario
+  /** Miniatura JPEG (poucos KB) para a listagem; nula até ser gerada ou se o tipo não tem preview. */
+  previewUrl?: string | null
+  previewStatus?: "PENDENTE" | "PRONTO" | "INDISPONIVEL" | null
   uploadedBy: string
   createdAt: string
 }
@@ -214,3 +225,13 @@ export interface HorarioDisponivel {
   ativo: boolean
   createdAt: string
 }
+
+// ── Dashboard ─────────────────────────────────────────────────────────────────
+/** Cards do dashboard. Os campos financeiros vêm nulos para o perfil profissional. */
+export interface DashboardResumo {
+  pacientesAtivos: number
+  agendamentosHoje: number
+  pagamentosEmAberto: number | null
+  assinaturasAtivas: number | null
+  receitaMes: number | null
+}
@@ -0,0 +1,10 @@
+-- migration-assinatura-versao.sql
+-- Coluna de versão (lock otimista) das assinaturas. O contador de sessões passa a ser
+-- alterado por UPDATE atômico (AssinaturaSessoesRepository), que sobe a versão quando o
+-- status muda; edições pelo JPA com uma cópia anterior recebem conflito em vez de
+-- sobrescrever o status.
+-- Rode antes do deploy: linhas existentes precisam começar com versão 0, não NULL.
+-- Seguro rodar múltiplas vezes (IF NOT EXISTS).
+
+ALTER TABLE assinaturas
+    ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,16 @@
+-- migration-busca-nome-trigrama.sql
+-- Busca de pacientes por nome indexada. Os filtros de nome (pacientes, agendamentos,
+-- assinaturas, pagamentos) fazem um LIKE '%token%' por palavra em nome_normalizado; com o
+-- índice GIN de trigramas o Postgres resolve esses LIKE pelo índice em vez de varrer a
+-- tabela, e a função similarity() ordena por relevância (sort=relevancia).
+-- Os índices de paciente_id servem o join das listagens filtradas por nome.
+-- Seguro rodar múltiplas vezes (IF NOT EXISTS).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_patients_nome_normalizado_trgm
+    ON patients USING gin (nome_normalizado gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_agendamentos_paciente_id ON agendamentos (paciente_id);
+CREATE INDEX IF NOT EXISTS idx_assinaturas_paciente_id ON assinaturas (paciente_id);
+CREATE INDEX IF NOT EXISTS idx_pagamentos_paciente_id ON pagamentos (paciente_id);
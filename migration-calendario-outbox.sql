@@ -0,0 +1,16 @@
+-- migration-calendario-outbox.sql
+-- Fila de sincronização com o Google Calendar (outbox). Cada alteração de agendamento grava
+-- uma pendência na mesma transação; o dispatcher a consome e reconcilia o evento.
+-- Seguro rodar múltiplas vezes (IF NOT EXISTS).
+
+CREATE TABLE IF NOT EXISTS calendario_outbox (
+    id UUID PRIMARY KEY,
+    agendamento_id UUID NOT NULL,
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    proxima_tentativa_em TIMESTAMP NOT NULL,
+    ultimo_erro TEXT,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_calendario_outbox_proxima_tentativa
+    ON calendario_outbox (proxima_tentativa_em);
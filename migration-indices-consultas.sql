@@ -0,0 +1,86 @@
+-- migration-indices-consultas.sql
+-- Índices no formato das consultas que a aplicação realmente faz. O ddl-auto=update só cria
+-- as PKs e as unique, e toda leitura pelas entidades leva o "ativo = true" do
+-- @SQLRestriction: por isso os índices são parciais (WHERE ativo). As linhas excluídas
+-- (soft delete) ficam fora deles, e eles ficam menores.
+-- A suíte IndicesConsultasExplainTest roda EXPLAIN nas consultas dos repositórios contra
+-- estes índices. Ao mudar uma consulta ou um índice, rode a suíte.
+-- Seguro rodar múltiplas vezes (IF NOT EXISTS).
+
+-- agendamentos ---------------------------------------------------------------
+
+-- Conflito de horário do profissional (findByProfissionalIdAndStatusInAndDataHoraBetween),
+-- agenda do profissional e findByProfissionalId.
+CREATE INDEX IF NOT EXISTS idx_agendamentos_profissional_data
+    ON agendamentos (profissional_id, data_hora) WHERE ativo;
+
+-- Guard de duplicata (existsByPacienteIdAndServicoIdAndDataHoraAndStatusIn e a versão por
+-- período da geração em lote); o prefixo paciente_id serve as listas do paciente.
+CREATE INDEX IF NOT EXISTS idx_agendamentos_paciente_servico_data
+    ON agendamentos (paciente_id, servico_id, data_hora) WHERE ativo;
+
+-- Futuros de uma assinatura / recorrência (cancelamento, suspensão, renovação).
+CREATE INDEX IF NOT EXISTS idx_agendamentos_assinatura_data
+    ON agendamentos (assinatura_id, data_hora) WHERE ativo;
+CREATE INDEX IF NOT EXISTS idx_agendamentos_recorrente_data
+    ON agendamentos (agendamento_recorrente_id, data_hora) WHERE ativo;
+
+-- Reposição já agendada para um cancelado (existsByReposicaoOrigemIdAndStatusIn e a subquery
+-- da listagem). Só reposições têm origem: o índice fica do tamanho delas.
+CREATE INDEX IF NOT EXISTS idx_agendamentos_reposicao_origem
+    ON agendamentos (reposicao_origem_id) WHERE ativo AND reposicao_origem_id IS NOT NULL;
+
+-- Período e ordem das listagens (findByDataHoraBetween, findDoDia, ressincronização do
+-- Google Calendar, listagem paginada e por cursor em (data_hora, id)).
+CREATE INDEX IF NOT EXISTS idx_agendamentos_data_hora
+    ON agendamentos (data_hora, id) WHERE ativo;
+
+-- assinaturas ----------------------------------------------------------------
+
+CREATE INDEX IF NOT EXISTS idx_assinaturas_servico
+    ON assinaturas (servico_id) WHERE ativo;
+
+-- findByStatusIn / findIdsByStatus (jobs de suspensão, vencimento e cobrança).
+CREATE INDEX IF NOT EXISTS idx_assinaturas_status
+    ON assinaturas (status) WHERE ativo;
+
+-- Renovação automática: lotes por keyset em id, só entre as que renovam.
+CREATE INDEX IF NOT EXISTS idx_assinaturas_renovacao
+    ON assinaturas (id, data_vencimento) WHERE ativo AND renovacao_automatica;
+
+-- Ordem da listagem paginada e por cursor.
+CREATE INDEX IF NOT EXISTS idx_assinaturas_created_at
+    ON assinaturas (created_at, id) WHERE ativo;
+
+-- pagamentos -----------------------------------------------------------------
+
+CREATE INDEX IF NOT EXISTS idx_pagamentos_agendamento
+    ON pagamentos (agendamento_id) WHERE ativo;
+
+-- findByDataVencimentoBetween e a idempotência da cobrança recorrente.
+CREATE INDEX IF NOT EXISTS idx_pagamentos_vencimento
+    ON pagamentos (data_vencimento) WHERE ativo;
+
+CREATE INDEX IF NOT EXISTS idx_pagamentos_status
+    ON pagamentos (status) WHERE ativo;
+
+-- Ordem da listagem paginada e por cursor.
+CREATE INDEX IF NOT EXISTS idx_pagamentos_created_at
+    ON pagamentos (created_at, id) WHERE ativo;
+
+-- parcelas -------------------------------------------------------------------
+
+-- Coleção do pagamento (findComParcelasByIdIn).
+CREATE INDEX IF NOT EXISTS idx_parcelas_pagamento
+    ON parcelas (pagamento_id) WHERE ativo;
+
+-- Receita do período: só as pagas entram na soma.
+CREATE INDEX IF NOT EXISTS idx_parcelas_pagas_data
+    ON parcelas (data_pagamento) WHERE ativo AND status = 'PAGO';
+
+-- pagamento_assinaturas ------------------------------------------------------
+
+-- A PK (pagamento_id, assinatura_id) já serve a coleção do pagamento; o caminho inverso
+-- (pagamentos de uma assinatura, idempotência da cobrança) precisa do seu.
+CREATE INDEX IF NOT EXISTS idx_pagamento_assinaturas_assinatura
+    ON pagamento_assinaturas (assinatura_id, pagamento_id);
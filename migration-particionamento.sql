@@ -0,0 +1,135 @@
+-- migration-particionamento.sql
+-- Particionamento mensal por intervalo: agendamentos por data_hora e parcelas por
+-- data_vencimento. As consultas por período (agenda, conflito, receita do mês) só tocam as
+-- partições do período. O histórico antigo (REALIZADO, CANCELADO, soft delete) sai do caminho
+-- quente sem sair do banco: o ParticionamentoService move as partições de mais de
+-- app.particionamento.arquivar-apos-meses para o schema "arquivo", ainda anexadas. Quem lê
+-- pela tabela-mãe (exportarDados, relatórios) continua vendo tudo.
+--
+-- Pré-requisitos e efeitos:
+--  * A PK passa a ser (id, data_hora) / (id, data_vencimento): o Postgres exige a chave de
+--    partição em toda unique. Por isso sai a FK pagamentos.agendamento_id -> agendamentos
+--    (o mapeamento já a declara NO_CONSTRAINT, e o ddl-auto não a recria). É a única FK de
+--    entrada removida: se houver outra apontando para agendamentos ou parcelas (criada à mão,
+--    por exemplo), a migration aborta listando-a, e nada é alterado. Cada FK removida aparece
+--    num NOTICE, e a conferência no fim do script compara pg_constraint antes e depois.
+--  * As FKs de agendamentos/parcelas para as outras tabelas são recriadas pelo ddl-auto=update
+--    na subida seguinte. Os índices voltam rodando de novo migration-indices-consultas.sql e
+--    migration-busca-nome-trigrama.sql depois desta.
+--  * A cópia roda numa transação e trava as duas tabelas: rode em janela de manutenção.
+--
+-- Depois de rodar, habilite app.particionamento.habilitado=true. O job cria as partições dos
+-- próximos meses e arquiva as antigas.
+-- Seguro rodar múltiplas vezes: a conversão só acontece se a tabela ainda não é particionada.
+
+BEGIN;
+
+CREATE SCHEMA IF NOT EXISTS arquivo;
+
+-- Foto das FKs que envolvem as duas tabelas, para a conferência no fim.
+CREATE TEMP TABLE fks_antes ON COMMIT DROP AS
+SELECT conrelid::regclass::text AS origem, confrelid::regclass::text AS destino, conname
+FROM pg_constraint
+WHERE contype = 'f' AND confrelid IN ('public.agendamentos'::regclass, 'public.parcelas'::regclass);
+
+-- Cria a partição do mês de "mes" em public.<tabela>, se ainda não existir em public nem em
+-- arquivo. Linhas desse mês que tenham caído na partição padrão (<tabela>_padrao) são movidas
+-- para a nova antes do ATTACH. Devolve true se criou.
+CREATE OR REPLACE FUNCTION criar_particao_mensal(tabela text, coluna text, mes date)
+RETURNS boolean AS $$
+DECLARE
+    inicio date := date_trunc('month', mes)::date;
+    fim date := (date_trunc('month', mes) + interval '1 month')::date;
+    nome text := format('%s_p%s', tabela, to_char(mes, 'YYYY_MM'));
+BEGIN
+    IF to_regclass(format('public.%I', nome)) IS NOT NULL
+            OR to_regclass(format('arquivo.%I', nome)) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('CREATE TABLE public.%I (LIKE public.%I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+            nome, tabela);
+    IF to_regclass(format('public.%I', tabela || '_padrao')) IS NOT NULL THEN
+        EXECUTE format('WITH movidas AS (DELETE FROM public.%I WHERE %I >= %L AND %I < %L RETURNING *) '
+                || 'INSERT INTO public.%I SELECT * FROM movidas',
+                tabela || '_padrao', coluna, inicio, coluna, fim, nome);
+    END IF;
+    EXECUTE format('ALTER TABLE public.%I ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+            tabela, nome, inicio, fim);
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Troca public.<tabela> por uma tabela particionada por <coluna>, com as partições mensais
+-- dos dados existentes até o mês atual + 12 e uma partição padrão para o que cair fora.
+-- removiveis: FKs de entrada que podem sair, como 'tabela_origem.coluna'. Qualquer outra FK
+-- apontando para <tabela> aborta a conversão.
+CREATE OR REPLACE FUNCTION particionar_por_mes(tabela text, coluna text, removiveis text[])
+RETURNS void AS $$
+DECLARE
+    legado text := tabela || '_legado';
+    fk record;
+    mes date;
+    primeiro date;
+BEGIN
+    IF (SELECT c.relkind FROM pg_class c WHERE c.oid = format('public.%I', tabela)::regclass) = 'p' THEN
+        RETURN;
+    END IF;
+
+    FOR fk IN SELECT c.conrelid::regclass AS origem, c.conname,
+                (SELECT string_agg(a.attname, ',' ORDER BY a.attnum) FROM pg_attribute a
+                    WHERE a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)) AS colunas
+            FROM pg_constraint c
+            WHERE c.contype = 'f' AND c.confrelid = format('public.%I', tabela)::regclass LOOP
+        IF NOT (format('%s.%s', fk.origem, fk.colunas) = ANY (removiveis)) THEN
+            RAISE EXCEPTION 'FK % em %(%) aponta para % e não seria recriada; remova ou recrie à mão',
+                    fk.conname, fk.origem, fk.colunas, tabela;
+        END IF;
+        RAISE NOTICE 'Removendo FK % de %(%) -> %', fk.conname, fk.origem, fk.colunas, tabela;
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.origem, fk.conname);
+    END LOOP;
+
+    EXECUTE format('ALTER TABLE public.%I RENAME TO %I', tabela, legado);
+    EXECUTE format('ALTER INDEX IF EXISTS public.%I RENAME TO %I', tabela || '_pkey', legado || '_pkey');
+    EXECUTE format('CREATE TABLE public.%I (LIKE public.%I INCLUDING DEFAULTS INCLUDING CONSTRAINTS, '
+            || 'PRIMARY KEY (id, %I)) PARTITION BY RANGE (%I)', tabela, legado, coluna, coluna);
+
+    EXECUTE format('SELECT min(%I)::date FROM public.%I', coluna, legado) INTO primeiro;
+    FOR mes IN SELECT generate_series(
+            date_trunc('month', coalesce(primeiro, current_date)),
+            date_trunc('month', current_date) + interval '12 months',
+            interval '1 month')::date LOOP
+        PERFORM criar_particao_mensal(tabela, coluna, mes);
+    END LOOP;
+    EXECUTE format('CREATE TABLE public.%I PARTITION OF public.%I DEFAULT', tabela || '_padrao', tabela);
+
+    EXECUTE format('INSERT INTO public.%I SELECT * FROM public.%I', tabela, legado);
+    EXECUTE format('DROP TABLE public.%I', legado);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT particionar_por_mes('agendamentos', 'data_hora', ARRAY['pagamentos.agendamento_id']);
+SELECT particionar_por_mes('parcelas', 'data_vencimento', ARRAY[]::text[]);
+
+-- Conferência: toda FK de entrada que existia antes continua existindo, exceto a de
+-- pagamentos.agendamento_id. Falha desfaz a transação inteira.
+DO $$
+DECLARE
+    perdidas text;
+BEGIN
+    SELECT string_agg(format('%s.%s -> %s', a.origem, a.conname, a.destino), ', ') INTO perdidas
+    FROM fks_antes a
+    WHERE NOT (a.origem = 'pagamentos' AND a.destino = 'agendamentos')
+      AND NOT EXISTS (SELECT 1 FROM pg_constraint c
+              WHERE c.contype = 'f' AND c.conname = a.conname AND c.conrelid::regclass::text = a.origem);
+    IF perdidas IS NOT NULL THEN
+        RAISE EXCEPTION 'FKs removidas pela migration: %', perdidas;
+    END IF;
+END;
+$$;
+
+COMMIT;
+
+-- Verificacao: FKs que apontam para as tabelas particionadas (esperado: nenhuma)
+SELECT conrelid::regclass AS origem, conname, confrelid::regclass AS destino
+FROM pg_constraint
+WHERE contype = 'f' AND confrelid IN ('public.agendamentos'::regclass, 'public.parcelas'::regclass);
@@ -0,0 +1,11 @@
+-- migration-prontuario-busca.sql
+-- Busca textual dos prontuários (índice Lucene em disco local).
+-- indexado_em nulo = falta indexar: o worker indexa os existentes na primeira subida.
+-- Seguro rodar múltiplas vezes (IF NOT EXISTS).
+
+ALTER TABLE prontuarios ADD COLUMN IF NOT EXISTS indexado_em TIMESTAMP;
+
+-- Fila do worker: só os que ainda não entraram no índice
+CREATE INDEX IF NOT EXISTS idx_prontuarios_a_indexar
+    ON prontuarios (created_at DESC)
+    WHERE indexado_em IS NULL;
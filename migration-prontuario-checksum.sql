@@ -0,0 +1,6 @@
+-- migration-prontuario-checksum.sql
+-- SHA-256 do arquivo enviado ao Storage, calculado em streaming durante o upload.
+-- Prontuários antigos ficam com NULL. Seguro rodar múltiplas vezes (IF NOT EXISTS).
+
+ALTER TABLE prontuarios
+    ADD COLUMN IF NOT EXISTS checksum_sha256 VARCHAR(64);
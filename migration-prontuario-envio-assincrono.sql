@@ -0,0 +1,17 @@
+-- migration-prontuario-envio-assincrono.sql
+-- Upload assíncrono de prontuários: o registro nasce PENDENTE e um worker envia o arquivo
+-- ao Storage com retry. Prontuários existentes já estão no Storage, então ficam PRONTO.
+-- Seguro rodar múltiplas vezes (IF NOT EXISTS).
+
+ALTER TABLE prontuarios ADD COLUMN IF NOT EXISTS status VARCHAR(20);
+ALTER TABLE prontuarios ADD COLUMN IF NOT EXISTS spool_path TEXT;
+ALTER TABLE prontuarios ADD COLUMN IF NOT EXISTS tentativas_envio INTEGER;
+ALTER TABLE prontuarios ADD COLUMN IF NOT EXISTS proxima_tentativa_em TIMESTAMP;
+ALTER TABLE prontuarios ADD COLUMN IF NOT EXISTS ultimo_erro TEXT;
+
+UPDATE prontuarios SET status = 'PRONTO' WHERE status IS NULL;
+
+-- Fila do worker: só os pendentes interessam
+CREATE INDEX IF NOT EXISTS idx_prontuarios_pendentes
+    ON prontuarios (proxima_tentativa_em)
+    WHERE status = 'PENDENTE';
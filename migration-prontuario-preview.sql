@@ -0,0 +1,13 @@
+-- migration-prontuario-preview.sql
+-- Miniaturas dos prontuários (JPEG ao lado do original no Storage).
+-- preview_status nulo = registro anterior às miniaturas: o backfill do worker gera para eles.
+-- Seguro rodar múltiplas vezes (IF NOT EXISTS).
+
+ALTER TABLE prontuarios ADD COLUMN IF NOT EXISTS preview_path TEXT;
+ALTER TABLE prontuarios ADD COLUMN IF NOT EXISTS preview_status VARCHAR(20);
+ALTER TABLE prontuarios ADD COLUMN IF NOT EXISTS preview_tentativas INTEGER;
+
+-- Fila do worker: só os que ainda não têm miniatura resolvida
+CREATE INDEX IF NOT EXISTS idx_prontuarios_preview_a_gerar
+    ON prontuarios (created_at DESC)
+    WHERE preview_status IS NULL OR preview_status = 'PENDENTE';